@@ -50,6 +50,16 @@ public class RuntimeOptions {
               INTERPRETER_SEQUENTIAL_COMMAND_EXECUTION)
           .build();
 
+  public static final String INTERPRETER_EXPRESSION_UPDATES_BATCH_SIZE =
+      interpreterOptionName("expressionUpdatesBatchSize");
+  public static final OptionKey<Integer> INTERPRETER_EXPRESSION_UPDATES_BATCH_SIZE_KEY =
+      new OptionKey<>(500);
+  public static final OptionDescriptor INTERPRETER_EXPRESSION_UPDATES_BATCH_SIZE_DESCRIPTOR =
+      OptionDescriptor.newBuilder(
+              INTERPRETER_EXPRESSION_UPDATES_BATCH_SIZE_KEY,
+              INTERPRETER_EXPRESSION_UPDATES_BATCH_SIZE)
+          .build();
+
   public static final String ENABLE_PROJECT_SUGGESTIONS = optionName("enableProjectSuggestions");
   public static final OptionKey<Boolean> ENABLE_PROJECT_SUGGESTIONS_KEY = new OptionKey<>(true);
   private static final OptionDescriptor ENABLE_PROJECT_SUGGESTIONS_DESCRIPTOR =
@@ -91,6 +101,24 @@ public class RuntimeOptions {
       OptionDescriptor.newBuilder(USE_GLOBAL_IR_CACHE_LOCATION_KEY, USE_GLOBAL_IR_CACHE_LOCATION)
           .build();
 
+  public static final String ENABLE_PERSISTENT_VALUE_CACHE =
+      optionName("enablePersistentValueCache");
+  public static final OptionKey<Boolean> ENABLE_PERSISTENT_VALUE_CACHE_KEY =
+      new OptionKey<>(false);
+  private static final OptionDescriptor ENABLE_PERSISTENT_VALUE_CACHE_DESCRIPTOR =
+      OptionDescriptor.newBuilder(ENABLE_PERSISTENT_VALUE_CACHE_KEY, ENABLE_PERSISTENT_VALUE_CACHE)
+          .build();
+
+  public static final String PERSISTENT_VALUE_CACHE_MIN_COMPUTATION_TIME =
+      optionName("persistentValueCacheMinComputationTime");
+  public static final OptionKey<Long> PERSISTENT_VALUE_CACHE_MIN_COMPUTATION_TIME_KEY =
+      new OptionKey<>(100L);
+  private static final OptionDescriptor PERSISTENT_VALUE_CACHE_MIN_COMPUTATION_TIME_DESCRIPTOR =
+      OptionDescriptor.newBuilder(
+              PERSISTENT_VALUE_CACHE_MIN_COMPUTATION_TIME_KEY,
+              PERSISTENT_VALUE_CACHE_MIN_COMPUTATION_TIME)
+          .build();
+
   public static final OptionDescriptors OPTION_DESCRIPTORS =
       OptionDescriptors.create(
           Arrays.asList(
@@ -105,9 +133,12 @@ public class RuntimeOptions {
               LANGUAGE_HOME_OVERRIDE_DESCRIPTOR,
               EDITION_OVERRIDE_DESCRIPTOR,
               INTERPRETER_SEQUENTIAL_COMMAND_EXECUTION_DESCRIPTOR,
+              INTERPRETER_EXPRESSION_UPDATES_BATCH_SIZE_DESCRIPTOR,
               DISABLE_IR_CACHES_DESCRIPTOR,
               WAIT_FOR_PENDING_SERIALIZATION_JOBS_DESCRIPTOR,
-              USE_GLOBAL_IR_CACHE_LOCATION_DESCRIPTOR));
+              USE_GLOBAL_IR_CACHE_LOCATION_DESCRIPTOR,
+              ENABLE_PERSISTENT_VALUE_CACHE_DESCRIPTOR,
+              PERSISTENT_VALUE_CACHE_MIN_COMPUTATION_TIME_DESCRIPTOR));
 
   /**
    * Canonicalizes the option name by prefixing it with the language name.
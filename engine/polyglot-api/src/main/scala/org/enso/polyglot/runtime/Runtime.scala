@@ -77,6 +77,30 @@ object Runtime {
         value = classOf[Api.RecomputeContextResponse],
         name  = "recomputeContextResponse"
       ),
+      new JsonSubTypes.Type(
+        value = classOf[Api.GetCacheMetricsRequest],
+        name  = "getCacheMetricsRequest"
+      ),
+      new JsonSubTypes.Type(
+        value = classOf[Api.GetCacheMetricsResponse],
+        name  = "getCacheMetricsResponse"
+      ),
+      new JsonSubTypes.Type(
+        value = classOf[Api.SetProfilingRequest],
+        name  = "setProfilingRequest"
+      ),
+      new JsonSubTypes.Type(
+        value = classOf[Api.SetProfilingResponse],
+        name  = "setProfilingResponse"
+      ),
+      new JsonSubTypes.Type(
+        value = classOf[Api.GetProfileRequest],
+        name  = "getProfileRequest"
+      ),
+      new JsonSubTypes.Type(
+        value = classOf[Api.GetProfileResponse],
+        name  = "getProfileResponse"
+      ),
       new JsonSubTypes.Type(
         value = classOf[Api.GetComponentGroupsRequest],
         name  = "getComponentGroupsRequest"
@@ -1097,6 +1121,109 @@ object Runtime {
     final case class RecomputeContextResponse(contextId: ContextId)
         extends ApiResponse
 
+    /** The statistics of the caches of an execution context.
+      *
+      * @param entries the number of cached values
+      * @param estimatedSize the estimated size of the cached values in bytes
+      * @param hits the number of lookups that found a cached value
+      * @param misses the number of lookups of cacheable expressions that did
+      * not find a cached value
+      * @param evictions the number of values evicted to keep the caches within
+      * their bounds
+      */
+    case class CacheMetrics(
+      entries: Int,
+      estimatedSize: Long,
+      hits: Long,
+      misses: Long,
+      evictions: Long
+    )
+
+    /** A request sent from the client to the runtime server to get the
+      * statistics of the caches of an execution context.
+      *
+      * @param contextId the context's id.
+      */
+    final case class GetCacheMetricsRequest(contextId: ContextId)
+        extends ApiRequest
+
+    /** A response sent from the server upon handling the
+      * [[GetCacheMetricsRequest]].
+      *
+      * @param contextId the context's id.
+      * @param metrics the statistics summed over the frames of the stack
+      */
+    final case class GetCacheMetricsResponse(
+      contextId: ContextId,
+      metrics: CacheMetrics
+    ) extends ApiResponse
+
+    /** The number of profiler samples of an expression.
+      *
+      * @param expressionId the expression id
+      * @param method the qualified name of the method containing the
+      * expression
+      * @param selfSamples the number of samples in which the expression was
+      * executing the innermost frame
+      * @param totalSamples the number of samples in which the expression was
+      * on the stack
+      */
+    case class ProfiledExpression(
+      expressionId: ExpressionId,
+      method: String,
+      selfSamples: Long,
+      totalSamples: Long
+    )
+
+    /** The samples collected by the profiler of an execution context.
+      *
+      * @param samplingInterval the time between the samples in milliseconds
+      * @param samples the number of samples
+      * @param collapsedStacks the samples in the collapsed stacks format of
+      * the flame graph tools
+      * @param expressions the number of samples per expression
+      */
+    case class Profile(
+      samplingInterval: Long,
+      samples: Long,
+      collapsedStacks: String,
+      expressions: Vector[ProfiledExpression]
+    )
+
+    /** A request sent from the client to the runtime server to enable or
+      * disable the sampling profiler of an execution context. Enabling the
+      * profiler discards the previously collected samples.
+      *
+      * @param contextId the context's id.
+      * @param enabled whether the profiler should sample the execution
+      */
+    final case class SetProfilingRequest(contextId: ContextId, enabled: Boolean)
+        extends ApiRequest
+
+    /** A response sent from the server upon handling the
+      * [[SetProfilingRequest]].
+      *
+      * @param contextId the context's id.
+      */
+    final case class SetProfilingResponse(contextId: ContextId)
+        extends ApiResponse
+
+    /** A request sent from the client to the runtime server to get the
+      * samples collected by the profiler of an execution context.
+      *
+      * @param contextId the context's id.
+      */
+    final case class GetProfileRequest(contextId: ContextId) extends ApiRequest
+
+    /** A response sent from the server upon handling the
+      * [[GetProfileRequest]].
+      *
+      * @param contextId the context's id.
+      * @param profile the collected samples
+      */
+    final case class GetProfileResponse(contextId: ContextId, profile: Profile)
+        extends ApiResponse
+
     /** A request sent from the client to the runtime server to get the
       * component groups loaded in runtime.
       */
@@ -199,7 +199,7 @@ public class IdExecutionInstrument extends TruffleInstrument implements IdExecut
         // like imports, and the invalidation mechanism can not always track those changes and
         // appropriately invalidate all dependent expressions.
         if (!isPanic) {
-          cache.offer(nodeId, result);
+          cache.offer(nodeId, result, nanoTimeElapsed);
         }
         cache.putType(nodeId, resultType);
         cache.putCall(nodeId, call);
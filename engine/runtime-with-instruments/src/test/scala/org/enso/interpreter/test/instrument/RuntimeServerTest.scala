@@ -14,8 +14,10 @@ import org.enso.text.editing.model
 import org.enso.text.editing.model.TextEdit
 import org.graalvm.polyglot.Context
 import org.scalatest.BeforeAndAfterEach
+import org.scalatest.concurrent.Eventually
 import org.scalatest.flatspec.AnyFlatSpec
 import org.scalatest.matchers.should.Matchers
+import org.scalatest.time.{Seconds, Span}
 
 import java.io.{ByteArrayOutputStream, File}
 import java.nio.file.{Files, Path, Paths}
@@ -25,7 +27,8 @@ import java.util.UUID
 class RuntimeServerTest
     extends AnyFlatSpec
     with Matchers
-    with BeforeAndAfterEach {
+    with BeforeAndAfterEach
+    with Eventually {
 
   // === Test Timer ===========================================================
 
@@ -37,7 +40,8 @@ class RuntimeServerTest
 
   var context: TestContext = _
 
-  class TestContext(packageName: String) extends InstrumentTestContext {
+  class TestContext(packageName: String, persistentValueCache: Boolean = false)
+      extends InstrumentTestContext {
 
     val tmpDir: Path = Files.createTempDirectory("enso-test-packages")
     sys.addShutdownHook(FileSystem.removeDirectoryIfExists(tmpDir))
@@ -57,8 +61,14 @@ class RuntimeServerTest
         .option(RuntimeOptions.PROJECT_ROOT, pkg.root.getAbsolutePath)
         .option(RuntimeOptions.LOG_LEVEL, "WARNING")
         .option(RuntimeOptions.INTERPRETER_SEQUENTIAL_COMMAND_EXECUTION, "true")
+        .option(RuntimeOptions.INTERPRETER_EXPRESSION_UPDATES_BATCH_SIZE, "1")
         .option(RuntimeOptions.ENABLE_PROJECT_SUGGESTIONS, "false")
         .option(RuntimeOptions.ENABLE_GLOBAL_SUGGESTIONS, "false")
+        .option(
+          RuntimeOptions.ENABLE_PERSISTENT_VALUE_CACHE,
+          persistentValueCache.toString
+        )
+        .option(RuntimeOptions.PERSISTENT_VALUE_CACHE_MIN_COMPUTATION_TIME, "0")
         .option(
           RuntimeOptions.DISABLE_IR_CACHES,
           InstrumentTestContext.DISABLE_IR_CACHE
@@ -112,6 +122,12 @@ class RuntimeServerTest
     def executionComplete(contextId: UUID): Api.Response =
       Api.Response(Api.ExecutionComplete(contextId))
 
+    def persistedValue(expressionId: UUID): Path =
+      pkg.internalDirectory.toPath
+        .resolve(Package.cacheDirName)
+        .resolve("values")
+        .resolve(s"$expressionId.value")
+
     // === The Tests ==========================================================
 
     object Main {
@@ -332,6 +348,47 @@ class RuntimeServerTest
     val Some(Api.Response(_, Api.InitializedNotification())) = context.receive
   }
 
+  /** Executes the main method in a new execution context, which is destroyed
+    * afterwards.
+    *
+    * @param expressions the number of the expected expression updates
+    * @return whether the values of the updated expressions were taken from
+    * the cache
+    */
+  private def executeMainInNewContext(expressions: Int): Map[UUID, Boolean] = {
+    val contextId = UUID.randomUUID()
+    val requestId = UUID.randomUUID()
+
+    context.send(Api.Request(requestId, Api.CreateContextRequest(contextId)))
+    context.receive shouldEqual Some(
+      Api.Response(requestId, Api.CreateContextResponse(contextId))
+    )
+
+    val item = Api.StackItem.ExplicitCall(
+      Api.MethodPointer("Enso_Test.Test.Main", "Enso_Test.Test.Main", "main"),
+      None,
+      Vector()
+    )
+    context.send(
+      Api.Request(requestId, Api.PushContextRequest(contextId, item))
+    )
+    val responses = context.receiveNIgnoreStdLib(expressions + 2)
+    responses should contain allOf (
+      Api.Response(requestId, Api.PushContextResponse(contextId)),
+      context.executionComplete(contextId)
+    )
+
+    context.send(Api.Request(requestId, Api.DestroyContextRequest(contextId)))
+    context.receive shouldEqual Some(
+      Api.Response(requestId, Api.DestroyContextResponse(contextId))
+    )
+
+    responses.collect {
+      case Api.Response(None, Api.ExpressionUpdates(`contextId`, updates)) =>
+        updates.map(update => update.expressionId -> update.fromCache)
+    }.flatten.toMap
+  }
+
   "RuntimeServer" should "push and pop functions on the stack" in {
     val contents  = context.Main.code
     val mainFile  = context.writeMain(contents)
@@ -1971,6 +2028,94 @@ class RuntimeServerTest
     )
   }
 
+  it should "profile the execution of a context" in {
+    val contextId  = UUID.randomUUID()
+    val requestId  = UUID.randomUUID()
+    val moduleName = "Enso_Test.Test.Main"
+    val metadata   = new Metadata
+    val idMainY    = metadata.addItem(121, 12)
+
+    // the program has to run long enough to be sampled by the profiler
+    val code =
+      """from Standard.Base.Data.Numbers import Number
+        |from Standard.Base.Data.Boolean import all
+        |
+        |main =
+        |    x = 1000000
+        |    y = here.sum 0 x
+        |    y
+        |
+        |sum acc n =
+        |    if n == 0 then acc else @Tail_Call here.sum (acc + n) (n - 1)
+        |""".stripMargin.linesIterator.mkString("\n")
+    val contents = metadata.appendToCode(code)
+    val mainFile = context.writeMain(contents)
+
+    // create context
+    context.send(Api.Request(requestId, Api.CreateContextRequest(contextId)))
+    context.receive shouldEqual Some(
+      Api.Response(requestId, Api.CreateContextResponse(contextId))
+    )
+
+    // enable profiling
+    context.send(
+      Api.Request(requestId, Api.SetProfilingRequest(contextId, true))
+    )
+    context.receive shouldEqual Some(
+      Api.Response(requestId, Api.SetProfilingResponse(contextId))
+    )
+
+    // Open the new file
+    context.send(
+      Api.Request(Api.OpenFileNotification(mainFile, contents))
+    )
+    context.receiveNone shouldEqual None
+
+    // push main
+    val item1 = Api.StackItem.ExplicitCall(
+      Api.MethodPointer(moduleName, "Enso_Test.Test.Main", "main"),
+      None,
+      Vector()
+    )
+    context.send(
+      Api.Request(requestId, Api.PushContextRequest(contextId, item1))
+    )
+    val responses = context.receiveNIgnoreStdLib(3)
+    responses should contain allOf (
+      Api.Response(requestId, Api.PushContextResponse(contextId)),
+      context.executionComplete(contextId)
+    )
+    responses.collect {
+      case Api.Response(None, Api.ExpressionUpdates(`contextId`, updates)) =>
+        updates.map(_.expressionId)
+    }.flatten shouldEqual Seq(idMainY)
+
+    // get profile
+    context.send(Api.Request(requestId, Api.GetProfileRequest(contextId)))
+    val Some(
+      Api.Response(_, Api.GetProfileResponse(`contextId`, profile))
+    ) = context.receive
+    profile.samplingInterval should be > 0L
+    profile.samples should be > 0L
+    profile.collapsedStacks should not be empty
+    profile.collapsedStacks.linesIterator
+      .map(_.split(' ').last.toLong)
+      .sum shouldEqual profile.samples
+    profile.expressions.foreach { expression =>
+      expression.selfSamples should be <= expression.totalSamples
+      expression.totalSamples should be <= profile.samples
+    }
+
+    // get profile of a missing context
+    val missingContextId = UUID.randomUUID()
+    context.send(
+      Api.Request(requestId, Api.GetProfileRequest(missingContextId))
+    )
+    context.receive shouldEqual Some(
+      Api.Response(requestId, Api.ContextNotExistError(missingContextId))
+    )
+  }
+
   it should "recompute expressions invalidating all" in {
     val contents   = context.Main.code
     val mainFile   = context.writeMain(contents)
@@ -3086,6 +3231,113 @@ class RuntimeServerTest
     context.consumeOut shouldEqual List()
   }
 
+  it should "restore the persisted values of an unchanged program" in {
+    context = new TestContext("Test", persistentValueCache = true)
+    val Some(Api.Response(_, Api.InitializedNotification())) = context.receive
+    val contents = context.Main2.code
+    val mainFile = context.writeMain(contents)
+    val ids      = Seq(context.Main2.idMainY, context.Main2.idMainZ)
+
+    // Open the new file
+    context.send(
+      Api.Request(Api.OpenFileNotification(mainFile, contents))
+    )
+    context.receiveNone shouldEqual None
+
+    // compute and persist the values
+    executeMainInNewContext(2) shouldEqual ids.map(_ -> false).toMap
+    context.consumeOut shouldEqual List("I'm expensive!", "I'm more expensive!")
+    eventually(timeout(Span(10, Seconds))) {
+      ids.map(id => Files.exists(context.persistedValue(id))) shouldEqual
+        Seq(true, true)
+    }
+
+    // restore the values in a new frame
+    executeMainInNewContext(2) shouldEqual ids.map(_ -> true).toMap
+    context.consumeOut shouldEqual List()
+  }
+
+  it should "restore the persisted atoms" in {
+    context = new TestContext("Test", persistentValueCache = true)
+    val Some(Api.Response(_, Api.InitializedNotification())) = context.receive
+    val metadata = new Metadata
+    val idMainX  = metadata.addItem(110, 9)
+    val code =
+      """from Standard.Base import all
+        |
+        |list =
+        |    IO.println "I'm expensive!"
+        |    Cons 1 (Cons 2 Nil)
+        |
+        |main =
+        |    x = here.list
+        |    x
+        |""".stripMargin.linesIterator.mkString("\n")
+    val contents = metadata.appendToCode(code)
+    val mainFile = context.writeMain(contents)
+
+    // Open the new file
+    context.send(
+      Api.Request(Api.OpenFileNotification(mainFile, contents))
+    )
+    context.receiveNone shouldEqual None
+
+    // compute and persist the value
+    executeMainInNewContext(1) shouldEqual Map(idMainX -> false)
+    context.consumeOut shouldEqual List("I'm expensive!")
+    eventually(timeout(Span(10, Seconds))) {
+      Files.exists(context.persistedValue(idMainX)) shouldEqual true
+    }
+
+    // restore the value in a new frame
+    executeMainInNewContext(1) shouldEqual Map(idMainX -> true)
+    context.consumeOut shouldEqual List()
+  }
+
+  it should "not restore the persisted values of an edited program" in {
+    context = new TestContext("Test", persistentValueCache = true)
+    val Some(Api.Response(_, Api.InitializedNotification())) = context.receive
+    val contents = context.Main2.code
+    val mainFile = context.writeMain(contents)
+    val ids      = Seq(context.Main2.idMainY, context.Main2.idMainZ)
+
+    // Open the new file
+    context.send(
+      Api.Request(Api.OpenFileNotification(mainFile, contents))
+    )
+    context.receiveNone shouldEqual None
+
+    // compute and persist the values
+    executeMainInNewContext(2) shouldEqual ids.map(_ -> false).toMap
+    context.consumeOut shouldEqual List("I'm expensive!", "I'm more expensive!")
+    eventually(timeout(Span(10, Seconds))) {
+      ids.map(id => Files.exists(context.persistedValue(id))) shouldEqual
+        Seq(true, true)
+    }
+
+    // edit the body of bar, a dependency of main
+    context.send(
+      Api.Request(
+        Api.EditFileNotification(
+          mainFile,
+          Seq(
+            TextEdit(
+              model.Range(model.Position(9, 10), model.Position(9, 11)),
+              "6"
+            )
+          )
+        )
+      )
+    )
+    context.receiveNone shouldEqual None
+    ids.map(id => Files.exists(context.persistedValue(id))) shouldEqual
+      Seq(true, true)
+
+    // the persisted values do not match the new inputs
+    executeMainInNewContext(2) shouldEqual ids.map(_ -> false).toMap
+    context.consumeOut shouldEqual List("I'm expensive!", "I'm more expensive!")
+  }
+
   it should "rename a project" in {
     val contents  = context.Main.code
     val mainFile  = context.writeMain(contents)
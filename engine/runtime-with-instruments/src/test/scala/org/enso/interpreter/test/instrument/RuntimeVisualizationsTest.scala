@@ -58,6 +58,7 @@ class RuntimeVisualisationsTest
         .option(RuntimeOptions.PROJECT_ROOT, pkg.root.getAbsolutePath)
         .option(RuntimeOptions.LOG_LEVEL, "WARNING")
         .option(RuntimeOptions.INTERPRETER_SEQUENTIAL_COMMAND_EXECUTION, "true")
+        .option(RuntimeOptions.INTERPRETER_EXPRESSION_UPDATES_BATCH_SIZE, "1")
         .option(RuntimeOptions.ENABLE_PROJECT_SUGGESTIONS, "false")
         .option(RuntimeOptions.ENABLE_GLOBAL_SUGGESTIONS, "false")
         .option(RuntimeServerInfo.ENABLE_OPTION, "true")
@@ -1230,6 +1231,137 @@ class RuntimeVisualisationsTest
     dataAfterModification.sameElements("7".getBytes) shouldBe true
   }
 
+  it should "not send stale updates of a slow visualisation" in {
+    val contents = context.Main.code
+    val mainFile = context.writeMain(contents)
+    val visualisationCode =
+      """polyglot java import java.lang.Thread
+        |
+        |encode = x -> x.to_text
+        |
+        |slowEncode = x ->
+        |    Thread.sleep 1000
+        |    here.encode x
+        |""".stripMargin
+    val visualisationFile =
+      context.writeInSrcDir("Visualisation", visualisationCode)
+
+    // open files
+    context.send(
+      Api.Request(Api.OpenFileNotification(mainFile, contents))
+    )
+    context.receiveNone shouldEqual None
+    context.send(
+      Api.Request(
+        Api.OpenFileNotification(visualisationFile, visualisationCode)
+      )
+    )
+    context.receiveNone shouldEqual None
+
+    val contextId       = UUID.randomUUID()
+    val requestId       = UUID.randomUUID()
+    val visualisationId = UUID.randomUUID()
+
+    // create context
+    context.send(Api.Request(requestId, Api.CreateContextRequest(contextId)))
+    context.receive shouldEqual Some(
+      Api.Response(requestId, Api.CreateContextResponse(contextId))
+    )
+
+    // push main
+    val item1 = Api.StackItem.ExplicitCall(
+      Api.MethodPointer("Enso_Test.Test.Main", "Enso_Test.Test.Main", "main"),
+      None,
+      Vector()
+    )
+    context.send(
+      Api.Request(requestId, Api.PushContextRequest(contextId, item1))
+    )
+    context.receiveNIgnoreStdLib(5) should contain theSameElementsAs Seq(
+      Api.Response(requestId, Api.PushContextResponse(contextId)),
+      context.Main.Update.mainX(contextId),
+      context.Main.Update.mainY(contextId),
+      context.Main.Update.mainZ(contextId),
+      context.executionComplete(contextId)
+    )
+
+    // attach a slow visualisation, and modify it twice while it is computed
+    val expressions = Vector(
+      "x -> here.slowEncode x",
+      "x -> here.encode x+1",
+      "x -> here.encode x+2"
+    )
+    val expectedData = Vector("6", "7", "8")
+    def configuration(expression: String): Api.VisualisationConfiguration =
+      Api.VisualisationConfiguration(
+        contextId,
+        "Enso_Test.Test.Visualisation",
+        expression
+      )
+    context.send(
+      Api.Request(
+        requestId,
+        Api.AttachVisualisation(
+          visualisationId,
+          context.Main.idMainX,
+          configuration(expressions(0))
+        )
+      )
+    )
+    expressions.tail.foreach { expression =>
+      context.send(
+        Api.Request(
+          requestId,
+          Api.ModifyVisualisation(visualisationId, configuration(expression))
+        )
+      )
+    }
+
+    val expectedExpressionId = context.Main.idMainX
+    def visualisationData(response: Api.Response): Option[String] =
+      response match {
+        case Api.Response(
+              None,
+              Api.VisualisationUpdate(
+                Api.VisualisationContext(
+                  `visualisationId`,
+                  `contextId`,
+                  `expectedExpressionId`
+                ),
+                data
+              )
+            ) =>
+          Some(new String(data))
+        case _ =>
+          None
+      }
+    var responses = Vector[Api.Response]()
+    while (!responses.flatMap(visualisationData).contains(expectedData.last)) {
+      val Some(response) = context.receive
+      responses :+= response
+    }
+
+    responses.collect { case Api.Response(Some(`requestId`), payload) =>
+      payload
+    } shouldEqual Vector(
+      Api.VisualisationAttached(),
+      Api.VisualisationModified(),
+      Api.VisualisationModified()
+    )
+    // every update is computed with the configuration of the latest response
+    // received before it, superseded updates are dropped rather than sent late
+    var configurationIndex = -1
+    responses.foreach {
+      case Api.Response(Some(`requestId`), _) =>
+        configurationIndex += 1
+      case response =>
+        visualisationData(response).foreach(
+          _ shouldEqual expectedData(configurationIndex)
+        )
+    }
+    context.receiveNone shouldEqual None
+  }
+
   it should "return ModuleNotFound error when attaching visualisation" in {
     val idMain     = context.Main.metadata.addItem(99, 1)
     val contents   = context.Main.code
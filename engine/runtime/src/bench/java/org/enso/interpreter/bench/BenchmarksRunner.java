@@ -1,5 +1,8 @@
 package org.enso.interpreter.bench;
 
+import org.enso.bench.BenchmarkItem;
+import org.enso.bench.BenchmarkResultProcessor;
+import org.enso.bench.Report;
 import org.openjdk.jmh.results.RunResult;
 import org.openjdk.jmh.runner.BenchmarkList;
 import org.openjdk.jmh.runner.BenchmarkListEntry;
@@ -0,0 +1,338 @@
+package org.enso.interpreter.instrument;
+
+import com.oracle.truffle.api.TruffleLanguage.Env;
+import com.oracle.truffle.api.exception.AbstractTruffleException;
+import com.oracle.truffle.api.interop.InteropException;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.enso.interpreter.runtime.Context;
+import org.enso.interpreter.runtime.callable.atom.Atom;
+import org.enso.interpreter.runtime.callable.atom.AtomConstructor;
+import org.enso.interpreter.runtime.data.Array;
+import org.enso.interpreter.runtime.data.text.Text;
+
+/**
+ * A second-level cache of computed values, persisted in a local directory so that they survive
+ * runtime restarts and evictions from the {@link RuntimeCache}.
+ *
+ * <p>A value is stored in a file named after the expression id, along with the hash of the inputs
+ * of the expression. It is only restored if the hash of the current inputs matches, so that values
+ * computed from a different program are never reused.
+ *
+ * <p>Only values that are expensive to compute and made of numbers, booleans, text, arrays, atoms
+ * and tables can be persisted. Atoms, such as vectors, are restored with the constructor of the same
+ * name, and tables are stored in the columnar table format. The values are serialized on the
+ * calling thread, as they may be mutated afterwards, and written to disk in the background.
+ */
+public final class PersistentValueCache {
+
+  private static final int MAGIC = 0x454e5643;
+  private static final String EXTENSION = ".value";
+
+  private static final byte LONG = 0;
+  private static final byte DOUBLE = 1;
+  private static final byte BOOLEAN = 2;
+  private static final byte TEXT = 3;
+  private static final byte ARRAY = 4;
+  private static final byte ATOM = 5;
+  private static final byte TABLE = 6;
+
+  private static final String TABLE_CLASS = "org.enso.table.data.table.Table";
+  private static final String TABLE_WRITER_CLASS = "org.enso.table.format.columnar.Writer";
+  private static final String TABLE_READER_CLASS = "org.enso.table.format.columnar.Reader";
+
+  private final Path directory;
+  private final long minComputationTime;
+  private final Logger logger;
+  private final ExecutorService writer =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "persistent-value-cache-writer");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  /**
+   * Creates a cache.
+   *
+   * @param directory the directory storing the values.
+   * @param minComputationTime the computation time, in nanoseconds, above which the values are
+   *     persisted.
+   * @param logger the logger reporting failures to persist values.
+   */
+  public PersistentValueCache(Path directory, long minComputationTime, Logger logger) {
+    this.directory = directory;
+    this.minComputationTime = minComputationTime;
+    this.logger = logger;
+  }
+
+  /**
+   * Persists a value, if it is expensive to compute and can be serialized.
+   *
+   * @param key the expression id.
+   * @param inputHash the hash of the inputs of the expression.
+   * @param value the computed value.
+   * @param computationTime the time it took to compute the value, in nanoseconds.
+   */
+  public void offer(UUID key, String inputHash, Object value, long computationTime) {
+    if (computationTime < minComputationTime) {
+      return;
+    }
+    byte[] bytes;
+    try {
+      ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(buffer);
+      out.writeInt(MAGIC);
+      out.writeUTF(inputHash);
+      writeValue(out, value);
+      out.flush();
+      bytes = buffer.toByteArray();
+    } catch (UnsupportedValueException | IOException e) {
+      return;
+    }
+    writer.execute(() -> write(key, bytes));
+  }
+
+  /**
+   * Restores a persisted value.
+   *
+   * @param key the expression id.
+   * @param inputHash the hash of the current inputs of the expression.
+   * @return the persisted value, or {@code null} if there is none for these inputs.
+   */
+  public Object get(UUID key, String inputHash) {
+    try (InputStream stream = Files.newInputStream(getPath(key))) {
+      DataInputStream in = new DataInputStream(stream);
+      if (in.readInt() != MAGIC || !in.readUTF().equals(inputHash)) {
+        return null;
+      }
+      return readValue(in);
+    } catch (UnsupportedValueException | NoSuchFileException e) {
+      return null;
+    } catch (IOException e) {
+      logger.log(Level.FINE, "Failed to read the cached value of " + key, e);
+      return null;
+    }
+  }
+
+  /**
+   * Removes a persisted value.
+   *
+   * @param key the expression id.
+   */
+  public void remove(UUID key) {
+    writer.execute(
+        () -> {
+          try {
+            Files.deleteIfExists(getPath(key));
+          } catch (IOException e) {
+            logger.log(Level.FINE, "Failed to remove the cached value of " + key, e);
+          }
+        });
+  }
+
+  private void write(UUID key, byte[] bytes) {
+    try {
+      Files.createDirectories(directory);
+      Path temporary = Files.createTempFile(directory, key.toString(), ".tmp");
+      Files.write(temporary, bytes);
+      Files.move(temporary, getPath(key), StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Failed to cache the value of " + key, e);
+    }
+  }
+
+  private Path getPath(UUID key) {
+    return directory.resolve(key + EXTENSION);
+  }
+
+  private void writeValue(DataOutputStream out, Object value)
+      throws UnsupportedValueException, IOException {
+    if (value instanceof Long) {
+      out.writeByte(LONG);
+      out.writeLong((Long) value);
+    } else if (value instanceof Double) {
+      out.writeByte(DOUBLE);
+      out.writeDouble((Double) value);
+    } else if (value instanceof Boolean) {
+      out.writeByte(BOOLEAN);
+      out.writeBoolean((Boolean) value);
+    } else if (value instanceof Text) {
+      byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+      out.writeByte(TEXT);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    } else if (value instanceof Array) {
+      Object[] items = ((Array) value).getItems();
+      out.writeByte(ARRAY);
+      out.writeInt(items.length);
+      for (Object item : items) {
+        writeValue(out, item);
+      }
+    } else if (value instanceof Atom) {
+      writeAtom(out, (Atom) value);
+    } else if (isTable(value)) {
+      writeTable(out, value);
+    } else if (InteropLibrary.getUncached().hasArrayElements(value)) {
+      writePolyglotArray(out, value);
+    } else {
+      throw new UnsupportedValueException();
+    }
+  }
+
+  private void writeAtom(DataOutputStream out, Atom atom)
+      throws UnsupportedValueException, IOException {
+    AtomConstructor constructor = atom.getConstructor();
+    if (constructor.getDefinitionScope() == null) {
+      throw new UnsupportedValueException();
+    }
+    Object[] fields = atom.getFields();
+    out.writeByte(ATOM);
+    out.writeUTF(constructor.getDefinitionScope().getModule().getName().toString());
+    out.writeUTF(constructor.getName());
+    out.writeInt(fields.length);
+    for (Object field : fields) {
+      writeValue(out, field);
+    }
+  }
+
+  /** Writes the elements of an array coming from another language, e.g. a Java list. */
+  private void writePolyglotArray(DataOutputStream out, Object value)
+      throws UnsupportedValueException, IOException {
+    InteropLibrary interop = InteropLibrary.getUncached();
+    try {
+      long size = interop.getArraySize(value);
+      if (size > Integer.MAX_VALUE) {
+        throw new UnsupportedValueException();
+      }
+      out.writeByte(ARRAY);
+      out.writeInt((int) size);
+      for (long i = 0; i < size; i++) {
+        writeValue(out, toEnsoPrimitive(interop.readArrayElement(value, i)));
+      }
+    } catch (InteropException e) {
+      throw new UnsupportedValueException();
+    }
+  }
+
+  private void writeTable(DataOutputStream out, Object table)
+      throws UnsupportedValueException, IOException {
+    Env env = Context.get(null).getEnvironment();
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    try {
+      Object writer = env.lookupHostSymbol(TABLE_WRITER_CLASS);
+      InteropLibrary.getUncached().invokeMember(writer, "write", table, env.asGuestValue(buffer));
+    } catch (InteropException | AbstractTruffleException e) {
+      // The columnar format does not support all column types.
+      throw new UnsupportedValueException();
+    }
+    out.writeByte(TABLE);
+    out.writeInt(buffer.size());
+    buffer.writeTo(out);
+  }
+
+  private Object readValue(DataInputStream in) throws UnsupportedValueException, IOException {
+    byte tag = in.readByte();
+    switch (tag) {
+      case LONG:
+        return in.readLong();
+      case DOUBLE:
+        return in.readDouble();
+      case BOOLEAN:
+        return in.readBoolean();
+      case TEXT:
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return Text.create(new String(bytes, StandardCharsets.UTF_8));
+      case ARRAY:
+        Object[] items = new Object[in.readInt()];
+        for (int i = 0; i < items.length; i++) {
+          items[i] = readValue(in);
+        }
+        return new Array(items);
+      case ATOM:
+        return readAtom(in);
+      case TABLE:
+        return readTable(in);
+      default:
+        throw new IOException("Unknown value tag " + tag);
+    }
+  }
+
+  private Object readAtom(DataInputStream in) throws UnsupportedValueException, IOException {
+    String moduleName = in.readUTF();
+    String constructorName = in.readUTF();
+    Object[] fields = new Object[in.readInt()];
+    for (int i = 0; i < fields.length; i++) {
+      fields[i] = readValue(in);
+    }
+    AtomConstructor constructor =
+        Context.get(null)
+            .findModule(moduleName)
+            .map(module -> module.getScope().getConstructors().get(constructorName))
+            .orElse(null);
+    if (constructor == null || constructor.getArity() != fields.length) {
+      throw new UnsupportedValueException();
+    }
+    return constructor.newInstance(fields);
+  }
+
+  /**
+   * Reads a table through a temporary file, as the columnar format is read by mapping the file. The
+   * columns are copied to the heap, so the file can be removed right away.
+   */
+  private Object readTable(DataInputStream in) throws UnsupportedValueException, IOException {
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    Files.createDirectories(directory);
+    Path file = Files.createTempFile(directory, "table", ".tmp");
+    try {
+      Files.write(file, bytes);
+      Object reader = Context.get(null).getEnvironment().lookupHostSymbol(TABLE_READER_CLASS);
+      return InteropLibrary.getUncached().invokeMember(reader, "read", file.toString());
+    } catch (InteropException | AbstractTruffleException e) {
+      throw new UnsupportedValueException();
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  private static boolean isTable(Object value) {
+    Env env = Context.get(null).getEnvironment();
+    return env.isHostObject(value)
+        && env.asHostObject(value).getClass().getName().equals(TABLE_CLASS);
+  }
+
+  /** Converts the Java values read from polyglot arrays to the values of the runtime. */
+  private static Object toEnsoPrimitive(Object value) {
+    if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+      return ((Number) value).longValue();
+    } else if (value instanceof Float) {
+      return ((Float) value).doubleValue();
+    } else if (value instanceof String) {
+      return Text.create((String) value);
+    }
+    return value;
+  }
+
+  /** Thrown when a value, or a part of it, cannot be persisted or restored. */
+  private static final class UnsupportedValueException extends Exception {
+    private UnsupportedValueException() {
+      super(null, null, false, false);
+    }
+  }
+}
@@ -1,18 +1,95 @@
 package org.enso.interpreter.instrument;
 
+import com.oracle.truffle.api.interop.InteropException;
+import com.oracle.truffle.api.interop.InteropLibrary;
 import java.lang.ref.SoftReference;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
+import org.enso.interpreter.runtime.callable.atom.Atom;
+import org.enso.interpreter.runtime.data.Array;
+import org.enso.interpreter.runtime.data.text.Text;
+import org.enso.interpreter.runtime.type.Types;
 
-/** A storage for computed values. */
+/**
+ * A storage for computed values.
+ *
+ * <p>The cache is bounded by the estimated size of its values. The bound is a {@link Budget}, which
+ * can be shared by several caches, e.g. by the caches of all stack frames. When the caches grow
+ * past their bound, values are evicted following the GreedyDual-Size policy: each value is credited
+ * with its weight, from the cache preference analysis, times the time it took to compute, divided
+ * by its estimated size. The value with the lowest credit is evicted first, from whichever cache
+ * holds it, and the credit of the evicted value is taken off all the others, so that values which
+ * have not been used for a long time eventually get evicted, whatever their credit. With equal
+ * costs and sizes, this is the LRU policy.
+ *
+ * <p>Values of types unknown to the runtime, e.g. tables, can report their size by exposing an
+ * {@value #ESTIMATE_SIZE_MEMBER} member returning the estimated number of bytes.
+ *
+ * <p>The values are still held by soft references, so that the garbage collector can reclaim them
+ * if the size estimates are too low, but the bound normally keeps the cache from getting there.
+ *
+ * <p>The cache can be backed by a {@link PersistentValueCache}. Expensive values of expressions
+ * with known input hashes are then also persisted, and restored from there when they are not in
+ * memory.
+ */
 public final class RuntimeCache {
 
-  private final Map<UUID, SoftReference<Object>> cache = new HashMap<>();
+  /** The default bound of the estimated size of the cached values, in bytes. */
+  public static final long DEFAULT_MAX_SIZE = Runtime.getRuntime().maxMemory() / 4;
+
+  /** The member reporting the estimated size of a value, in bytes. */
+  public static final String ESTIMATE_SIZE_MEMBER = "estimateMemorySize";
+
+  /** The estimated size of a value that does not report its size. */
+  private static final long DEFAULT_VALUE_SIZE = 1024;
+
+  /** The estimated size of an object header. */
+  private static final long OBJECT_SIZE = 16;
+
+  /** How deep the fields of atoms are followed when estimating their size. */
+  private static final int MAX_ESTIMATE_DEPTH = 4;
+
+  private final Budget budget;
+  private final Map<UUID, Entry> cache = new HashMap<>();
   private final Map<UUID, String> types = new HashMap<>();
   private final Map<UUID, IdExecutionService.FunctionCallInfo> calls = new HashMap<>();
   private Map<UUID, Double> weights = new HashMap<>();
+  private PersistentValueCache persistentCache;
+  private Map<UUID, String> inputHashes = new HashMap<>();
+  private final Set<UUID> persistentMisses = new HashSet<>();
+
+  private long estimatedSize = 0;
+  private long hits = 0;
+  private long misses = 0;
+  private long evictions = 0;
+
+  /** Creates a cache with its own budget of {@link #DEFAULT_MAX_SIZE}. */
+  public RuntimeCache() {
+    this(DEFAULT_MAX_SIZE);
+  }
+
+  /**
+   * Creates a cache with its own budget.
+   *
+   * @param maxSize the bound of the estimated size of the cached values, in bytes.
+   */
+  public RuntimeCache(long maxSize) {
+    this(new Budget(maxSize));
+  }
+
+  /**
+   * Creates a cache.
+   *
+   * @param budget the bound of the estimated size of the values of this and other caches.
+   */
+  public RuntimeCache(Budget budget) {
+    this.budget = budget;
+  }
 
   /**
    * Add value to the cache if it is possible.
@@ -22,34 +99,261 @@ public final class RuntimeCache {
    * @return {@code true} if the value was added to the cache.
    */
   public boolean offer(UUID key, Object value) {
+    return offer(key, value, 0);
+  }
+
+  /**
+   * Add value to the cache if it is possible.
+   *
+   * @param key the key of an entry.
+   * @param value the added value.
+   * @param computationTime the time it took to compute the value, in nanoseconds.
+   * @return {@code true} if the value was added to the cache.
+   */
+  public boolean offer(UUID key, Object value, long computationTime) {
     Double weight = weights.get(key);
-    if (weight != null && weight > 0) {
-      cache.put(key, new SoftReference<>(value));
-      return true;
+    if (weight == null || weight <= 0) {
+      return false;
+    }
+    long size = estimateSize(value);
+    PersistentValueCache store;
+    String inputHash;
+    synchronized (budget) {
+      store = persistentCache;
+      inputHash = inputHashes.get(key);
+    }
+    boolean persisted = store != null && inputHash != null;
+    if (persisted) {
+      // Serializing large values takes time, so the shared budget is not held meanwhile.
+      store.offer(key, inputHash, value, computationTime);
+    }
+    synchronized (budget) {
+      if (persisted) {
+        persistentMisses.remove(key);
+      }
+      return insert(key, value, size, weight, computationTime);
     }
-    return false;
+  }
+
+  private boolean insert(
+      UUID key, Object value, long size, double weight, long computationTime) {
+    removeEntry(key);
+    if (size > budget.maxSize) {
+      return false;
+    }
+
+    double credit = weight * (Math.max(computationTime, 0) + 1) / size;
+    Entry entry = new Entry(this, key, new SoftReference<>(value), size, credit);
+    cache.put(key, entry);
+    estimatedSize += size;
+    budget.add(entry);
+    return cache.containsKey(key);
   }
 
   /** Get the value from the cache. */
   public Object get(UUID key) {
-    SoftReference<Object> ref = cache.get(key);
-    return ref != null ? ref.get() : null;
+    synchronized (budget) {
+      Entry entry = cache.get(key);
+      Object value = entry == null ? null : entry.value.get();
+      if (value != null) {
+        hits++;
+        budget.touch(entry);
+        return value;
+      }
+      if (entry != null) {
+        removeEntry(key);
+      }
+    }
+    Double weight = weights.get(key);
+    if (weight == null || weight <= 0) {
+      return null;
+    }
+    PersistentValueCache store;
+    String inputHash;
+    synchronized (budget) {
+      store = persistentCache;
+      inputHash = inputHashes.get(key);
+      if (store == null || inputHash == null || persistentMisses.contains(key)) {
+        misses++;
+        return null;
+      }
+    }
+    // The budget is shared by all the stack frames, so it is not held while reading the disk.
+    Object value = store.get(key, inputHash);
+    long size = value == null ? 0 : estimateSize(value);
+    synchronized (budget) {
+      if (value == null) {
+        misses++;
+        persistentMisses.add(key);
+      } else {
+        hits++;
+        insert(key, value, size, weight, 0);
+        // The type of a restored value is not known if it has not been computed in this frame.
+        types.putIfAbsent(key, Types.getName(value));
+      }
+      return value;
+    }
   }
 
   /** Remove the value from the cache. */
   public Object remove(UUID key) {
-    SoftReference<Object> ref = cache.remove(key);
-    return ref == null ? null : ref.get();
+    synchronized (budget) {
+      removePersistent(key);
+      Entry entry = removeEntry(key);
+      return entry == null ? null : entry.value.get();
+    }
   }
 
   /** @return all cache keys. */
   public Set<UUID> getKeys() {
-    return cache.keySet();
+    synchronized (budget) {
+      return new HashSet<>(cache.keySet());
+    }
   }
 
   /** Clear the cached values. */
   public void clear() {
-    cache.clear();
+    synchronized (budget) {
+      for (UUID key : inputHashes.keySet()) {
+        removePersistent(key);
+      }
+      for (UUID key : new HashSet<>(cache.keySet())) {
+        removeEntry(key);
+      }
+    }
+  }
+
+  /**
+   * Drop the cached values of a cache that is no longer used, e.g. of a popped stack frame, giving
+   * their share of the budget back to the other caches. Unlike {@link #clear()}, this keeps the
+   * persisted values.
+   */
+  public void release() {
+    synchronized (budget) {
+      for (UUID key : new HashSet<>(cache.keySet())) {
+        removeEntry(key);
+      }
+    }
+  }
+
+  /** @return the number of cached values. */
+  public int size() {
+    synchronized (budget) {
+      return cache.size();
+    }
+  }
+
+  /** @return the estimated size of the values cached by this cache, in bytes. */
+  public long getEstimatedSize() {
+    synchronized (budget) {
+      return estimatedSize;
+    }
+  }
+
+  /** @return the number of lookups that found a cached value. */
+  public long getHits() {
+    synchronized (budget) {
+      return hits;
+    }
+  }
+
+  /** @return the number of lookups of cacheable expressions that did not find a cached value. */
+  public long getMisses() {
+    synchronized (budget) {
+      return misses;
+    }
+  }
+
+  /** @return the number of values of this cache evicted to keep the caches within their bound. */
+  public long getEvictions() {
+    synchronized (budget) {
+      return evictions;
+    }
+  }
+
+  /**
+   * Set the storage persisting the values of this cache.
+   *
+   * @param persistentCache the storage of the persisted values.
+   * @param inputHashes the hashes of the inputs of the cacheable expressions.
+   */
+  public void setPersistentCache(
+      PersistentValueCache persistentCache, Map<UUID, String> inputHashes) {
+    synchronized (budget) {
+      this.persistentCache = persistentCache;
+      this.inputHashes = inputHashes;
+      persistentMisses.clear();
+    }
+  }
+
+  private void removePersistent(UUID key) {
+    if (persistentCache != null && inputHashes.containsKey(key)) {
+      persistentCache.remove(key);
+      persistentMisses.add(key);
+    }
+  }
+
+  private Entry removeEntry(UUID key) {
+    Entry entry = cache.remove(key);
+    if (entry != null) {
+      budget.remove(entry);
+      estimatedSize -= entry.size;
+    }
+    return entry;
+  }
+
+  private void evict(Entry entry) {
+    removeEntry(entry.key);
+    evictions++;
+  }
+
+  /**
+   * Estimates the memory taken by a value.
+   *
+   * <p>The fields of atoms are followed, so that e.g. a table atom is estimated by the size of the
+   * table it wraps. Other values can report their size by an {@value #ESTIMATE_SIZE_MEMBER} member.
+   * The elements of an array are counted as references only.
+   *
+   * @param value the value.
+   * @return the estimated size of the value, in bytes.
+   */
+  static long estimateSize(Object value) {
+    return estimateSize(value, MAX_ESTIMATE_DEPTH);
+  }
+
+  private static long estimateSize(Object value, int depth) {
+    if (value instanceof Long || value instanceof Double || value instanceof Boolean) {
+      return 16;
+    } else if (value instanceof String) {
+      return 40 + 2L * ((String) value).length();
+    } else if (value instanceof Text && ((Text) value).getContents() instanceof String) {
+      return 56 + 2L * ((String) ((Text) value).getContents()).length();
+    } else if (value instanceof Array) {
+      return 32 + 8L * ((Array) value).length();
+    } else if (value instanceof Atom) {
+      Object[] fields = ((Atom) value).getFields();
+      long size = OBJECT_SIZE + 8L * fields.length;
+      for (Object field : fields) {
+        size += depth > 0 ? estimateSize(field, depth - 1) : DEFAULT_VALUE_SIZE;
+      }
+      return size;
+    }
+    return estimateReportedSize(value);
+  }
+
+  private static long estimateReportedSize(Object value) {
+    InteropLibrary interop = InteropLibrary.getUncached();
+    if (interop.isMemberInvocable(value, ESTIMATE_SIZE_MEMBER)) {
+      try {
+        Object size = interop.invokeMember(value, ESTIMATE_SIZE_MEMBER);
+        if (interop.fitsInLong(size) && interop.asLong(size) > 0) {
+          return interop.asLong(size);
+        }
+      } catch (InteropException e) {
+        return DEFAULT_VALUE_SIZE;
+      }
+    }
+    return DEFAULT_VALUE_SIZE;
   }
 
   /**
@@ -134,4 +438,84 @@ public final class RuntimeCache {
   public void clearWeights() {
     weights.clear();
   }
+
+  /**
+   * The bound of the estimated size of the values of one or more caches.
+   *
+   * <p>The budget keeps the eviction order of the values of all its caches, and also serves as the
+   * lock of these caches.
+   */
+  public static final class Budget {
+    private final long maxSize;
+    private final TreeSet<Entry> evictionOrder = new TreeSet<>(Entry.EVICTION_ORDER);
+    private long estimatedSize = 0;
+    private double inflation = 0;
+    private long accesses = 0;
+
+    /** @param maxSize the bound of the estimated size of the cached values, in bytes. */
+    public Budget(long maxSize) {
+      this.maxSize = maxSize;
+    }
+
+    /** @return the bound of the estimated size of the cached values, in bytes. */
+    public long getMaxSize() {
+      return maxSize;
+    }
+
+    /** @return the estimated size of the values of all the caches of this budget, in bytes. */
+    public synchronized long getEstimatedSize() {
+      return estimatedSize;
+    }
+
+    private void add(Entry entry) {
+      estimatedSize += entry.size;
+      order(entry);
+      while (estimatedSize > maxSize) {
+        Entry evicted = evictionOrder.first();
+        inflation = evicted.priority;
+        evicted.owner.evict(evicted);
+      }
+    }
+
+    private void touch(Entry entry) {
+      evictionOrder.remove(entry);
+      order(entry);
+    }
+
+    private void order(Entry entry) {
+      entry.priority = inflation + entry.credit;
+      entry.lastAccess = accesses++;
+      evictionOrder.add(entry);
+    }
+
+    private void remove(Entry entry) {
+      if (evictionOrder.remove(entry)) {
+        estimatedSize -= entry.size;
+      }
+    }
+  }
+
+  /** A cached value, with the data of the eviction policy. */
+  private static final class Entry {
+    private static final Comparator<Entry> EVICTION_ORDER =
+        Comparator.<Entry>comparingDouble(entry -> entry.priority)
+            .thenComparingLong(entry -> entry.lastAccess);
+
+    private final RuntimeCache owner;
+    private final UUID key;
+    private final SoftReference<Object> value;
+    private final long size;
+    private final double credit;
+    private double priority;
+    private long lastAccess;
+
+    private Entry(
+        RuntimeCache owner, UUID key, SoftReference<Object> value, long size, double credit) {
+      this.owner = owner;
+      this.key = key;
+      this.value = value;
+      this.size = size;
+      this.credit = credit;
+    }
+  }
 }
@@ -0,0 +1,290 @@
+package org.enso.interpreter.instrument.profiling;
+
+import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.ThreadLocalAction;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.TruffleLanguage.Env;
+import com.oracle.truffle.api.frame.FrameInstance;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.enso.interpreter.node.EnsoRootNode;
+import org.enso.interpreter.node.ExpressionNode;
+import org.enso.interpreter.node.MethodRootNode;
+
+/**
+ * A sampling profiler of the program executed in an execution context.
+ *
+ * <p>While enabled and attached to the thread executing the program, the profiler periodically
+ * submits a thread-local action to that thread. The action walks the Truffle stack frames and
+ * records the methods on the stack, along with the innermost expression of each frame. The program
+ * is only paused for the time of the stack walk, and not at all while the profiler is disabled.
+ *
+ * <p>The samples are aggregated into collapsed stacks, the input format of the flame graph tools,
+ * and into the numbers of samples per expression.
+ */
+public final class SamplingProfiler {
+
+  /** The default time between the samples, in milliseconds. */
+  public static final long DEFAULT_SAMPLING_INTERVAL = 10;
+
+  private static final ScheduledExecutorService SCHEDULER =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "sampling-profiler");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private final long samplingInterval;
+  private final Map<List<String>, Long> stacks = new HashMap<>();
+  private final Map<UUID, ExpressionSamples> expressions = new LinkedHashMap<>();
+  private long samples = 0;
+
+  private boolean enabled = false;
+  private Env env;
+  private Thread thread;
+  private ScheduledFuture<?> sampling;
+  private Future<Void> pendingSample;
+
+  /** Creates a profiler sampling every {@link #DEFAULT_SAMPLING_INTERVAL} milliseconds. */
+  public SamplingProfiler() {
+    this(DEFAULT_SAMPLING_INTERVAL);
+  }
+
+  /**
+   * Creates a profiler.
+   *
+   * @param samplingInterval the time between the samples, in milliseconds.
+   */
+  public SamplingProfiler(long samplingInterval) {
+    this.samplingInterval = samplingInterval;
+  }
+
+  /**
+   * Enables or disables the profiler. Enabling the profiler discards the collected samples. If the
+   * profiler is attached to a running program, the sampling starts or stops immediately.
+   *
+   * @param enabled whether the profiler should sample the program.
+   */
+  public synchronized void setEnabled(boolean enabled) {
+    if (enabled) {
+      stacks.clear();
+      expressions.clear();
+      samples = 0;
+    }
+    this.enabled = enabled;
+    updateSampling();
+  }
+
+  /** @return {@code true} if the profiler is enabled. */
+  public synchronized boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Attaches the profiler to the thread starting the execution of the program.
+   *
+   * @param env the language environment.
+   * @param thread the thread executing the program.
+   */
+  public synchronized void attach(Env env, Thread thread) {
+    this.env = env;
+    this.thread = thread;
+    updateSampling();
+  }
+
+  /** Detaches the profiler from the thread that finished the execution of the program. */
+  public synchronized void detach() {
+    env = null;
+    thread = null;
+    updateSampling();
+  }
+
+  /** @return the time between the samples, in milliseconds. */
+  public long getSamplingInterval() {
+    return samplingInterval;
+  }
+
+  /** @return the number of collected samples. */
+  public synchronized long getSamples() {
+    return samples;
+  }
+
+  /**
+   * Get the collected samples in the collapsed stacks format. Each line consists of the frames of a
+   * stack, from the outermost to the innermost, separated by semicolons, followed by the number of
+   * samples of that stack.
+   *
+   * @return the collapsed stacks.
+   */
+  public synchronized String getCollapsedStacks() {
+    StringBuilder builder = new StringBuilder();
+    stacks.forEach(
+        (stack, count) ->
+            builder.append(String.join(";", stack)).append(' ').append(count).append('\n'));
+    return builder.toString();
+  }
+
+  /** @return the numbers of samples per expression. */
+  public synchronized List<ExpressionSamples> getExpressions() {
+    List<ExpressionSamples> result = new ArrayList<>();
+    for (ExpressionSamples expression : expressions.values()) {
+      result.add(expression.copy());
+    }
+    return result;
+  }
+
+  private void updateSampling() {
+    boolean shouldSample = enabled && thread != null;
+    if (shouldSample && sampling == null) {
+      sampling =
+          SCHEDULER.scheduleAtFixedRate(
+              this::submitSample, samplingInterval, samplingInterval, TimeUnit.MILLISECONDS);
+    } else if (!shouldSample && sampling != null) {
+      sampling.cancel(false);
+      sampling = null;
+      if (pendingSample != null) {
+        pendingSample.cancel(false);
+        pendingSample = null;
+      }
+    }
+  }
+
+  private synchronized void submitSample() {
+    if (thread == null || (pendingSample != null && !pendingSample.isDone())) {
+      return;
+    }
+    Thread sampledThread = thread;
+    pendingSample =
+        env.submitThreadLocal(
+            new Thread[] {sampledThread},
+            new ThreadLocalAction(false, false) {
+              @Override
+              protected void perform(ThreadLocalAction.Access access) {
+                sample(sampledThread, access.getLocation());
+              }
+            });
+  }
+
+  private void sample(Thread sampledThread, Node location) {
+    List<String> stack = new ArrayList<>();
+    List<UUID> ids = new ArrayList<>();
+    Truffle.getRuntime()
+        .iterateFrames(
+            (FrameInstance frame) -> {
+              String name = getName(frame);
+              if (name != null) {
+                Node node = stack.isEmpty() ? location : frame.getCallNode();
+                stack.add(name);
+                ids.add(getExpressionId(node));
+              }
+              return null;
+            });
+    if (stack.isEmpty()) {
+      return;
+    }
+    record(sampledThread, stack, ids);
+  }
+
+  private synchronized void record(Thread sampledThread, List<String> stack, List<UUID> ids) {
+    if (!enabled || thread != sampledThread) {
+      return;
+    }
+    samples++;
+    List<String> collapsed = new ArrayList<>(stack.size());
+    for (int i = stack.size() - 1; i >= 0; i--) {
+      collapsed.add(stack.get(i));
+    }
+    stacks.merge(collapsed, 1L, Long::sum);
+
+    Set<UUID> counted = new HashSet<>();
+    for (int i = 0; i < ids.size(); i++) {
+      UUID id = ids.get(i);
+      if (id != null && counted.add(id)) {
+        String method = stack.get(i);
+        ExpressionSamples expression =
+            expressions.computeIfAbsent(id, key -> new ExpressionSamples(key, method));
+        expression.totalSamples++;
+        if (i == 0) {
+          expression.selfSamples++;
+        }
+      }
+    }
+  }
+
+  private static String getName(FrameInstance frame) {
+    if (!(frame.getCallTarget() instanceof RootCallTarget)) {
+      return null;
+    }
+    RootNode root = ((RootCallTarget) frame.getCallTarget()).getRootNode();
+    if (root instanceof MethodRootNode) {
+      return ((MethodRootNode) root).getQualifiedName();
+    } else if (root instanceof EnsoRootNode && ((EnsoRootNode) root).getModuleScope() != null) {
+      EnsoRootNode ensoRoot = (EnsoRootNode) root;
+      return ensoRoot.getModuleScope().getModule().getName() + "::" + ensoRoot.getName();
+    }
+    return root.getName();
+  }
+
+  private static UUID getExpressionId(Node node) {
+    for (Node current = node; current != null; current = current.getParent()) {
+      if (current instanceof ExpressionNode && ((ExpressionNode) current).getId() != null) {
+        return ((ExpressionNode) current).getId();
+      }
+    }
+    return null;
+  }
+
+  /** The number of samples of an expression. */
+  public static final class ExpressionSamples {
+    private final UUID expressionId;
+    private final String method;
+    private long selfSamples;
+    private long totalSamples;
+
+    private ExpressionSamples(UUID expressionId, String method) {
+      this.expressionId = expressionId;
+      this.method = method;
+    }
+
+    private ExpressionSamples copy() {
+      ExpressionSamples copy = new ExpressionSamples(expressionId, method);
+      copy.selfSamples = selfSamples;
+      copy.totalSamples = totalSamples;
+      return copy;
+    }
+
+    /** @return the expression id. */
+    public UUID getExpressionId() {
+      return expressionId;
+    }
+
+    /** @return the qualified name of the method containing the expression. */
+    public String getMethod() {
+      return method;
+    }
+
+    /** @return the number of samples in which the expression was executing the innermost frame. */
+    public long getSelfSamples() {
+      return selfSamples;
+    }
+
+    /** @return the number of samples in which the expression was on the stack. */
+    public long getTotalSamples() {
+      return totalSamples;
+    }
+  }
+}
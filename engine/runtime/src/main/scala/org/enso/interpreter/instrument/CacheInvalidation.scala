@@ -70,6 +70,16 @@ object CacheInvalidation {
     case class SetMetadata(metadata: CachePreferenceAnalysis.Metadata)
         extends Command
 
+    /** A command to set the storage persisting the cached values.
+      *
+      * @param persistentCache the storage of the persisted values
+      * @param inputHashes the hashes of the inputs of the cacheable expressions
+      */
+    case class SetPersistentCache(
+      persistentCache: PersistentValueCache,
+      inputHashes: Map[UUID, String]
+    ) extends Command
+
     /** Create an invalidation command from [[Api.InvalidatedExpressions]].
       *
       * @param expressions invalidated expressions
@@ -93,6 +103,9 @@ object CacheInvalidation {
 
     /** Select top stack element. */
     case object Top extends StackSelector
+
+    /** Select bottom stack element, the explicit call. */
+    case object Bottom extends StackSelector
   }
 
   /** Create an invalidation instruction using a stack selector and an
@@ -129,7 +142,8 @@ object CacheInvalidation {
   ): Unit = {
     val frames = instruction.elements match {
       case StackSelector.All => stack
-      case StackSelector.Top => stack.headOption.toSeq
+      case StackSelector.Top    => stack.headOption.toSeq
+      case StackSelector.Bottom => stack.lastOption.toSeq
     }
     run(frames, instruction.command, instruction.indexes)
   }
@@ -179,6 +193,8 @@ object CacheInvalidation {
         }
       case Command.SetMetadata(metadata) =>
         cache.setWeights(metadata.asJavaWeights)
+      case Command.SetPersistentCache(persistentCache, inputHashes) =>
+        cache.setPersistentCache(persistentCache, inputHashes.asJava)
     }
 
   /** Clear the selected index.
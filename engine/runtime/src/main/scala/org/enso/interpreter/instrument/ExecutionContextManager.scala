@@ -1,5 +1,6 @@
 package org.enso.interpreter.instrument
 
+import org.enso.interpreter.instrument.profiling.SamplingProfiler
 import org.enso.polyglot.runtime.Runtime.Api.{
   ContextId,
   ExpressionId,
@@ -10,8 +11,14 @@ import org.enso.polyglot.runtime.Runtime.Api.{
 import scala.collection.mutable.Stack
 
 /** Storage for active execution contexts.
+  *
+  * @param cacheBudget the bound of the cached values of all the stack frames
   */
-class ExecutionContextManager {
+class ExecutionContextManager(
+  cacheBudget: RuntimeCache.Budget = new RuntimeCache.Budget(
+    RuntimeCache.DEFAULT_MAX_SIZE
+  )
+) {
 
   private var contexts: Map[ContextId, ExecutionContextState] =
     Map().withDefaultValue(ExecutionContextState.empty)
@@ -30,6 +37,7 @@ class ExecutionContextManager {
     */
   def destroy(id: ContextId): Unit =
     synchronized {
+      contexts.get(id).foreach(_.stack.foreach(_.cache.release()))
       contexts -= id
     }
 
@@ -55,6 +63,16 @@ class ExecutionContextManager {
       contexts(id).stack
     }
 
+  /** Gets the sampling profiler of a context.
+    *
+    * @param id the context id.
+    * @return the profiler, if the context exists.
+    */
+  def getProfiler(id: ContextId): Option[SamplingProfiler] =
+    synchronized {
+      contexts.get(id).map(_.profiler)
+    }
+
   /** Gets all execution contexts.
     *
     * @return all currently available execution contexsts.
@@ -74,7 +92,7 @@ class ExecutionContextManager {
     synchronized {
       for {
         state <- contexts.get(id)
-      } yield state.stack.push(InstrumentFrame(item))
+      } yield state.stack.push(InstrumentFrame(item, cacheBudget))
     }
 
   /** If the context exists and stack not empty, pop the item from the stack.
@@ -87,7 +105,11 @@ class ExecutionContextManager {
       for {
         state <- contexts.get(id)
         if state.stack.nonEmpty
-      } yield state.stack.pop()
+      } yield {
+        val frame = state.stack.pop()
+        frame.cache.release()
+        frame
+      }
     }
 
   /** Tests if a context specified by its id is stored by the manager.
@@ -1,5 +1,6 @@
 package org.enso.interpreter.instrument
 
+import org.enso.interpreter.instrument.profiling.SamplingProfiler
 import org.enso.polyglot.runtime.Runtime.Api.StackItem
 
 import scala.collection.mutable
@@ -9,10 +10,12 @@ import scala.collection.mutable
   * @param stack the current call stack for the execution context
   * @param visualisations the holder of all visualisations attached to the
   *                       execution context
+  * @param profiler the sampling profiler of the execution context
   */
 case class ExecutionContextState(
   stack: mutable.Stack[InstrumentFrame],
-  visualisations: VisualisationHolder
+  visualisations: VisualisationHolder,
+  profiler: SamplingProfiler
 )
 
 object ExecutionContextState {
@@ -20,7 +23,11 @@ object ExecutionContextState {
   /** Returns empty state.
     */
   def empty: ExecutionContextState =
-    ExecutionContextState(mutable.Stack.empty, VisualisationHolder.empty)
+    ExecutionContextState(
+      mutable.Stack.empty,
+      VisualisationHolder.empty,
+      new SamplingProfiler
+    )
 }
 
 /** Stack frame of the context.
@@ -37,6 +44,10 @@ case class InstrumentFrame(
 
 case object InstrumentFrame {
 
-  def apply(item: StackItem): InstrumentFrame =
-    new InstrumentFrame(item, new RuntimeCache, new UpdatesSynchronizationState)
+  def apply(item: StackItem, budget: RuntimeCache.Budget): InstrumentFrame =
+    new InstrumentFrame(
+      item,
+      new RuntimeCache(budget),
+      new UpdatesSynchronizationState
+    )
 }
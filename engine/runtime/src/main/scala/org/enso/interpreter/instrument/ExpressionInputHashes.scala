@@ -0,0 +1,109 @@
+package org.enso.interpreter.instrument
+
+import java.util.UUID
+
+import org.enso.compiler.core.IR
+import org.enso.compiler.pass.analyse.DataflowAnalysis.DependencyInfo
+import org.enso.compiler.pass.analyse.{
+  CachePreferenceAnalysis,
+  DataflowAnalysis
+}
+import org.enso.interpreter.runtime.Module
+import org.enso.polyglot.runtime.Runtime.Api
+import org.enso.text.ContentBasedVersioning
+
+import scala.util.Try
+
+/** Computes the hashes of the inputs of the cacheable expressions of an
+  * explicitly called method, identifying the values stored in the
+  * [[PersistentValueCache]].
+  *
+  * The hash of an expression covers its source, the sources of the
+  * expressions it transitively depends on, the names of the symbols it refers
+  * to, and the environment of the method. The environment consists of the
+  * arguments of the call, of the module source outside of the method body, so
+  * that editing a called method changes the hashes, and of the provided
+  * `environment` string describing the rest of the program.
+  */
+object ExpressionInputHashes {
+
+  private val Separator = "\u0000"
+
+  /** Compute the input hashes of the cacheable expressions of a method.
+    *
+    * @param module the module defining the method
+    * @param call the explicit call of the method
+    * @param environment the description of the rest of the program
+    * @param versioning the hash function
+    * @return the input hashes of the cacheable expressions of the method, or
+    * `None` if the module source is not available
+    */
+  def apply(
+    module: Module,
+    call: Api.StackItem.ExplicitCall,
+    environment: String,
+    versioning: ContentBasedVersioning
+  ): Option[Map[UUID, String]] =
+    Try(module.getSource.getCharacters.toString).toOption.map { source =>
+      val ir = module.getIr
+      val weights = ir.unsafeGetMetadata(
+        CachePreferenceAnalysis,
+        s"Empty cache preference metadata ${module.getName}"
+      )
+      val dataflow = ir.unsafeGetMetadata(
+        DataflowAnalysis,
+        s"Empty dataflow analysis metadata ${module.getName}"
+      )
+      val sections: Map[IR.Identifier, String] = ir.preorder.flatMap { node =>
+        node.location.map { loc =>
+          node.getId -> source.substring(loc.start, loc.end)
+        }
+      }.toMap
+      val body = getMethodBody(ir, call.methodPointer.name)
+      val methodEnvironment = body.flatMap(_.location) match {
+        case Some(loc) =>
+          source.substring(0, loc.start) + source.substring(loc.end)
+        case None =>
+          source
+      }
+      val arguments =
+        call.thisArgumentExpression.toSeq ++ call.positionalArgumentsExpressions
+      val salt = versioning
+        .evalVersion(
+          (environment +: methodEnvironment +: arguments).mkString(Separator)
+        )
+        .toHexString
+
+      body.toList.flatMap(_.preorder).flatMap { node =>
+        node.getExternalId.filter(weights.get(_) > 0).map { id =>
+          val dependencies = dataflow.dependencies
+            .get(DependencyInfo.Type.asStatic(node))
+            .getOrElse(Set())
+          val inputs = dependencies.toSeq.map {
+            case DependencyInfo.Type.Static(dependency, _) =>
+              sections.getOrElse(dependency, "")
+            case DependencyInfo.Type.Dynamic(name, _) =>
+              name
+          }.sorted
+          val contents =
+            (salt +: sections.getOrElse(node.getId, "") +: inputs)
+              .mkString(Separator)
+          id -> versioning.evalVersion(contents).toHexString
+        }
+      }.toMap
+    }
+
+  /** Find the body of a method, if it is unambiguous. */
+  private def getMethodBody(
+    ir: IR.Module,
+    methodName: String
+  ): Option[IR.Expression] =
+    ir.bindings.collect {
+      case method: IR.Module.Scope.Definition.Method.Explicit
+          if method.methodName.name == methodName =>
+        method.body
+    } match {
+      case List(body) => Some(body)
+      case _          => None
+    }
+}
@@ -28,6 +28,15 @@ object CommandFactory {
       case payload: Api.RecomputeContextRequest =>
         new RecomputeContextCmd(request.requestId, payload)
 
+      case payload: Api.GetCacheMetricsRequest =>
+        new GetCacheMetricsCmd(request.requestId, payload)
+
+      case payload: Api.SetProfilingRequest =>
+        new SetProfilingCmd(request.requestId, payload)
+
+      case payload: Api.GetProfileRequest =>
+        new GetProfileCmd(request.requestId, payload)
+
       case _: Api.GetComponentGroupsRequest =>
         new GetComponentGroupsCmd(request.requestId)
 
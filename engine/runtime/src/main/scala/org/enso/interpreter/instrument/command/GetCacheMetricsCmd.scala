@@ -0,0 +1,47 @@
+package org.enso.interpreter.instrument.command
+
+import org.enso.interpreter.instrument.execution.RuntimeContext
+import org.enso.polyglot.runtime.Runtime.Api
+import org.enso.polyglot.runtime.Runtime.Api.RequestId
+
+import scala.concurrent.{ExecutionContext, Future}
+
+/** A command that gets the statistics of the caches of an execution context.
+  *
+  * @param maybeRequestId an option with request id
+  * @param request a request for a service
+  */
+class GetCacheMetricsCmd(
+  maybeRequestId: Option[RequestId],
+  request: Api.GetCacheMetricsRequest
+) extends Command(maybeRequestId) {
+
+  /** @inheritdoc */
+  override def execute(implicit
+    ctx: RuntimeContext,
+    ec: ExecutionContext
+  ): Future[Unit] =
+    Future {
+      if (doesContextExist) {
+        reply(Api.GetCacheMetricsResponse(request.contextId, getMetrics))
+      } else {
+        reply(Api.ContextNotExistError(request.contextId))
+      }
+    }
+
+  private def doesContextExist(implicit ctx: RuntimeContext): Boolean = {
+    ctx.contextManager.contains(request.contextId)
+  }
+
+  private def getMetrics(implicit ctx: RuntimeContext): Api.CacheMetrics = {
+    val caches = ctx.contextManager.getStack(request.contextId).map(_.cache)
+    Api.CacheMetrics(
+      entries       = caches.map(_.size()).sum,
+      estimatedSize = caches.map(_.getEstimatedSize).sum,
+      hits          = caches.map(_.getHits).sum,
+      misses        = caches.map(_.getMisses).sum,
+      evictions     = caches.map(_.getEvictions).sum
+    )
+  }
+
+}
@@ -0,0 +1,54 @@
+package org.enso.interpreter.instrument.command
+
+import org.enso.interpreter.instrument.execution.RuntimeContext
+import org.enso.interpreter.instrument.profiling.SamplingProfiler
+import org.enso.polyglot.runtime.Runtime.Api
+import org.enso.polyglot.runtime.Runtime.Api.RequestId
+
+import scala.concurrent.{ExecutionContext, Future}
+import scala.jdk.CollectionConverters._
+
+/** A command that gets the samples collected by the profiler of an execution
+  * context.
+  *
+  * @param maybeRequestId an option with request id
+  * @param request a request for a service
+  */
+class GetProfileCmd(
+  maybeRequestId: Option[RequestId],
+  request: Api.GetProfileRequest
+) extends Command(maybeRequestId) {
+
+  /** @inheritdoc */
+  override def execute(implicit
+    ctx: RuntimeContext,
+    ec: ExecutionContext
+  ): Future[Unit] =
+    Future {
+      ctx.contextManager.getProfiler(request.contextId) match {
+        case Some(profiler) =>
+          reply(Api.GetProfileResponse(request.contextId, getProfile(profiler)))
+        case None =>
+          reply(Api.ContextNotExistError(request.contextId))
+      }
+    }
+
+  private def getProfile(profiler: SamplingProfiler): Api.Profile =
+    profiler.synchronized {
+      val expressions = profiler.getExpressions.asScala.map { expression =>
+        Api.ProfiledExpression(
+          expressionId = expression.getExpressionId,
+          method       = expression.getMethod,
+          selfSamples  = expression.getSelfSamples,
+          totalSamples = expression.getTotalSamples
+        )
+      }
+      Api.Profile(
+        samplingInterval = profiler.getSamplingInterval,
+        samples          = profiler.getSamples,
+        collapsedStacks  = profiler.getCollapsedStacks,
+        expressions      = expressions.toVector
+      )
+    }
+
+}
@@ -0,0 +1,35 @@
+package org.enso.interpreter.instrument.command
+
+import org.enso.interpreter.instrument.execution.RuntimeContext
+import org.enso.polyglot.runtime.Runtime.Api
+import org.enso.polyglot.runtime.Runtime.Api.RequestId
+
+import scala.concurrent.{ExecutionContext, Future}
+
+/** A command that enables or disables the sampling profiler of an execution
+  * context.
+  *
+  * @param maybeRequestId an option with request id
+  * @param request a request for a service
+  */
+class SetProfilingCmd(
+  maybeRequestId: Option[RequestId],
+  request: Api.SetProfilingRequest
+) extends Command(maybeRequestId) {
+
+  /** @inheritdoc */
+  override def execute(implicit
+    ctx: RuntimeContext,
+    ec: ExecutionContext
+  ): Future[Unit] =
+    Future {
+      ctx.contextManager.getProfiler(request.contextId) match {
+        case Some(profiler) =>
+          profiler.setEnabled(request.enabled)
+          reply(Api.SetProfilingResponse(request.contextId))
+        case None =>
+          reply(Api.ContextNotExistError(request.contextId))
+      }
+    }
+
+}
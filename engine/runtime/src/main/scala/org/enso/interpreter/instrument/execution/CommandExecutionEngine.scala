@@ -1,13 +1,18 @@
 package org.enso.interpreter.instrument.execution
 
-import org.enso.interpreter.instrument.InterpreterContext
+import org.enso.interpreter.instrument.{
+  InterpreterContext,
+  PersistentValueCache
+}
 import org.enso.interpreter.instrument.command.Command
 import org.enso.interpreter.instrument.execution.Completion.{Done, Interrupted}
 import org.enso.interpreter.runtime.control.ThreadInterruptedException
+import org.enso.pkg.Package
 import org.enso.polyglot.RuntimeOptions
 import org.enso.text.Sha3_224VersionCalculator
 
-import java.util.concurrent.Executors
+import java.nio.file.Paths
+import java.util.concurrent.{Executors, TimeUnit}
 import java.util.logging.Level
 
 import scala.concurrent.{ExecutionContext, ExecutionContextExecutor, Future}
@@ -30,7 +35,8 @@ class CommandExecutionEngine(interpreterContext: InterpreterContext)
 
   private val locking = new ReentrantLocking
 
-  private val executionState = new ExecutionState()
+  private val executionState =
+    new ExecutionState(persistentValueCache = createPersistentValueCache())
 
   private val jobExecutionEngine =
     new JobExecutionEngine(interpreterContext, executionState, locking)
@@ -69,6 +75,34 @@ class CommandExecutionEngine(interpreterContext: InterpreterContext)
       versioning       = Sha3_224VersionCalculator
     )
 
+  /** Creates the storage of the computed values persisted in the cache
+    * directory of the project, if it is enabled.
+    */
+  private def createPersistentValueCache(): Option[PersistentValueCache] = {
+    val context = interpreterContext.executionService.getContext
+    val options = context.getEnvironment.getOptions
+    val isEnabled = options
+      .get(RuntimeOptions.ENABLE_PERSISTENT_VALUE_CACHE_KEY)
+      .booleanValue()
+    val minComputationTime = TimeUnit.MILLISECONDS.toNanos(
+      options
+        .get(RuntimeOptions.PERSISTENT_VALUE_CACHE_MIN_COMPUTATION_TIME_KEY)
+        .longValue()
+    )
+    context.getPackageRepository.getMainProjectPackage
+      .filter(_ => isEnabled)
+      .map { pkg =>
+        val directory = pkg.internalDirectory
+          .resolve(Package.cacheDirName)
+          .resolve(CommandExecutionEngine.ValueCacheDirName)
+        new PersistentValueCache(
+          Paths.get(directory.getAbsoluteFile.getPath),
+          minComputationTime,
+          interpreterContext.executionService.getLogger
+        )
+      }
+  }
+
   /** @inheritdoc */
   def invoke(cmd: Command): Future[Completion] = {
     val logger = runtimeContext.executionService.getLogger
@@ -116,3 +150,11 @@ class CommandExecutionEngine(interpreterContext: InterpreterContext)
   }
 
 }
+
+object CommandExecutionEngine {
+
+  /** The name of the directory storing the persisted values, in the cache
+    * directory of the project.
+    */
+  private val ValueCacheDirName = "values"
+}
@@ -1,9 +1,14 @@
 package org.enso.interpreter.instrument.execution
 
+import org.enso.interpreter.instrument.PersistentValueCache
+
 /** The state of the runtime.
   *
   * @param pendingEdits the storage for pending file edits
+  * @param persistentValueCache the storage for computed values persisted
+  * across runtime restarts, if enabled
   */
 final class ExecutionState(
-  val pendingEdits: PendingEdits = new PendingFileEdits()
+  val pendingEdits: PendingEdits = new PendingFileEdits(),
+  val persistentValueCache: Option[PersistentValueCache] = None
 )
@@ -3,6 +3,7 @@ package org.enso.interpreter.instrument.execution
 import org.enso.interpreter.instrument.InterpreterContext
 import org.enso.interpreter.instrument.job.Job
 import org.enso.polyglot.RuntimeServerInfo
+import org.enso.polyglot.runtime.Runtime.Api.VisualisationId
 import org.enso.text.Sha3_224VersionCalculator
 
 import java.util.UUID
@@ -10,6 +11,7 @@ import java.util.concurrent.atomic.AtomicReference
 import java.util.concurrent.{ExecutorService, Executors}
 import java.util.logging.Level
 
+import scala.collection.mutable
 import scala.concurrent.{Future, Promise}
 import scala.util.control.NonFatal
 
@@ -52,6 +54,22 @@ class JobExecutionEngine(
       new TruffleThreadFactory(context, "background-job-pool")
     )
 
+  val visualisationJobExecutor: ExecutorService =
+    Executors.newFixedThreadPool(
+      jobParallelism,
+      new TruffleThreadFactory(context, "visualisation-pool")
+    )
+
+  /** The latest job waiting to run for each visualisation. The executor queue
+    * holds at most one task per visualisation, so it is bounded by the number
+    * of attached visualisations.
+    */
+  private val pendingVisualisationJobs =
+    mutable.Map[VisualisationId, Job[Unit]]()
+
+  /** The visualisations with a task queued or running on the executor. */
+  private val scheduledVisualisations = mutable.Set[VisualisationId]()
+
   private val runtimeContext =
     RuntimeContext(
       executionService = interpreterContext.executionService,
@@ -73,6 +91,65 @@ class JobExecutionEngine(
   override def run[A](job: Job[A]): Future[A] =
     runInternal(job, jobExecutor, runningJobsRef)
 
+  /** @inheritdoc */
+  override def runVisualisation(
+    visualisationId: VisualisationId,
+    job: Job[Unit]
+  ): Unit = {
+    val schedule = pendingVisualisationJobs.synchronized {
+      pendingVisualisationJobs.put(visualisationId, job)
+      scheduledVisualisations.add(visualisationId)
+    }
+    if (schedule) {
+      visualisationJobExecutor.submit(() =>
+        runVisualisationJob(visualisationId)
+      )
+    }
+  }
+
+  /** Runs the pending job of a visualisation, then schedules the next one if
+    * a newer job was submitted meanwhile. Going back through the queue lets
+    * the other visualisations run between the updates of a busy one.
+    */
+  private def runVisualisationJob(visualisationId: VisualisationId): Unit = {
+    val logger = runtimeContext.executionService.getLogger
+    val job = pendingVisualisationJobs.synchronized {
+      pendingVisualisationJobs.remove(visualisationId)
+    }
+    job.foreach { job =>
+      logger.log(Level.FINE, s"Executing job: $job...")
+      val before = System.currentTimeMillis()
+      try {
+        job.run(runtimeContext)
+        val took = System.currentTimeMillis() - before
+        logger.log(Level.FINE, s"Job $job finished in $took ms.")
+      } catch {
+        case NonFatal(ex) =>
+          logger.log(Level.SEVERE, s"Error executing $job", ex)
+      }
+    }
+    val reschedule = pendingVisualisationJobs.synchronized {
+      val hasPending = pendingVisualisationJobs.contains(visualisationId)
+      if (!hasPending) {
+        scheduledVisualisations.remove(visualisationId)
+      }
+      hasPending
+    }
+    if (reschedule) {
+      visualisationJobExecutor.submit(() =>
+        runVisualisationJob(visualisationId)
+      )
+    }
+  }
+
+  /** Drops the pending visualisation jobs matching the predicate. */
+  private def dropVisualisationJobs(p: Job[Unit] => Boolean): Unit =
+    pendingVisualisationJobs.synchronized {
+      pendingVisualisationJobs.filterInPlace { case (_, job) =>
+        !(job.isCancellable && p(job))
+      }
+    }
+
   private def runInternal[A](
     job: Job[A],
     executorService: ExecutorService,
@@ -112,6 +189,7 @@ class JobExecutionEngine(
     cancellableJobs.foreach { runningJob =>
       runningJob.future.cancel(runningJob.job.mayInterruptIfRunning)
     }
+    dropVisualisationJobs(_ => true)
     runtimeContext.executionService.getContext.getThreadManager
       .interruptThreads()
   }
@@ -125,6 +203,7 @@ class JobExecutionEngine(
         runningJob.future.cancel(runningJob.job.mayInterruptIfRunning)
       }
     }
+    dropVisualisationJobs(_.contextIds.contains(contextId))
     runtimeContext.executionService.getContext.getThreadManager
       .interruptThreads()
   }
@@ -136,6 +215,7 @@ class JobExecutionEngine(
     runtimeContext.executionService.getContext.getThreadManager
       .interruptThreads()
     jobExecutor.shutdownNow()
+    visualisationJobExecutor.shutdownNow()
   }
 
 }
@@ -1,6 +1,7 @@
 package org.enso.interpreter.instrument.execution
 
 import org.enso.interpreter.instrument.job.Job
+import org.enso.polyglot.runtime.Runtime.Api.VisualisationId
 
 import scala.concurrent.Future
 
@@ -22,6 +23,18 @@ trait JobProcessor {
     */
   def runBackground[A](job: Job[A]): Future[A]
 
+  /** Runs a job computing a visualisation, on a pool separate from the
+    * program execution.
+    *
+    * The jobs of a visualisation run one at a time. A job still waiting when a
+    * newer one is submitted for the same visualisation is dropped, so that
+    * only the latest value gets visualised.
+    *
+    * @param visualisationId the identifier of the computed visualisation
+    * @param job a job to execute
+    */
+  def runVisualisation(visualisationId: VisualisationId, job: Job[Unit]): Unit
+
   /** Stops the job processor. */
   def stop(): Unit
 
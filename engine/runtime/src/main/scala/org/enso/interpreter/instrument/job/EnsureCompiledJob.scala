@@ -12,7 +12,11 @@ import org.enso.interpreter.instrument.execution.{
   LocationResolver,
   RuntimeContext
 }
-import org.enso.interpreter.instrument.{CacheInvalidation, InstrumentFrame}
+import org.enso.interpreter.instrument.{
+  CacheInvalidation,
+  ExpressionInputHashes,
+  InstrumentFrame
+}
 import org.enso.interpreter.runtime.Module
 import org.enso.polyglot.runtime.Runtime.Api
 import org.enso.text.buffer.Rope
@@ -22,6 +26,7 @@ import java.util.logging.Level
 
 import scala.jdk.CollectionConverters._
 import scala.jdk.OptionConverters._
+import scala.util.Try
 
 /** A job that ensures that specified files are compiled.
   *
@@ -48,6 +53,12 @@ final class EnsureCompiledJob(protected val files: Iterable[File])
             )
           )
         }
+        getPersistentCache(stack).foreach { command =>
+          CacheInvalidation.run(
+            stack,
+            CacheInvalidation(CacheInvalidation.StackSelector.Bottom, command)
+          )
+        }
       }
       compilationResult
     } finally {
@@ -352,6 +363,58 @@ final class EnsureCompiledJob(protected val files: Iterable[File])
       case _ => None
     }
 
+  /** Get the command setting the storage of the persisted values of the
+    * explicitly called method, along with the hashes of the inputs of its
+    * cacheable expressions.
+    *
+    * Only the values of the explicit call at the bottom of the stack are
+    * persisted. The values of the entered local calls depend on the values of
+    * their arguments, which are not covered by the hashes.
+    */
+  private def getPersistentCache(
+    stack: Iterable[InstrumentFrame]
+  )(implicit ctx: RuntimeContext): Option[CacheInvalidation.Command] =
+    for {
+      persistentCache <- ctx.state.persistentValueCache
+      call <- stack.lastOption.map(_.item).collect {
+        case call: Api.StackItem.ExplicitCall => call
+      }
+      module <- ctx.executionService.getContext
+        .findModule(call.methodPointer.module)
+        .toScala
+      inputHashes <- ExpressionInputHashes(
+        module,
+        call,
+        getEnvironment(module),
+        ctx.versioning
+      )
+    } yield CacheInvalidation.Command.SetPersistentCache(
+      persistentCache,
+      inputHashes
+    )
+
+  /** Describe the program outside of the module, for the purpose of the
+    * persisted values invalidation.
+    *
+    * The description consists of the versions of the loaded libraries and the
+    * sources of the other modules of the same package.
+    */
+  private def getEnvironment(
+    module: Module
+  )(implicit ctx: RuntimeContext): String = {
+    val libraries = ctx.executionService.getContext.getPackageRepository
+      .getLoadedPackages
+      .map(pkg => s"${pkg.libraryName}:${pkg.config.version}")
+    val sources = getModulesInScope
+      .filter(m => m != module && m.getPackage == module.getPackage)
+      .flatMap { m =>
+        Try(m.getSource.getCharacters).toOption.map { source =>
+          s"${m.getName}:${ctx.versioning.evalVersion(source).toHexString}"
+        }
+      }
+    (libraries ++ sources).toSeq.sorted.mkString("\n")
+  }
+
   /** Get all modules in the current compiler scope. */
   private def getModulesInScope(implicit
     ctx: RuntimeContext
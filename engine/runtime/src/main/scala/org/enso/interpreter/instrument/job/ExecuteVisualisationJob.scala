@@ -0,0 +1,56 @@
+package org.enso.interpreter.instrument.job
+
+import org.enso.interpreter.instrument.{
+  UpdatesSynchronizationState,
+  Visualisation
+}
+import org.enso.interpreter.instrument.execution.RuntimeContext
+import org.enso.polyglot.runtime.Runtime.Api.{ContextId, ExpressionId}
+
+/** A job that computes a visualisation of an expression value and sends the
+  * update to the client.
+  *
+  * The job does nothing if the visualisation has been modified or detached
+  * since the job was created, so that a stale update never reaches the
+  * client after the response to the modification.
+  *
+  * @param contextId an identifier of an execution context
+  * @param syncState the synchronization state of message updates
+  * @param visualisation the visualisation data
+  * @param expressionId the id of expression to visualise
+  * @param expressionValue the value of expression to visualise
+  */
+class ExecuteVisualisationJob(
+  contextId: ContextId,
+  syncState: UpdatesSynchronizationState,
+  visualisation: Visualisation,
+  expressionId: ExpressionId,
+  expressionValue: AnyRef
+) extends Job[Unit](List(contextId), true, false) {
+
+  /** @inheritdoc */
+  override def run(implicit ctx: RuntimeContext): Unit = {
+    ctx.locking.acquireReadCompilationLock()
+    try {
+      if (isCurrent) {
+        ProgramExecutionSupport.sendVisualisationUpdate(
+          contextId,
+          syncState,
+          visualisation,
+          expressionId,
+          expressionValue
+        )
+      }
+    } finally {
+      ctx.locking.releaseReadCompilationLock()
+    }
+  }
+
+  private def isCurrent(implicit ctx: RuntimeContext): Boolean =
+    ctx.contextManager
+      .getVisualisationById(contextId, visualisation.id)
+      .exists(_ eq visualisation)
+
+  override def toString: String =
+    s"ExecuteVisualisationJob(visualisationId=${visualisation.id})"
+}
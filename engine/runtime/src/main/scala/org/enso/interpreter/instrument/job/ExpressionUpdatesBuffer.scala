@@ -0,0 +1,100 @@
+package org.enso.interpreter.instrument.job
+
+import java.util.UUID
+import java.util.concurrent.{
+  Executors,
+  ScheduledExecutorService,
+  ScheduledFuture,
+  TimeUnit
+}
+
+import org.enso.interpreter.instrument.Endpoint
+import org.enso.polyglot.runtime.Runtime.Api
+
+import scala.collection.mutable
+
+/** Collects the expression updates of a program execution and sends them to
+  * the client in batches.
+  *
+  * Updates of the same expression are coalesced, the later update replacing
+  * the earlier one. The buffered updates are sent in a single
+  * [[Api.ExpressionUpdates]] message when their number reaches `maxSize`,
+  * when the oldest of them has been waiting for `maxDelayMillis`, or when the
+  * buffer is flushed explicitly. The buffer can be used from multiple
+  * threads.
+  *
+  * @param contextId an identifier of the execution context
+  * @param endpoint the endpoint sending the updates
+  * @param maxSize the number of updates triggering a flush, a size of 1
+  * sends every update right away
+  * @param maxDelayMillis the time after which the buffered updates are sent
+  */
+final class ExpressionUpdatesBuffer(
+  contextId: Api.ContextId,
+  endpoint: Endpoint,
+  maxSize: Int        = ExpressionUpdatesBuffer.DefaultMaxSize,
+  maxDelayMillis: Int = ExpressionUpdatesBuffer.DefaultMaxDelayMillis
+) {
+
+  private val updates =
+    mutable.LinkedHashMap[UUID, Api.ExpressionUpdate]()
+
+  private var scheduledFlush: Option[ScheduledFuture[_]] = None
+
+  private val flushTask: Runnable = () => flush()
+
+  /** Adds an update to the buffer, replacing any buffered update of the same
+    * expression.
+    *
+    * @param update the expression update
+    */
+  def add(update: Api.ExpressionUpdate): Unit = synchronized {
+    updates.put(update.expressionId, update)
+    if (updates.size >= maxSize) {
+      flush()
+    } else if (scheduledFlush.isEmpty) {
+      scheduledFlush = Some(
+        ExpressionUpdatesBuffer.scheduler.schedule(
+          flushTask,
+          maxDelayMillis.toLong,
+          TimeUnit.MILLISECONDS
+        )
+      )
+    }
+  }
+
+  /** Sends all the buffered updates.
+    *
+    * The updates are sent while holding the buffer lock, so that batches
+    * flushed from different threads reach the client in order.
+    */
+  def flush(): Unit = synchronized {
+    scheduledFlush.foreach(_.cancel(false))
+    scheduledFlush = None
+    if (updates.nonEmpty) {
+      endpoint.sendToClient(
+        Api.Response(Api.ExpressionUpdates(contextId, updates.values.toSet))
+      )
+      updates.clear()
+    }
+  }
+}
+
+object ExpressionUpdatesBuffer {
+
+  /** The default number of updates sent in a single message. */
+  val DefaultMaxSize: Int = 500
+
+  /** The default time after which the buffered updates are sent. */
+  val DefaultMaxDelayMillis: Int = 100
+
+  /** Sends the updates of the buffers whose delay has passed. The thread only
+    * serializes the messages, it never enters the language context.
+    */
+  private lazy val scheduler: ScheduledExecutorService =
+    Executors.newSingleThreadScheduledExecutor { runnable =>
+      val thread = new Thread(runnable, "expression-updates-flush")
+      thread.setDaemon(true)
+      thread
+    }
+}
@@ -37,7 +37,7 @@ import org.enso.interpreter.service.error.{
   ServiceException,
   VisualisationException
 }
-import org.enso.polyglot.LanguageInfo
+import org.enso.polyglot.{LanguageInfo, RuntimeOptions}
 import org.enso.polyglot.runtime.Runtime.Api
 import org.enso.polyglot.runtime.Runtime.Api.ContextId
 
@@ -53,12 +53,14 @@ object ProgramExecutionSupport {
     * @param contextId an identifier of an execution context
     * @param executionFrame an execution frame
     * @param callStack a call stack
+    * @param updates the buffer of the expression updates
     */
   @scala.annotation.tailrec
   final private def executeProgram(
     contextId: Api.ContextId,
     executionFrame: ExecutionFrame,
-    callStack: List[LocalCallFrame]
+    callStack: List[LocalCallFrame],
+    updates: ExpressionUpdatesBuffer
   )(implicit ctx: RuntimeContext): Unit = {
     val logger           = ctx.executionService.getLogger
     val methodCallsCache = new MethodCallsCache
@@ -66,28 +68,38 @@ object ProgramExecutionSupport {
 
     val onCachedMethodCallCallback: Consumer[ExpressionValue] = { value =>
       logger.log(Level.FINEST, s"ON_CACHED_CALL ${value.getExpressionId}")
-      sendExpressionUpdate(contextId, executionFrame.syncState, value)
+      sendExpressionUpdate(updates, executionFrame.syncState, value)
     }
 
     val onCachedValueCallback: Consumer[ExpressionValue] = { value =>
       if (callStack.isEmpty) {
         logger.log(Level.FINEST, s"ON_CACHED_VALUE ${value.getExpressionId}")
-        sendExpressionUpdate(contextId, executionFrame.syncState, value)
-        sendVisualisationUpdates(contextId, executionFrame.syncState, value)
+        sendExpressionUpdate(updates, executionFrame.syncState, value)
+        sendVisualisationUpdates(
+          contextId,
+          updates,
+          executionFrame.syncState,
+          value
+        )
       }
     }
 
     val onComputedValueCallback: Consumer[ExpressionValue] = { value =>
       if (callStack.isEmpty) {
         logger.log(Level.FINEST, s"ON_COMPUTED ${value.getExpressionId}")
-        sendExpressionUpdate(contextId, executionFrame.syncState, value)
-        sendVisualisationUpdates(contextId, executionFrame.syncState, value)
+        sendExpressionUpdate(updates, executionFrame.syncState, value)
+        sendVisualisationUpdates(
+          contextId,
+          updates,
+          executionFrame.syncState,
+          value
+        )
       }
     }
 
     val onExceptionalCallback: Consumer[Exception] = { value =>
       logger.log(Level.FINEST, s"ON_ERROR $value")
-      sendErrorUpdate(contextId, value)
+      sendErrorUpdate(contextId, updates, value)
     }
 
     val callablesCallback: Consumer[ExpressionCall] = fun =>
@@ -168,7 +180,7 @@ object ProgramExecutionSupport {
                 item.cache,
                 item.syncState
               )
-            executeProgram(contextId, executionFrame, tail)
+            executeProgram(contextId, executionFrame, tail, updates)
           case None =>
             ()
         }
@@ -214,6 +226,11 @@ object ProgramExecutionSupport {
       }
 
     val (explicitCallOpt, localCalls) = unwind(stack, Nil, Nil)
+    val batchSize = ctx.executionService.getContext.getEnvironment.getOptions
+      .get(RuntimeOptions.INTERPRETER_EXPRESSION_UPDATES_BATCH_SIZE_KEY)
+    val updates =
+      new ExpressionUpdatesBuffer(contextId, ctx.endpoint, batchSize.intValue)
+    val profiler = ctx.contextManager.getProfiler(contextId)
     val executionResult = for {
       stackItem <- Either.fromOption(
         explicitCallOpt,
@@ -221,7 +238,19 @@ object ProgramExecutionSupport {
       )
       _ <-
         Either
-          .catchNonFatal(executeProgram(contextId, stackItem, localCalls))
+          .catchNonFatal {
+            profiler.foreach(
+              _.attach(
+                ctx.executionService.getContext.getEnvironment,
+                Thread.currentThread()
+              )
+            )
+            try executeProgram(contextId, stackItem, localCalls, updates)
+            finally {
+              profiler.foreach(_.detach())
+              updates.flush()
+            }
+          }
           .leftMap(onExecutionError(stackItem.item, _))
     } yield ()
     logger.log(Level.FINEST, s"Execution finished: $executionResult")
@@ -306,9 +335,12 @@ object ProgramExecutionSupport {
       Api.ExecutionResult.Failure(ex.getMessage, None)
   }
 
-  private def sendErrorUpdate(contextId: ContextId, error: Exception)(implicit
-    ctx: RuntimeContext
-  ): Unit = {
+  private def sendErrorUpdate(
+    contextId: ContextId,
+    updates: ExpressionUpdatesBuffer,
+    error: Exception
+  )(implicit ctx: RuntimeContext): Unit = {
+    updates.flush()
     ctx.endpoint.sendToClient(
       Api.Response(
         Api.ExecutionUpdate(
@@ -326,7 +358,7 @@ object ProgramExecutionSupport {
   }
 
   private def sendExpressionUpdate(
-    contextId: ContextId,
+    updates: ExpressionUpdatesBuffer,
     syncState: UpdatesSynchronizationState,
     value: ExpressionValue
   )(implicit ctx: RuntimeContext): Unit = {
@@ -353,23 +385,16 @@ object ProgramExecutionSupport {
         case _ =>
           Api.ExpressionUpdate.Payload.Value()
       }
-      ctx.endpoint.sendToClient(
-        Api.Response(
-          Api.ExpressionUpdates(
-            contextId,
-            Set(
-              Api.ExpressionUpdate(
-                value.getExpressionId,
-                Option(value.getType),
-                methodPointer,
-                value.getProfilingInfo.map { case e: ExecutionTime =>
-                  Api.ProfilingInfo.ExecutionTime(e.getNanoTimeElapsed)
-                }.toVector,
-                value.wasCached(),
-                payload
-              )
-            )
-          )
+      updates.add(
+        Api.ExpressionUpdate(
+          value.getExpressionId,
+          Option(value.getType),
+          methodPointer,
+          value.getProfilingInfo.map { case e: ExecutionTime =>
+            Api.ProfilingInfo.ExecutionTime(e.getNanoTimeElapsed)
+          }.toVector,
+          value.wasCached(),
+          payload
         )
       )
 
@@ -380,15 +405,21 @@ object ProgramExecutionSupport {
     }
   }
 
-  /** Find visualisations for the provided expression value, compute and send
-    * the updates.
+  /** Find visualisations for the provided expression value, and schedule
+    * computing and sending the updates, so that slow visualisations do not
+    * delay the program execution.
+    *
+    * The buffered expression updates are sent first, so that the client
+    * learns about the expression before receiving its visualisation.
     *
     * @param contextId the identifier of an execution context
+    * @param updates the buffer of the expression updates
     * @param value the computed value
     * @param ctx the runtime context
     */
   private def sendVisualisationUpdates(
     contextId: ContextId,
+    updates: ExpressionUpdatesBuffer,
     syncState: UpdatesSynchronizationState,
     value: ExpressionValue
   )(implicit ctx: RuntimeContext): Unit = {
@@ -398,13 +429,19 @@ object ProgramExecutionSupport {
           contextId,
           value.getExpressionId
         )
+      if (visualisations.nonEmpty) {
+        updates.flush()
+      }
       visualisations.foreach { visualisation =>
-        sendVisualisationUpdate(
-          contextId,
-          syncState,
-          visualisation,
-          value.getExpressionId,
-          value.getValue
+        ctx.jobProcessor.runVisualisation(
+          visualisation.id,
+          new ExecuteVisualisationJob(
+            contextId,
+            syncState,
+            visualisation,
+            value.getExpressionId,
+            value.getValue
+          )
         )
       }
     }
@@ -66,12 +66,15 @@ class UpsertVisualisationJob(
           requireVisualisationSynchronization(stack, expressionId)
           cachedValue match {
             case Some(value) =>
-              ProgramExecutionSupport.sendVisualisationUpdate(
-                config.executionContextId,
-                stack.headOption.get.syncState,
-                visualisation,
-                expressionId,
-                value
+              ctx.jobProcessor.runVisualisation(
+                visualisationId,
+                new ExecuteVisualisationJob(
+                  config.executionContextId,
+                  stack.headOption.get.syncState,
+                  visualisation,
+                  expressionId,
+                  value
+                )
               )
               None
             case None =>
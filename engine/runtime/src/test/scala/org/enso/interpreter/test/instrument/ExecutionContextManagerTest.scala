@@ -0,0 +1,63 @@
+package org.enso.interpreter.test.instrument
+
+import java.util
+import java.util.UUID
+
+import org.enso.interpreter.instrument.{ExecutionContextManager, RuntimeCache}
+import org.enso.polyglot.runtime.Runtime.Api
+import org.scalatest.flatspec.AnyFlatSpec
+import org.scalatest.matchers.should.Matchers
+
+import scala.jdk.CollectionConverters._
+
+class ExecutionContextManagerTest extends AnyFlatSpec with Matchers {
+
+  private val mainCall = Api.StackItem.ExplicitCall(
+    Api.MethodPointer("Enso_Test.Test.Main", "Enso_Test.Test.Main", "main"),
+    None,
+    Vector()
+  )
+
+  private def cacheValue(
+    manager: ExecutionContextManager,
+    contextId: UUID
+  ): Unit = {
+    val cache = manager.getStack(contextId).head.cache
+    val key   = UUID.randomUUID()
+    cache.setWeights(
+      Map(key -> 1.0).asJava.asInstanceOf[util.Map[UUID, java.lang.Double]]
+    )
+    cache.offer(key, 0L) shouldEqual true
+  }
+
+  "ExecutionContextManager" should "free the budget of popped frames" in {
+    val budget    = new RuntimeCache.Budget(1024)
+    val manager   = new ExecutionContextManager(budget)
+    val contextId = UUID.randomUUID()
+
+    manager.create(contextId)
+    manager.push(contextId, mainCall)
+    cacheValue(manager, contextId)
+    manager.push(contextId, Api.StackItem.LocalCall(UUID.randomUUID()))
+    cacheValue(manager, contextId)
+    budget.getEstimatedSize shouldEqual 2 * 16
+
+    manager.pop(contextId).map(_.cache.size()) shouldEqual Some(0)
+    budget.getEstimatedSize shouldEqual 16
+  }
+
+  it should "free the budget of destroyed contexts" in {
+    val budget    = new RuntimeCache.Budget(1024)
+    val manager   = new ExecutionContextManager(budget)
+    val contextId = UUID.randomUUID()
+
+    manager.create(contextId)
+    manager.push(contextId, mainCall)
+    cacheValue(manager, contextId)
+    manager.push(contextId, Api.StackItem.LocalCall(UUID.randomUUID()))
+    cacheValue(manager, contextId)
+
+    manager.destroy(contextId)
+    budget.getEstimatedSize shouldEqual 0
+  }
+}
@@ -0,0 +1,119 @@
+package org.enso.interpreter.test.instrument
+
+import java.nio.ByteBuffer
+import java.util.UUID
+import java.util.concurrent.ConcurrentLinkedQueue
+
+import org.enso.interpreter.instrument.Endpoint
+import org.enso.interpreter.instrument.job.ExpressionUpdatesBuffer
+import org.enso.polyglot.runtime.Runtime.Api
+import org.graalvm.polyglot.io.MessageEndpoint
+import org.scalatest.concurrent.Eventually
+import org.scalatest.flatspec.AnyFlatSpec
+import org.scalatest.matchers.should.Matchers
+
+import scala.jdk.CollectionConverters._
+
+class ExpressionUpdatesBufferTest
+    extends AnyFlatSpec
+    with Matchers
+    with Eventually {
+
+  private val contextId = UUID.randomUUID()
+
+  /** An endpoint collecting the responses sent to the client. */
+  private class TestEndpoint extends Endpoint(null) {
+    val messages = new ConcurrentLinkedQueue[Api.ApiEnvelope]()
+
+    setClient(new MessageEndpoint {
+      override def sendText(text: String): Unit = ()
+      override def sendBinary(data: ByteBuffer): Unit =
+        Api.deserializeApiEnvelope(data).foreach(messages.add)
+      override def sendPing(data: ByteBuffer): Unit = ()
+      override def sendPong(data: ByteBuffer): Unit = ()
+      override def sendClose(): Unit                = ()
+    })
+
+    def received: List[Api.ApiEnvelope] = messages.asScala.toList
+  }
+
+  private def update(id: UUID, tpe: String): Api.ExpressionUpdate =
+    Api.ExpressionUpdate(
+      id,
+      Some(tpe),
+      None,
+      Vector(),
+      fromCache = false,
+      Api.ExpressionUpdate.Payload.Value()
+    )
+
+  private def updates(xs: Api.ExpressionUpdate*): Api.Response =
+    Api.Response(Api.ExpressionUpdates(contextId, xs.toSet))
+
+  "ExpressionUpdatesBuffer" should "coalesce updates of an expression" in {
+    val endpoint = new TestEndpoint
+    val buffer   = new ExpressionUpdatesBuffer(contextId, endpoint, 500, 60000)
+    val x        = UUID.randomUUID()
+    val y        = UUID.randomUUID()
+
+    buffer.add(update(x, "Integer"))
+    buffer.add(update(y, "Integer"))
+    buffer.add(update(x, "Text"))
+    endpoint.received shouldEqual Nil
+
+    buffer.flush()
+    endpoint.received shouldEqual List(
+      updates(update(x, "Text"), update(y, "Integer"))
+    )
+  }
+
+  it should "send the updates when the buffer is full" in {
+    val endpoint = new TestEndpoint
+    val buffer   = new ExpressionUpdatesBuffer(contextId, endpoint, 2, 60000)
+    val x        = UUID.randomUUID()
+    val y        = UUID.randomUUID()
+    val z        = UUID.randomUUID()
+
+    buffer.add(update(x, "Integer"))
+    buffer.add(update(y, "Integer"))
+    buffer.add(update(z, "Integer"))
+    endpoint.received shouldEqual List(
+      updates(update(x, "Integer"), update(y, "Integer"))
+    )
+
+    buffer.flush()
+    buffer.flush()
+    endpoint.received shouldEqual List(
+      updates(update(x, "Integer"), update(y, "Integer")),
+      updates(update(z, "Integer"))
+    )
+  }
+
+  it should "send every update right away when the size is 1" in {
+    val endpoint = new TestEndpoint
+    val buffer   = new ExpressionUpdatesBuffer(contextId, endpoint, 1, 60000)
+    val x        = UUID.randomUUID()
+
+    buffer.add(update(x, "Integer"))
+    buffer.add(update(x, "Text"))
+    endpoint.received shouldEqual List(
+      updates(update(x, "Integer")),
+      updates(update(x, "Text"))
+    )
+  }
+
+  it should "send the updates after the delay" in {
+    val endpoint = new TestEndpoint
+    val buffer   = new ExpressionUpdatesBuffer(contextId, endpoint, 500, 10)
+    val x        = UUID.randomUUID()
+    val y        = UUID.randomUUID()
+
+    buffer.add(update(x, "Integer"))
+    buffer.add(update(y, "Integer"))
+    eventually {
+      endpoint.received shouldEqual List(
+        updates(update(x, "Integer"), update(y, "Integer"))
+      )
+    }
+  }
+}
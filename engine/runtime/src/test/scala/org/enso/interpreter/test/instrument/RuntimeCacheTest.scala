@@ -1,15 +1,18 @@
 package org.enso.interpreter.test.instrument
 
+import java.nio.file.Files
 import java.util
 import java.util.UUID
+import java.util.logging.Logger
 
-import org.enso.interpreter.instrument.RuntimeCache
+import org.enso.interpreter.instrument.{PersistentValueCache, RuntimeCache}
+import org.scalatest.concurrent.Eventually
 import org.scalatest.flatspec.AnyFlatSpec
 import org.scalatest.matchers.should.Matchers
 
 import scala.jdk.CollectionConverters._
 
-class RuntimeCacheTest extends AnyFlatSpec with Matchers {
+class RuntimeCacheTest extends AnyFlatSpec with Matchers with Eventually {
 
   "RutimeCache" should "cache items" in {
     val cache = new RuntimeCache
@@ -50,4 +53,118 @@ class RuntimeCacheTest extends AnyFlatSpec with Matchers {
     cache.removeType(key)
     cache.putType(key, obj) shouldEqual null
   }
+
+  it should "evict the least recently used items" in {
+    val cache = new RuntimeCache(3 * 16)
+    val keys  = Seq.fill(4)(UUID.randomUUID())
+    cache.setWeights(
+      keys
+        .map(_ -> 1.0)
+        .toMap
+        .asJava
+        .asInstanceOf[util.Map[UUID, java.lang.Double]]
+    )
+
+    cache.offer(keys(0), 0L) shouldEqual true
+    cache.offer(keys(1), 1L) shouldEqual true
+    cache.offer(keys(2), 2L) shouldEqual true
+    cache.get(keys(0)) shouldEqual 0L
+    cache.offer(keys(3), 3L) shouldEqual true
+
+    cache.get(keys(1)) shouldEqual null
+    cache.get(keys(0)) shouldEqual 0L
+    cache.size() shouldEqual 3
+    cache.getEstimatedSize shouldEqual 3 * 16
+  }
+
+  it should "keep the items that are expensive to compute" in {
+    val cache = new RuntimeCache(3 * 16)
+    val keys  = Seq.fill(6)(UUID.randomUUID())
+    cache.setWeights(
+      keys
+        .map(_ -> 1.0)
+        .toMap
+        .asJava
+        .asInstanceOf[util.Map[UUID, java.lang.Double]]
+    )
+
+    cache.offer(keys(0), 0L, 1000000000L) shouldEqual true
+    keys.tail.foreach(key => cache.offer(key, 1L, 1000L))
+
+    cache.get(keys(0)) shouldEqual 0L
+    cache.size() shouldEqual 3
+  }
+
+  it should "count hits, misses and evictions" in {
+    val cache = new RuntimeCache(16)
+    val keys  = Seq.fill(2)(UUID.randomUUID())
+    cache.setWeights(
+      keys
+        .map(_ -> 1.0)
+        .toMap
+        .asJava
+        .asInstanceOf[util.Map[UUID, java.lang.Double]]
+    )
+
+    cache.offer(keys(0), 0L)
+    cache.get(keys(0))
+    cache.offer(keys(1), 1L)
+    cache.get(keys(0))
+    cache.get(UUID.randomUUID())
+
+    cache.getHits shouldEqual 1
+    cache.getMisses shouldEqual 1
+    cache.getEvictions shouldEqual 1
+  }
+
+  it should "evict the items of other caches sharing the budget" in {
+    val budget = new RuntimeCache.Budget(2 * 16)
+    val first  = new RuntimeCache(budget)
+    val second = new RuntimeCache(budget)
+    val keys   = Seq.fill(3)(UUID.randomUUID())
+    val weights = keys
+      .map(_ -> 1.0)
+      .toMap
+      .asJava
+      .asInstanceOf[util.Map[UUID, java.lang.Double]]
+    first.setWeights(weights)
+    second.setWeights(weights)
+
+    first.offer(keys(0), 0L) shouldEqual true
+    second.offer(keys(1), 1L) shouldEqual true
+    second.offer(keys(2), 2L) shouldEqual true
+
+    first.get(keys(0)) shouldEqual null
+    first.getEvictions shouldEqual 1
+    second.size() shouldEqual 2
+    budget.getEstimatedSize shouldEqual 2 * 16
+
+    second.clear()
+    budget.getEstimatedSize shouldEqual 0
+  }
+
+  it should "restore the persisted items with the same input hashes" in {
+    val store = new PersistentValueCache(
+      Files.createTempDirectory("runtime-cache-test"),
+      0,
+      Logger.getLogger(classOf[RuntimeCacheTest].getName)
+    )
+    val key = UUID.randomUUID()
+    def createCache(inputHash: String): RuntimeCache = {
+      val cache = new RuntimeCache
+      cache.setWeights(
+        Map(key -> 1.0).asJava
+          .asInstanceOf[util.Map[UUID, java.lang.Double]]
+      )
+      cache.setPersistentCache(store, Map(key -> inputHash).asJava)
+      cache
+    }
+
+    createCache("hash").offer(key, 42L, 1L) shouldEqual true
+
+    eventually {
+      createCache("hash").get(key) shouldEqual 42L
+    }
+    createCache("other").get(key) shouldEqual null
+  }
 }
@@ -1,4 +1,4 @@
-package org.enso.interpreter.bench;
+package org.enso.bench;
 
 import org.openjdk.jmh.results.Result;
 import org.openjdk.jmh.results.RunResult;
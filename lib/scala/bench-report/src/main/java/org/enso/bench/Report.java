@@ -1,4 +1,4 @@
-package org.enso.interpreter.bench;
+package org.enso.bench;
 
 import java.io.File;
 import java.util.ArrayList;
@@ -1,4 +1,4 @@
-package org.enso.interpreter.bench;
+package org.enso.bench;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -0,0 +1,119 @@
+package org.enso.table.bench;
+
+import jakarta.xml.bind.JAXBException;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.enso.bench.BenchmarkItem;
+import org.enso.bench.BenchmarkResultProcessor;
+import org.enso.bench.Report;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.BenchmarkList;
+import org.openjdk.jmh.runner.BenchmarkListEntry;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runner class for the table benchmarks. Discovers, runs and reports benchmark results, in the same
+ * report format as the interpreter benchmarks.
+ *
+ * <p>The arguments are standard JMH command line options, e.g. a regular expression selecting the
+ * benchmarks to run, or {@code -p rows=1000000} to override the size of the generated datasets.
+ * Each combination of parameters is reported separately, labelled by the benchmark name followed
+ * by the parameter values.
+ */
+public class BenchmarksRunner {
+  public static final File REPORT_FILE = new File("./bench-report.xml");
+
+  /** The slowdown relative to the best historic score above which a benchmark is reported. */
+  public static final double TOLERANCE = 0.2;
+
+  /**
+   * @param includes regular expressions selecting benchmarks, all benchmarks are selected if empty
+   * @return A list of qualified names of all matching benchmarks visible to JMH.
+   */
+  public List<String> getAvailable(List<String> includes) {
+    List<Pattern> patterns = includes.stream().map(Pattern::compile).collect(Collectors.toList());
+    return BenchmarkList.defaultList().getAll(null, new ArrayList<>()).stream()
+        .map(BenchmarkListEntry::getUsername)
+        .distinct()
+        .filter(
+            name -> patterns.isEmpty() || patterns.stream().anyMatch(p -> p.matcher(name).find()))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Runs a benchmark, for each combination of its parameters, and persists the results.
+   *
+   * @param label a qualified (including method) name of the benchmark to run.
+   * @param parent the command line options, overriding e.g. the parameters of the benchmark
+   * @return a {@link BenchmarkItem} for each combination of parameters, containing current run
+   *     result and historical results.
+   */
+  public List<BenchmarkItem> run(String label, Options parent)
+      throws RunnerException, JAXBException {
+    Options benchmarkOptions =
+        new OptionsBuilder().parent(parent).include("^" + label + "$").build();
+    List<RunResult> benchmarksResults = new ArrayList<>(new Runner(benchmarkOptions).run());
+
+    Report report;
+    if (REPORT_FILE.exists()) {
+      report = Report.readFromFile(REPORT_FILE);
+    } else {
+      report = new Report();
+    }
+
+    BenchmarkResultProcessor processor = new BenchmarkResultProcessor();
+    List<BenchmarkItem> items = new ArrayList<>();
+    for (RunResult result : benchmarksResults) {
+      items.add(processor.processResult(labelWithParams(label, result), report, result));
+    }
+
+    Report.writeToFile(report, REPORT_FILE);
+    return items;
+  }
+
+  private static String labelWithParams(String label, RunResult result) {
+    var params = result.getParams();
+    if (params.getParamsKeys().isEmpty()) {
+      return label;
+    }
+    return label
+        + params.getParamsKeys().stream()
+            .map(key -> key + "=" + params.getParam(key))
+            .collect(Collectors.joining(",", "(", ")"));
+  }
+
+  /**
+   * Runs the selected benchmarks, and fails if any of them got slower than the best historic score
+   * by more than {@link #TOLERANCE}.
+   *
+   * @param args JMH command line options
+   */
+  public static void main(String[] args)
+      throws CommandLineOptionException, RunnerException, JAXBException {
+    CommandLineOptions commandLine = new CommandLineOptions(args);
+    BenchmarksRunner runner = new BenchmarksRunner();
+    List<String> slower = new ArrayList<>();
+    for (String benchmark : runner.getAvailable(commandLine.getIncludes())) {
+      for (BenchmarkItem item : runner.run(benchmark, commandLine)) {
+        double difference = (item.getScore() / item.getBestScore()) - 1;
+        System.out.println(item.getPreviousResults().getLabel() + ": difference was " + difference);
+        if (difference >= TOLERANCE) {
+          slower.add(item.getPreviousResults().getLabel());
+        }
+      }
+    }
+
+    if (!slower.isEmpty()) {
+      System.err.println("Benchmarks slower than before: " + String.join(", ", slower));
+      System.exit(1);
+    }
+  }
+}
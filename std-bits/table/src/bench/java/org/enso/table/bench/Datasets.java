@@ -0,0 +1,154 @@
+package org.enso.table.bench;
+
+import java.util.Comparator;
+import java.util.Random;
+import org.enso.table.data.column.builder.object.BoolBuilder;
+import org.enso.table.data.column.builder.object.NumericBuilder;
+import org.enso.table.data.column.builder.object.StringBuilder;
+import org.enso.table.data.table.Column;
+import org.enso.table.data.table.Table;
+import org.enso.table.format.csv.Writer;
+
+/**
+ * Generates the datasets used by the benchmarks.
+ *
+ * <p>The data is pseudo-random but deterministic for a given seed, so that runs are comparable.
+ * About {@link #MISSING_RATIO} of the values of each column are missing.
+ */
+public final class Datasets {
+  /** The fraction of missing values in the generated columns. */
+  public static final double MISSING_RATIO = 0.05;
+
+  /**
+   * Compares values by their natural ordering, missing values first, standing in for the
+   * comparator calling back into Enso.
+   */
+  @SuppressWarnings("unchecked")
+  public static final Comparator<Object> OBJECT_COMPARATOR =
+      Comparator.nullsFirst((a, b) -> ((Comparable<Object>) a).compareTo(b));
+
+  private Datasets() {}
+
+  /**
+   * Generates a table with the following columns:
+   *
+   * <ul>
+   *   <li>{@code key}: integers drawn from {@code cardinality} distinct values;
+   *   <li>{@code category}: text drawn from {@code cardinality} distinct values;
+   *   <li>{@code value}: integers drawn from the whole range of integers;
+   *   <li>{@code amount}: normally distributed decimals;
+   *   <li>{@code flag}: booleans.
+   * </ul>
+   *
+   * @param rows the number of rows
+   * @param cardinality the number of distinct keys and categories
+   * @param seed the seed of the generated values
+   * @return the generated table
+   */
+  public static Table table(int rows, int cardinality, long seed) {
+    return new Table(
+        new Column[] {
+          longColumn("key", rows, cardinality, seed),
+          textColumn("category", rows, cardinality, seed + 1),
+          longColumn("value", rows, Integer.MAX_VALUE, seed + 2),
+          doubleColumn("amount", rows, seed + 3),
+          boolColumn("flag", rows, seed + 4)
+        });
+  }
+
+  /**
+   * Generates a column of integers, between 0 and {@code cardinality}.
+   *
+   * @param name the column name
+   * @param rows the number of rows
+   * @param cardinality the number of distinct values
+   * @param seed the seed of the generated values
+   * @return the generated column
+   */
+  public static Column longColumn(String name, int rows, int cardinality, long seed) {
+    Random random = new Random(seed);
+    NumericBuilder builder = NumericBuilder.createLongBuilder(rows);
+    for (int i = 0; i < rows; i++) {
+      if (random.nextDouble() < MISSING_RATIO) {
+        builder.appendNulls(1);
+      } else {
+        builder.appendNoGrow((long) random.nextInt(cardinality));
+      }
+    }
+    return new Column(name, builder.seal());
+  }
+
+  /**
+   * Generates a column of normally distributed decimals.
+   *
+   * @param name the column name
+   * @param rows the number of rows
+   * @param seed the seed of the generated values
+   * @return the generated column
+   */
+  public static Column doubleColumn(String name, int rows, long seed) {
+    Random random = new Random(seed);
+    NumericBuilder builder = NumericBuilder.createDoubleBuilder(rows);
+    for (int i = 0; i < rows; i++) {
+      if (random.nextDouble() < MISSING_RATIO) {
+        builder.appendNulls(1);
+      } else {
+        builder.appendNoGrow(random.nextGaussian() * 1000);
+      }
+    }
+    return new Column(name, builder.seal());
+  }
+
+  /**
+   * Generates a column of text values.
+   *
+   * @param name the column name
+   * @param rows the number of rows
+   * @param cardinality the number of distinct values
+   * @param seed the seed of the generated values
+   * @return the generated column
+   */
+  public static Column textColumn(String name, int rows, int cardinality, long seed) {
+    Random random = new Random(seed);
+    StringBuilder builder = new StringBuilder(rows);
+    for (int i = 0; i < rows; i++) {
+      if (random.nextDouble() < MISSING_RATIO) {
+        builder.appendNoGrow(null);
+      } else {
+        builder.appendNoGrow("category-" + random.nextInt(cardinality));
+      }
+    }
+    return new Column(name, builder.seal());
+  }
+
+  /**
+   * Generates a column of booleans.
+   *
+   * @param name the column name
+   * @param rows the number of rows
+   * @param seed the seed of the generated values
+   * @return the generated column
+   */
+  public static Column boolColumn(String name, int rows, long seed) {
+    Random random = new Random(seed);
+    BoolBuilder builder = new BoolBuilder();
+    for (int i = 0; i < rows; i++) {
+      if (random.nextDouble() < MISSING_RATIO) {
+        builder.appendNulls(1);
+      } else {
+        builder.appendBoolean(random.nextBoolean());
+      }
+    }
+    return new Column(name, builder.seal());
+  }
+
+  /**
+   * Serializes a table to CSV, with a header row.
+   *
+   * @param table the table to serialize
+   * @return the CSV text
+   */
+  public static String csv(Table table) {
+    return Writer.writeString(table, true, false, "\n", ",", Object::toString);
+  }
+}
@@ -0,0 +1,102 @@
+package org.enso.table.bench.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.enso.table.aggregations.Aggregator;
+import org.enso.table.aggregations.Concatenate;
+import org.enso.table.aggregations.Count;
+import org.enso.table.aggregations.CountDistinct;
+import org.enso.table.aggregations.CountEmpty;
+import org.enso.table.aggregations.CountNothing;
+import org.enso.table.aggregations.First;
+import org.enso.table.aggregations.GroupBy;
+import org.enso.table.aggregations.Last;
+import org.enso.table.aggregations.Mean;
+import org.enso.table.aggregations.MinOrMax;
+import org.enso.table.aggregations.Percentile;
+import org.enso.table.aggregations.ShortestOrLongest;
+import org.enso.table.aggregations.StandardDeviation;
+import org.enso.table.aggregations.Sum;
+import org.enso.table.bench.Datasets;
+import org.enso.table.data.table.Column;
+import org.enso.table.data.table.Table;
+import org.openjdk.jmh.annotations.*;
+
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class AggregateBenchmarks {
+  @Param({"100000"})
+  public int rows;
+
+  @Param({"10", "10000"})
+  public int cardinality;
+
+  @Param({
+    "Count",
+    "CountDistinct",
+    "ApproximateCountDistinct",
+    "CountEmpty",
+    "CountNothing",
+    "Sum",
+    "Mean",
+    "StandardDeviation",
+    "Median",
+    "ApproximateMedian",
+    "Mode",
+    "ApproximateMode",
+    "Maximum",
+    "First",
+    "Last",
+    "Concatenate",
+    "Longest"
+  })
+  public String aggregate;
+
+  private Table table;
+  private Column[] keys;
+  private Aggregator[] aggregators;
+
+  @Setup
+  public void setup() {
+    table = Datasets.table(rows, cardinality, 42);
+    Column key = table.getColumnByName("key");
+    keys = new Column[] {key};
+    aggregators = new Aggregator[] {new GroupBy("key", key), makeAggregator(table)};
+  }
+
+  private Aggregator makeAggregator(Table table) {
+    Column value = table.getColumnByName("value");
+    Column amount = table.getColumnByName("amount");
+    Column category = table.getColumnByName("category");
+    return switch (aggregate) {
+      case "Count" -> new Count(aggregate);
+      case "CountDistinct" -> new CountDistinct(
+          aggregate, new Column[] {value}, false, Datasets.OBJECT_COMPARATOR);
+      case "ApproximateCountDistinct" -> new CountDistinct(
+          aggregate, new Column[] {value}, false, Datasets.OBJECT_COMPARATOR, true);
+      case "CountEmpty" -> new CountEmpty(aggregate, category, true);
+      case "CountNothing" -> new CountNothing(aggregate, amount, true);
+      case "Sum" -> new Sum(aggregate, amount);
+      case "Mean" -> new Mean(aggregate, amount);
+      case "StandardDeviation" -> new StandardDeviation(aggregate, amount, false);
+      case "Median" -> new Percentile(aggregate, amount, 0.5);
+      case "ApproximateMedian" -> new Percentile(aggregate, amount, 0.5, true);
+      case "Mode" -> new org.enso.table.aggregations.Mode(aggregate, category);
+      case "ApproximateMode" -> new org.enso.table.aggregations.Mode(aggregate, category, true);
+      case "Maximum" -> new MinOrMax(aggregate, amount, 1, Datasets.OBJECT_COMPARATOR);
+      case "First" -> new First(aggregate, amount, true);
+      case "Last" -> new Last(aggregate, amount, true);
+      case "Concatenate" -> new Concatenate(aggregate, category, ",", "", "", "\"");
+      case "Longest" -> new ShortestOrLongest(aggregate, category, 1);
+      default -> throw new IllegalArgumentException("Unknown aggregate: " + aggregate);
+    };
+  }
+
+  @Benchmark
+  public Table groupBy() {
+    return table.indexFromColumns(keys, Datasets.OBJECT_COMPARATOR).makeTable(aggregators);
+  }
+}
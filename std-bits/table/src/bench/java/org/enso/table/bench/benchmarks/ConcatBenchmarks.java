@@ -0,0 +1,37 @@
+package org.enso.table.bench.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.enso.table.bench.Datasets;
+import org.enso.table.data.table.Table;
+import org.openjdk.jmh.annotations.*;
+
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ConcatBenchmarks {
+  @Param({"100000"})
+  public int rows;
+
+  @Param({"2", "100"})
+  public int parts;
+
+  private List<Table> tables;
+
+  @Setup
+  public void setup() {
+    tables = new ArrayList<>();
+    for (int i = 0; i < parts; i++) {
+      tables.add(Datasets.table(rows / parts, 1000, 42 + i));
+    }
+  }
+
+  @Benchmark
+  public Table concat() {
+    return Table.concat(tables);
+  }
+}
@@ -0,0 +1,75 @@
+package org.enso.table.bench.benchmarks;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+import org.enso.table.bench.Datasets;
+import org.enso.table.data.table.Table;
+import org.enso.table.parsing.BooleanParser;
+import org.enso.table.parsing.DatatypeParser;
+import org.enso.table.parsing.DecimalParser;
+import org.enso.table.parsing.IdentityParser;
+import org.enso.table.parsing.IncrementalDatatypeParser;
+import org.enso.table.parsing.IntegerParser;
+import org.enso.table.parsing.TypeInferringParser;
+import org.enso.table.read.DelimitedReader;
+import org.openjdk.jmh.annotations.*;
+
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class DelimitedReaderBenchmarks {
+  @Param({"100000"})
+  public int rows;
+
+  @Param({"10", "10000"})
+  public int cardinality;
+
+  private String csv;
+
+  @Setup
+  public void setup() {
+    csv = Datasets.csv(Datasets.table(rows, cardinality, 42));
+  }
+
+  /** Creates the parser inferring the types of the columns, as set up by the default format. */
+  static TypeInferringParser makeTypeInferringParser(DatatypeParser fallbackParser) {
+    IncrementalDatatypeParser[] parsers = {
+      new IntegerParser(null, false),
+      new DecimalParser(".", null, false),
+      new BooleanParser(
+          new String[] {"True", "true", "TRUE"}, new String[] {"False", "false", "FALSE"})
+    };
+    return new TypeInferringParser(parsers, fallbackParser);
+  }
+
+  private Table read(DatatypeParser valueParser) {
+    DelimitedReader reader =
+        new DelimitedReader(
+            new StringReader(csv),
+            ",",
+            "\"",
+            "\"",
+            DelimitedReader.HeaderBehavior.USE_FIRST_ROW_AS_HEADERS,
+            0,
+            -1,
+            4096,
+            valueParser,
+            null,
+            true,
+            false);
+    return reader.read().value();
+  }
+
+  @Benchmark
+  public Table readText() {
+    return read(new IdentityParser());
+  }
+
+  @Benchmark
+  public Table readInferringTypes() {
+    return read(makeTypeInferringParser(new IdentityParser()));
+  }
+}
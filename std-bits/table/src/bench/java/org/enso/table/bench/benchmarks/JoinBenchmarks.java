@@ -0,0 +1,55 @@
+package org.enso.table.bench.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.enso.table.bench.Datasets;
+import org.enso.table.data.index.JoinKind;
+import org.enso.table.data.table.Column;
+import org.enso.table.data.table.Table;
+import org.openjdk.jmh.annotations.*;
+
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class JoinBenchmarks {
+  @Param({"100000"})
+  public int rows;
+
+  @Param({"10000"})
+  public int cardinality;
+
+  @Param({"INNER", "LEFT", "FULL"})
+  public JoinKind kind;
+
+  private Table left;
+  private Table right;
+
+  @Setup
+  public void setup() {
+    left = Datasets.table(rows, cardinality, 42);
+    right = Datasets.table(cardinality, cardinality, 43);
+  }
+
+  @Benchmark
+  public Table joinOnIntegers() {
+    return join("key");
+  }
+
+  @Benchmark
+  public Table joinOnText() {
+    return join("category");
+  }
+
+  private Table join(String key) {
+    return left.join(
+        right,
+        new Column[] {left.getColumnByName(key)},
+        new Column[] {right.getColumnByName(key)},
+        kind,
+        Datasets.OBJECT_COMPARATOR,
+        "_left",
+        "_right");
+  }
+}
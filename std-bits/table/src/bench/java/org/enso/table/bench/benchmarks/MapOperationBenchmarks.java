@@ -0,0 +1,76 @@
+package org.enso.table.bench.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.enso.table.bench.Datasets;
+import org.enso.table.data.column.storage.Storage;
+import org.openjdk.jmh.annotations.*;
+
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class MapOperationBenchmarks {
+  @Param({"1000000"})
+  public int rows;
+
+  @Param({
+    Storage.Maps.ADD,
+    Storage.Maps.MUL,
+    Storage.Maps.DIV,
+    Storage.Maps.LT,
+    Storage.Maps.EQ,
+    Storage.Maps.IS_MISSING
+  })
+  public String operation;
+
+  private Storage longs;
+  private Storage otherLongs;
+  private Storage doubles;
+  private Storage otherDoubles;
+  private Storage bools;
+  private Storage otherBools;
+  private Storage text;
+
+  @Setup
+  public void setup() {
+    longs = Datasets.longColumn("a", rows, Integer.MAX_VALUE, 42).getStorage();
+    otherLongs = Datasets.longColumn("b", rows, Integer.MAX_VALUE, 43).getStorage();
+    doubles = Datasets.doubleColumn("c", rows, 44).getStorage();
+    otherDoubles = Datasets.doubleColumn("d", rows, 45).getStorage();
+    bools = Datasets.boolColumn("e", rows, 46).getStorage();
+    otherBools = Datasets.boolColumn("f", rows, 47).getStorage();
+    text = Datasets.textColumn("g", rows, 1000, 48).getStorage();
+  }
+
+  @Benchmark
+  public Storage mapLongs() {
+    return longs.bimap(operation, null, 12L);
+  }
+
+  @Benchmark
+  public Storage zipLongs() {
+    return longs.zip(operation, null, otherLongs, true);
+  }
+
+  @Benchmark
+  public Storage mapDoubles() {
+    return doubles.bimap(operation, null, 1.5);
+  }
+
+  @Benchmark
+  public Storage zipDoubles() {
+    return doubles.zip(operation, null, otherDoubles, true);
+  }
+
+  @Benchmark
+  public Storage boolOperations() {
+    return bools.zip(Storage.Maps.AND, null, otherBools, true).bimap(Storage.Maps.NOT, null, null);
+  }
+
+  @Benchmark
+  public Storage textOperations() {
+    return text.bimap(Storage.Maps.STARTS_WITH, null, "category-1");
+  }
+}
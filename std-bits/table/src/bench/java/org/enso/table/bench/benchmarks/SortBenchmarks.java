@@ -0,0 +1,57 @@
+package org.enso.table.bench.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.enso.table.bench.Datasets;
+import org.enso.table.data.mask.OrderMask;
+import org.enso.table.data.table.Table;
+import org.enso.table.operations.OrderBuilder;
+import org.enso.table.operations.OrderBuilder.OrderRule;
+import org.openjdk.jmh.annotations.*;
+
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class SortBenchmarks {
+  @Param({"100000"})
+  public int rows;
+
+  @Param({"10", "10000"})
+  public int cardinality;
+
+  private Table table;
+
+  @Setup
+  public void setup() {
+    table = Datasets.table(rows, cardinality, 42);
+  }
+
+  private OrderRule rule(String column, boolean ascending) {
+    return new OrderRule(table.getColumnByName(column), null, ascending, true);
+  }
+
+  @Benchmark
+  public OrderMask sortIntegers() {
+    return OrderBuilder.buildOrderMask(List.of(rule("value", true)), Datasets.OBJECT_COMPARATOR);
+  }
+
+  @Benchmark
+  public OrderMask sortDecimals() {
+    return OrderBuilder.buildOrderMask(List.of(rule("amount", false)), Datasets.OBJECT_COMPARATOR);
+  }
+
+  @Benchmark
+  public OrderMask sortText() {
+    return OrderBuilder.buildOrderMask(List.of(rule("category", true)), Datasets.OBJECT_COMPARATOR);
+  }
+
+  @Benchmark
+  public OrderMask sortByKeyThenText() {
+    return OrderBuilder.buildOrderMask(
+        List.of(rule("key", true), rule("category", false), rule("amount", true)),
+        Datasets.OBJECT_COMPARATOR);
+  }
+}
@@ -0,0 +1,59 @@
+package org.enso.table.bench.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.enso.table.bench.Datasets;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.column.storage.StringStorage;
+import org.enso.table.data.table.Column;
+import org.enso.table.parsing.IdentityParser;
+import org.enso.table.parsing.TypeInferringParser;
+import org.openjdk.jmh.annotations.*;
+
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class TypeInferringParserBenchmarks {
+  @Param({"100000"})
+  public int rows;
+
+  private final TypeInferringParser parser =
+      DelimitedReaderBenchmarks.makeTypeInferringParser(new IdentityParser());
+  private StringStorage integers;
+  private StringStorage decimals;
+  private StringStorage text;
+
+  @Setup
+  public void setup() {
+    integers = asText(Datasets.longColumn("integers", rows, Integer.MAX_VALUE, 42));
+    decimals = asText(Datasets.doubleColumn("decimals", rows, 43));
+    text = (StringStorage) Datasets.textColumn("text", rows, rows, 44).getStorage();
+  }
+
+  private static StringStorage asText(Column column) {
+    Storage storage = column.getStorage();
+    Object[] values = new Object[storage.size()];
+    for (int i = 0; i < values.length; i++) {
+      Object item = storage.getItemBoxed(i);
+      values[i] = item == null ? null : item.toString();
+    }
+    return new StringStorage(values, values.length);
+  }
+
+  @Benchmark
+  public Storage parseIntegers() {
+    return parser.parseColumn("integers", integers).value();
+  }
+
+  @Benchmark
+  public Storage parseDecimals() {
+    return parser.parseColumn("decimals", decimals).value();
+  }
+
+  @Benchmark
+  public Storage parseText() {
+    return parser.parseColumn("text", text).value();
+  }
+}
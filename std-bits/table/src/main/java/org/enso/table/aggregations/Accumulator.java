@@ -0,0 +1,75 @@
+package org.enso.table.aggregations;
+
+import org.enso.table.data.table.problems.AggregatedProblems;
+import org.enso.table.data.table.problems.Problem;
+
+/**
+ * Streaming state of an aggregate column, computed for many groups at once.
+ *
+ * <p>The state of every group is kept in arrays indexed by the group id, so rows can be fed to the
+ * accumulator one at a time, in any interleaving of groups, without re-walking each group. Within a
+ * group, rows are expected to be accumulated in ascending order.
+ *
+ * <p>Problems encountered while accumulating are collected by the accumulator itself rather than by
+ * its aggregator, so that accumulators of disjoint partitions of a table can run concurrently.
+ */
+public abstract class Accumulator {
+  private AggregatedProblems problems = null;
+
+  /**
+   * Allocates the (empty) state for the given number of groups. Must be called before any other
+   * method.
+   *
+   * @param groupCount the number of groups
+   */
+  public abstract void init(int groupCount);
+
+  /**
+   * Adds a row of the source table to a group.
+   *
+   * @param group the group id
+   * @param row the index of the row in the source table
+   */
+  public abstract void accumulate(int group, int row);
+
+  /**
+   * Merges the state of a group of another accumulator, created by the same aggregator and holding
+   * rows following the rows of this one, into a group of this accumulator.
+   *
+   * @param group the group id in this accumulator
+   * @param other the accumulator to merge from
+   * @param otherGroup the group id in {@code other}
+   */
+  public abstract void combine(int group, Accumulator other, int otherGroup);
+
+  /**
+   * Computes the aggregated value of a group.
+   *
+   * @param group the group id
+   * @return the aggregated value
+   */
+  public abstract Object finish(int group);
+
+  /**
+   * Checks whether this accumulator can run on other threads, concurrently with accumulators of
+   * other partitions. Accumulators that may call back into Enso (e.g. through a custom comparator)
+   * must return false.
+   *
+   * @return whether the accumulator can be used for parallel aggregation
+   */
+  public boolean canRunInParallel() {
+    return true;
+  }
+
+  /** @return the problems reported while accumulating, or {@code null} if there were none */
+  public AggregatedProblems getProblems() {
+    return problems;
+  }
+
+  protected void addProblem(Problem problem) {
+    if (problems == null) {
+      problems = new AggregatedProblems();
+    }
+    problems.add(problem);
+  }
+}
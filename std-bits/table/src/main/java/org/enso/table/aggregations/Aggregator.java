@@ -3,9 +3,7 @@ package org.enso.table.aggregations;
 import org.enso.table.data.table.problems.AggregatedProblems;
 import org.enso.table.data.table.problems.Problem;
 
-import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /** Interface used to define aggregate columns. */
 public abstract class Aggregator {
@@ -48,7 +46,7 @@ public abstract class Aggregator {
    * @return aggregated value
    */
   public Object aggregate(int[] indexes) {
-    return this.aggregate(Arrays.stream(indexes).boxed().collect(Collectors.toList()));
+    return this.aggregate(new RowList(indexes, 0, indexes.length));
   }
 
   /**
@@ -59,6 +57,16 @@ public abstract class Aggregator {
    */
   public abstract Object aggregate(List<Integer> indexes);
 
+  /**
+   * Creates an accumulator computing this aggregate for all groups in a single pass over the rows.
+   *
+   * @return a new accumulator, or {@code null} if the aggregate can only be computed by {@link
+   *     #aggregate(List)} over a whole group at once
+   */
+  public Accumulator makeAccumulator() {
+    return null;
+  }
+
   protected void addProblem(Problem problem) {
     if (problems == null) {
       problems = new AggregatedProblems();
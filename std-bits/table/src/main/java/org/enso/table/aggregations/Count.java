@@ -19,4 +19,33 @@ public class Count extends Aggregator {
   public Object aggregate(List<Integer> indexes) {
     return indexes.size();
   }
+
+  @Override
+  public Accumulator makeAccumulator() {
+    return new CountAccumulator();
+  }
+
+  private static final class CountAccumulator extends Accumulator {
+    private int[] counts;
+
+    @Override
+    public void init(int groupCount) {
+      counts = new int[groupCount];
+    }
+
+    @Override
+    public void accumulate(int group, int row) {
+      counts[group]++;
+    }
+
+    @Override
+    public void combine(int group, Accumulator other, int otherGroup) {
+      counts[group] += ((CountAccumulator) other).counts[otherGroup];
+    }
+
+    @Override
+    public Object finish(int group) {
+      return counts[group];
+    }
+  }
 }
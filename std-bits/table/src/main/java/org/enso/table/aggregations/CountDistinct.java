@@ -1,5 +1,6 @@
 package org.enso.table.aggregations;
 
+import org.enso.table.aggregations.sketch.HyperLogLog;
 import org.enso.table.data.column.storage.Storage;
 import org.enso.table.data.index.MultiValueKey;
 import org.enso.table.data.table.Column;
@@ -10,11 +11,18 @@ import java.util.*;
 /**
  * Aggregate Column counting the number of distinct items in a group. If `ignoreAllNull` is true,
  * does count when all items are null.
+ *
+ * <p>The exact count keeps every distinct key of a group in memory. The approximate count instead
+ * estimates it with a {@link HyperLogLog} sketch, taking at most a few kilobytes per group.
  */
 public class CountDistinct extends Aggregator {
+  /** The precision of the approximate count's sketches, for a standard error of about 1.6%. */
+  private static final int SKETCH_PRECISION = 12;
+
   private final Storage[] storage;
   private final Comparator<Object> objectComparator;
   private final boolean ignoreAllNull;
+  private final boolean approximate;
 
   /**
    * Constructs a CountDistinct Aggregator
@@ -25,14 +33,47 @@ public class CountDistinct extends Aggregator {
    */
   public CountDistinct(
       String name, Column[] columns, boolean ignoreAllNull, Comparator<Object> objectComparator) {
+    this(name, columns, ignoreAllNull, objectComparator, false);
+  }
+
+  /**
+   * Constructs a CountDistinct Aggregator
+   *
+   * @param name output column name
+   * @param columns input columns
+   * @param ignoreAllNull if true ignore then all values are null
+   * @param approximate if true, estimate the count rather than computing it exactly
+   */
+  public CountDistinct(
+      String name,
+      Column[] columns,
+      boolean ignoreAllNull,
+      Comparator<Object> objectComparator,
+      boolean approximate) {
     super(name, Storage.Type.LONG);
     this.storage = Arrays.stream(columns).map(Column::getStorage).toArray(Storage[]::new);
     this.ignoreAllNull = ignoreAllNull;
     this.objectComparator = objectComparator;
+    this.approximate = approximate;
   }
 
   @Override
   public Object aggregate(List<Integer> indexes) {
+    if (approximate) {
+      HyperLogLog sketch = new HyperLogLog(SKETCH_PRECISION);
+      for (int row : indexes) {
+        MultiValueKey key = new MultiValueKey(storage, row, objectComparator);
+        if (key.hasFloatValues()) {
+          this.addProblem(new FloatingPointGrouping(this.getName(), row));
+        }
+
+        if (!ignoreAllNull || !key.areAllNull()) {
+          sketch.add(HyperLogLog.hash(key.hashCode()));
+        }
+      }
+      return sketch.estimate();
+    }
+
     Set<MultiValueKey> set = new HashSet<>();
     for (int row : indexes) {
       MultiValueKey key = new MultiValueKey(storage, row, objectComparator);
@@ -46,4 +87,53 @@ public class CountDistinct extends Aggregator {
     }
     return set.size();
   }
+
+  @Override
+  public Accumulator makeAccumulator() {
+    return approximate ? new SketchAccumulator() : null;
+  }
+
+  /**
+   * Keeps a sketch per group, created on the first counted row. Only the keys' hash codes are used,
+   * so the accumulator never calls the object comparator and can run in parallel.
+   */
+  private class SketchAccumulator extends Accumulator {
+    private HyperLogLog[] sketches;
+
+    @Override
+    public void init(int groupCount) {
+      sketches = new HyperLogLog[groupCount];
+    }
+
+    @Override
+    public void accumulate(int group, int row) {
+      MultiValueKey key = new MultiValueKey(storage, row, objectComparator);
+      if (key.hasFloatValues()) {
+        addProblem(new FloatingPointGrouping(getName(), row));
+      }
+      if (!ignoreAllNull || !key.areAllNull()) {
+        sketch(group).add(HyperLogLog.hash(key.hashCode()));
+      }
+    }
+
+    @Override
+    public void combine(int group, Accumulator other, int otherGroup) {
+      HyperLogLog that = ((SketchAccumulator) other).sketches[otherGroup];
+      if (that != null) {
+        sketch(group).merge(that);
+      }
+    }
+
+    @Override
+    public Object finish(int group) {
+      return sketches[group] == null ? 0L : sketches[group].estimate();
+    }
+
+    private HyperLogLog sketch(int group) {
+      if (sketches[group] == null) {
+        sketches[group] = new HyperLogLog(SKETCH_PRECISION);
+      }
+      return sketches[group];
+    }
+  }
 }
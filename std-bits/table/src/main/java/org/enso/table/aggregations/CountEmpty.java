@@ -41,4 +41,48 @@ public class CountEmpty extends Aggregator {
     }
     return count;
   }
+
+  @Override
+  public Accumulator makeAccumulator() {
+    return new CountEmptyAccumulator();
+  }
+
+  private final class CountEmptyAccumulator extends Accumulator {
+    private int[] counts;
+    private boolean[] failed;
+
+    @Override
+    public void init(int groupCount) {
+      counts = new int[groupCount];
+      failed = new boolean[groupCount];
+    }
+
+    @Override
+    public void accumulate(int group, int row) {
+      if (failed[group]) {
+        return;
+      }
+
+      Object value = storage.getItemBoxed(row);
+      if (value != null && !(value instanceof String)) {
+        addProblem(new InvalidAggregation(getName(), row, "Not a text value."));
+        failed[group] = true;
+        return;
+      }
+
+      counts[group] += ((value == null || ((String) value).length() == 0) == isEmpty ? 1 : 0);
+    }
+
+    @Override
+    public void combine(int group, Accumulator other, int otherGroup) {
+      CountEmptyAccumulator that = (CountEmptyAccumulator) other;
+      counts[group] += that.counts[otherGroup];
+      failed[group] |= that.failed[otherGroup];
+    }
+
+    @Override
+    public Object finish(int group) {
+      return failed[group] ? null : counts[group];
+    }
+  }
 }
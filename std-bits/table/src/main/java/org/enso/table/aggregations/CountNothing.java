@@ -34,4 +34,35 @@ public class CountNothing extends Aggregator {
     }
     return count;
   }
+
+  @Override
+  public Accumulator makeAccumulator() {
+    return new CountNothingAccumulator();
+  }
+
+  private final class CountNothingAccumulator extends Accumulator {
+    private long[] counts;
+
+    @Override
+    public void init(int groupCount) {
+      counts = new long[groupCount];
+    }
+
+    @Override
+    public void accumulate(int group, int row) {
+      if (storage.isNa(row) == isNothing) {
+        counts[group]++;
+      }
+    }
+
+    @Override
+    public void combine(int group, Accumulator other, int otherGroup) {
+      counts[group] += ((CountNothingAccumulator) other).counts[otherGroup];
+    }
+
+    @Override
+    public Object finish(int group) {
+      return counts[group];
+    }
+  }
 }
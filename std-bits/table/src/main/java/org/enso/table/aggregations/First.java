@@ -50,6 +50,42 @@ public class First extends Aggregator {
     }
   }
 
+  @Override
+  public Accumulator makeAccumulator() {
+    return orderByColumns.length == 0 ? new FirstAccumulator() : null;
+  }
+
+  /** Accumulates the first row in row order, without any ordering columns. */
+  private final class FirstAccumulator extends Accumulator {
+    private int[] rows;
+
+    @Override
+    public void init(int groupCount) {
+      rows = new int[groupCount];
+      Arrays.fill(rows, -1);
+    }
+
+    @Override
+    public void accumulate(int group, int row) {
+      if (rows[group] == -1 && (!ignoreNothing || !storage.isNa(row))) {
+        rows[group] = row;
+      }
+    }
+
+    @Override
+    public void combine(int group, Accumulator other, int otherGroup) {
+      int otherRow = ((FirstAccumulator) other).rows[otherGroup];
+      if (otherRow != -1 && (rows[group] == -1 || otherRow < rows[group])) {
+        rows[group] = otherRow;
+      }
+    }
+
+    @Override
+    public Object finish(int group) {
+      return rows[group] == -1 ? null : storage.getItemBoxed(rows[group]);
+    }
+  }
+
   private Object firstBySpecifiedOrder(List<Integer> indexes) {
     MultiValueKey key = null;
     Object current = null;
@@ -3,6 +3,7 @@ package org.enso.table.aggregations;
 import org.enso.table.data.column.storage.Storage;
 import org.enso.table.data.table.Column;
 
+import java.util.Arrays;
 import java.util.List;
 
 /** Aggregate Column getting the grouping key. */
@@ -18,4 +19,39 @@ public class GroupBy extends Aggregator {
   public Object aggregate(List<Integer> indexes) {
     return indexes.isEmpty() ? null : storage.getItemBoxed(indexes.get(0));
   }
+
+  @Override
+  public Accumulator makeAccumulator() {
+    return new GroupByAccumulator();
+  }
+
+  private final class GroupByAccumulator extends Accumulator {
+    private int[] firstRow;
+
+    @Override
+    public void init(int groupCount) {
+      firstRow = new int[groupCount];
+      Arrays.fill(firstRow, -1);
+    }
+
+    @Override
+    public void accumulate(int group, int row) {
+      if (firstRow[group] == -1) {
+        firstRow[group] = row;
+      }
+    }
+
+    @Override
+    public void combine(int group, Accumulator other, int otherGroup) {
+      int otherRow = ((GroupByAccumulator) other).firstRow[otherGroup];
+      if (firstRow[group] == -1 || (otherRow != -1 && otherRow < firstRow[group])) {
+        firstRow[group] = otherRow;
+      }
+    }
+
+    @Override
+    public Object finish(int group) {
+      return firstRow[group] == -1 ? null : storage.getItemBoxed(firstRow[group]);
+    }
+  }
 }
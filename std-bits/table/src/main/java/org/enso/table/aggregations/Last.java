@@ -49,6 +49,42 @@ public class Last extends Aggregator {
     }
   }
 
+  @Override
+  public Accumulator makeAccumulator() {
+    return orderByColumns.length == 0 ? new LastAccumulator() : null;
+  }
+
+  /** Accumulates the last row in row order, without any ordering columns. */
+  private final class LastAccumulator extends Accumulator {
+    private int[] rows;
+
+    @Override
+    public void init(int groupCount) {
+      rows = new int[groupCount];
+      Arrays.fill(rows, -1);
+    }
+
+    @Override
+    public void accumulate(int group, int row) {
+      if (!ignoreNothing || !storage.isNa(row)) {
+        rows[group] = row;
+      }
+    }
+
+    @Override
+    public void combine(int group, Accumulator other, int otherGroup) {
+      int otherRow = ((LastAccumulator) other).rows[otherGroup];
+      if (otherRow != -1 && (rows[group] == -1 || otherRow > rows[group])) {
+        rows[group] = otherRow;
+      }
+    }
+
+    @Override
+    public Object finish(int group) {
+      return rows[group] == -1 ? null : storage.getItemBoxed(rows[group]);
+    }
+  }
+
   private Object lastBySpecifiedOrder(List<Integer> indexes) {
     MultiValueKey key = null;
     Object current = null;
@@ -1,5 +1,6 @@
 package org.enso.table.aggregations;
 
+import org.enso.table.data.column.storage.NumericStorage;
 import org.enso.table.data.column.storage.Storage;
 import org.enso.table.data.table.Column;
 import org.enso.table.data.table.problems.InvalidAggregation;
@@ -48,4 +49,69 @@ public class Mean extends Aggregator {
     }
     return current == null ? null : current.total / current.count;
   }
+
+  @Override
+  public Accumulator makeAccumulator() {
+    if (storage instanceof NumericStorage numericStorage) {
+      return new MeanAccumulator() {
+        @Override
+        public void accumulate(int group, int row) {
+          if (!numericStorage.isNa(row)) {
+            add(group, numericStorage.getItemDouble(row));
+          }
+        }
+      };
+    } else {
+      return new MeanAccumulator();
+    }
+  }
+
+  private class MeanAccumulator extends Accumulator {
+    private long[] count;
+    private double[] total;
+    private boolean[] failed;
+
+    @Override
+    public void init(int groupCount) {
+      count = new long[groupCount];
+      total = new double[groupCount];
+      failed = new boolean[groupCount];
+    }
+
+    @Override
+    public void accumulate(int group, int row) {
+      if (failed[group]) {
+        return;
+      }
+
+      Object value = storage.getItemBoxed(row);
+      if (value != null) {
+        Double dValue = CastToDouble(value);
+        if (dValue == null) {
+          addProblem(new InvalidAggregation(getName(), row, "Cannot convert to a number."));
+          failed[group] = true;
+        } else {
+          add(group, dValue);
+        }
+      }
+    }
+
+    protected final void add(int group, double value) {
+      count[group]++;
+      total[group] += value;
+    }
+
+    @Override
+    public void combine(int group, Accumulator other, int otherGroup) {
+      MeanAccumulator that = (MeanAccumulator) other;
+      count[group] += that.count[otherGroup];
+      total[group] += that.total[otherGroup];
+      failed[group] |= that.failed[otherGroup];
+    }
+
+    @Override
+    public Object finish(int group) {
+      return failed[group] || count[group] == 0 ? null : total[group] / count[group];
+    }
+  }
 }
@@ -1,5 +1,7 @@
 package org.enso.table.aggregations;
 
+import org.enso.table.data.column.storage.DoubleStorage;
+import org.enso.table.data.column.storage.LongStorage;
 import org.enso.table.data.column.storage.Storage;
 import org.enso.table.data.table.Column;
 import org.enso.table.data.table.problems.InvalidAggregation;
@@ -48,4 +50,159 @@ public class MinOrMax extends Aggregator {
     }
     return current;
   }
+
+  @Override
+  public Accumulator makeAccumulator() {
+    if (storage instanceof LongStorage longStorage) {
+      return new LongMinOrMaxAccumulator(longStorage);
+    } else if (storage instanceof DoubleStorage doubleStorage) {
+      return new DoubleMinOrMaxAccumulator(doubleStorage);
+    } else {
+      return new ObjectMinOrMaxAccumulator();
+    }
+  }
+
+  private final class LongMinOrMaxAccumulator extends Accumulator {
+    private final LongStorage longStorage;
+    private boolean[] present;
+    private long[] current;
+
+    private LongMinOrMaxAccumulator(LongStorage longStorage) {
+      this.longStorage = longStorage;
+    }
+
+    @Override
+    public void init(int groupCount) {
+      present = new boolean[groupCount];
+      current = new long[groupCount];
+    }
+
+    @Override
+    public void accumulate(int group, int row) {
+      if (!longStorage.isNa(row)) {
+        add(group, longStorage.getItem(row));
+      }
+    }
+
+    private void add(int group, long value) {
+      if (!present[group] || Integer.signum(Long.compare(value, current[group])) == minOrMax) {
+        present[group] = true;
+        current[group] = value;
+      }
+    }
+
+    @Override
+    public void combine(int group, Accumulator other, int otherGroup) {
+      LongMinOrMaxAccumulator that = (LongMinOrMaxAccumulator) other;
+      if (that.present[otherGroup]) {
+        add(group, that.current[otherGroup]);
+      }
+    }
+
+    @Override
+    public Object finish(int group) {
+      return present[group] ? current[group] : null;
+    }
+  }
+
+  private final class DoubleMinOrMaxAccumulator extends Accumulator {
+    private final DoubleStorage doubleStorage;
+    private boolean[] present;
+    private double[] current;
+
+    private DoubleMinOrMaxAccumulator(DoubleStorage doubleStorage) {
+      this.doubleStorage = doubleStorage;
+    }
+
+    @Override
+    public void init(int groupCount) {
+      present = new boolean[groupCount];
+      current = new double[groupCount];
+    }
+
+    @Override
+    public void accumulate(int group, int row) {
+      if (!doubleStorage.isNa(row)) {
+        add(group, doubleStorage.getItem(row));
+      }
+    }
+
+    private void add(int group, double value) {
+      if (!present[group] || Integer.signum(Double.compare(value, current[group])) == minOrMax) {
+        present[group] = true;
+        current[group] = value;
+      }
+    }
+
+    @Override
+    public void combine(int group, Accumulator other, int otherGroup) {
+      DoubleMinOrMaxAccumulator that = (DoubleMinOrMaxAccumulator) other;
+      if (that.present[otherGroup]) {
+        add(group, that.current[otherGroup]);
+      }
+    }
+
+    @Override
+    public Object finish(int group) {
+      return present[group] ? current[group] : null;
+    }
+  }
+
+  private final class ObjectMinOrMaxAccumulator extends Accumulator {
+    private Object[] current;
+    private boolean[] failed;
+
+    @Override
+    public boolean canRunInParallel() {
+      return false;
+    }
+
+    @Override
+    public void init(int groupCount) {
+      current = new Object[groupCount];
+      failed = new boolean[groupCount];
+    }
+
+    @Override
+    public void accumulate(int group, int row) {
+      if (failed[group]) {
+        return;
+      }
+
+      Object value = storage.getItemBoxed(row);
+      if (value != null && !add(group, value)) {
+        addProblem(new InvalidAggregation(getName(), row, "Cannot compare values."));
+      }
+    }
+
+    private boolean add(int group, Object value) {
+      try {
+        if (current[group] == null
+            || Integer.signum(objectComparator.compare(value, current[group])) == minOrMax) {
+          current[group] = value;
+        }
+        return true;
+      } catch (ClassCastException e) {
+        failed[group] = true;
+        return false;
+      }
+    }
+
+    @Override
+    public void combine(int group, Accumulator other, int otherGroup) {
+      ObjectMinOrMaxAccumulator that = (ObjectMinOrMaxAccumulator) other;
+      if (that.failed[otherGroup]) {
+        failed[group] = true;
+      } else if (!failed[group]
+          && that.current[otherGroup] != null
+          && !add(group, that.current[otherGroup])) {
+        addProblem(new InvalidAggregation(getName(), -1, "Cannot compare values."));
+      }
+    }
+
+    @Override
+    public Object finish(int group) {
+      return failed[group] ? null : current[group];
+    }
+  }
 }
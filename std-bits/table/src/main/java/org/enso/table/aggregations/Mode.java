@@ -1,5 +1,6 @@
 package org.enso.table.aggregations;
 
+import org.enso.table.aggregations.sketch.SpaceSaving;
 import org.enso.table.data.column.storage.Storage;
 import org.enso.table.data.table.Column;
 import org.enso.table.data.table.problems.FloatingPointGrouping;
@@ -8,17 +9,58 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-/** Aggregate Column computing the most common value in a group (ignoring Nothing). */
+/**
+ * Aggregate Column computing the most common value in a group (ignoring Nothing).
+ *
+ * <p>The exact mode counts every distinct value of a group. The approximate one instead tracks the
+ * most frequent values with a {@link SpaceSaving} sketch of bounded size; it finds the mode
+ * whenever it occurs in more than {@code 1 / SKETCH_CAPACITY} of the group.
+ */
 public class Mode extends Aggregator {
+  /** The number of values tracked by the approximate mode's sketches. */
+  private static final int SKETCH_CAPACITY = 64;
+
   private final Storage storage;
+  private final boolean approximate;
 
   public Mode(String name, Column column) {
+    this(name, column, false);
+  }
+
+  /**
+   * @param name output column name
+   * @param column input column
+   * @param approximate if true, estimate the mode rather than computing it exactly
+   */
+  public Mode(String name, Column column, boolean approximate) {
     super(name, Storage.Type.OBJECT);
     this.storage = column.getStorage();
+    this.approximate = approximate;
   }
 
   @Override
   public Object aggregate(List<Integer> indexes) {
+    if (approximate) {
+      SpaceSaving sketch = new SpaceSaving(SKETCH_CAPACITY);
+      for (int row : indexes) {
+        Object value = storage.getItemBoxed(row);
+        if (value != null) {
+          Long lValue = CastToLong(value);
+          if (lValue == null) {
+            Double dValue = CastToDouble(value);
+            if (dValue != null) {
+              this.addProblem(new FloatingPointGrouping(this.getName(), row));
+              value = dValue;
+            }
+          } else {
+            value = lValue;
+          }
+          sketch.add(value);
+        }
+      }
+      return sketch.mostFrequent();
+    }
+
     Object current = null;
     int count = 0;
     Map<Object, Integer> currentMap = null;
@@ -54,4 +96,57 @@ public class Mode extends Aggregator {
     }
     return current;
   }
+
+  @Override
+  public Accumulator makeAccumulator() {
+    return approximate ? new SketchAccumulator() : null;
+  }
+
+  /** Keeps a sketch per group, created on the first value. */
+  private class SketchAccumulator extends Accumulator {
+    private SpaceSaving[] sketches;
+
+    @Override
+    public void init(int groupCount) {
+      sketches = new SpaceSaving[groupCount];
+    }
+
+    @Override
+    public void accumulate(int group, int row) {
+      Object value = storage.getItemBoxed(row);
+      if (value != null) {
+        Long lValue = CastToLong(value);
+        if (lValue == null) {
+          Double dValue = CastToDouble(value);
+          if (dValue != null) {
+            addProblem(new FloatingPointGrouping(getName(), row));
+            value = dValue;
+          }
+        } else {
+          value = lValue;
+        }
+        sketch(group).add(value);
+      }
+    }
+
+    @Override
+    public void combine(int group, Accumulator other, int otherGroup) {
+      SpaceSaving that = ((SketchAccumulator) other).sketches[otherGroup];
+      if (that != null) {
+        sketch(group).merge(that);
+      }
+    }
+
+    @Override
+    public Object finish(int group) {
+      return sketches[group] == null ? null : sketches[group].mostFrequent();
+    }
+
+    private SpaceSaving sketch(int group) {
+      if (sketches[group] == null) {
+        sketches[group] = new SpaceSaving(SKETCH_CAPACITY);
+      }
+      return sketches[group];
+    }
+  }
 }
@@ -4,25 +4,48 @@ import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import org.enso.table.aggregations.sketch.KllSketch;
 import org.enso.table.data.column.storage.Storage;
 import org.enso.table.data.table.Column;
 import org.enso.table.data.table.problems.InvalidAggregation;
 
-/** Aggregate Column computing a percentile value in a group. */
+/**
+ * Aggregate Column computing a percentile value in a group.
+ *
+ * <p>The exact percentile keeps every distinct value of a group in memory. The approximate one
+ * instead estimates it with a {@link KllSketch}, which is exact for groups of fewer than {@link
+ * #SKETCH_ACCURACY} values and keeps a bounded number of values for larger ones.
+ */
 public class Percentile extends Aggregator {
+  /** The accuracy of the approximate percentile's sketches, for a rank error of about 1%. */
+  private static final int SKETCH_ACCURACY = 200;
+
   private final Storage storage;
   private final double percentile;
+  private final boolean approximate;
 
   public Percentile(String name, Column column, double percentile) {
+    this(name, column, percentile, false);
+  }
+
+  /**
+   * @param name output column name
+   * @param column input column
+   * @param percentile the percentile to compute, between 0 and 1
+   * @param approximate if true, estimate the percentile rather than computing it exactly
+   */
+  public Percentile(String name, Column column, double percentile, boolean approximate) {
     super(name, Storage.Type.DOUBLE);
     this.storage = column.getStorage();
     this.percentile = percentile;
+    this.approximate = approximate;
   }
 
   @Override
   public Object aggregate(List<Integer> indexes) {
     int count = 0;
-    SortedMap<Double, Integer> currentMap = new TreeMap<>();
+    SortedMap<Double, Integer> currentMap = approximate ? null : new TreeMap<>();
+    KllSketch sketch = approximate ? new KllSketch(SKETCH_ACCURACY) : null;
     for (int row : indexes) {
       Object value = storage.getItemBoxed(row);
       if (value != null) {
@@ -38,13 +61,19 @@ public class Percentile extends Aggregator {
           return Double.NaN;
         } else {
           count++;
-          currentMap.put(dValue, currentMap.getOrDefault(dValue, 0) + 1);
+          if (approximate) {
+            sketch.add(dValue);
+          } else {
+            currentMap.put(dValue, currentMap.getOrDefault(dValue, 0) + 1);
+          }
         }
       }
     }
 
     if (count == 0) {
       return null;
+    } else if (approximate) {
+      return sketch.valueAt((count - 1) * percentile);
     }
 
     double mid_value = (count - 1) * percentile + 1;
@@ -78,6 +107,11 @@ public class Percentile extends Aggregator {
     return null;
   }
 
+  @Override
+  public Accumulator makeAccumulator() {
+    return approximate ? new SketchAccumulator() : null;
+  }
+
   double interpolate(double first, double second, double alpha) {
     if (Double.isInfinite(first) && Double.isInfinite(second)) {
       if (first == second) return first;
@@ -90,4 +124,74 @@ public class Percentile extends Aggregator {
 
     return first + (second - first) * alpha;
   }
+
+  /**
+   * Keeps a sketch per group, created on the first value. Like {@link #aggregate(List)}, a group
+   * stops accumulating at its first NaN or non-numeric value.
+   */
+  private class SketchAccumulator extends Accumulator {
+    private KllSketch[] sketches;
+    private boolean[] hasNaN;
+    private boolean[] failed;
+
+    @Override
+    public void init(int groupCount) {
+      sketches = new KllSketch[groupCount];
+      hasNaN = new boolean[groupCount];
+      failed = new boolean[groupCount];
+    }
+
+    @Override
+    public void accumulate(int group, int row) {
+      if (failed[group] || hasNaN[group]) {
+        return;
+      }
+
+      Object value = storage.getItemBoxed(row);
+      if (value != null) {
+        Double dValue = CastToDouble(value);
+        if (dValue == null) {
+          addProblem(new InvalidAggregation(getName(), row, "Cannot convert to a number."));
+          failed[group] = true;
+        } else if (dValue.isNaN()) {
+          hasNaN[group] = true;
+        } else {
+          sketch(group).add(dValue);
+        }
+      }
+    }
+
+    @Override
+    public void combine(int group, Accumulator other, int otherGroup) {
+      SketchAccumulator that = (SketchAccumulator) other;
+      if (failed[group] || hasNaN[group]) {
+        return;
+      }
+      failed[group] = that.failed[otherGroup];
+      hasNaN[group] = that.hasNaN[otherGroup];
+      if (that.sketches[otherGroup] != null) {
+        sketch(group).merge(that.sketches[otherGroup]);
+      }
+    }
+
+    @Override
+    public Object finish(int group) {
+      if (failed[group]) {
+        return null;
+      } else if (hasNaN[group]) {
+        return Double.NaN;
+      } else if (sketches[group] == null) {
+        return null;
+      }
+      KllSketch sketch = sketches[group];
+      return sketch.valueAt((sketch.getCount() - 1) * percentile);
+    }
+
+    private KllSketch sketch(int group) {
+      if (sketches[group] == null) {
+        sketches[group] = new KllSketch(SKETCH_ACCURACY);
+      }
+      return sketches[group];
+    }
+  }
 }
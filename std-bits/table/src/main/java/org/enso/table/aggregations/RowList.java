@@ -0,0 +1,34 @@
+package org.enso.table.aggregations;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/** A read-only view of a slice of an array of row indexes, used to pass a group to aggregators. */
+public class RowList extends AbstractList<Integer> implements RandomAccess {
+  private final int[] rows;
+  private final int from;
+  private final int to;
+
+  /**
+   * Creates a view of {@code rows[from]} up to (exclusive) {@code rows[to]}.
+   *
+   * @param rows the row indexes
+   * @param from the start of the slice
+   * @param to the end of the slice
+   */
+  public RowList(int[] rows, int from, int to) {
+    this.rows = rows;
+    this.from = from;
+    this.to = to;
+  }
+
+  @Override
+  public Integer get(int index) {
+    return rows[from + index];
+  }
+
+  @Override
+  public int size() {
+    return to - from;
+  }
+}
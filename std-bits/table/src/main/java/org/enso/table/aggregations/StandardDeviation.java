@@ -1,6 +1,7 @@
 package org.enso.table.aggregations;
 
 import java.util.List;
+import org.enso.table.data.column.storage.NumericStorage;
 import org.enso.table.data.column.storage.Storage;
 import org.enso.table.data.table.Column;
 import org.enso.table.data.table.problems.InvalidAggregation;
@@ -55,4 +56,76 @@ public class StandardDeviation extends Aggregator {
     return (population ? 1 : Math.sqrt(current.count / (current.count - 1.0)))
         * Math.sqrt(current.total_sqr / current.count - Math.pow(current.total / current.count, 2));
   }
+
+  @Override
+  public Accumulator makeAccumulator() {
+    if (storage instanceof NumericStorage numericStorage) {
+      return new StandardDeviationAccumulator() {
+        @Override
+        public void accumulate(int group, int row) {
+          if (!numericStorage.isNa(row)) {
+            add(group, numericStorage.getItemDouble(row));
+          }
+        }
+      };
+    } else {
+      return new StandardDeviationAccumulator();
+    }
+  }
+
+  private class StandardDeviationAccumulator extends Accumulator {
+    private long[] count;
+    private double[] total;
+    private double[] total_sqr;
+    private boolean[] failed;
+
+    @Override
+    public void init(int groupCount) {
+      count = new long[groupCount];
+      total = new double[groupCount];
+      total_sqr = new double[groupCount];
+      failed = new boolean[groupCount];
+    }
+
+    @Override
+    public void accumulate(int group, int row) {
+      if (failed[group]) {
+        return;
+      }
+
+      Object value = storage.getItemBoxed(row);
+      if (value != null) {
+        Double dValue = CastToDouble(value);
+        if (dValue == null) {
+          addProblem(new InvalidAggregation(getName(), row, "Cannot convert to a number."));
+          failed[group] = true;
+        } else {
+          add(group, dValue);
+        }
+      }
+    }
+
+    protected final void add(int group, double value) {
+      count[group]++;
+      total[group] += value;
+      total_sqr[group] += value * value;
+    }
+
+    @Override
+    public void combine(int group, Accumulator other, int otherGroup) {
+      StandardDeviationAccumulator that = (StandardDeviationAccumulator) other;
+      count[group] += that.count[otherGroup];
+      total[group] += that.total[otherGroup];
+      total_sqr[group] += that.total_sqr[otherGroup];
+      failed[group] |= that.failed[otherGroup];
+    }
+
+    @Override
+    public Object finish(int group) {
+      long n = count[group];
+      if (failed[group] || n == 0 || (!population && n <= 1)) return null;
+      return (population ? 1 : Math.sqrt(n / (n - 1.0)))
+          * Math.sqrt(total_sqr[group] / n - Math.pow(total[group] / n, 2));
+    }
+  }
 }
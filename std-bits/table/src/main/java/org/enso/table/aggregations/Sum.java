@@ -1,5 +1,7 @@
 package org.enso.table.aggregations;
 
+import org.enso.table.data.column.storage.DoubleStorage;
+import org.enso.table.data.column.storage.LongStorage;
 import org.enso.table.data.column.storage.Storage;
 import org.enso.table.data.table.Column;
 import org.enso.table.data.table.problems.InvalidAggregation;
@@ -44,4 +46,126 @@ public class Sum extends Aggregator {
     }
     return current;
   }
+
+  @Override
+  public Accumulator makeAccumulator() {
+    if (storage instanceof LongStorage longStorage) {
+      return new SumAccumulator() {
+        @Override
+        public void accumulate(int group, int row) {
+          if (!longStorage.isNa(row)) {
+            addLong(group, longStorage.getItem(row));
+          }
+        }
+      };
+    } else if (storage instanceof DoubleStorage doubleStorage) {
+      return new SumAccumulator() {
+        @Override
+        public void accumulate(int group, int row) {
+          if (!doubleStorage.isNa(row)) {
+            double value = doubleStorage.getItem(row);
+            if (value % 1 == 0) {
+              addLong(group, (long) value);
+            } else {
+              addDouble(group, value);
+            }
+          }
+        }
+      };
+    } else {
+      return new SumAccumulator();
+    }
+  }
+
+  /**
+   * Keeps the running total as a long for as long as the total and all values are integers,
+   * switching to a double otherwise, like {@link #aggregate(List)}.
+   */
+  private class SumAccumulator extends Accumulator {
+    private boolean[] present;
+    private boolean[] failed;
+    private boolean[] isDouble;
+    private long[] longTotal;
+    private double[] doubleTotal;
+
+    @Override
+    public void init(int groupCount) {
+      present = new boolean[groupCount];
+      failed = new boolean[groupCount];
+      isDouble = new boolean[groupCount];
+      longTotal = new long[groupCount];
+      doubleTotal = new double[groupCount];
+    }
+
+    @Override
+    public void accumulate(int group, int row) {
+      if (failed[group]) {
+        return;
+      }
+
+      Object value = storage.getItemBoxed(row);
+      if (value != null) {
+        Long lValue = CastToLong(value);
+        if (lValue != null) {
+          addLong(group, lValue);
+        } else {
+          Double dValue = CastToDouble(value);
+          if (dValue != null) {
+            addDouble(group, dValue);
+          } else {
+            addProblem(new InvalidAggregation(getName(), row, "Cannot convert to a number."));
+            failed[group] = true;
+          }
+        }
+      }
+    }
+
+    protected final void addLong(int group, long value) {
+      present[group] = true;
+      if (!isDouble[group]) {
+        longTotal[group] += value;
+      } else if (doubleTotal[group] % 1 == 0) {
+        isDouble[group] = false;
+        longTotal[group] = (long) doubleTotal[group] + value;
+      } else {
+        doubleTotal[group] += value;
+      }
+    }
+
+    protected final void addDouble(int group, double value) {
+      present[group] = true;
+      if (!isDouble[group]) {
+        isDouble[group] = true;
+        doubleTotal[group] = longTotal[group];
+      }
+      doubleTotal[group] += value;
+    }
+
+    @Override
+    public void combine(int group, Accumulator other, int otherGroup) {
+      SumAccumulator that = (SumAccumulator) other;
+      if (that.failed[otherGroup]) {
+        failed[group] = true;
+      } else if (that.present[otherGroup]) {
+        if (that.isDouble[otherGroup]) {
+          double value = that.doubleTotal[otherGroup];
+          if (value % 1 == 0) {
+            addLong(group, (long) value);
+          } else {
+            addDouble(group, value);
+          }
+        } else {
+          addLong(group, that.longTotal[otherGroup]);
+        }
+      }
+    }
+
+    @Override
+    public Object finish(int group) {
+      if (failed[group] || !present[group]) {
+        return null;
+      }
+      return isDouble[group] ? (Object) doubleTotal[group] : (Object) longTotal[group];
+    }
+  }
 }
@@ -0,0 +1,190 @@
+package org.enso.table.aggregations.sketch;
+
+/**
+ * A HyperLogLog sketch, estimating the number of distinct hashes added to it in constant memory.
+ *
+ * <p>With {@code 2^precision} registers, the relative standard error of the estimate is about
+ * {@code 1.04 / sqrt(2^precision)}. Small cardinalities are estimated by linear counting, which is
+ * nearly exact. To keep sketches cheap for the many small groups of a typical aggregation, the
+ * registers are first kept sparsely, in a hash table of the non-zero ones, and only switch to a
+ * dense array once that table would take more memory than the array.
+ *
+ * <p>Sketches of the same precision can be merged, the result being the sketch of the union of
+ * their inputs.
+ */
+public final class HyperLogLog {
+  private static final int[] EMPTY = new int[0];
+
+  private final int precision;
+  private final int registerCount;
+
+  /** The sparse registers, as {@code (index + 1) << 6 | rank}, in an open-addressing table. */
+  private int[] sparse = EMPTY;
+
+  private int sparseCount;
+
+  /** The dense registers, or {@code null} while they are kept sparsely. */
+  private byte[] dense;
+
+  /**
+   * Creates an empty sketch.
+   *
+   * @param precision the base 2 logarithm of the number of registers, between 4 and 18
+   */
+  public HyperLogLog(int precision) {
+    if (precision < 4 || precision > 18) {
+      throw new IllegalArgumentException("The precision must be between 4 and 18.");
+    }
+    this.precision = precision;
+    this.registerCount = 1 << precision;
+  }
+
+  /**
+   * Mixes the bits of a hash code, so that its bits are evenly distributed as the sketch expects.
+   *
+   * @param hashCode a hash code, e.g. from {@link Object#hashCode()}
+   * @return a 64-bit hash of {@code hashCode}
+   */
+  public static long hash(long hashCode) {
+    long h = hashCode;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  /**
+   * Adds a hash to the sketch.
+   *
+   * @param hash a 64-bit hash, see {@link #hash(long)}
+   */
+  public void add(long hash) {
+    int index = (int) (hash >>> (64 - precision));
+    int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+    update(index, rank);
+  }
+
+  /**
+   * Adds all the hashes of another sketch to this one.
+   *
+   * @param other a sketch with the same precision
+   */
+  public void merge(HyperLogLog other) {
+    if (other.precision != precision) {
+      throw new IllegalArgumentException("Cannot merge sketches of different precisions.");
+    }
+    if (other.dense != null) {
+      for (int i = 0; i < registerCount; i++) {
+        if (other.dense[i] != 0) {
+          update(i, other.dense[i]);
+        }
+      }
+    } else {
+      for (int entry : other.sparse) {
+        if (entry != 0) {
+          update((entry >>> 6) - 1, entry & 63);
+        }
+      }
+    }
+  }
+
+  /** @return the estimated number of distinct hashes added to the sketch */
+  public long estimate() {
+    double sum = 0;
+    int zeros = registerCount;
+    if (dense != null) {
+      zeros = 0;
+      for (byte rank : dense) {
+        sum += 1.0 / (1L << rank);
+        if (rank == 0) {
+          zeros++;
+        }
+      }
+    } else {
+      for (int entry : sparse) {
+        if (entry != 0) {
+          sum += 1.0 / (1L << (entry & 63));
+          zeros--;
+        }
+      }
+      sum += zeros;
+    }
+
+    double m = registerCount;
+    double alpha = 0.7213 / (1 + 1.079 / m);
+    double estimate = alpha * m * m / sum;
+    if (estimate <= 2.5 * m && zeros > 0) {
+      estimate = m * Math.log(m / zeros);
+    }
+    return Math.round(estimate);
+  }
+
+  private void update(int index, int rank) {
+    if (dense != null) {
+      if (dense[index] < rank) {
+        dense[index] = (byte) rank;
+      }
+      return;
+    }
+
+    int slot = findSlot(sparse, index);
+    if (slot >= 0 && sparse[slot] != 0) {
+      if ((sparse[slot] & 63) < rank) {
+        sparse[slot] = ((index + 1) << 6) | rank;
+      }
+      return;
+    }
+
+    // Each sparse entry takes 4 bytes and the table is at most half full, so past an eighth of
+    // the register count the dense array is smaller.
+    if (sparseCount + 1 > registerCount / 8) {
+      toDense();
+      update(index, rank);
+    } else if (slot < 0 || (sparseCount + 1) * 2 > sparse.length) {
+      growSparse();
+      update(index, rank);
+    } else {
+      sparse[slot] = ((index + 1) << 6) | rank;
+      sparseCount++;
+    }
+  }
+
+  /**
+   * @return the slot holding the register, or the empty slot where it should be inserted, or -1 if
+   *     the table is empty
+   */
+  private static int findSlot(int[] table, int index) {
+    if (table.length == 0) {
+      return -1;
+    }
+    int mask = table.length - 1;
+    int slot = (int) hash(index) & mask;
+    while (table[slot] != 0 && (table[slot] >>> 6) - 1 != index) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private void growSparse() {
+    int[] old = sparse;
+    sparse = new int[Math.max(8, old.length * 2)];
+    for (int entry : old) {
+      if (entry != 0) {
+        sparse[findSlot(sparse, (entry >>> 6) - 1)] = entry;
+      }
+    }
+  }
+
+  private void toDense() {
+    dense = new byte[registerCount];
+    for (int entry : sparse) {
+      if (entry != 0) {
+        dense[(entry >>> 6) - 1] = (byte) (entry & 63);
+      }
+    }
+    sparse = EMPTY;
+    sparseCount = 0;
+  }
+}
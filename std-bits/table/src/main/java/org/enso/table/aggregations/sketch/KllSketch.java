@@ -0,0 +1,202 @@
+package org.enso.table.aggregations.sketch;
+
+import java.util.Arrays;
+
+/**
+ * A KLL quantile sketch of a stream of doubles (Karnin, Lang and Liberty, "Optimal Quantile
+ * Approximation in Streams").
+ *
+ * <p>Values are kept in a hierarchy of compactors, the values of level {@code h} each standing for
+ * {@code 2^h} values of the input. When the sketch is full, the lowest level over its capacity is
+ * sorted and every other value is promoted to the next level, halving its size. The capacity of
+ * the levels decreases geometrically from the top, so the sketch keeps {@code O(k)} values while
+ * the rank error of its quantiles is about {@code 1.65 / k} of the number of values.
+ *
+ * <p>Until the first compaction, the sketch holds all of its values and its quantiles are exact.
+ * The choice of the promoted values is pseudo-random, seeded deterministically so that the same
+ * input always yields the same result. Sketches with the same {@code k} can be merged.
+ */
+public final class KllSketch {
+  private static final double CAPACITY_DECAY = 2.0 / 3.0;
+  private static final int MIN_CAPACITY = 2;
+
+  private final int k;
+  private double[][] levels = {new double[8]};
+  private int[] sizes = {0};
+  private int retained;
+  private int totalCapacity;
+  private long count;
+  private long random = 0x9e3779b97f4a7c15L;
+
+  /**
+   * Creates an empty sketch.
+   *
+   * @param k the accuracy parameter, the capacity of the top level
+   */
+  public KllSketch(int k) {
+    if (k < MIN_CAPACITY) {
+      throw new IllegalArgumentException("The accuracy parameter must be at least 2.");
+    }
+    this.k = k;
+    this.totalCapacity = capacity(0);
+  }
+
+  /** @return the number of values added to the sketch */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Adds a value to the sketch.
+   *
+   * @param value the value to add, which must not be NaN
+   */
+  public void add(double value) {
+    append(0, value);
+    count++;
+    compress();
+  }
+
+  /**
+   * Adds all the values of another sketch to this one.
+   *
+   * @param other a sketch with the same {@code k}
+   */
+  public void merge(KllSketch other) {
+    if (other.k != k) {
+      throw new IllegalArgumentException("Cannot merge sketches of different accuracies.");
+    }
+    for (int h = 0; h < other.levels.length; h++) {
+      for (int i = 0; i < other.sizes[h]; i++) {
+        append(h, other.levels[h][i]);
+      }
+    }
+    count += other.count;
+    compress();
+  }
+
+  /**
+   * Estimates the value at a fractional rank, interpolating linearly between the values at the
+   * neighbouring ranks.
+   *
+   * @param rank the 0-based rank, between 0 and {@code getCount() - 1}
+   * @return the estimated value at that rank, or NaN if the sketch is empty
+   */
+  public double valueAt(double rank) {
+    if (count == 0) {
+      return Double.NaN;
+    }
+
+    double[] values = new double[retained];
+    long[] weights = new long[retained];
+    Integer[] order = sortedOrder(values, weights);
+
+    double lowerRank = Math.floor(rank);
+    double lower = valueAtRank(values, weights, order, (long) lowerRank);
+    if (lowerRank == rank) {
+      return lower;
+    }
+    double upper = valueAtRank(values, weights, order, (long) lowerRank + 1);
+    if (Double.isInfinite(lower) && Double.isInfinite(upper)) {
+      return lower == upper ? lower : Double.NaN;
+    } else if (Double.isInfinite(lower)) {
+      return lower;
+    } else if (Double.isInfinite(upper)) {
+      return upper;
+    }
+    return lower + (upper - lower) * (rank - lowerRank);
+  }
+
+  /** Fills the values and their weights, and returns their indices sorted by value. */
+  private Integer[] sortedOrder(double[] values, long[] weights) {
+    int idx = 0;
+    for (int h = 0; h < levels.length; h++) {
+      for (int i = 0; i < sizes[h]; i++) {
+        values[idx] = levels[h][i];
+        weights[idx] = 1L << h;
+        idx++;
+      }
+    }
+    Integer[] order = new Integer[values.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+    return order;
+  }
+
+  private static double valueAtRank(double[] values, long[] weights, Integer[] order, long rank) {
+    long cumulative = 0;
+    for (int i : order) {
+      cumulative += weights[i];
+      if (cumulative > rank) {
+        return values[i];
+      }
+    }
+    return values[order[order.length - 1]];
+  }
+
+  private void append(int level, double value) {
+    if (level >= levels.length) {
+      levels = Arrays.copyOf(levels, level + 1);
+      sizes = Arrays.copyOf(sizes, level + 1);
+      totalCapacity = 0;
+      for (int h = 0; h < levels.length; h++) {
+        if (levels[h] == null) {
+          levels[h] = new double[8];
+        }
+        totalCapacity += capacity(h);
+      }
+    }
+    if (sizes[level] == levels[level].length) {
+      levels[level] = Arrays.copyOf(levels[level], levels[level].length * 2);
+    }
+    levels[level][sizes[level]++] = value;
+    retained++;
+  }
+
+  private int capacity(int level) {
+    int depth = levels.length - level - 1;
+    return Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+  }
+
+  /** Compacts levels until the sketch fits in its total capacity. */
+  private void compress() {
+    while (retained >= totalCapacity) {
+      for (int h = 0; h < levels.length; h++) {
+        if (sizes[h] >= capacity(h)) {
+          compact(h);
+          break;
+        }
+      }
+    }
+  }
+
+  /** Promotes every other value of a level, in sorted order, to the next level. */
+  private void compact(int level) {
+    double[] values = levels[level];
+    int size = sizes[level];
+    Arrays.sort(values, 0, size);
+
+    // An odd value out stays at this level, so that the weights are preserved.
+    int kept = size % 2;
+    double leftover = kept == 1 ? values[size - 1] : 0;
+    int offset = nextRandomBit();
+    for (int i = offset; i < size - kept; i += 2) {
+      append(level + 1, values[i]);
+    }
+    sizes[level] = 0;
+    retained -= size;
+    if (kept == 1) {
+      retained++;
+      levels[level][sizes[level]++] = leftover;
+    }
+  }
+
+  private int nextRandomBit() {
+    random ^= random << 13;
+    random ^= random >>> 7;
+    random ^= random << 17;
+    return (int) (random >>> 63);
+  }
+}
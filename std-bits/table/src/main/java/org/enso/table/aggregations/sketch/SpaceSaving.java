@@ -0,0 +1,127 @@
+package org.enso.table.aggregations.sketch;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A Space-Saving heavy hitters sketch (Metwally, Agrawal and El Abbadi, "Efficient Computation of
+ * Frequent and Top-k Elements in Data Streams"), tracking the most frequent values of a stream in
+ * bounded memory.
+ *
+ * <p>At most {@code capacity} values are counted. When a new value arrives while the sketch is
+ * full, it replaces the value with the smallest count, inheriting that count. Counts are therefore
+ * over-estimated by at most {@code n / capacity} for {@code n} added values, and any value
+ * occurring more often than that is guaranteed to be tracked. Until the sketch is full, counts are
+ * exact.
+ *
+ * <p>Two sketches are merged by summing their counts, a value missing from a full sketch being
+ * counted with that sketch's smallest count, and keeping the {@code capacity} largest counts.
+ */
+public final class SpaceSaving {
+  private final int capacity;
+  private final Map<Object, Long> counts = new LinkedHashMap<>();
+
+  /**
+   * Creates an empty sketch.
+   *
+   * @param capacity the maximum number of values counted at once
+   */
+  public SpaceSaving(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("The capacity must be positive.");
+    }
+    this.capacity = capacity;
+  }
+
+  /**
+   * Adds a value to the sketch.
+   *
+   * @param value the value to add
+   */
+  public void add(Object value) {
+    Long count = counts.get(value);
+    if (count != null) {
+      counts.put(value, count + 1);
+    } else if (counts.size() < capacity) {
+      counts.put(value, 1L);
+    } else {
+      Object smallest = smallestKey();
+      long smallestCount = counts.remove(smallest);
+      counts.put(value, smallestCount + 1);
+    }
+  }
+
+  /**
+   * Adds all the values of another sketch to this one.
+   *
+   * @param other the sketch to merge
+   */
+  public void merge(SpaceSaving other) {
+    long thisMissing = missingCount();
+    long otherMissing = other.missingCount();
+
+    Map<Object, Long> merged = new LinkedHashMap<>();
+    for (Map.Entry<Object, Long> entry : counts.entrySet()) {
+      long otherCount = other.counts.getOrDefault(entry.getKey(), otherMissing);
+      merged.put(entry.getKey(), entry.getValue() + otherCount);
+    }
+    for (Map.Entry<Object, Long> entry : other.counts.entrySet()) {
+      merged.putIfAbsent(entry.getKey(), entry.getValue() + thisMissing);
+    }
+
+    counts.clear();
+    if (merged.size() <= capacity) {
+      counts.putAll(merged);
+      return;
+    }
+    List<Long> sorted = new ArrayList<>(merged.values());
+    sorted.sort((a, b) -> Long.compare(b, a));
+    long threshold = sorted.get(capacity - 1);
+    int slack = (int) sorted.stream().limit(capacity).filter(c -> c == threshold).count();
+    for (Map.Entry<Object, Long> entry : merged.entrySet()) {
+      if (entry.getValue() > threshold) {
+        counts.put(entry.getKey(), entry.getValue());
+      } else if (entry.getValue() == threshold && slack > 0) {
+        counts.put(entry.getKey(), entry.getValue());
+        slack--;
+      }
+    }
+  }
+
+  /**
+   * Returns the value with the largest count; among values with equal counts, the one tracked for
+   * the longest time.
+   *
+   * @return the most frequent value, or {@code null} if the sketch is empty
+   */
+  public Object mostFrequent() {
+    Object result = null;
+    long best = 0;
+    for (Map.Entry<Object, Long> entry : counts.entrySet()) {
+      if (entry.getValue() > best) {
+        best = entry.getValue();
+        result = entry.getKey();
+      }
+    }
+    return result;
+  }
+
+  /** @return the largest possible count of a value not tracked by the sketch */
+  private long missingCount() {
+    return counts.size() < capacity ? 0 : counts.get(smallestKey());
+  }
+
+  private Object smallestKey() {
+    Object result = null;
+    long smallest = Long.MAX_VALUE;
+    for (Map.Entry<Object, Long> entry : counts.entrySet()) {
+      if (entry.getValue() < smallest) {
+        smallest = entry.getValue();
+        result = entry.getKey();
+      }
+    }
+    return result;
+  }
+}
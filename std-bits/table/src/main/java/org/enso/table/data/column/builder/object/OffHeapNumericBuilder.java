@@ -0,0 +1,110 @@
+package org.enso.table.data.column.builder.object;
+
+import java.util.BitSet;
+import org.enso.table.data.column.storage.OffHeapMemory;
+import org.enso.table.data.column.storage.OffHeapNumericStorage;
+import org.enso.table.data.column.storage.Storage;
+
+/**
+ * A builder for numeric columns held in off-heap memory, see {@link OffHeapNumericStorage}.
+ *
+ * <p>Growing the builder copies all the values appended so far, so the expected size should be
+ * known up-front whenever possible.
+ */
+public class OffHeapNumericBuilder extends Builder {
+  private final BitSet isMissing = new BitSet();
+  private final boolean isDouble;
+  private OffHeapMemory data;
+  private int currentSize;
+
+  private OffHeapNumericBuilder(boolean isDouble, int size) {
+    this.data = OffHeapMemory.allocate(size);
+    this.isDouble = isDouble;
+  }
+
+  public static OffHeapNumericBuilder createDoubleBuilder(int size) {
+    return new OffHeapNumericBuilder(true, size);
+  }
+
+  public static OffHeapNumericBuilder createLongBuilder(int size) {
+    return new OffHeapNumericBuilder(false, size);
+  }
+
+  @Override
+  public void appendNoGrow(Object o) {
+    if (o == null) {
+      isMissing.set(currentSize++);
+    } else if (isDouble && o instanceof Double) {
+      data.set(currentSize++, Double.doubleToRawLongBits((Double) o));
+    } else if (!isDouble && o instanceof Long) {
+      data.set(currentSize++, (Long) o);
+    } else {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  @Override
+  public void append(Object o) {
+    if (currentSize + 1 > data.size()) {
+      grow();
+    }
+    appendNoGrow(o);
+  }
+
+  @Override
+  public void appendNulls(int count) {
+    isMissing.set(currentSize, currentSize + count);
+    currentSize += count;
+  }
+
+  /**
+   * Append a new integer to this builder.
+   *
+   * @param value the integer to append
+   */
+  public void appendLong(long value) {
+    if (currentSize + 1 > data.size()) {
+      grow();
+    }
+    data.set(currentSize++, value);
+  }
+
+  /**
+   * Append a new double to this builder.
+   *
+   * @param value the double to append
+   */
+  public void appendDouble(double value) {
+    if (currentSize + 1 > data.size()) {
+      grow();
+    }
+    data.set(currentSize++, Double.doubleToRawLongBits(value));
+  }
+
+  @Override
+  public int getCurrentSize() {
+    return currentSize;
+  }
+
+  @Override
+  public int getCurrentCapacity() {
+    return data.size();
+  }
+
+  @Override
+  public Storage seal() {
+    return new OffHeapNumericStorage(data, currentSize, isMissing, isDouble);
+  }
+
+  private void grow() {
+    int desiredCapacity = 3;
+    if (data.size() > 1) {
+      desiredCapacity = (data.size() * 3 / 2);
+    }
+    OffHeapMemory newData = OffHeapMemory.allocate(desiredCapacity);
+    for (int i = 0; i < currentSize; i++) {
+      newData.set(i, data.get(i));
+    }
+    data = newData;
+  }
+}
@@ -0,0 +1,127 @@
+package org.enso.table.data.column.builder.object;
+
+import org.enso.table.data.column.storage.Storage;
+
+/**
+ * A builder for results of a known size and unknown type, expecting them to be all integers or all
+ * decimals.
+ *
+ * <p>The type of the first non-missing value decides whether the values are written into an
+ * integer or a decimal {@link NumericBuilder}, with no further type checks. The first value of a
+ * different type moves the values appended so far into an {@link InferredBuilder}, which then
+ * receives all the remaining values, so the result is always the same as the one of an {@link
+ * InferredBuilder}.
+ */
+public class SpeculativeNumericBuilder extends Builder {
+  private final int initialSize;
+  private NumericBuilder numericBuilder = null;
+  private InferredBuilder fallbackBuilder = null;
+  private int leadingNulls = 0;
+
+  /**
+   * Creates a new instance of this builder, with the given known result size.
+   *
+   * @param initialSize the result size
+   */
+  public SpeculativeNumericBuilder(int initialSize) {
+    this.initialSize = initialSize;
+  }
+
+  @Override
+  public void appendNoGrow(Object o) {
+    append(o, false);
+  }
+
+  @Override
+  public void append(Object o) {
+    append(o, true);
+  }
+
+  private void append(Object o, boolean grow) {
+    if (fallbackBuilder != null) {
+      fallbackBuilder.append(o);
+    } else if (o == null) {
+      appendNulls(1);
+    } else if (numericBuilder == null) {
+      if (o instanceof Long) {
+        numericBuilder = NumericBuilder.createLongBuilder(Math.max(initialSize, leadingNulls + 1));
+      } else if (o instanceof Double) {
+        numericBuilder =
+            NumericBuilder.createDoubleBuilder(Math.max(initialSize, leadingNulls + 1));
+      } else {
+        fallBackAndAppend(o);
+        return;
+      }
+      numericBuilder.appendNulls(leadingNulls);
+      append(o, grow);
+    } else if (o instanceof Long && numericBuilder.getType() == Storage.Type.LONG) {
+      if (grow) {
+        numericBuilder.appendLong((Long) o);
+      } else {
+        numericBuilder.appendRawNoGrow((Long) o);
+      }
+    } else if (o instanceof Double && numericBuilder.getType() == Storage.Type.DOUBLE) {
+      if (grow) {
+        numericBuilder.appendDouble((Double) o);
+      } else {
+        numericBuilder.appendRawNoGrow(Double.doubleToRawLongBits((Double) o));
+      }
+    } else {
+      fallBackAndAppend(o);
+    }
+  }
+
+  private void fallBackAndAppend(Object o) {
+    fallbackBuilder = new InferredBuilder(initialSize);
+    if (numericBuilder == null) {
+      fallbackBuilder.appendNulls(leadingNulls);
+    } else {
+      Object[] items = new Object[numericBuilder.getCurrentSize()];
+      numericBuilder.writeTo(items);
+      for (Object item : items) {
+        fallbackBuilder.append(item);
+      }
+      numericBuilder = null;
+    }
+    fallbackBuilder.append(o);
+  }
+
+  @Override
+  public void appendNulls(int count) {
+    if (fallbackBuilder != null) {
+      fallbackBuilder.appendNulls(count);
+    } else if (numericBuilder != null) {
+      numericBuilder.appendNulls(count);
+    } else {
+      leadingNulls += count;
+    }
+  }
+
+  @Override
+  public int getCurrentSize() {
+    if (fallbackBuilder != null) {
+      return fallbackBuilder.getCurrentSize();
+    } else if (numericBuilder != null) {
+      return numericBuilder.getCurrentSize();
+    } else {
+      return leadingNulls;
+    }
+  }
+
+  @Override
+  public int getCurrentCapacity() {
+    return 0;
+  }
+
+  @Override
+  public Storage seal() {
+    if (numericBuilder != null) {
+      return numericBuilder.seal();
+    }
+    if (fallbackBuilder == null) {
+      fallbackBuilder = new InferredBuilder(initialSize);
+      fallbackBuilder.appendNulls(leadingNulls);
+    }
+    return fallbackBuilder.seal();
+  }
+}
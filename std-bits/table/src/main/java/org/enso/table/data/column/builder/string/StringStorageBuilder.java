@@ -1,12 +1,30 @@
 package org.enso.table.data.column.builder.string;
 
-import org.enso.table.data.column.storage.Storage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.enso.table.data.column.storage.DictionaryStringStorage;
 import org.enso.table.data.column.storage.StringStorage;
 
-/** A column builder appending all the values passed to it in an unchanged form. */
+/**
+ * A column builder appending all the values passed to it in an unchanged form.
+ *
+ * <p>As long as the column has few distinct values, they are collected in a dictionary and the rows
+ * are stored as codes, resulting in a {@link DictionaryStringStorage}. Once there are too many
+ * distinct values, the builder switches to storing the values directly.
+ */
 public class StringStorageBuilder extends StorageBuilder {
+  /** The maximal number of distinct values for which a dictionary is used. */
+  private static final int MAX_DICTIONARY_SIZE = 1 << 12;
+
+  private static final int UNMAPPED = -2;
 
   private Object[] data;
+  private int[] codes;
+  private Map<String, Integer> dictionaryCodes;
+  private List<String> dictionary;
   private int size;
 
   /**
@@ -17,24 +35,130 @@ public class StringStorageBuilder extends StorageBuilder {
    * @param size the number of already filled elements
    */
   public StringStorageBuilder(String[] data, int size) {
-    this.data = data;
-    this.size = size;
+    this();
+    for (int i = 0; i < size; i++) {
+      parseAndAppend(data[i]);
+    }
   }
 
   /** Creates an empty builder. */
   public StringStorageBuilder() {
-    data = new String[64];
+    codes = new int[64];
+    dictionaryCodes = new HashMap<>();
+    dictionary = new ArrayList<>();
     size = 0;
   }
 
   /** @inheritDoc */
   @Override
   public StringStorageBuilder parseAndAppend(String value) {
+    if (dictionaryCodes != null) {
+      if (value == null) {
+        appendCode(DictionaryStringStorage.MISSING);
+        return this;
+      }
+
+      Integer code = dictionaryCodes.get(value);
+      if (code != null) {
+        appendCode(code);
+        return this;
+      } else if (dictionary.size() < MAX_DICTIONARY_SIZE) {
+        code = dictionary.size();
+        dictionaryCodes.put(value, code);
+        dictionary.add(value);
+        appendCode(code);
+        return this;
+      }
+      decode();
+    }
+
     ensureAppendable();
     data[size++] = value;
     return this;
   }
 
+  /**
+   * Appends the first values of another builder, in order.
+   *
+   * <p>If both builders use dictionaries, each distinct value of {@code other} is only looked up
+   * once.
+   *
+   * @param other the builder to append the values of
+   * @param count the number of values to append
+   * @return this builder
+   */
+  public StringStorageBuilder appendAll(StringStorageBuilder other, int count) {
+    if (dictionaryCodes == null && other.dictionaryCodes == null) {
+      if (size + count > data.length) {
+        data = Arrays.copyOf(data, Math.max(size + count, 2 * data.length));
+      }
+      System.arraycopy(other.data, 0, data, size, count);
+      size += count;
+      return this;
+    }
+
+    int[] remappedCodes = null;
+    if (other.dictionaryCodes != null) {
+      remappedCodes = new int[other.dictionary.size()];
+      Arrays.fill(remappedCodes, UNMAPPED);
+    }
+    for (int i = 0; i < count; i++) {
+      if (remappedCodes != null && dictionaryCodes != null) {
+        int code = other.codes[i];
+        int remapped = code == DictionaryStringStorage.MISSING ? code : remappedCodes[code];
+        if (remapped != UNMAPPED) {
+          appendCode(remapped);
+          continue;
+        }
+        parseAndAppend(other.dictionary.get(code));
+        if (dictionaryCodes != null) {
+          remappedCodes[code] = codes[size - 1];
+        }
+      } else {
+        parseAndAppend(other.get(i));
+      }
+    }
+    return this;
+  }
+
+  /** @return the number of values appended so far */
+  public int getCurrentSize() {
+    return size;
+  }
+
+  /**
+   * @param idx the index of an appended value
+   * @return the value at the given index
+   */
+  public String get(int idx) {
+    if (dictionaryCodes == null) {
+      return (String) data[idx];
+    }
+    int code = codes[idx];
+    return code == DictionaryStringStorage.MISSING ? null : dictionary.get(code);
+  }
+
+  private void appendCode(int code) {
+    if (size >= codes.length) {
+      int[] newCodes = new int[2 * codes.length];
+      System.arraycopy(codes, 0, newCodes, 0, codes.length);
+      codes = newCodes;
+    }
+    codes[size++] = code;
+  }
+
+  /** Switches from storing codes to storing the values directly. */
+  private void decode() {
+    data = new Object[Math.max(codes.length, 64)];
+    for (int i = 0; i < size; i++) {
+      int code = codes[i];
+      data[i] = code == DictionaryStringStorage.MISSING ? null : dictionary.get(code);
+    }
+    codes = null;
+    dictionaryCodes = null;
+    dictionary = null;
+  }
+
   private void ensureAppendable() {
     if (size >= data.length) {
       Object[] newData = new Object[2 * data.length];
@@ -46,6 +170,14 @@ public class StringStorageBuilder extends StorageBuilder {
   /** @inheritDoc */
   @Override
   public StringStorage seal() {
+    // A dictionary only pays off if values are repeated.
+    if (dictionaryCodes != null && dictionary.size() * 2 > size) {
+      decode();
+    }
+
+    if (dictionaryCodes != null) {
+      return new DictionaryStringStorage(codes, dictionary.toArray(new String[0]), size);
+    }
     return new StringStorage(data, size);
   }
 }
@@ -0,0 +1,674 @@
+package org.enso.table.data.column.operation.map;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import org.enso.table.data.column.storage.BoolStorage;
+import org.enso.table.data.column.storage.DoubleStorage;
+import org.enso.table.data.column.storage.LongStorage;
+import org.enso.table.data.column.storage.Storage;
+
+/**
+ * A tree of vectorized operations over storages, which is only evaluated when its result is first
+ * needed.
+ *
+ * <p>Running the operations of a chain like {@code (a * 2 + b) > c} one after another stores a full
+ * intermediate result for every step. An expression evaluates the whole tree row by row instead, in
+ * batches of {@link #BATCH_SIZE} rows, so that the intermediate results of a batch stay in the CPU
+ * cache and only the final result is stored for all the rows.
+ *
+ * <p>Only the arithmetic, comparison and logical operations of integer, decimal and boolean
+ * storages can be part of an expression, and their results are exactly the ones of the
+ * corresponding {@link MapOperation}s. The methods building expressions return null for any other
+ * operation, and for the integer division and remainder of two integer storages, which may fail.
+ */
+public final class Expression {
+  static final int BATCH_SIZE = 1024;
+
+  private static final int ADD = 0;
+  private static final int SUB = 1;
+  private static final int MUL = 2;
+  private static final int DIV = 3;
+  private static final int MOD = 4;
+  private static final int LT = 5;
+  private static final int LTE = 6;
+  private static final int GT = 7;
+  private static final int GTE = 8;
+  private static final int EQ = 9;
+  private static final int AND = 10;
+  private static final int OR = 11;
+
+  private final int size;
+  private Node root;
+  private volatile Storage storage;
+
+  private Expression(int size, Node root) {
+    this.size = size;
+    this.root = root;
+  }
+
+  /**
+   * Creates an expression reading a storage.
+   *
+   * @param storage the storage to read
+   * @return an expression whose result is {@code storage}, or null if the operations of {@code
+   *     storage} cannot be part of an expression
+   */
+  public static Expression of(Storage storage) {
+    if (storage instanceof LongStorage
+        || storage instanceof DoubleStorage
+        || storage instanceof BoolStorage) {
+      Expression expression = new Expression(storage.size(), null);
+      expression.storage = storage;
+      return expression;
+    }
+    return null;
+  }
+
+  /**
+   * Records a unary operation on the result of this expression.
+   *
+   * @param name the name of the operation, as in {@link Storage.Maps}
+   * @return an expression computing the operation, or null if it cannot be part of an expression
+   */
+  public Expression map(String name) {
+    Node operand = node();
+    if (name.equals(Storage.Maps.NOT) && operand.type == Storage.Type.BOOL) {
+      return new Expression(size, new NotNode(operand));
+    } else if (name.equals(Storage.Maps.IS_MISSING) && isNumeric(operand.type)) {
+      return new Expression(size, new IsMissingNode(operand));
+    }
+    return null;
+  }
+
+  /**
+   * Records an operation on the result of this expression and a single value.
+   *
+   * @param name the name of the operation, as in {@link Storage.Maps}
+   * @param argument the second operand of the operation
+   * @return an expression computing the operation, or null if it cannot be part of an expression
+   */
+  public Expression bimap(String name, Object argument) {
+    Node constant;
+    if (argument instanceof Long || argument instanceof Double || argument instanceof Boolean) {
+      constant = new ConstantNode(argument);
+    } else {
+      return null;
+    }
+    Node node = binary(opCode(name), node(), constant, true);
+    return node == null ? null : new Expression(size, node);
+  }
+
+  /**
+   * Records an operation on the results of this expression and another one, row by row.
+   *
+   * @param name the name of the operation, as in {@link Storage.Maps}
+   * @param argument the expression computing the second operands of the operation
+   * @return an expression computing the operation, or null if it cannot be part of an expression
+   */
+  public Expression zip(String name, Expression argument) {
+    if (argument.size != size) {
+      return null;
+    }
+    Node node = binary(opCode(name), node(), argument.node(), false);
+    return node == null ? null : new Expression(size, node);
+  }
+
+  /** @return the number of rows of the result */
+  public int size() {
+    return size;
+  }
+
+  /** @return the number of operations on the longest path from the result to a storage */
+  public int getDepth() {
+    Storage result = storage;
+    return result == null ? node().depth : 0;
+  }
+
+  /**
+   * Returns the result of the expression, evaluating it on the first call.
+   *
+   * @return a storage containing the result
+   */
+  public Storage get() {
+    Storage result = storage;
+    return result == null ? evaluate() : result;
+  }
+
+  /**
+   * @return the estimated size of the storages read by the expression as long as it is not
+   *     evaluated, or of its result afterwards, in bytes
+   */
+  public synchronized long estimateMemorySize() {
+    if (storage != null) {
+      return storage.estimateMemorySize();
+    }
+    Set<Storage> storages = Collections.newSetFromMap(new IdentityHashMap<>());
+    root.collectStorages(storages);
+    return storages.stream().mapToLong(Storage::estimateMemorySize).sum();
+  }
+
+  private synchronized Node node() {
+    return storage == null ? root : new StorageNode(storage);
+  }
+
+  private synchronized Storage evaluate() {
+    if (storage != null) {
+      return storage;
+    }
+    Kernel kernel = root.kernel();
+    BitSet missing = new BitSet();
+    long[] data = root.type == Storage.Type.BOOL ? null : new long[size];
+    BitSet values = root.type == Storage.Type.BOOL ? new BitSet() : null;
+    for (int offset = 0; offset < size; offset += BATCH_SIZE) {
+      int length = Math.min(BATCH_SIZE, size - offset);
+      kernel.run(offset, length);
+      for (int i = 0; i < length; i++) {
+        if (kernel.missing[i]) {
+          missing.set(offset + i);
+        } else if (kernel.longs != null) {
+          data[offset + i] = kernel.longs[i];
+        } else if (kernel.doubles != null) {
+          data[offset + i] = Double.doubleToRawLongBits(kernel.doubles[i]);
+        } else if (kernel.bools[i]) {
+          values.set(offset + i);
+        }
+      }
+    }
+    if (root.type == Storage.Type.LONG) {
+      storage = new LongStorage(data, size, missing);
+    } else if (root.type == Storage.Type.DOUBLE) {
+      storage = new DoubleStorage(data, size, missing);
+    } else {
+      storage = new BoolStorage(values, missing, size, false);
+    }
+    root = null;
+    return storage;
+  }
+
+  private static int opCode(String name) {
+    switch (name) {
+      case Storage.Maps.ADD:
+        return ADD;
+      case Storage.Maps.SUB:
+        return SUB;
+      case Storage.Maps.MUL:
+        return MUL;
+      case Storage.Maps.DIV:
+        return DIV;
+      case Storage.Maps.MOD:
+        return MOD;
+      case Storage.Maps.LT:
+        return LT;
+      case Storage.Maps.LTE:
+        return LTE;
+      case Storage.Maps.GT:
+        return GT;
+      case Storage.Maps.GTE:
+        return GTE;
+      case Storage.Maps.EQ:
+        return EQ;
+      case Storage.Maps.AND:
+        return AND;
+      case Storage.Maps.OR:
+        return OR;
+      default:
+        return -1;
+    }
+  }
+
+  private static boolean isNumeric(long type) {
+    return type == Storage.Type.LONG || type == Storage.Type.DOUBLE;
+  }
+
+  /**
+   * Builds the node of a binary operation, following the result types of the operations of integer,
+   * decimal and boolean storages.
+   */
+  private static Node binary(int op, Node left, Node right, boolean isMap) {
+    boolean numeric = isNumeric(left.type) && isNumeric(right.type);
+    boolean bothLong = left.type == Storage.Type.LONG && right.type == Storage.Type.LONG;
+    boolean bothBool = left.type == Storage.Type.BOOL && right.type == Storage.Type.BOOL;
+    switch (op) {
+      case ADD:
+      case SUB:
+      case MUL:
+        if (!numeric) {
+          return null;
+        }
+        // Integer storages return decimals when mapped, and integers only when zipped with
+        // integers.
+        boolean longResult = bothLong && !isMap;
+        return new ArithmeticNode(
+            op, left, right, longResult ? Storage.Type.LONG : Storage.Type.DOUBLE);
+      case DIV:
+      case MOD:
+        if (!numeric || (bothLong && !isMap)) {
+          return null;
+        }
+        return new ArithmeticNode(op, left, right, Storage.Type.DOUBLE);
+      case LT:
+      case LTE:
+      case GT:
+      case GTE:
+        return numeric ? new ComparisonNode(op, left, right) : null;
+      case EQ:
+        if (numeric) {
+          return new ComparisonNode(op, left, right);
+        }
+        return bothBool ? new LogicalNode(op, left, right) : null;
+      case AND:
+      case OR:
+        return bothBool ? new LogicalNode(op, left, right) : null;
+      default:
+        return null;
+    }
+  }
+
+  /** A description of an operation in the tree, creating the kernels evaluating it. */
+  private abstract static class Node {
+    final long type;
+    final int depth;
+
+    Node(long type, Node... operands) {
+      this.type = type;
+      int maxDepth = -1;
+      for (Node operand : operands) {
+        maxDepth = Math.max(maxDepth, operand.depth);
+      }
+      this.depth = maxDepth + 1;
+    }
+
+    /** @return a new kernel evaluating this node, with its own buffers */
+    abstract Kernel kernel();
+
+    abstract void collectStorages(Set<Storage> storages);
+  }
+
+  /**
+   * Evaluates a node for a batch of rows at a time, keeping the results of the current batch in
+   * buffers of {@link #BATCH_SIZE} values.
+   */
+  private abstract static class Kernel {
+    final long[] longs;
+    final double[] doubles;
+    final boolean[] bools;
+    final boolean[] missing = new boolean[BATCH_SIZE];
+    private double[] converted;
+
+    Kernel(long type) {
+      longs = type == Storage.Type.LONG ? new long[BATCH_SIZE] : null;
+      doubles = type == Storage.Type.DOUBLE ? new double[BATCH_SIZE] : null;
+      bools = type == Storage.Type.BOOL ? new boolean[BATCH_SIZE] : null;
+    }
+
+    /**
+     * Computes the results for a batch of rows.
+     *
+     * @param offset the first row of the batch
+     * @param length the number of rows in the batch
+     */
+    abstract void run(int offset, int length);
+
+    /** @return the numeric results of the current batch, converted to decimals if needed */
+    double[] asDoubles(int length) {
+      if (doubles != null) {
+        return doubles;
+      }
+      if (converted == null) {
+        converted = new double[BATCH_SIZE];
+      }
+      for (int i = 0; i < length; i++) {
+        converted[i] = longs[i];
+      }
+      return converted;
+    }
+  }
+
+  private static final class StorageNode extends Node {
+    private final Storage storage;
+
+    StorageNode(Storage storage) {
+      super(storage.getType());
+      this.storage = storage;
+    }
+
+    @Override
+    Kernel kernel() {
+      if (storage instanceof LongStorage longStorage) {
+        return new Kernel(type) {
+          @Override
+          void run(int offset, int length) {
+            for (int i = 0; i < length; i++) {
+              longs[i] = longStorage.getItem(offset + i);
+              missing[i] = longStorage.isNa(offset + i);
+            }
+          }
+        };
+      } else if (storage instanceof DoubleStorage doubleStorage) {
+        return new Kernel(type) {
+          @Override
+          void run(int offset, int length) {
+            for (int i = 0; i < length; i++) {
+              doubles[i] = doubleStorage.getItem(offset + i);
+              missing[i] = doubleStorage.isNa(offset + i);
+            }
+          }
+        };
+      } else {
+        BoolStorage boolStorage = (BoolStorage) storage;
+        return new Kernel(type) {
+          @Override
+          void run(int offset, int length) {
+            for (int i = 0; i < length; i++) {
+              bools[i] = boolStorage.getItem(offset + i);
+              missing[i] = boolStorage.isNa(offset + i);
+            }
+          }
+        };
+      }
+    }
+
+    @Override
+    void collectStorages(Set<Storage> storages) {
+      storages.add(storage);
+    }
+  }
+
+  private static final class ConstantNode extends Node {
+    private final Object value;
+
+    ConstantNode(Object value) {
+      super(
+          value instanceof Long
+              ? Storage.Type.LONG
+              : value instanceof Double ? Storage.Type.DOUBLE : Storage.Type.BOOL);
+      this.value = value;
+    }
+
+    @Override
+    Kernel kernel() {
+      Kernel kernel =
+          new Kernel(type) {
+            @Override
+            void run(int offset, int length) {}
+          };
+      for (int i = 0; i < BATCH_SIZE; i++) {
+        if (kernel.longs != null) {
+          kernel.longs[i] = (Long) value;
+        } else if (kernel.doubles != null) {
+          kernel.doubles[i] = (Double) value;
+        } else {
+          kernel.bools[i] = (Boolean) value;
+        }
+      }
+      return kernel;
+    }
+
+    @Override
+    void collectStorages(Set<Storage> storages) {}
+  }
+
+  private abstract static class BinaryNode extends Node {
+    final int op;
+    final Node left;
+    final Node right;
+
+    BinaryNode(int op, Node left, Node right, long type) {
+      super(type, left, right);
+      this.op = op;
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    Kernel kernel() {
+      Kernel leftKernel = left.kernel();
+      Kernel rightKernel = right.kernel();
+      return new Kernel(type) {
+        @Override
+        void run(int offset, int length) {
+          leftKernel.run(offset, length);
+          rightKernel.run(offset, length);
+          compute(this, leftKernel, rightKernel, length);
+          for (int i = 0; i < length; i++) {
+            missing[i] = leftKernel.missing[i] || rightKernel.missing[i];
+          }
+        }
+      };
+    }
+
+    /**
+     * Computes the results of a batch of rows, including the missing ones, whose values are
+     * ignored.
+     */
+    abstract void compute(Kernel out, Kernel left, Kernel right, int length);
+
+    @Override
+    void collectStorages(Set<Storage> storages) {
+      left.collectStorages(storages);
+      right.collectStorages(storages);
+    }
+  }
+
+  private static final class ArithmeticNode extends BinaryNode {
+    ArithmeticNode(int op, Node left, Node right, long type) {
+      super(op, left, right, type);
+    }
+
+    @Override
+    void compute(Kernel out, Kernel left, Kernel right, int length) {
+      if (out.longs != null) {
+        long[] a = left.longs;
+        long[] b = right.longs;
+        long[] result = out.longs;
+        switch (op) {
+          case ADD -> {
+            for (int i = 0; i < length; i++) {
+              result[i] = a[i] + b[i];
+            }
+          }
+          case SUB -> {
+            for (int i = 0; i < length; i++) {
+              result[i] = a[i] - b[i];
+            }
+          }
+          default -> {
+            for (int i = 0; i < length; i++) {
+              result[i] = a[i] * b[i];
+            }
+          }
+        }
+      } else {
+        double[] a = left.asDoubles(length);
+        double[] b = right.asDoubles(length);
+        double[] result = out.doubles;
+        switch (op) {
+          case ADD -> {
+            for (int i = 0; i < length; i++) {
+              result[i] = a[i] + b[i];
+            }
+          }
+          case SUB -> {
+            for (int i = 0; i < length; i++) {
+              result[i] = a[i] - b[i];
+            }
+          }
+          case MUL -> {
+            for (int i = 0; i < length; i++) {
+              result[i] = a[i] * b[i];
+            }
+          }
+          case DIV -> {
+            for (int i = 0; i < length; i++) {
+              result[i] = a[i] / b[i];
+            }
+          }
+          default -> {
+            for (int i = 0; i < length; i++) {
+              result[i] = a[i] % b[i];
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private static final class ComparisonNode extends BinaryNode {
+    ComparisonNode(int op, Node left, Node right) {
+      super(op, left, right, Storage.Type.BOOL);
+    }
+
+    @Override
+    void compute(Kernel out, Kernel left, Kernel right, int length) {
+      boolean[] result = out.bools;
+      if (left.longs != null && right.longs != null) {
+        long[] a = left.longs;
+        long[] b = right.longs;
+        switch (op) {
+          case LT -> {
+            for (int i = 0; i < length; i++) {
+              result[i] = a[i] < b[i];
+            }
+          }
+          case LTE -> {
+            for (int i = 0; i < length; i++) {
+              result[i] = a[i] <= b[i];
+            }
+          }
+          case GT -> {
+            for (int i = 0; i < length; i++) {
+              result[i] = a[i] > b[i];
+            }
+          }
+          case GTE -> {
+            for (int i = 0; i < length; i++) {
+              result[i] = a[i] >= b[i];
+            }
+          }
+          default -> {
+            for (int i = 0; i < length; i++) {
+              result[i] = a[i] == b[i];
+            }
+          }
+        }
+      } else {
+        double[] a = left.asDoubles(length);
+        double[] b = right.asDoubles(length);
+        switch (op) {
+          case LT -> {
+            for (int i = 0; i < length; i++) {
+              result[i] = a[i] < b[i];
+            }
+          }
+          case LTE -> {
+            for (int i = 0; i < length; i++) {
+              result[i] = a[i] <= b[i];
+            }
+          }
+          case GT -> {
+            for (int i = 0; i < length; i++) {
+              result[i] = a[i] > b[i];
+            }
+          }
+          case GTE -> {
+            for (int i = 0; i < length; i++) {
+              result[i] = a[i] >= b[i];
+            }
+          }
+          default -> {
+            for (int i = 0; i < length; i++) {
+              result[i] = a[i] == b[i];
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private static final class LogicalNode extends BinaryNode {
+    LogicalNode(int op, Node left, Node right) {
+      super(op, left, right, Storage.Type.BOOL);
+    }
+
+    @Override
+    void compute(Kernel out, Kernel left, Kernel right, int length) {
+      boolean[] a = left.bools;
+      boolean[] b = right.bools;
+      boolean[] result = out.bools;
+      switch (op) {
+        case AND -> {
+          for (int i = 0; i < length; i++) {
+            result[i] = a[i] && b[i];
+          }
+        }
+        case OR -> {
+          for (int i = 0; i < length; i++) {
+            result[i] = a[i] || b[i];
+          }
+        }
+        default -> {
+          for (int i = 0; i < length; i++) {
+            result[i] = a[i] == b[i];
+          }
+        }
+      }
+    }
+  }
+
+  private static final class NotNode extends Node {
+    private final Node operand;
+
+    NotNode(Node operand) {
+      super(Storage.Type.BOOL, operand);
+      this.operand = operand;
+    }
+
+    @Override
+    Kernel kernel() {
+      Kernel operandKernel = operand.kernel();
+      return new Kernel(type) {
+        @Override
+        void run(int offset, int length) {
+          operandKernel.run(offset, length);
+          for (int i = 0; i < length; i++) {
+            bools[i] = !operandKernel.bools[i];
+            missing[i] = operandKernel.missing[i];
+          }
+        }
+      };
+    }
+
+    @Override
+    void collectStorages(Set<Storage> storages) {
+      operand.collectStorages(storages);
+    }
+  }
+
+  private static final class IsMissingNode extends Node {
+    private final Node operand;
+
+    IsMissingNode(Node operand) {
+      super(Storage.Type.BOOL, operand);
+      this.operand = operand;
+    }
+
+    @Override
+    Kernel kernel() {
+      Kernel operandKernel = operand.kernel();
+      return new Kernel(type) {
+        @Override
+        void run(int offset, int length) {
+          operandKernel.run(offset, length);
+          System.arraycopy(operandKernel.missing, 0, bools, 0, length);
+        }
+      };
+    }
+
+    @Override
+    void collectStorages(Set<Storage> storages) {
+      operand.collectStorages(storages);
+    }
+  }
+}
@@ -36,15 +36,7 @@ public abstract class DoubleBooleanOp extends MapOperation<DoubleStorage> {
     Double v = tryCast(arg);
     if (v != null) {
       double x = v;
-      BitSet newVals = new BitSet();
-      for (int i = 0; i < storage.size(); i++) {
-        if (!storage.isNa(i)) {
-          if (doDouble(storage.getItem(i), x)) {
-            newVals.set(i);
-          }
-        }
-      }
-      return new BoolStorage(newVals, storage.getIsMissing(), storage.size(), false);
+      return storage.mapDoubleToBoolean(a -> doDouble(a, x));
     } else {
       BitSet newVals = new BitSet();
       for (int i = 0; i < storage.size(); i++) {
@@ -2,12 +2,10 @@ package org.enso.table.data.column.operation.map.numeric;
 
 import org.enso.table.data.column.operation.map.MapOperation;
 import org.enso.table.data.column.storage.DoubleStorage;
-import org.enso.table.data.column.storage.LongStorage;
+import org.enso.table.data.column.storage.NumericStorage;
 import org.enso.table.data.column.storage.Storage;
 import org.enso.table.error.UnexpectedTypeException;
 
-import java.util.BitSet;
-
 /** An operation expecting a numeric argument and returning a number. */
 public abstract class DoubleNumericOp extends MapOperation<DoubleStorage> {
 
@@ -27,43 +25,14 @@ public abstract class DoubleNumericOp extends MapOperation<DoubleStorage> {
     } else {
       throw new UnexpectedTypeException("a Number.");
     }
-    long[] out = new long[storage.size()];
-    for (int i = 0; i < storage.size(); i++) {
-      if (!storage.isNa(i)) {
-        out[i] = Double.doubleToRawLongBits(doDouble(storage.getItem(i), x));
-      }
-    }
-    return new DoubleStorage(out, storage.size(), storage.getIsMissing());
+    return storage.mapDouble(a -> doDouble(a, x));
   }
 
   @Override
   public Storage runZip(DoubleStorage storage, Storage arg) {
-    if (arg instanceof LongStorage) {
-      LongStorage v = (LongStorage) arg;
-      long[] out = new long[storage.size()];
-      BitSet newMissing = new BitSet();
-      for (int i = 0; i < storage.size(); i++) {
-        if (!storage.isNa(i) && i < v.size() && !v.isNa(i)) {
-          out[i] = Double.doubleToRawLongBits(doDouble(storage.getItem(i), v.getItem(i)));
-        } else {
-          newMissing.set(i);
-        }
-      }
-      return new DoubleStorage(out, storage.size(), newMissing);
-    } else if (arg instanceof DoubleStorage) {
-      DoubleStorage v = (DoubleStorage) arg;
-      long[] out = new long[storage.size()];
-      BitSet newMissing = new BitSet();
-      for (int i = 0; i < storage.size(); i++) {
-        if (!storage.isNa(i) && i < v.size() && !v.isNa(i)) {
-          out[i] = Double.doubleToRawLongBits(doDouble(storage.getItem(i), v.getItem(i)));
-        } else {
-          newMissing.set(i);
-        }
-      }
-      return new DoubleStorage(out, storage.size(), newMissing);
-    } else {
+    if (!(arg instanceof NumericStorage)) {
       throw new UnexpectedTypeException("a Number.");
     }
+    return storage.zipDouble(this::doDouble, arg);
   }
 }
@@ -27,26 +27,10 @@ public abstract class LongBooleanOp extends MapOperation<LongStorage> {
   public BoolStorage runMap(LongStorage storage, Object arg) {
     if (arg instanceof Long) {
       long x = (Long) arg;
-      BitSet newVals = new BitSet();
-      for (int i = 0; i < storage.size(); i++) {
-        if (!storage.isNa(i)) {
-          if (doLong(storage.getItem(i), x)) {
-            newVals.set(i);
-          }
-        }
-      }
-      return new BoolStorage(newVals, storage.getIsMissing(), storage.size(), false);
+      return storage.mapLongToBoolean(a -> doLong(a, x));
     } else if (arg instanceof Double) {
       double x = (Double) arg;
-      BitSet newVals = new BitSet();
-      for (int i = 0; i < storage.size(); i++) {
-        if (!storage.isNa(i)) {
-          if (doDouble(storage.getItem(i), x)) {
-            newVals.set(i);
-          }
-        }
-      }
-      return new BoolStorage(newVals, storage.getIsMissing(), storage.size(), false);
+      return storage.mapLongToBoolean(a -> doDouble(a, x));
     } else {
       BitSet newVals = new BitSet();
       for (int i = 0; i < storage.size(); i++) {
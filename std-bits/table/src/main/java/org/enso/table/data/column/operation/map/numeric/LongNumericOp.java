@@ -3,6 +3,7 @@ package org.enso.table.data.column.operation.map.numeric;
 import org.enso.table.data.column.operation.map.MapOperation;
 import org.enso.table.data.column.storage.DoubleStorage;
 import org.enso.table.data.column.storage.LongStorage;
+import org.enso.table.data.column.storage.OffHeapNumericStorage;
 import org.enso.table.data.column.storage.Storage;
 import org.enso.table.error.UnexpectedTypeException;
 
@@ -29,22 +30,10 @@ public abstract class LongNumericOp extends MapOperation<LongStorage> {
   public Storage runMap(LongStorage storage, Object arg) {
     if (arg instanceof Long && !alwaysCast) {
       long x = (Long) arg;
-      long[] newVals = new long[storage.size()];
-      for (int i = 0; i < storage.size(); i++) {
-        if (!storage.isNa(i)) {
-          newVals[i] = doLong(storage.getItem(i), x);
-        }
-      }
-      return new LongStorage(newVals, newVals.length, storage.getIsMissing());
+      return storage.mapLong(in -> doLong(in, x));
     } else if (arg instanceof Double || arg instanceof Long) {
       double x = (arg instanceof Double) ? (Double) arg : (Long) arg;
-      long[] newVals = new long[storage.size()];
-      for (int i = 0; i < storage.size(); i++) {
-        if (!storage.isNa(i)) {
-          newVals[i] = Double.doubleToRawLongBits(doDouble(storage.getItem(i), x));
-        }
-      }
-      return new DoubleStorage(newVals, newVals.length, storage.getIsMissing());
+      return storage.mapLongToDouble(in -> doDouble(in, x));
     }
     throw new UnexpectedTypeException("a Number");
   }
@@ -52,29 +41,36 @@ public abstract class LongNumericOp extends MapOperation<LongStorage> {
   @Override
   public Storage runZip(LongStorage storage, Storage arg) {
     if (arg instanceof LongStorage) {
-      LongStorage v = (LongStorage) arg;
+      return storage.zipLong(this::doLong, arg);
+    } else if (arg instanceof DoubleStorage) {
+      DoubleStorage v = (DoubleStorage) arg;
       long[] out = new long[storage.size()];
       BitSet newMissing = new BitSet();
       for (int i = 0; i < storage.size(); i++) {
         if (!storage.isNa(i) && i < v.size() && !v.isNa(i)) {
-          out[i] = doLong(storage.getItem(i), v.getItem(i));
+          out[i] = Double.doubleToRawLongBits(doDouble(storage.getItem(i), v.getItem(i)));
         } else {
           newMissing.set(i);
         }
       }
-      return new LongStorage(out, storage.size(), newMissing);
-    } else if (arg instanceof DoubleStorage) {
-      DoubleStorage v = (DoubleStorage) arg;
+      return new DoubleStorage(out, storage.size(), newMissing);
+    } else if (arg instanceof OffHeapNumericStorage v) {
+      boolean isLong = v.getType() == Storage.Type.LONG;
       long[] out = new long[storage.size()];
       BitSet newMissing = new BitSet();
       for (int i = 0; i < storage.size(); i++) {
         if (!storage.isNa(i) && i < v.size() && !v.isNa(i)) {
-          out[i] = Double.doubleToRawLongBits(doDouble(storage.getItem(i), v.getItem(i)));
+          out[i] =
+              isLong
+                  ? doLong(storage.getItem(i), v.getItemLong(i))
+                  : Double.doubleToRawLongBits(doDouble(storage.getItem(i), v.getItemDouble(i)));
         } else {
           newMissing.set(i);
         }
       }
-      return new DoubleStorage(out, storage.size(), newMissing);
+      return isLong
+          ? new LongStorage(out, storage.size(), newMissing)
+          : new DoubleStorage(out, storage.size(), newMissing);
     } else {
       throw new UnexpectedTypeException("a Number.");
     }
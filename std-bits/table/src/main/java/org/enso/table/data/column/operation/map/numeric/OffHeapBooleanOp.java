@@ -0,0 +1,95 @@
+package org.enso.table.data.column.operation.map.numeric;
+
+import org.enso.table.data.column.operation.map.MapOperation;
+import org.enso.table.data.column.storage.BoolStorage;
+import org.enso.table.data.column.storage.LongStorage;
+import org.enso.table.data.column.storage.NumericStorage;
+import org.enso.table.data.column.storage.OffHeapNumericStorage;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.error.UnexpectedTypeException;
+
+import java.util.BitSet;
+
+/**
+ * An operation expecting a numeric argument and returning a boolean, for off-heap storages.
+ *
+ * <p>Two integers are compared as integers, any other pair of numbers as decimals, like in {@link
+ * LongBooleanOp} and {@link DoubleBooleanOp}.
+ */
+public abstract class OffHeapBooleanOp extends MapOperation<OffHeapNumericStorage> {
+  public OffHeapBooleanOp(String name) {
+    super(name);
+  }
+
+  protected abstract boolean doLong(long a, long b);
+
+  protected abstract boolean doDouble(double a, double b);
+
+  protected boolean doObject(double a, Object b) {
+    throw new UnexpectedTypeException("a Number");
+  }
+
+  @Override
+  public BoolStorage runMap(OffHeapNumericStorage storage, Object arg) {
+    boolean isLong = storage.getType() == Storage.Type.LONG;
+    BitSet newVals = new BitSet();
+    for (int i = 0; i < storage.size(); i++) {
+      if (!storage.isNa(i) && test(storage, i, isLong, arg)) {
+        newVals.set(i);
+      }
+    }
+    return new BoolStorage(newVals, storage.getIsMissing(), storage.size(), false);
+  }
+
+  @Override
+  public Storage runZip(OffHeapNumericStorage storage, Storage arg) {
+    boolean isLong = storage.getType() == Storage.Type.LONG;
+    BitSet newVals = new BitSet();
+    BitSet newMissing = new BitSet();
+    if (arg instanceof NumericStorage v) {
+      boolean bothLong = isLong && v.getType() == Storage.Type.LONG;
+      for (int i = 0; i < storage.size(); i++) {
+        if (!storage.isNa(i) && i < v.size() && !v.isNa(i)) {
+          boolean result =
+              bothLong
+                  ? doLong(storage.getItemLong(i), itemLong(v, i))
+                  : doDouble(storage.getItemDouble(i), v.getItemDouble(i));
+          if (result) {
+            newVals.set(i);
+          }
+        } else {
+          newMissing.set(i);
+        }
+      }
+    } else {
+      for (int i = 0; i < storage.size(); i++) {
+        if (!storage.isNa(i) && i < arg.size() && !arg.isNa(i)) {
+          if (test(storage, i, isLong, arg.getItemBoxed(i))) {
+            newVals.set(i);
+          }
+        } else {
+          newMissing.set(i);
+        }
+      }
+    }
+    return new BoolStorage(newVals, newMissing, storage.size(), false);
+  }
+
+  private boolean test(OffHeapNumericStorage storage, int idx, boolean isLong, Object arg) {
+    if (arg instanceof Long && isLong) {
+      return doLong(storage.getItemLong(idx), (Long) arg);
+    } else if (arg instanceof Long) {
+      return doDouble(storage.getItemDouble(idx), (Long) arg);
+    } else if (arg instanceof Double) {
+      return doDouble(storage.getItemDouble(idx), (Double) arg);
+    } else {
+      return doObject(storage.getItemDouble(idx), arg);
+    }
+  }
+
+  private static long itemLong(NumericStorage storage, int idx) {
+    return storage instanceof LongStorage longs
+        ? longs.getItem(idx)
+        : ((OffHeapNumericStorage) storage).getItemLong(idx);
+  }
+}
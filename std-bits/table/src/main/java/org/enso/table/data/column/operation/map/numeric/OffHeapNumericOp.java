@@ -0,0 +1,82 @@
+package org.enso.table.data.column.operation.map.numeric;
+
+import org.enso.table.data.column.operation.map.MapOperation;
+import org.enso.table.data.column.storage.LongStorage;
+import org.enso.table.data.column.storage.NumericStorage;
+import org.enso.table.data.column.storage.OffHeapMemory;
+import org.enso.table.data.column.storage.OffHeapNumericStorage;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.error.UnexpectedTypeException;
+
+import java.util.BitSet;
+
+/**
+ * An operation expecting a numeric argument and returning a number, for off-heap storages.
+ *
+ * <p>The results are the same as the ones of {@link LongNumericOp} and {@link DoubleNumericOp} for
+ * the same values kept on heap: mapping returns decimals, and zipping returns integers only when
+ * both storages contain integers.
+ */
+public abstract class OffHeapNumericOp extends MapOperation<OffHeapNumericStorage> {
+  public OffHeapNumericOp(String name) {
+    super(name);
+  }
+
+  protected abstract double doDouble(double a, double b);
+
+  protected abstract long doLong(long a, long b);
+
+  @Override
+  public Storage runMap(OffHeapNumericStorage storage, Object arg) {
+    double x;
+    if (arg instanceof Double) {
+      x = (Double) arg;
+    } else if (arg instanceof Long) {
+      x = (Long) arg;
+    } else {
+      throw new UnexpectedTypeException("a Number");
+    }
+    OffHeapMemory out = OffHeapMemory.allocate(storage.size());
+    for (int i = 0; i < storage.size(); i++) {
+      if (!storage.isNa(i)) {
+        out.set(i, Double.doubleToRawLongBits(doDouble(storage.getItemDouble(i), x)));
+      }
+    }
+    return new OffHeapNumericStorage(out, storage.size(), storage.getIsMissing(), true);
+  }
+
+  @Override
+  public Storage runZip(OffHeapNumericStorage storage, Storage arg) {
+    if (!(arg instanceof NumericStorage v)) {
+      throw new UnexpectedTypeException("a Number.");
+    }
+    OffHeapMemory out = OffHeapMemory.allocate(storage.size());
+    BitSet newMissing = new BitSet();
+    if (storage.getType() == Storage.Type.LONG && v.getType() == Storage.Type.LONG) {
+      for (int i = 0; i < storage.size(); i++) {
+        if (!storage.isNa(i) && i < v.size() && !v.isNa(i)) {
+          out.set(i, doLong(storage.getItemLong(i), itemLong(v, i)));
+        } else {
+          newMissing.set(i);
+        }
+      }
+      return new OffHeapNumericStorage(out, storage.size(), newMissing, false);
+    } else {
+      for (int i = 0; i < storage.size(); i++) {
+        if (!storage.isNa(i) && i < v.size() && !v.isNa(i)) {
+          double item = v.getItemDouble(i);
+          out.set(i, Double.doubleToRawLongBits(doDouble(storage.getItemDouble(i), item)));
+        } else {
+          newMissing.set(i);
+        }
+      }
+      return new OffHeapNumericStorage(out, storage.size(), newMissing, true);
+    }
+  }
+
+  private static long itemLong(NumericStorage storage, int idx) {
+    return storage instanceof LongStorage longs
+        ? longs.getItem(idx)
+        : ((OffHeapNumericStorage) storage).getItemLong(idx);
+  }
+}
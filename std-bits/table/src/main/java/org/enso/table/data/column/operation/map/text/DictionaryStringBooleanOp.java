@@ -0,0 +1,59 @@
+package org.enso.table.data.column.operation.map.text;
+
+import java.util.BitSet;
+import org.enso.table.data.column.operation.map.MapOperation;
+import org.enso.table.data.column.storage.BoolStorage;
+import org.enso.table.data.column.storage.DictionaryStringStorage;
+import org.enso.table.data.column.storage.Storage;
+
+/**
+ * A boolean text operation on a dictionary-encoded storage. When the argument is a single string,
+ * the operation is evaluated once per dictionary entry and the result is looked up by code for each
+ * row. Other arguments are handled as in {@link StringBooleanOp}.
+ */
+public abstract class DictionaryStringBooleanOp extends MapOperation<DictionaryStringStorage> {
+  private final StringBooleanOp fallback;
+
+  public DictionaryStringBooleanOp(String name) {
+    super(name);
+    this.fallback =
+        new StringBooleanOp(name) {
+          @Override
+          protected boolean doString(String a, String b) {
+            return DictionaryStringBooleanOp.this.doString(a, b);
+          }
+        };
+  }
+
+  protected abstract boolean doString(String a, String b);
+
+  @Override
+  public Storage runMap(DictionaryStringStorage storage, Object arg) {
+    if (!(arg instanceof String argString)) {
+      return fallback.runMap(storage, arg);
+    }
+
+    String[] dictionary = storage.getDictionary();
+    boolean[] matches = new boolean[dictionary.length];
+    for (int code = 0; code < dictionary.length; code++) {
+      matches[code] = doString(dictionary[code], argString);
+    }
+
+    BitSet newVals = new BitSet();
+    BitSet newMissing = new BitSet();
+    for (int i = 0; i < storage.size(); i++) {
+      int code = storage.getCode(i);
+      if (code == DictionaryStringStorage.MISSING) {
+        newMissing.set(i);
+      } else if (matches[code]) {
+        newVals.set(i);
+      }
+    }
+    return new BoolStorage(newVals, newMissing, storage.size(), false);
+  }
+
+  @Override
+  public Storage runZip(DictionaryStringStorage storage, Storage arg) {
+    return fallback.runZip(storage, arg);
+  }
+}
@@ -34,6 +34,12 @@ public class BoolStorage extends Storage {
     return size;
   }
 
+  /** @inheritDoc */
+  @Override
+  public long estimateMemorySize() {
+    return OBJECT_SIZE + estimateMemorySize(values) + estimateMemorySize(isMissing);
+  }
+
   /** @inheritDoc */
   @Override
   public int countMissing() {
@@ -116,10 +122,11 @@ public class BoolStorage extends Storage {
     for (int i = 0; i < size; i++) {
       if (mask.get(i)) {
         if (isMissing.get(i)) {
-          newMissing.set(resultIx++);
+          newMissing.set(resultIx);
         } else if (values.get(i)) {
-          newValues.set(resultIx++);
+          newValues.set(resultIx);
         }
+        resultIx++;
       }
     }
     return new BoolStorage(newValues, newMissing, cardinality, negated);
@@ -0,0 +1,239 @@
+package org.enso.table.data.column.storage;
+
+import java.util.BitSet;
+import org.enso.table.data.column.operation.map.MapOpStorage;
+import org.enso.table.data.column.operation.map.MapOperation;
+import org.enso.table.data.column.operation.map.UnaryMapOperation;
+import org.enso.table.data.column.operation.map.text.DictionaryStringBooleanOp;
+import org.enso.table.data.index.Index;
+import org.enso.table.data.mask.OrderMask;
+
+/**
+ * A column storing strings as codes into a dictionary of distinct values.
+ *
+ * <p>Each row holds the index of its value in the dictionary, or {@link #MISSING} for missing
+ * values. This is useful for columns with few distinct values repeated many times: every value is
+ * stored once, and comparisons against a constant can be evaluated once per dictionary entry
+ * rather than once per row. Masking, reordering and slicing the storage only remaps the codes and
+ * shares the dictionary.
+ */
+public class DictionaryStringStorage extends StringStorage {
+  /** The code of missing values. */
+  public static final int MISSING = -1;
+
+  private static final MapOpStorage<DictionaryStringStorage> ops = buildOps();
+
+  private final int[] codes;
+  private final String[] dictionary;
+
+  /**
+   * @param codes the code of each row, indexing into {@code dictionary}
+   * @param dictionary the distinct values of the storage
+   * @param size the number of items stored
+   */
+  public DictionaryStringStorage(int[] codes, String[] dictionary, int size) {
+    super(null, size);
+    this.codes = codes;
+    this.dictionary = dictionary;
+  }
+
+  /**
+   * @param idx an index
+   * @return the dictionary code of the item at the given index, or {@link #MISSING}
+   */
+  public int getCode(int idx) {
+    return codes[idx];
+  }
+
+  /** @return the distinct values of this storage, indexed by their codes */
+  public String[] getDictionary() {
+    return dictionary;
+  }
+
+  @Override
+  public String getItem(long idx) {
+    int code = codes[(int) idx];
+    return code == MISSING ? null : dictionary[code];
+  }
+
+  @Override
+  public Object getItemBoxed(int idx) {
+    return getItem(idx);
+  }
+
+  @Override
+  public boolean isNa(long idx) {
+    return codes[(int) idx] == MISSING;
+  }
+
+  @Override
+  public long estimateMemorySize() {
+    long estimate = OBJECT_SIZE + 4L * codes.length + 8L * dictionary.length;
+    for (String value : dictionary) {
+      estimate += estimateMemorySize(value);
+    }
+    return estimate;
+  }
+
+  @Override
+  public int countMissing() {
+    int count = 0;
+    for (int i = 0; i < size(); i++) {
+      if (codes[i] == MISSING) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /** @return a copy of the values of this storage, decoded from the dictionary */
+  @Override
+  public Object[] getData() {
+    Object[] data = new Object[size()];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = getItem(i);
+    }
+    return data;
+  }
+
+  @Override
+  protected boolean isOpVectorized(String name) {
+    return ops.isSupported(name);
+  }
+
+  @Override
+  protected Storage runVectorizedMap(String name, Object argument) {
+    return ops.runMap(name, this, argument);
+  }
+
+  @Override
+  protected Storage runVectorizedZip(String name, Storage argument) {
+    return ops.runZip(name, this, argument);
+  }
+
+  @Override
+  public DictionaryStringStorage mask(BitSet mask, int cardinality) {
+    int[] newCodes = new int[cardinality];
+    int resIx = 0;
+    for (int i = 0; i < size(); i++) {
+      if (mask.get(i)) {
+        newCodes[resIx++] = codes[i];
+      }
+    }
+    return new DictionaryStringStorage(newCodes, dictionary, cardinality);
+  }
+
+  @Override
+  public DictionaryStringStorage applyMask(OrderMask mask) {
+    int[] positions = mask.getPositions();
+    int[] newCodes = new int[positions.length];
+    for (int i = 0; i < positions.length; i++) {
+      newCodes[i] = positions[i] == Index.NOT_FOUND ? MISSING : codes[positions[i]];
+    }
+    return new DictionaryStringStorage(newCodes, dictionary, positions.length);
+  }
+
+  @Override
+  public DictionaryStringStorage countMask(int[] counts, int total) {
+    int[] newCodes = new int[total];
+    int pos = 0;
+    for (int i = 0; i < counts.length; i++) {
+      for (int j = 0; j < counts[i]; j++) {
+        newCodes[pos++] = codes[i];
+      }
+    }
+    return new DictionaryStringStorage(newCodes, dictionary, total);
+  }
+
+  @Override
+  public DictionaryStringStorage slice(int offset, int limit) {
+    int newSize = Math.min(size() - offset, limit);
+    int[] newCodes = new int[newSize];
+    System.arraycopy(codes, offset, newCodes, 0, newSize);
+    return new DictionaryStringStorage(newCodes, dictionary, newSize);
+  }
+
+  private static MapOpStorage<DictionaryStringStorage> buildOps() {
+    MapOpStorage<DictionaryStringStorage> t = StringStorage.ops.makeChild();
+    t.add(
+        new UnaryMapOperation<>(Maps.IS_MISSING) {
+          @Override
+          protected Storage run(DictionaryStringStorage storage) {
+            BitSet r = new BitSet();
+            for (int i = 0; i < storage.size(); i++) {
+              if (storage.codes[i] == MISSING) {
+                r.set(i);
+              }
+            }
+            return new BoolStorage(r, new BitSet(), storage.size(), false);
+          }
+        });
+    t.add(
+        new MapOperation<>(Maps.EQ) {
+          @Override
+          public Storage runMap(DictionaryStringStorage storage, Object arg) {
+            int code = MISSING;
+            for (int c = 0; c < storage.dictionary.length; c++) {
+              if (storage.dictionary[c].equals(arg)) {
+                code = c;
+                break;
+              }
+            }
+
+            BitSet r = new BitSet();
+            BitSet missing = new BitSet();
+            for (int i = 0; i < storage.size(); i++) {
+              if (storage.codes[i] == MISSING) {
+                missing.set(i);
+              } else if (storage.codes[i] == code) {
+                r.set(i);
+              }
+            }
+            return new BoolStorage(r, missing, storage.size(), false);
+          }
+
+          @Override
+          public Storage runZip(DictionaryStringStorage storage, Storage arg) {
+            BitSet r = new BitSet();
+            BitSet missing = new BitSet();
+            boolean sameDictionary =
+                arg instanceof DictionaryStringStorage other
+                    && other.dictionary == storage.dictionary;
+            for (int i = 0; i < storage.size(); i++) {
+              if (storage.codes[i] == MISSING || i >= arg.size() || arg.isNa(i)) {
+                missing.set(i);
+              } else if (sameDictionary) {
+                if (storage.codes[i] == ((DictionaryStringStorage) arg).codes[i]) {
+                  r.set(i);
+                }
+              } else if (storage.getItem(i).equals(arg.getItemBoxed(i))) {
+                r.set(i);
+              }
+            }
+            return new BoolStorage(r, missing, storage.size(), false);
+          }
+        });
+    t.add(
+        new DictionaryStringBooleanOp(Maps.STARTS_WITH) {
+          @Override
+          protected boolean doString(String a, String b) {
+            return a.startsWith(b);
+          }
+        });
+    t.add(
+        new DictionaryStringBooleanOp(Maps.ENDS_WITH) {
+          @Override
+          protected boolean doString(String a, String b) {
+            return a.endsWith(b);
+          }
+        });
+    t.add(
+        new DictionaryStringBooleanOp(Maps.CONTAINS) {
+          @Override
+          protected boolean doString(String a, String b) {
+            return a.contains(b);
+          }
+        });
+    return t;
+  }
+}
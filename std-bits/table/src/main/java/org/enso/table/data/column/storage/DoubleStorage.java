@@ -39,6 +39,12 @@ public class DoubleStorage extends NumericStorage {
     return size;
   }
 
+  /** @inheritDoc */
+  @Override
+  public long estimateMemorySize() {
+    return OBJECT_SIZE + 8L * data.length + estimateMemorySize(isMissing);
+  }
+
   /** @inheritDoc */
   @Override
   public int countMissing() {
@@ -173,6 +179,14 @@ public class DoubleStorage extends NumericStorage {
     return isMissing;
   }
 
+  /**
+   * @return the raw encoding of the values of this storage, as in {@link
+   *     NumericBuilder#appendRawNoGrow(long)}. The array may be longer than the storage.
+   */
+  long[] getRawData() {
+    return data;
+  }
+
   private static MapOpStorage<DoubleStorage> buildOps() {
     MapOpStorage<DoubleStorage> ops = new MapOpStorage<>();
     ops.add(
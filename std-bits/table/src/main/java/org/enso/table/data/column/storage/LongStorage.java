@@ -3,6 +3,10 @@ package org.enso.table.data.column.storage;
 import java.util.*;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongPredicate;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongUnaryOperator;
 import java.util.stream.LongStream;
 
 import org.apache.poi.ss.usermodel.Cell;
@@ -15,6 +19,7 @@ import org.enso.table.data.column.operation.map.numeric.LongBooleanOp;
 import org.enso.table.data.column.operation.map.numeric.LongNumericOp;
 import org.enso.table.data.index.Index;
 import org.enso.table.data.mask.OrderMask;
+import org.enso.table.error.UnexpectedColumnTypeException;
 
 /** A column storing 64-bit integers. */
 public class LongStorage extends NumericStorage {
@@ -45,6 +50,12 @@ public class LongStorage extends NumericStorage {
     return size;
   }
 
+  /** @inheritDoc */
+  @Override
+  public long estimateMemorySize() {
+    return OBJECT_SIZE + 8L * data.length + estimateMemorySize(isMissing);
+  }
+
   /** @inheritDoc */
   @Override
   public int countMissing() {
@@ -96,6 +107,56 @@ public class LongStorage extends NumericStorage {
     return ops.runZip(name, this, argument);
   }
 
+  @Override
+  public LongStorage mapLong(LongUnaryOperator function) {
+    long[] out = new long[size];
+    for (int i = 0; i < size; i++) {
+      if (!isMissing.get(i)) {
+        out[i] = function.applyAsLong(data[i]);
+      }
+    }
+    return new LongStorage(out, size, isMissing);
+  }
+
+  @Override
+  public DoubleStorage mapLongToDouble(LongToDoubleFunction function) {
+    long[] out = new long[size];
+    for (int i = 0; i < size; i++) {
+      if (!isMissing.get(i)) {
+        out[i] = Double.doubleToRawLongBits(function.applyAsDouble(data[i]));
+      }
+    }
+    return new DoubleStorage(out, size, isMissing);
+  }
+
+  @Override
+  public BoolStorage mapLongToBoolean(LongPredicate predicate) {
+    BitSet values = new BitSet();
+    for (int i = 0; i < size; i++) {
+      if (!isMissing.get(i) && predicate.test(data[i])) {
+        values.set(i);
+      }
+    }
+    return new BoolStorage(values, isMissing, size, false);
+  }
+
+  @Override
+  public LongStorage zipLong(LongBinaryOperator function, Storage arg) {
+    if (!(arg instanceof LongStorage v)) {
+      throw new UnexpectedColumnTypeException("Integer");
+    }
+    long[] out = new long[size];
+    BitSet missing = new BitSet();
+    for (int i = 0; i < size; i++) {
+      if (!isMissing.get(i) && i < v.size() && !v.isMissing.get(i)) {
+        out[i] = function.applyAsLong(data[i], v.data[i]);
+      } else {
+        missing.set(i);
+      }
+    }
+    return new LongStorage(out, size, missing);
+  }
+
   @Override
   protected Aggregator getVectorizedAggregator(String name, int resultSize) {
     switch (name) {
@@ -237,6 +298,14 @@ public class LongStorage extends NumericStorage {
     return isMissing;
   }
 
+  /**
+   * @return the raw encoding of the values of this storage, as in {@link
+   *     NumericBuilder#appendRawNoGrow(long)}. The array may be longer than the storage.
+   */
+  long[] getRawData() {
+    return data;
+  }
+
   private static MapOpStorage<LongStorage> buildOps() {
     MapOpStorage<LongStorage> ops = new MapOpStorage<>();
     ops.add(
@@ -332,7 +401,7 @@ public class LongStorage extends NumericStorage {
 
               @Override
               protected boolean doDouble(long a, double b) {
-                return a > b;
+                return a < b;
               }
             })
         .add(
@@ -1,8 +1,13 @@
 package org.enso.table.data.column.storage;
 
+import java.util.BitSet;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
 import java.util.stream.DoubleStream;
 import org.enso.table.data.column.operation.aggregate.Aggregator;
 import org.enso.table.data.column.operation.aggregate.numeric.NumericAggregator;
+import org.enso.table.error.UnexpectedColumnTypeException;
 
 /** A storage containing items representable as a {@code double}. */
 public abstract class NumericStorage extends Storage {
@@ -15,6 +20,55 @@ public abstract class NumericStorage extends Storage {
    */
   public abstract double getItemDouble(int idx);
 
+  /**
+   * @return a bit set denoting at index {@code i} whether or not the value at index {@code i} is
+   *     missing.
+   */
+  public abstract BitSet getIsMissing();
+
+  @Override
+  public DoubleStorage mapDouble(DoubleUnaryOperator function) {
+    int size = size();
+    long[] out = new long[size];
+    for (int i = 0; i < size; i++) {
+      if (!isNa(i)) {
+        out[i] = Double.doubleToRawLongBits(function.applyAsDouble(getItemDouble(i)));
+      }
+    }
+    return new DoubleStorage(out, size, getIsMissing());
+  }
+
+  @Override
+  public BoolStorage mapDoubleToBoolean(DoublePredicate predicate) {
+    int size = size();
+    BitSet values = new BitSet();
+    for (int i = 0; i < size; i++) {
+      if (!isNa(i) && predicate.test(getItemDouble(i))) {
+        values.set(i);
+      }
+    }
+    return new BoolStorage(values, getIsMissing(), size, false);
+  }
+
+  @Override
+  public DoubleStorage zipDouble(DoubleBinaryOperator function, Storage arg) {
+    if (!(arg instanceof NumericStorage v)) {
+      throw new UnexpectedColumnTypeException("Number");
+    }
+    int size = size();
+    long[] out = new long[size];
+    BitSet missing = new BitSet();
+    for (int i = 0; i < size; i++) {
+      if (!isNa(i) && i < v.size() && !v.isNa(i)) {
+        double result = function.applyAsDouble(getItemDouble(i), v.getItemDouble(i));
+        out[i] = Double.doubleToRawLongBits(result);
+      } else {
+        missing.set(i);
+      }
+    }
+    return new DoubleStorage(out, size, missing);
+  }
+
   @Override
   protected Aggregator getVectorizedAggregator(String name, int resultSize) {
     switch (name) {
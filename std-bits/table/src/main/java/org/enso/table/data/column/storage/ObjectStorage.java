@@ -14,6 +14,9 @@ import org.enso.table.data.mask.OrderMask;
 
 /** A column storing arbitrary objects. */
 public class ObjectStorage extends Storage {
+  /** The maximum number of items sampled to estimate the size of the storage. */
+  private static final int ESTIMATE_SAMPLE_SIZE = 1024;
+
   private final Object[] data;
   private final int size;
   protected static final MapOpStorage<ObjectStorage> ops = buildOps();
@@ -33,6 +36,31 @@ public class ObjectStorage extends Storage {
     return size;
   }
 
+  /**
+   * Estimates the memory taken by this storage. The size of the items is extrapolated from a sample
+   * of at most {@link #ESTIMATE_SAMPLE_SIZE} of them.
+   *
+   * @return the estimated size of this storage, in bytes
+   */
+  @Override
+  public long estimateMemorySize() {
+    long estimate = OBJECT_SIZE + 8L * data.length;
+    if (size == 0) {
+      return estimate;
+    }
+    int step = Math.max(1, size / ESTIMATE_SAMPLE_SIZE);
+    long sampled = 0;
+    int samples = 0;
+    for (int i = 0; i < size; i += step) {
+      Object item = data[i];
+      if (item != null) {
+        sampled += item instanceof String ? estimateMemorySize((String) item) : OBJECT_SIZE;
+      }
+      samples++;
+    }
+    return estimate + sampled * size / samples;
+  }
+
   /** @inheritDoc */
   @Override
   public int countMissing() {
@@ -0,0 +1,156 @@
+package org.enso.table.data.column.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A fixed-size array of 64-bit values stored outside of the Java heap.
+ *
+ * <p>Large arrays are kept in a memory-mapped temporary file, so they are limited by the disk space
+ * rather than by the heap or the direct memory limit, and the operating system decides which parts
+ * of them stay in memory. The file is deleted right after being mapped where the platform allows
+ * it, and otherwise when the JVM exits. Small arrays, such as the results of selective filters,
+ * are allocated as direct buffers instead, to avoid creating a file for each of them.
+ *
+ * <p>The memory is released once the array is no longer reachable.
+ */
+public final class OffHeapMemory {
+  /** Arrays smaller than this are allocated as direct buffers instead of being mapped. */
+  private static final int MIN_MAPPED_SIZE = 1 << 16;
+
+  /** The number of values in each mapped chunk is {@code 1 << CHUNK_BITS}, 1 GiB worth. */
+  private static final int CHUNK_BITS = 27;
+
+  private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+
+  private final LongBuffer[] chunks;
+  private final int size;
+
+  private OffHeapMemory(LongBuffer[] chunks, int size) {
+    this.chunks = chunks;
+    this.size = size;
+  }
+
+  /**
+   * Allocates a new array, initially filled with zeroes.
+   *
+   * @param size the number of values in the array
+   * @return the new array
+   * @throws UncheckedIOException if the temporary file backing the array cannot be created
+   */
+  public static OffHeapMemory allocate(int size) {
+    if (size < MIN_MAPPED_SIZE) {
+      ByteBuffer buffer = ByteBuffer.allocateDirect(size * Long.BYTES);
+      return new OffHeapMemory(
+          new LongBuffer[] {buffer.order(ByteOrder.nativeOrder()).asLongBuffer()}, size);
+    }
+
+    try {
+      return map(size);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static OffHeapMemory map(int size) throws IOException {
+    int chunkCount = ((size - 1) >>> CHUNK_BITS) + 1;
+    LongBuffer[] chunks = new LongBuffer[chunkCount];
+    File file = File.createTempFile("enso-table-", ".bin");
+    try (var raf = new RandomAccessFile(file, "rw")) {
+      raf.setLength((long) size * Long.BYTES);
+      FileChannel channel = raf.getChannel();
+      for (int i = 0; i < chunkCount; i++) {
+        long start = (long) i << CHUNK_BITS;
+        long length = Math.min(1L << CHUNK_BITS, size - start);
+        chunks[i] =
+            channel
+                .map(FileChannel.MapMode.READ_WRITE, start * Long.BYTES, length * Long.BYTES)
+                .order(ByteOrder.nativeOrder())
+                .asLongBuffer();
+      }
+    } finally {
+      if (!file.delete()) {
+        file.deleteOnExit();
+      }
+    }
+    return new OffHeapMemory(chunks, size);
+  }
+
+  /**
+   * Maps a region of an existing file as a read-only array, without copying it.
+   *
+   * @param channel the file to map
+   * @param position the offset of the first value in the file, in bytes
+   * @param size the number of values in the array
+   * @param order the byte order of the values in the file
+   * @return the mapped array
+   * @throws IOException if the file cannot be mapped
+   */
+  public static OffHeapMemory map(FileChannel channel, long position, int size, ByteOrder order)
+      throws IOException {
+    if (size == 0) {
+      return allocate(0);
+    }
+    int chunkCount = ((size - 1) >>> CHUNK_BITS) + 1;
+    LongBuffer[] chunks = new LongBuffer[chunkCount];
+    for (int i = 0; i < chunkCount; i++) {
+      long start = (long) i << CHUNK_BITS;
+      long length = Math.min(1L << CHUNK_BITS, size - start);
+      chunks[i] =
+          channel
+              .map(
+                  FileChannel.MapMode.READ_ONLY,
+                  position + start * Long.BYTES,
+                  length * Long.BYTES)
+              .order(order)
+              .asLongBuffer();
+    }
+    return new OffHeapMemory(chunks, size);
+  }
+
+  /** @return the number of values in this array */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @param idx the index to look up
+   * @return the value at {@code idx}
+   */
+  public long get(int idx) {
+    return chunks[idx >>> CHUNK_BITS].get(idx & CHUNK_MASK);
+  }
+
+  /**
+   * @param idx the index to set
+   * @param value the new value at {@code idx}
+   */
+  public void set(int idx, long value) {
+    chunks[idx >>> CHUNK_BITS].put(idx & CHUNK_MASK, value);
+  }
+
+  /**
+   * Copies a range of values into a heap array.
+   *
+   * @param idx the index of the first value to copy
+   * @param dst the array to copy the values into
+   * @param dstOffset the index in {@code dst} of the first copied value
+   * @param length the number of values to copy
+   */
+  public void copyTo(int idx, long[] dst, int dstOffset, int length) {
+    while (length > 0) {
+      int inChunk = idx & CHUNK_MASK;
+      int count = Math.min(length, (1 << CHUNK_BITS) - inChunk);
+      chunks[idx >>> CHUNK_BITS].get(inChunk, dst, dstOffset, count);
+      idx += count;
+      dstOffset += count;
+      length -= count;
+    }
+  }
+}
@@ -0,0 +1,362 @@
+package org.enso.table.data.column.storage;
+
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.enso.table.data.column.operation.map.MapOpStorage;
+import org.enso.table.data.column.operation.map.UnaryMapOperation;
+import org.enso.table.data.column.operation.map.numeric.OffHeapBooleanOp;
+import org.enso.table.data.column.operation.map.numeric.OffHeapNumericOp;
+import org.enso.table.data.index.Index;
+import org.enso.table.data.mask.OrderMask;
+
+/**
+ * A column storing 64-bit integers or doubles in {@link OffHeapMemory}, for columns too large to be
+ * held on the heap.
+ *
+ * <p>It behaves like a {@link LongStorage} or a {@link DoubleStorage}, and its masks, slices and
+ * numeric operations also return off-heap storages. Only the missing-value flags, taking one bit
+ * per row, and the results of comparisons, which are {@link BoolStorage}s, are kept on the heap.
+ * The values are encoded like in {@link org.enso.table.data.column.builder.object.NumericBuilder}:
+ * integers as themselves and doubles as their raw bits.
+ */
+public final class OffHeapNumericStorage extends NumericStorage {
+  private final OffHeapMemory data;
+  private final BitSet isMissing;
+  private final int size;
+  private final boolean isDouble;
+  private static final MapOpStorage<OffHeapNumericStorage> ops = buildOps();
+
+  /**
+   * @param data the underlying data
+   * @param size the number of items stored
+   * @param isMissing a bit set denoting at index {@code i} whether or not the value at index {@code
+   *     i} is missing.
+   * @param isDouble whether the stored values are doubles rather than integers
+   */
+  public OffHeapNumericStorage(OffHeapMemory data, int size, BitSet isMissing, boolean isDouble) {
+    this.data = data;
+    this.isMissing = isMissing;
+    this.size = size;
+    this.isDouble = isDouble;
+  }
+
+  /**
+   * Copies a heap storage into off-heap memory.
+   *
+   * @param storage the storage to copy
+   * @return an off-heap storage with the same values
+   */
+  public static OffHeapNumericStorage copyOf(NumericStorage storage) {
+    boolean isDouble = storage.getType() == Type.DOUBLE;
+    OffHeapMemory data = OffHeapMemory.allocate(storage.size());
+    for (int i = 0; i < storage.size(); i++) {
+      if (storage.isNa(i)) {
+        continue;
+      }
+      if (storage instanceof LongStorage longs) {
+        data.set(i, longs.getItem(i));
+      } else if (storage instanceof OffHeapNumericStorage offHeap) {
+        data.set(i, offHeap.data.get(i));
+      } else {
+        data.set(i, Double.doubleToRawLongBits(storage.getItemDouble(i)));
+      }
+    }
+    BitSet missing = new BitSet();
+    missing.or(storage.getIsMissing());
+    return new OffHeapNumericStorage(data, storage.size(), missing, isDouble);
+  }
+
+  /** @inheritDoc */
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Estimates the heap memory taken by this storage. The values are not counted, as they are
+   * stored outside of the heap.
+   *
+   * @return the estimated size of this storage on the heap, in bytes
+   */
+  @Override
+  public long estimateMemorySize() {
+    return OBJECT_SIZE + estimateMemorySize(isMissing);
+  }
+
+  /** @inheritDoc */
+  @Override
+  public int countMissing() {
+    return isMissing.cardinality();
+  }
+
+  /**
+   * @param idx an index
+   * @return the integer at the given index, only meaningful if this storage holds integers.
+   */
+  public long getItemLong(int idx) {
+    return data.get(idx);
+  }
+
+  @Override
+  public double getItemDouble(int idx) {
+    long raw = data.get(idx);
+    return isDouble ? Double.longBitsToDouble(raw) : raw;
+  }
+
+  @Override
+  public Object getItemBoxed(int idx) {
+    if (isMissing.get(idx)) {
+      return null;
+    }
+    return isDouble ? (Object) getItemDouble(idx) : (Object) getItemLong(idx);
+  }
+
+  /** @inheritDoc */
+  @Override
+  public long getType() {
+    return isDouble ? Type.DOUBLE : Type.LONG;
+  }
+
+  /** @inheritDoc */
+  @Override
+  public boolean isNa(long idx) {
+    return isMissing.get((int) idx);
+  }
+
+  @Override
+  public BitSet getIsMissing() {
+    return isMissing;
+  }
+
+  @Override
+  protected boolean isOpVectorized(String name) {
+    return ops.isSupported(name);
+  }
+
+  @Override
+  protected Storage runVectorizedMap(String name, Object argument) {
+    return ops.runMap(name, this, argument);
+  }
+
+  @Override
+  protected Storage runVectorizedZip(String name, Storage argument) {
+    return ops.runZip(name, this, argument);
+  }
+
+  @Override
+  public OffHeapNumericStorage mask(BitSet mask, int cardinality) {
+    OffHeapMemory newData = OffHeapMemory.allocate(cardinality);
+    BitSet newMissing = new BitSet();
+    int resIx = 0;
+    for (int i = mask.nextSetBit(0); i >= 0 && i < size; i = mask.nextSetBit(i + 1)) {
+      if (isMissing.get(i)) {
+        newMissing.set(resIx);
+      } else {
+        newData.set(resIx, data.get(i));
+      }
+      resIx++;
+    }
+    return new OffHeapNumericStorage(newData, cardinality, newMissing, isDouble);
+  }
+
+  @Override
+  public OffHeapNumericStorage applyMask(OrderMask mask) {
+    int[] positions = mask.getPositions();
+    OffHeapMemory newData = OffHeapMemory.allocate(positions.length);
+    BitSet newMissing = new BitSet();
+    for (int i = 0; i < positions.length; i++) {
+      if (positions[i] == Index.NOT_FOUND || isMissing.get(positions[i])) {
+        newMissing.set(i);
+      } else {
+        newData.set(i, data.get(positions[i]));
+      }
+    }
+    return new OffHeapNumericStorage(newData, positions.length, newMissing, isDouble);
+  }
+
+  @Override
+  public OffHeapNumericStorage countMask(int[] counts, int total) {
+    OffHeapMemory newData = OffHeapMemory.allocate(total);
+    BitSet newMissing = new BitSet();
+    int pos = 0;
+    for (int i = 0; i < counts.length; i++) {
+      if (isMissing.get(i)) {
+        newMissing.set(pos, pos + counts[i]);
+        pos += counts[i];
+      } else {
+        for (int j = 0; j < counts[i]; j++) {
+          newData.set(pos++, data.get(i));
+        }
+      }
+    }
+    return new OffHeapNumericStorage(newData, total, newMissing, isDouble);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public Comparator getDefaultComparator() {
+    return isDouble ? Comparator.<Double>naturalOrder() : Comparator.<Long>naturalOrder();
+  }
+
+  @Override
+  public OffHeapNumericStorage slice(int offset, int limit) {
+    int newSize = Math.min(size - offset, limit);
+    OffHeapMemory newData = OffHeapMemory.allocate(newSize);
+    for (int i = 0; i < newSize; i++) {
+      newData.set(i, data.get(offset + i));
+    }
+    BitSet newMask = isMissing.get(offset, offset + limit);
+    return new OffHeapNumericStorage(newData, newSize, newMask, isDouble);
+  }
+
+  @Override
+  protected String getPresentCsvString(int index, Function<Object, String> toCsvString) {
+    return isDouble ? String.valueOf(getItemDouble(index)) : String.valueOf(getItemLong(index));
+  }
+
+  @Override
+  public void writeSpreadsheetCell(int index, Cell cell, BiConsumer<Object, Cell> writeCell) {
+    cell.setCellValue(getItemDouble(index));
+  }
+
+  private static MapOpStorage<OffHeapNumericStorage> buildOps() {
+    MapOpStorage<OffHeapNumericStorage> ops = new MapOpStorage<>();
+    ops.add(
+            new OffHeapNumericOp(Maps.ADD) {
+              @Override
+              protected double doDouble(double a, double b) {
+                return a + b;
+              }
+
+              @Override
+              protected long doLong(long a, long b) {
+                return a + b;
+              }
+            })
+        .add(
+            new OffHeapNumericOp(Maps.SUB) {
+              @Override
+              protected double doDouble(double a, double b) {
+                return a - b;
+              }
+
+              @Override
+              protected long doLong(long a, long b) {
+                return a - b;
+              }
+            })
+        .add(
+            new OffHeapNumericOp(Maps.MUL) {
+              @Override
+              protected double doDouble(double a, double b) {
+                return a * b;
+              }
+
+              @Override
+              protected long doLong(long a, long b) {
+                return a * b;
+              }
+            })
+        .add(
+            new OffHeapNumericOp(Maps.DIV) {
+              @Override
+              protected double doDouble(double a, double b) {
+                return a / b;
+              }
+
+              @Override
+              protected long doLong(long a, long b) {
+                return a / b;
+              }
+            })
+        .add(
+            new OffHeapNumericOp(Maps.MOD) {
+              @Override
+              protected double doDouble(double a, double b) {
+                return a % b;
+              }
+
+              @Override
+              protected long doLong(long a, long b) {
+                return a % b;
+              }
+            })
+        .add(
+            new OffHeapBooleanOp(Maps.LT) {
+              @Override
+              protected boolean doLong(long a, long b) {
+                return a < b;
+              }
+
+              @Override
+              protected boolean doDouble(double a, double b) {
+                return a < b;
+              }
+            })
+        .add(
+            new OffHeapBooleanOp(Maps.LTE) {
+              @Override
+              protected boolean doLong(long a, long b) {
+                return a <= b;
+              }
+
+              @Override
+              protected boolean doDouble(double a, double b) {
+                return a <= b;
+              }
+            })
+        .add(
+            new OffHeapBooleanOp(Maps.GT) {
+              @Override
+              protected boolean doLong(long a, long b) {
+                return a > b;
+              }
+
+              @Override
+              protected boolean doDouble(double a, double b) {
+                return a > b;
+              }
+            })
+        .add(
+            new OffHeapBooleanOp(Maps.GTE) {
+              @Override
+              protected boolean doLong(long a, long b) {
+                return a >= b;
+              }
+
+              @Override
+              protected boolean doDouble(double a, double b) {
+                return a >= b;
+              }
+            })
+        .add(
+            new OffHeapBooleanOp(Maps.EQ) {
+              @Override
+              protected boolean doLong(long a, long b) {
+                return a == b;
+              }
+
+              @Override
+              protected boolean doDouble(double a, double b) {
+                return a == b;
+              }
+
+              @Override
+              protected boolean doObject(double a, Object b) {
+                return false;
+              }
+            })
+        .add(
+            new UnaryMapOperation<>(Maps.IS_MISSING) {
+              @Override
+              public Storage run(OffHeapNumericStorage storage) {
+                return new BoolStorage(storage.isMissing, new BitSet(), storage.size, false);
+              }
+            });
+    return ops;
+  }
+}
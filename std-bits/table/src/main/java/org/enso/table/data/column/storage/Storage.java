@@ -3,6 +3,7 @@ package org.enso.table.data.column.storage;
 import org.apache.poi.ss.usermodel.Cell;
 import org.enso.table.data.column.builder.object.Builder;
 import org.enso.table.data.column.builder.object.InferredBuilder;
+import org.enso.table.data.column.builder.object.SpeculativeNumericBuilder;
 import org.enso.table.data.column.operation.aggregate.Aggregator;
 import org.enso.table.data.column.operation.aggregate.CountAggregator;
 import org.enso.table.data.column.operation.aggregate.FunctionAggregator;
@@ -10,16 +11,51 @@ import org.enso.table.data.column.operation.aggregate.FunctionAggregator;
 import java.util.*;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
 import java.util.function.Function;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongPredicate;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongUnaryOperator;
 
 import org.enso.table.data.column.builder.object.ObjectBuilder;
 import org.enso.table.data.mask.OrderMask;
+import org.enso.table.error.UnexpectedColumnTypeException;
 
 /** An abstract representation of a data column. */
 public abstract class Storage {
+  /** The estimated size of an object header, in bytes. */
+  protected static final long OBJECT_SIZE = 16;
+
   /** @return the number of elements in this column (including NAs) */
   public abstract int size();
 
+  /**
+   * Estimates the memory taken by this storage. The runtime uses the estimate to decide how many
+   * computed values it can keep cached.
+   *
+   * @return the estimated size of this storage, in bytes
+   */
+  public abstract long estimateMemorySize();
+
+  /**
+   * @param bits a bit set
+   * @return the estimated size of the bit set, in bytes
+   */
+  protected static long estimateMemorySize(BitSet bits) {
+    return OBJECT_SIZE + bits.size() / 8;
+  }
+
+  /**
+   * @param string a string
+   * @return the estimated size of the string, in bytes
+   */
+  protected static long estimateMemorySize(String string) {
+    return 40 + 2L * string.length();
+  }
+
   /** @return the number of NA elements in this column */
   public abstract int countMissing();
 
@@ -106,7 +142,7 @@ public abstract class Storage {
     if (name != null && isOpVectorized(name)) {
       return runVectorizedMap(name, argument);
     }
-    Builder builder = new InferredBuilder(size());
+    Builder builder = new SpeculativeNumericBuilder(size());
     for (int i = 0; i < size(); i++) {
       Object it = getItemBoxed(i);
       if (it == null) {
@@ -160,7 +196,7 @@ public abstract class Storage {
     if (name != null && isOpVectorized(name)) {
       return runVectorizedMap(name, null);
     }
-    Builder builder = new InferredBuilder(size());
+    Builder builder = new SpeculativeNumericBuilder(size());
     for (int i = 0; i < size(); i++) {
       Object it = getItemBoxed(i);
       if (it == null) {
@@ -186,7 +222,7 @@ public abstract class Storage {
     if (name != null && isOpVectorized(name)) {
       return runVectorizedZip(name, arg);
     }
-    Builder builder = new InferredBuilder(size());
+    Builder builder = new SpeculativeNumericBuilder(size());
     for (int i = 0; i < size(); i++) {
       Object it1 = getItemBoxed(i);
       Object it2 = i < arg.size() ? arg.getItemBoxed(i) : null;
@@ -199,6 +235,94 @@ public abstract class Storage {
     return builder.seal();
   }
 
+  /**
+   * Runs a function on each non-missing integer in this storage, writing the results directly into
+   * a new integer storage. Missing elements stay missing.
+   *
+   * @param function the function to run
+   * @return the result of running the function on all non-missing elements
+   * @throws UnexpectedColumnTypeException if this is not an integer storage
+   */
+  public LongStorage mapLong(LongUnaryOperator function) {
+    throw new UnexpectedColumnTypeException("Integer");
+  }
+
+  /**
+   * Runs a function on each non-missing integer in this storage, writing the results directly into
+   * a new decimal storage. Missing elements stay missing.
+   *
+   * @param function the function to run
+   * @return the result of running the function on all non-missing elements
+   * @throws UnexpectedColumnTypeException if this is not an integer storage
+   */
+  public DoubleStorage mapLongToDouble(LongToDoubleFunction function) {
+    throw new UnexpectedColumnTypeException("Integer");
+  }
+
+  /**
+   * Runs a predicate on each non-missing integer in this storage, writing the results directly into
+   * a new boolean storage. Missing elements stay missing.
+   *
+   * @param predicate the predicate to run
+   * @return the result of running the predicate on all non-missing elements
+   * @throws UnexpectedColumnTypeException if this is not an integer storage
+   */
+  public BoolStorage mapLongToBoolean(LongPredicate predicate) {
+    throw new UnexpectedColumnTypeException("Integer");
+  }
+
+  /**
+   * Runs a function on each pair of non-missing integers in this and arg, writing the results
+   * directly into a new integer storage. Rows where either element is missing, or which are past
+   * the end of arg, are missing in the result.
+   *
+   * @param function the function to run
+   * @param arg the storage providing the second argument of the function
+   * @return the result of running the function on all pairs of non-missing elements
+   * @throws UnexpectedColumnTypeException if this or arg is not an integer storage
+   */
+  public LongStorage zipLong(LongBinaryOperator function, Storage arg) {
+    throw new UnexpectedColumnTypeException("Integer");
+  }
+
+  /**
+   * Runs a function on each non-missing number in this storage, writing the results directly into a
+   * new decimal storage. Missing elements stay missing.
+   *
+   * @param function the function to run
+   * @return the result of running the function on all non-missing elements
+   * @throws UnexpectedColumnTypeException if this is not a numeric storage
+   */
+  public DoubleStorage mapDouble(DoubleUnaryOperator function) {
+    throw new UnexpectedColumnTypeException("Number");
+  }
+
+  /**
+   * Runs a predicate on each non-missing number in this storage, writing the results directly into
+   * a new boolean storage. Missing elements stay missing.
+   *
+   * @param predicate the predicate to run
+   * @return the result of running the predicate on all non-missing elements
+   * @throws UnexpectedColumnTypeException if this is not a numeric storage
+   */
+  public BoolStorage mapDoubleToBoolean(DoublePredicate predicate) {
+    throw new UnexpectedColumnTypeException("Number");
+  }
+
+  /**
+   * Runs a function on each pair of non-missing numbers in this and arg, writing the results
+   * directly into a new decimal storage. Rows where either element is missing, or which are past
+   * the end of arg, are missing in the result.
+   *
+   * @param function the function to run
+   * @param arg the storage providing the second argument of the function
+   * @return the result of running the function on all pairs of non-missing elements
+   * @throws UnexpectedColumnTypeException if this or arg is not a numeric storage
+   */
+  public DoubleStorage zipDouble(DoubleBinaryOperator function, Storage arg) {
+    throw new UnexpectedColumnTypeException("Number");
+  }
+
   /**
    * Return a new storage, where missing elements have been replaced by arg.
    *
@@ -239,6 +363,134 @@ public abstract class Storage {
     return builder.seal();
   }
 
+  /**
+   * Concatenates storages.
+   *
+   * <p>If all the storages hold integers, decimals, booleans or strings, their values and missing
+   * flags are copied in bulk into a storage of the same type. Dictionary-encoded strings stay
+   * encoded, with the dictionaries of the parts merged. Otherwise, the values are boxed and the type
+   * of the result is inferred from them.
+   *
+   * @param parts the storages to concatenate, where {@code null} stands for a run of missing values
+   * @param sizes the number of rows taken from each part
+   * @return a storage containing the rows of all the parts, in order
+   */
+  public static Storage concat(Storage[] parts, int[] sizes) {
+    int total = Arrays.stream(sizes).sum();
+    Class<?> commonType = null;
+    for (Storage part : parts) {
+      if (part != null) {
+        Class<?> type = part instanceof StringStorage ? StringStorage.class : part.getClass();
+        if (commonType != null && commonType != type) {
+          commonType = null;
+          break;
+        }
+        commonType = type;
+      }
+    }
+
+    if (commonType == LongStorage.class || commonType == DoubleStorage.class) {
+      long[] data = new long[total];
+      BitSet isMissing = new BitSet();
+      int offset = 0;
+      for (int i = 0; i < parts.length; i++) {
+        if (parts[i] == null) {
+          isMissing.set(offset, offset + sizes[i]);
+        } else {
+          NumericStorage part = (NumericStorage) parts[i];
+          long[] partData =
+              part instanceof LongStorage longs
+                  ? longs.getRawData()
+                  : ((DoubleStorage) part).getRawData();
+          System.arraycopy(partData, 0, data, offset, sizes[i]);
+          copyBits(part.getIsMissing(), sizes[i], isMissing, offset);
+        }
+        offset += sizes[i];
+      }
+      return commonType == LongStorage.class
+          ? new LongStorage(data, total, isMissing)
+          : new DoubleStorage(data, total, isMissing);
+    } else if (commonType == BoolStorage.class) {
+      BitSet values = new BitSet();
+      BitSet isMissing = new BitSet();
+      int offset = 0;
+      for (int i = 0; i < parts.length; i++) {
+        if (parts[i] == null) {
+          isMissing.set(offset, offset + sizes[i]);
+        } else {
+          BoolStorage part = (BoolStorage) parts[i];
+          copyBits(BoolStorage.toMask(part), sizes[i], values, offset);
+          copyBits(part.getIsMissing(), sizes[i], isMissing, offset);
+        }
+        offset += sizes[i];
+      }
+      return new BoolStorage(values, isMissing, total, false);
+    } else if (commonType == StringStorage.class) {
+      if (Arrays.stream(parts).allMatch(p -> p == null || p instanceof DictionaryStringStorage)) {
+        return concatDictionaries(parts, sizes, total);
+      }
+      Object[] data = new Object[total];
+      int offset = 0;
+      for (int i = 0; i < parts.length; i++) {
+        if (parts[i] != null) {
+          System.arraycopy(((StringStorage) parts[i]).getData(), 0, data, offset, sizes[i]);
+        }
+        offset += sizes[i];
+      }
+      return new StringStorage(data, total);
+    }
+
+    InferredBuilder builder = new InferredBuilder(total);
+    for (int i = 0; i < parts.length; i++) {
+      if (parts[i] == null) {
+        builder.appendNulls(sizes[i]);
+      } else {
+        for (int j = 0; j < sizes[i]; j++) {
+          builder.appendNoGrow(parts[i].getItemBoxed(j));
+        }
+      }
+    }
+    return builder.seal();
+  }
+
+  private static DictionaryStringStorage concatDictionaries(
+      Storage[] parts, int[] sizes, int total) {
+    int[] codes = new int[total];
+    Map<String, Integer> mergedCodes = new HashMap<>();
+    List<String> dictionary = new ArrayList<>();
+    int offset = 0;
+    for (int i = 0; i < parts.length; i++) {
+      if (parts[i] == null) {
+        Arrays.fill(codes, offset, offset + sizes[i], DictionaryStringStorage.MISSING);
+      } else {
+        DictionaryStringStorage part = (DictionaryStringStorage) parts[i];
+        String[] partDictionary = part.getDictionary();
+        int[] newCodes = new int[partDictionary.length];
+        for (int code = 0; code < partDictionary.length; code++) {
+          newCodes[code] =
+              mergedCodes.computeIfAbsent(
+                  partDictionary[code],
+                  value -> {
+                    dictionary.add(value);
+                    return dictionary.size() - 1;
+                  });
+        }
+        for (int j = 0; j < sizes[i]; j++) {
+          int code = part.getCode(j);
+          codes[offset + j] = code == DictionaryStringStorage.MISSING ? code : newCodes[code];
+        }
+      }
+      offset += sizes[i];
+    }
+    return new DictionaryStringStorage(codes, dictionary.toArray(new String[0]), total);
+  }
+
+  private static void copyBits(BitSet source, int size, BitSet target, int offset) {
+    for (int i = source.nextSetBit(0); i >= 0 && i < size; i = source.nextSetBit(i + 1)) {
+      target.set(offset + i);
+    }
+  }
+
   /**
    * Return a new storage, containing only the items marked true in the mask.
    *
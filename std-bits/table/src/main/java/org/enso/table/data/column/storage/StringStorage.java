@@ -14,7 +14,7 @@ import org.enso.table.data.mask.OrderMask;
 /** A column storing strings. */
 public class StringStorage extends ObjectStorage {
 
-  private static final MapOpStorage<StringStorage> ops = buildOps();
+  protected static final MapOpStorage<StringStorage> ops = buildOps();
 
   /**
    * @param data the underlying data
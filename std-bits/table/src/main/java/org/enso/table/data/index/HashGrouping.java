@@ -0,0 +1,216 @@
+package org.enso.table.data.index;
+
+import java.util.Arrays;
+
+/**
+ * Groups rows by the values of a set of key columns.
+ *
+ * <p>The rows are hashed directly over the underlying storages using {@link KeyColumn}s and
+ * collected in an open-addressing table of group ids, so no per-row objects are allocated. Groups
+ * are numbered densely in order of their first appearance. The membership of each group is stored
+ * as a slice of a single array of row ids, described by an array of offsets: the rows of group
+ * {@code g} are {@code rowIds[offsets[g]]} up to (exclusive) {@code rowIds[offsets[g + 1]]}, in
+ * ascending order, and is only computed when first requested.
+ *
+ * <p>A grouping can be built over a contiguous range of rows or over an arbitrary, ascending list of
+ * rows, which allows grouping partitions of a table independently and then merging their groups by
+ * grouping the first rows of each partition's groups.
+ */
+public class HashGrouping {
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private final KeyColumn[] keys;
+  private final int from;
+  private final int[] rows;
+  private final int[] groupIds;
+  private int groupCount;
+  private int[] groupFirstRow;
+  private int[] groupHash;
+  private int[] slots;
+  private int[] offsets;
+  private int[] rowIds;
+
+  /**
+   * Groups the first {@code size} rows of the provided key columns.
+   *
+   * @param keys the key columns to group by, must be non-empty
+   * @param size the number of rows to group
+   */
+  public HashGrouping(KeyColumn[] keys, int size) {
+    this(keys, 0, size, null);
+  }
+
+  /**
+   * Groups the rows {@code from} up to (exclusive) {@code to} of the provided key columns.
+   *
+   * @param keys the key columns to group by, must be non-empty
+   * @param from the first row to group
+   * @param to the end of the range of rows to group
+   */
+  public HashGrouping(KeyColumn[] keys, int from, int to) {
+    this(keys, from, to - from, null);
+  }
+
+  /**
+   * Groups the specified rows of the provided key columns.
+   *
+   * @param keys the key columns to group by, must be non-empty
+   * @param rows the rows to group, in ascending order
+   */
+  public HashGrouping(KeyColumn[] keys, int[] rows) {
+    this(keys, 0, rows.length, rows);
+  }
+
+  private HashGrouping(KeyColumn[] keys, int from, int size, int[] rows) {
+    this.keys = keys;
+    this.from = from;
+    this.rows = rows;
+    this.groupIds = new int[size];
+    this.groupCount = 0;
+    this.groupFirstRow = new int[INITIAL_CAPACITY / 2];
+    this.groupHash = new int[INITIAL_CAPACITY / 2];
+    this.slots = new int[INITIAL_CAPACITY];
+
+    for (int i = 0; i < size; i++) {
+      groupIds[i] = findOrAddGroup(rowAt(i));
+    }
+
+    // The lookup structures are not needed once all the rows have been assigned to groups.
+    this.groupFirstRow = Arrays.copyOf(groupFirstRow, groupCount);
+    this.groupHash = null;
+    this.slots = null;
+  }
+
+  /** @return the number of distinct groups */
+  public int getGroupCount() {
+    return groupCount;
+  }
+
+  /**
+   * @return the group id assigned to each grouped row, indexed by the position of the row within
+   *     the grouped range or list
+   */
+  public int[] getGroupIds() {
+    return groupIds;
+  }
+
+  /** @return the offsets of each group's rows within {@link #getRowIds()}, of length groups + 1 */
+  public int[] getOffsets() {
+    if (offsets == null) {
+      buildMembership();
+    }
+    return offsets;
+  }
+
+  /** @return the row ids, ordered by group and ascending within each group */
+  public int[] getRowIds() {
+    if (rowIds == null) {
+      buildMembership();
+    }
+    return rowIds;
+  }
+
+  /**
+   * @param group the group id
+   * @return the first (lowest) row belonging to the group
+   */
+  public int getFirstRow(int group) {
+    return groupFirstRow[group];
+  }
+
+  private int rowAt(int position) {
+    return rows == null ? from + position : rows[position];
+  }
+
+  /**
+   * Computes the hash of a row of a multi-column key.
+   *
+   * @param keys the key columns
+   * @param row the row to hash
+   * @return the combined hash of the key values at {@code row}
+   */
+  static int hashRow(KeyColumn[] keys, int row) {
+    // Same combination as MultiValueKey, so that both agree on which keys collide.
+    int h = 1;
+    for (KeyColumn key : keys) {
+      h = 31 * h + key.hash(row);
+    }
+    return h;
+  }
+
+  private boolean rowsEqual(int row, int other) {
+    for (KeyColumn key : keys) {
+      if (!key.equals(row, other)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  static int spread(int hash) {
+    int h = hash * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  private int findOrAddGroup(int row) {
+    int hash = hashRow(keys, row);
+    int mask = slots.length - 1;
+    int slot = spread(hash) & mask;
+    while (true) {
+      int group = slots[slot] - 1;
+      if (group < 0) {
+        return addGroup(slot, hash, row);
+      }
+      if (groupHash[group] == hash && rowsEqual(groupFirstRow[group], row)) {
+        return group;
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  private int addGroup(int slot, int hash, int row) {
+    int group = groupCount++;
+    if (group == groupFirstRow.length) {
+      groupFirstRow = Arrays.copyOf(groupFirstRow, group * 2);
+      groupHash = Arrays.copyOf(groupHash, group * 2);
+    }
+    groupFirstRow[group] = row;
+    groupHash[group] = hash;
+    slots[slot] = group + 1;
+
+    // Keep the load factor at most 1/2.
+    if (2 * groupCount > slots.length) {
+      rehash(slots.length * 2);
+    }
+    return group;
+  }
+
+  private void rehash(int capacity) {
+    int[] newSlots = new int[capacity];
+    int mask = capacity - 1;
+    for (int group = 0; group < groupCount; group++) {
+      int slot = spread(groupHash[group]) & mask;
+      while (newSlots[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      newSlots[slot] = group + 1;
+    }
+    slots = newSlots;
+  }
+
+  private void buildMembership() {
+    offsets = new int[groupCount + 1];
+    for (int group : groupIds) {
+      offsets[group + 1]++;
+    }
+    for (int group = 0; group < groupCount; group++) {
+      offsets[group + 1] += offsets[group];
+    }
+
+    int[] cursor = Arrays.copyOf(offsets, groupCount);
+    rowIds = new int[groupIds.length];
+    for (int i = 0; i < groupIds.length; i++) {
+      rowIds[cursor[groupIds[i]]++] = rowAt(i);
+    }
+  }
+}
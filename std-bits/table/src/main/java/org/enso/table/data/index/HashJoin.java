@@ -0,0 +1,270 @@
+package org.enso.table.data.index;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Matches the rows of two tables having equal values in their key columns.
+ *
+ * <p>The rows of the smaller table are grouped by their keys with a {@link HashGrouping} and the
+ * groups are indexed by hash in an open-addressing table. The rows of the other table are then
+ * probed against it, in parallel partitions for large tables, so that apart from the result only
+ * memory proportional to the smaller table is used. Keys are compared with the same semantics as
+ * when grouping, see {@link KeyColumn}; in particular, missing values match each other.
+ *
+ * <p>The result is described by two arrays holding, for each row of the joined table, the left and
+ * the right row it is made of, or {@link Index#NOT_FOUND} for the missing side of an unmatched row.
+ * The rows are ordered as described by {@link JoinedRows}.
+ */
+public class HashJoin implements JoinedRows {
+  /** The minimal number of rows in a partition when probing in parallel. */
+  private static final int MIN_PARTITION_SIZE = 1 << 18;
+
+  private final KeyColumn[] buildKeys;
+  private final KeyColumn[] probeKeys;
+  private final int[] buildOffsets;
+  private final int[] buildRowIds;
+  private final int[] groupHash;
+  private final int[] slots;
+  private final boolean[] matched;
+  private final int[] leftRows;
+  private final int[] rightRows;
+
+  /** The pairs of rows produced by probing a partition of the probed table. */
+  private static class RowPairs {
+    private int[] probeRows = new int[16];
+    private int[] buildRows = new int[16];
+    private int size = 0;
+
+    private void add(int probeRow, int buildRow) {
+      if (size == probeRows.length) {
+        probeRows = Arrays.copyOf(probeRows, size * 2);
+        buildRows = Arrays.copyOf(buildRows, size * 2);
+      }
+      probeRows[size] = probeRow;
+      buildRows[size] = buildRow;
+      size++;
+    }
+  }
+
+  /**
+   * Joins two tables on the provided key columns.
+   *
+   * @param leftKeys the key columns of the left table
+   * @param leftSize the number of rows in the left table
+   * @param rightKeys the key columns of the right table, matched pairwise with {@code leftKeys}
+   * @param rightSize the number of rows in the right table
+   * @param kind the kind of the join
+   */
+  public HashJoin(
+      KeyColumn[] leftKeys, int leftSize, KeyColumn[] rightKeys, int rightSize, JoinKind kind) {
+    boolean buildLeft = leftSize < rightSize;
+    this.buildKeys = buildLeft ? leftKeys : rightKeys;
+    this.probeKeys = buildLeft ? rightKeys : leftKeys;
+    int buildSize = buildLeft ? leftSize : rightSize;
+    int probeSize = buildLeft ? rightSize : leftSize;
+
+    HashGrouping build = new HashGrouping(buildKeys, buildSize);
+    int groupCount = build.getGroupCount();
+    this.buildOffsets = build.getOffsets();
+    this.buildRowIds = build.getRowIds();
+    this.groupHash = new int[groupCount];
+    int capacity = 16;
+    while (capacity < 2 * groupCount) {
+      capacity <<= 1;
+    }
+    this.slots = new int[capacity];
+    for (int group = 0; group < groupCount; group++) {
+      int hash = HashGrouping.hashRow(buildKeys, build.getFirstRow(group));
+      groupHash[group] = hash;
+      int slot = HashGrouping.spread(hash) & (capacity - 1);
+      while (slots[slot] != 0) {
+        slot = (slot + 1) & (capacity - 1);
+      }
+      slots[slot] = group + 1;
+    }
+    this.matched = new boolean[groupCount];
+
+    boolean keepUnmatchedProbe = buildLeft ? kind.keepsRight() : kind.keepsLeft();
+    int partitionCount = partitionCount(probeSize);
+    RowPairs[] partitions = new RowPairs[partitionCount];
+    IntStream range = IntStream.range(0, partitionCount);
+    (partitionCount > 1 ? range.parallel() : range)
+        .forEach(
+            p ->
+                partitions[p] =
+                    probe(
+                        (int) ((long) probeSize * p / partitionCount),
+                        (int) ((long) probeSize * (p + 1) / partitionCount),
+                        keepUnmatchedProbe));
+
+    if (buildLeft) {
+      int[][] result = assembleByBuildRow(partitions, build.getGroupIds(), kind.keepsLeft());
+      this.leftRows = result[0];
+      this.rightRows = result[1];
+    } else {
+      int[][] result = assembleByProbeRow(partitions, build.getGroupIds(), kind.keepsRight());
+      this.leftRows = result[0];
+      this.rightRows = result[1];
+    }
+  }
+
+  @Override
+  public int[] getLeftRows() {
+    return leftRows;
+  }
+
+  @Override
+  public int[] getRightRows() {
+    return rightRows;
+  }
+
+  private int partitionCount(int probeSize) {
+    boolean canRunInParallel =
+        Arrays.stream(buildKeys).allMatch(KeyColumn::canRunInParallel)
+            && Arrays.stream(probeKeys).allMatch(KeyColumn::canRunInParallel);
+    if (!canRunInParallel) {
+      return 1;
+    }
+    int count = Math.min(ForkJoinPool.getCommonPoolParallelism(), probeSize / MIN_PARTITION_SIZE);
+    return Math.max(count, 1);
+  }
+
+  private RowPairs probe(int from, int to, boolean keepUnmatched) {
+    RowPairs pairs = new RowPairs();
+    for (int row = from; row < to; row++) {
+      int group = findGroup(row);
+      if (group < 0) {
+        if (keepUnmatched) {
+          pairs.add(row, Index.NOT_FOUND);
+        }
+      } else {
+        // Concurrent partitions only ever set the flag, so racing writes are harmless.
+        matched[group] = true;
+        for (int i = buildOffsets[group]; i < buildOffsets[group + 1]; i++) {
+          pairs.add(row, buildRowIds[i]);
+        }
+      }
+    }
+    return pairs;
+  }
+
+  private int findGroup(int probeRow) {
+    int hash = HashGrouping.hashRow(probeKeys, probeRow);
+    int mask = slots.length - 1;
+    int slot = HashGrouping.spread(hash) & mask;
+    while (true) {
+      int group = slots[slot] - 1;
+      if (group < 0) {
+        return -1;
+      }
+      if (groupHash[group] == hash && rowsMatch(probeRow, buildRowIds[buildOffsets[group]])) {
+        return group;
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  private boolean rowsMatch(int probeRow, int buildRow) {
+    for (int i = 0; i < probeKeys.length; i++) {
+      if (!probeKeys[i].equals(probeRow, buildKeys[i], buildRow)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Builds the result when the left table was probed: the pairs are already ordered by left row,
+   * so the partitions are concatenated and the unmatched right rows appended if requested.
+   */
+  private int[][] assembleByProbeRow(RowPairs[] partitions, int[] buildGroups, boolean keepsRight) {
+    int size = 0;
+    for (RowPairs pairs : partitions) {
+      size += pairs.size;
+    }
+    int unmatched = 0;
+    if (keepsRight) {
+      for (int group : buildGroups) {
+        if (!matched[group]) {
+          unmatched++;
+        }
+      }
+    }
+
+    int[] left = new int[size + unmatched];
+    int[] right = new int[size + unmatched];
+    int position = 0;
+    for (RowPairs pairs : partitions) {
+      System.arraycopy(pairs.probeRows, 0, left, position, pairs.size);
+      System.arraycopy(pairs.buildRows, 0, right, position, pairs.size);
+      position += pairs.size;
+    }
+    if (keepsRight) {
+      for (int row = 0; row < buildGroups.length; row++) {
+        if (!matched[buildGroups[row]]) {
+          left[position] = Index.NOT_FOUND;
+          right[position] = row;
+          position++;
+        }
+      }
+    }
+    return new int[][] {left, right};
+  }
+
+  /**
+   * Builds the result when the right table was probed: the pairs are ordered by right row, so they
+   * are redistributed by left row with a counting sort, which keeps the right rows of each left row
+   * in ascending order. Unmatched right rows, emitted with a missing build row, are appended last.
+   */
+  private int[][] assembleByBuildRow(RowPairs[] partitions, int[] buildGroups, boolean keepsLeft) {
+    int leftSize = buildGroups.length;
+    int[] offsets = new int[leftSize + 1];
+    int unmatched = 0;
+    for (RowPairs pairs : partitions) {
+      for (int i = 0; i < pairs.size; i++) {
+        int buildRow = pairs.buildRows[i];
+        if (buildRow == Index.NOT_FOUND) {
+          unmatched++;
+        } else {
+          offsets[buildRow + 1]++;
+        }
+      }
+    }
+    for (int row = 0; row < leftSize; row++) {
+      if (keepsLeft && !matched[buildGroups[row]]) {
+        offsets[row + 1] = 1;
+      }
+      offsets[row + 1] += offsets[row];
+    }
+
+    int matchedSize = offsets[leftSize];
+    int[] left = new int[matchedSize + unmatched];
+    int[] right = new int[matchedSize + unmatched];
+    for (int row = 0; row < leftSize; row++) {
+      if (keepsLeft && !matched[buildGroups[row]]) {
+        left[offsets[row]] = row;
+        right[offsets[row]] = Index.NOT_FOUND;
+      }
+    }
+
+    int[] cursor = Arrays.copyOf(offsets, leftSize);
+    int tail = matchedSize;
+    for (RowPairs pairs : partitions) {
+      for (int i = 0; i < pairs.size; i++) {
+        int buildRow = pairs.buildRows[i];
+        if (buildRow == Index.NOT_FOUND) {
+          left[tail] = Index.NOT_FOUND;
+          right[tail] = pairs.probeRows[i];
+          tail++;
+        } else {
+          int position = cursor[buildRow]++;
+          left[position] = buildRow;
+          right[position] = pairs.probeRows[i];
+        }
+      }
+    }
+    return new int[][] {left, right};
+  }
+}
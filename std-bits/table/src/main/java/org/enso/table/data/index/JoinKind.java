@@ -0,0 +1,23 @@
+package org.enso.table.data.index;
+
+/** The kind of a join, describing which unmatched rows are kept in its result. */
+public enum JoinKind {
+  /** Only the pairs of matching rows are kept. */
+  INNER,
+  /** Unmatched rows of the left table are kept, padded with missing values. */
+  LEFT,
+  /** Unmatched rows of the right table are kept, padded with missing values. */
+  RIGHT,
+  /** Unmatched rows of both tables are kept, padded with missing values. */
+  FULL;
+
+  /** @return whether unmatched rows of the left table are kept */
+  public boolean keepsLeft() {
+    return this == LEFT || this == FULL;
+  }
+
+  /** @return whether unmatched rows of the right table are kept */
+  public boolean keepsRight() {
+    return this == RIGHT || this == FULL;
+  }
+}
@@ -0,0 +1,21 @@
+package org.enso.table.data.index;
+
+/**
+ * The rows of a joined table, described by the left and the right row each of them is made of.
+ *
+ * <p>Rows are ordered by their left row and then by their right row. Unmatched rows of the right
+ * table, if kept, come last, in their original order.
+ */
+public interface JoinedRows {
+  /**
+   * @return the left row of each row of the joined table, or {@link Index#NOT_FOUND} if the row
+   *     comes from an unmatched right row
+   */
+  int[] getLeftRows();
+
+  /**
+   * @return the right row of each row of the joined table, or {@link Index#NOT_FOUND} if the row
+   *     comes from an unmatched left row
+   */
+  int[] getRightRows();
+}
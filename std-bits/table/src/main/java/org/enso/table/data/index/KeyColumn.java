@@ -0,0 +1,491 @@
+package org.enso.table.data.index;
+
+import org.enso.table.data.column.storage.BoolStorage;
+import org.enso.table.data.column.storage.DictionaryStringStorage;
+import org.enso.table.data.column.storage.DoubleStorage;
+import org.enso.table.data.column.storage.LongStorage;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.column.storage.StringStorage;
+
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * A single column of a grouping key, giving access to hashes and equality of the values stored at
+ * given rows without boxing them.
+ *
+ * <p>The hashing and equality semantics are the same as the ones of {@link MultiValueKey}: numbers
+ * are folded onto a long if they represent an integer, missing values contribute 0 to the hash and
+ * equality of arbitrary objects is delegated to the provided object comparator.
+ */
+public abstract class KeyColumn {
+  /**
+   * Creates a key column specialised for the type of the provided storage.
+   *
+   * @param storage the storage to read the key values from
+   * @param objectComparator the comparator used to decide equality of arbitrary objects
+   * @return a key column reading from {@code storage}
+   */
+  public static KeyColumn fromStorage(Storage storage, Comparator<Object> objectComparator) {
+    if (storage instanceof LongStorage longStorage) {
+      return new LongKeyColumn(longStorage);
+    } else if (storage instanceof DoubleStorage doubleStorage) {
+      return new DoubleKeyColumn(doubleStorage);
+    } else if (storage instanceof BoolStorage boolStorage) {
+      return new BoolKeyColumn(boolStorage);
+    } else if (storage instanceof DictionaryStringStorage dictionaryStorage) {
+      return new DictionaryKeyColumn(dictionaryStorage, objectComparator);
+    } else if (storage instanceof StringStorage stringStorage) {
+      return new StringKeyColumn(stringStorage, objectComparator);
+    } else {
+      return new ObjectKeyColumn(storage, objectComparator);
+    }
+  }
+
+  /**
+   * @param row the row to hash
+   * @return the hash of the value at {@code row}, 0 if the value is missing
+   */
+  public abstract int hash(int row);
+
+  /**
+   * Checks whether the values stored at the two rows of this column are equal.
+   *
+   * @param row the first row
+   * @param other the second row
+   * @return whether the values are considered equal
+   */
+  public abstract boolean equals(int row, int other);
+
+  /**
+   * Checks whether the value stored at a row of this column is equal to the value stored at a row
+   * of another key column, which may be backed by a storage of a different type.
+   *
+   * @param row the row of this column
+   * @param other the other key column
+   * @param otherRow the row of the other column
+   * @return whether the values are considered equal
+   */
+  public boolean equals(int row, KeyColumn other, int otherRow) {
+    Object a = getFolded(row);
+    Object b = other.getFolded(otherRow);
+    if (a == null || b == null) {
+      return a == b;
+    }
+    if (a.equals(b)) {
+      return true;
+    }
+    Comparator<Object> comparator =
+        getObjectComparator() != null ? getObjectComparator() : other.getObjectComparator();
+    return comparator != null && a.getClass() == b.getClass() && comparator.compare(a, b) == 0;
+  }
+
+  /**
+   * Compares the value stored at a row of this column with the value stored at a row of another key
+   * column. The ordering is the one of {@link #compareValues} and is consistent with {@link
+   * #equals(int, KeyColumn, int)}.
+   *
+   * @param row the row of this column
+   * @param other the other key column
+   * @param otherRow the row of the other column
+   * @return a negative number, zero or a positive number if the value of this column is
+   *     respectively smaller, equal or larger than the value of the other column
+   */
+  public int compare(int row, KeyColumn other, int otherRow) {
+    Comparator<Object> comparator =
+        getObjectComparator() != null ? getObjectComparator() : other.getObjectComparator();
+    return compareValues(getFolded(row), other.getFolded(otherRow), comparator);
+  }
+
+  /**
+   * Compares two key values. Missing values come first, followed by numbers, booleans, text and
+   * other values. Numbers are compared by their value, booleans and text naturally and other values
+   * with the object comparator or, if there is none, by their natural ordering. Text is also
+   * compared with the object comparator, if there is one.
+   *
+   * @param a the first value
+   * @param b the second value
+   * @param objectComparator the comparator used for values other than numbers, may be null
+   * @return a negative number, zero or a positive number if {@code a} is respectively smaller,
+   *     equal or larger than {@code b}
+   */
+  @SuppressWarnings("unchecked")
+  public static int compareValues(Object a, Object b, Comparator<Object> objectComparator) {
+    Object x = MultiValueKey.foldObject(a);
+    Object y = MultiValueKey.foldObject(b);
+    if (x == null || y == null) {
+      return x == null ? (y == null ? 0 : -1) : 1;
+    }
+    if (x instanceof Long xLong && y instanceof Long yLong) {
+      return Long.compare(xLong, yLong);
+    }
+    if (x instanceof Number xNumber && y instanceof Number yNumber) {
+      return Double.compare(xNumber.doubleValue(), yNumber.doubleValue());
+    }
+    int rankComparison = Integer.compare(typeRank(x), typeRank(y));
+    if (rankComparison != 0) {
+      return rankComparison;
+    }
+    if (x instanceof Boolean xBoolean) {
+      return Boolean.compare(xBoolean, (Boolean) y);
+    }
+    if (objectComparator != null) {
+      return objectComparator.compare(x, y);
+    }
+    return ((Comparable<Object>) x).compareTo(y);
+  }
+
+  private static int typeRank(Object value) {
+    if (value instanceof Number) {
+      return 0;
+    } else if (value instanceof Boolean) {
+      return 1;
+    } else if (value instanceof String) {
+      return 2;
+    } else {
+      return 3;
+    }
+  }
+
+  /**
+   * @param row the row to read
+   * @return the value at {@code row}, folded as in {@link MultiValueKey}, or null if missing
+   */
+  protected abstract Object getFolded(int row);
+
+  /** @return the comparator used to decide equality of values, if any */
+  protected Comparator<Object> getObjectComparator() {
+    return null;
+  }
+
+  /**
+   * @param row the row to check
+   * @return whether the value at {@code row} is a non-integral floating point number
+   */
+  public boolean isFloat(int row) {
+    return false;
+  }
+
+  /**
+   * Checks whether this key column can be hashed and compared on other threads. This is not the
+   * case for arbitrary objects, whose comparison may call back into Enso. Text comparison is
+   * implemented in Java, so text columns are safe.
+   *
+   * @return whether the column can be used for parallel grouping
+   */
+  public boolean canRunInParallel() {
+    return true;
+  }
+
+  private static final class LongKeyColumn extends KeyColumn {
+    private final LongStorage storage;
+
+    private LongKeyColumn(LongStorage storage) {
+      this.storage = storage;
+    }
+
+    @Override
+    public int hash(int row) {
+      return storage.isNa(row) ? 0 : Long.hashCode(storage.getItem(row));
+    }
+
+    @Override
+    public boolean equals(int row, int other) {
+      boolean rowNa = storage.isNa(row);
+      boolean otherNa = storage.isNa(other);
+      if (rowNa || otherNa) {
+        return rowNa == otherNa;
+      }
+      return storage.getItem(row) == storage.getItem(other);
+    }
+
+    @Override
+    public boolean equals(int row, KeyColumn other, int otherRow) {
+      if (other instanceof LongKeyColumn otherLong) {
+        boolean rowNa = storage.isNa(row);
+        boolean otherNa = otherLong.storage.isNa(otherRow);
+        if (rowNa || otherNa) {
+          return rowNa == otherNa;
+        }
+        return storage.getItem(row) == otherLong.storage.getItem(otherRow);
+      }
+      return super.equals(row, other, otherRow);
+    }
+
+    @Override
+    public int compare(int row, KeyColumn other, int otherRow) {
+      if (other instanceof LongKeyColumn otherLong) {
+        boolean rowNa = storage.isNa(row);
+        boolean otherNa = otherLong.storage.isNa(otherRow);
+        if (rowNa || otherNa) {
+          return Boolean.compare(!rowNa, !otherNa);
+        }
+        return Long.compare(storage.getItem(row), otherLong.storage.getItem(otherRow));
+      }
+      return super.compare(row, other, otherRow);
+    }
+
+    @Override
+    protected Object getFolded(int row) {
+      return storage.isNa(row) ? null : storage.getItem(row);
+    }
+  }
+
+  private static final class DoubleKeyColumn extends KeyColumn {
+    private final DoubleStorage storage;
+
+    private DoubleKeyColumn(DoubleStorage storage) {
+      this.storage = storage;
+    }
+
+    @Override
+    public int hash(int row) {
+      if (storage.isNa(row)) {
+        return 0;
+      }
+      double value = storage.getItem(row);
+      return MultiValueKey.isLongValued(value)
+          ? Long.hashCode((long) value)
+          : Double.hashCode(value);
+    }
+
+    @Override
+    public boolean equals(int row, int other) {
+      boolean rowNa = storage.isNa(row);
+      boolean otherNa = storage.isNa(other);
+      if (rowNa || otherNa) {
+        return rowNa == otherNa;
+      }
+
+      double a = storage.getItem(row);
+      double b = storage.getItem(other);
+      return valuesEqual(a, b);
+    }
+
+    @Override
+    public boolean equals(int row, KeyColumn other, int otherRow) {
+      if (other instanceof DoubleKeyColumn otherDouble) {
+        boolean rowNa = storage.isNa(row);
+        boolean otherNa = otherDouble.storage.isNa(otherRow);
+        if (rowNa || otherNa) {
+          return rowNa == otherNa;
+        }
+        double a = storage.getItem(row);
+        double b = otherDouble.storage.getItem(otherRow);
+        return valuesEqual(a, b);
+      }
+      return super.equals(row, other, otherRow);
+    }
+
+    @Override
+    public int compare(int row, KeyColumn other, int otherRow) {
+      if (other instanceof DoubleKeyColumn otherDouble) {
+        boolean rowNa = storage.isNa(row);
+        boolean otherNa = otherDouble.storage.isNa(otherRow);
+        if (rowNa || otherNa) {
+          return Boolean.compare(!rowNa, !otherNa);
+        }
+        double a = storage.getItem(row);
+        double b = otherDouble.storage.getItem(otherRow);
+        if (MultiValueKey.isLongValued(a) && MultiValueKey.isLongValued(b)) {
+          return Long.compare((long) a, (long) b);
+        }
+        return Double.compare(a, b);
+      }
+      return super.compare(row, other, otherRow);
+    }
+
+    @Override
+    protected Object getFolded(int row) {
+      return storage.isNa(row) ? null : MultiValueKey.foldObject(storage.getItem(row));
+    }
+
+    @Override
+    public boolean isFloat(int row) {
+      return !storage.isNa(row) && !MultiValueKey.isLongValued(storage.getItem(row));
+    }
+
+    private static boolean valuesEqual(double a, double b) {
+      boolean aIntegral = MultiValueKey.isLongValued(a);
+      boolean bIntegral = MultiValueKey.isLongValued(b);
+      if (aIntegral && bIntegral) {
+        return (long) a == (long) b;
+      } else if (!aIntegral && !bIntegral) {
+        return Double.doubleToLongBits(a) == Double.doubleToLongBits(b);
+      }
+      return false;
+    }
+  }
+
+  private static final class BoolKeyColumn extends KeyColumn {
+    private final BoolStorage storage;
+
+    private BoolKeyColumn(BoolStorage storage) {
+      this.storage = storage;
+    }
+
+    @Override
+    public int hash(int row) {
+      return storage.isNa(row) ? 0 : Boolean.hashCode(storage.getItem(row));
+    }
+
+    @Override
+    public boolean equals(int row, int other) {
+      boolean rowNa = storage.isNa(row);
+      boolean otherNa = storage.isNa(other);
+      if (rowNa || otherNa) {
+        return rowNa == otherNa;
+      }
+      return storage.getItem(row) == storage.getItem(other);
+    }
+
+    @Override
+    protected Object getFolded(int row) {
+      return storage.isNa(row) ? null : storage.getItem(row);
+    }
+  }
+
+  private static final class StringKeyColumn extends KeyColumn {
+    private final StringStorage storage;
+    private final Comparator<Object> objectComparator;
+
+    private StringKeyColumn(StringStorage storage, Comparator<Object> objectComparator) {
+      this.storage = storage;
+      this.objectComparator = objectComparator;
+    }
+
+    @Override
+    public int hash(int row) {
+      String value = storage.getItem(row);
+      return value == null ? 0 : value.hashCode();
+    }
+
+    @Override
+    public boolean equals(int row, int other) {
+      String a = storage.getItem(row);
+      String b = storage.getItem(other);
+      if (a == null || b == null) {
+        return a == b;
+      }
+      return a.equals(b) || (objectComparator != null && objectComparator.compare(a, b) == 0);
+    }
+
+    @Override
+    protected Object getFolded(int row) {
+      return storage.getItem(row);
+    }
+
+    @Override
+    protected Comparator<Object> getObjectComparator() {
+      return objectComparator;
+    }
+  }
+
+  private static final class DictionaryKeyColumn extends KeyColumn {
+    private final DictionaryStringStorage storage;
+    private final Comparator<Object> objectComparator;
+    private final int[] hashes;
+
+    private DictionaryKeyColumn(
+        DictionaryStringStorage storage, Comparator<Object> objectComparator) {
+      this.storage = storage;
+      this.objectComparator = objectComparator;
+      String[] dictionary = storage.getDictionary();
+      this.hashes = new int[dictionary.length];
+      for (int code = 0; code < dictionary.length; code++) {
+        hashes[code] = dictionary[code].hashCode();
+      }
+    }
+
+    @Override
+    public int hash(int row) {
+      int code = storage.getCode(row);
+      return code == DictionaryStringStorage.MISSING ? 0 : hashes[code];
+    }
+
+    @Override
+    public boolean equals(int row, int other) {
+      return codesEqual(storage.getCode(row), storage.getCode(other));
+    }
+
+    @Override
+    public boolean equals(int row, KeyColumn other, int otherRow) {
+      if (other instanceof DictionaryKeyColumn otherDictionary
+          && otherDictionary.storage.getDictionary() == storage.getDictionary()) {
+        return codesEqual(storage.getCode(row), otherDictionary.storage.getCode(otherRow));
+      }
+      return super.equals(row, other, otherRow);
+    }
+
+    private boolean codesEqual(int a, int b) {
+      if (a == b) {
+        return true;
+      }
+      if (a == DictionaryStringStorage.MISSING || b == DictionaryStringStorage.MISSING) {
+        return false;
+      }
+      // Distinct dictionary entries are distinct strings, which may still be equal according to
+      // the comparator.
+      String[] dictionary = storage.getDictionary();
+      return objectComparator != null
+          && objectComparator.compare(dictionary[a], dictionary[b]) == 0;
+    }
+
+    @Override
+    protected Object getFolded(int row) {
+      return storage.getItem(row);
+    }
+
+    @Override
+    protected Comparator<Object> getObjectComparator() {
+      return objectComparator;
+    }
+  }
+
+  private static final class ObjectKeyColumn extends KeyColumn {
+    private final Storage storage;
+    private final Comparator<Object> objectComparator;
+
+    private ObjectKeyColumn(Storage storage, Comparator<Object> objectComparator) {
+      this.storage = storage;
+      this.objectComparator = objectComparator;
+    }
+
+    @Override
+    public int hash(int row) {
+      Object value = storage.getItemBoxed(row);
+      return value == null ? 0 : MultiValueKey.foldObject(value).hashCode();
+    }
+
+    @Override
+    public boolean equals(int row, int other) {
+      Object a = storage.getItemBoxed(row);
+      Object b = storage.getItemBoxed(other);
+      if (objectComparator == null) {
+        return Objects.equals(MultiValueKey.foldObject(a), MultiValueKey.foldObject(b));
+      }
+      return objectComparator.compare(a, b) == 0;
+    }
+
+    @Override
+    protected Object getFolded(int row) {
+      return MultiValueKey.foldObject(storage.getItemBoxed(row));
+    }
+
+    @Override
+    protected Comparator<Object> getObjectComparator() {
+      return objectComparator;
+    }
+
+    @Override
+    public boolean isFloat(int row) {
+      Object value = storage.getItemBoxed(row);
+      return value != null && MultiValueKey.foldObject(value) instanceof Double;
+    }
+
+    @Override
+    public boolean canRunInParallel() {
+      return false;
+    }
+  }
+}
@@ -1,6 +1,8 @@
 package org.enso.table.data.index;
 
+import org.enso.table.aggregations.Accumulator;
 import org.enso.table.aggregations.Aggregator;
+import org.enso.table.aggregations.RowList;
 import org.enso.table.data.column.builder.object.*;
 import org.enso.table.data.column.builder.object.StringBuilder;
 import org.enso.table.data.column.storage.Storage;
@@ -10,26 +12,137 @@ import org.enso.table.data.table.problems.AggregatedProblems;
 import org.enso.table.data.table.problems.FloatingPointGrouping;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.IntStream;
 
 public class MultiValueIndex {
+  /** The minimal number of rows in a partition when grouping in parallel. */
+  private static final int MIN_PARTITION_SIZE = 1 << 18;
+
   private final int keyColumnsLength;
-  private final Map<MultiValueKey, List<Integer>> locs;
+  private final int groupCount;
+  private final int[] offsets;
+  private final int[] rowIds;
+  private final Partition[] partitions;
   private final AggregatedProblems problems;
 
+  /**
+   * A contiguous range of rows grouped independently when running in parallel, together with the
+   * mapping of its local group ids to the group ids of the whole index.
+   */
+  private static class Partition {
+    private final int from;
+    private final int to;
+    private final HashGrouping grouping;
+    private final AggregatedProblems problems;
+    private int[] toGlobal;
+
+    private Partition(KeyColumn[] keys, int from, int to) {
+      this.from = from;
+      this.to = to;
+      this.grouping = new HashGrouping(keys, from, to);
+      this.problems = new AggregatedProblems();
+      reportFloatingPointGrouping(keys, from, to, problems);
+    }
+  }
+
   public MultiValueIndex(Column[] keyColumns, int tableSize, Comparator<Object> objectComparator) {
-    this(keyColumns, tableSize, null, objectComparator);
+    this(keyColumns, tableSize, objectComparator, true);
+  }
+
+  /**
+   * Creates an unordered index over the given key columns.
+   *
+   * @param keyColumns the columns to group by
+   * @param tableSize the number of rows in the table
+   * @param objectComparator the comparator used to decide equality of arbitrary objects
+   * @param parallel whether large tables may be grouped and aggregated in parallel, in partitions
+   *     of rows processed on the common fork-join pool
+   */
+  public MultiValueIndex(
+      Column[] keyColumns, int tableSize, Comparator<Object> objectComparator, boolean parallel) {
+    this.keyColumnsLength = keyColumns.length;
+    this.problems = new AggregatedProblems();
+
+    if (keyColumns.length == 0) {
+      this.groupCount = 1;
+      this.offsets = new int[] {0, tableSize};
+      this.rowIds = IntStream.range(0, tableSize).toArray();
+      this.partitions = null;
+      return;
+    }
+
+    int size = keyColumns[0].getSize();
+    KeyColumn[] keys =
+        Arrays.stream(keyColumns)
+            .map(c -> KeyColumn.fromStorage(c.getStorage(), objectComparator))
+            .toArray(KeyColumn[]::new);
+    int partitionCount = parallel ? partitionCount(keys, size) : 1;
+
+    if (partitionCount <= 1) {
+      HashGrouping grouping = new HashGrouping(keys, size);
+      reportFloatingPointGrouping(keys, 0, size, problems);
+
+      this.groupCount = grouping.getGroupCount();
+      this.offsets = grouping.getOffsets();
+      this.rowIds = grouping.getRowIds();
+      this.partitions = null;
+    } else {
+      this.partitions = new Partition[partitionCount];
+      IntStream.range(0, partitionCount)
+          .parallel()
+          .forEach(
+              p ->
+                  partitions[p] =
+                      new Partition(
+                          keys,
+                          (int) ((long) size * p / partitionCount),
+                          (int) ((long) size * (p + 1) / partitionCount)));
+
+      // Merges the partitions' groups by grouping their first rows. As partitions are ordered and
+      // each partition numbers its groups by first appearance, the merged groups are numbered by
+      // first appearance in the whole table, exactly as in the sequential case.
+      int localGroups = 0;
+      for (Partition partition : partitions) {
+        localGroups += partition.grouping.getGroupCount();
+      }
+      int[] firstRows = new int[localGroups];
+      int position = 0;
+      for (Partition partition : partitions) {
+        for (int g = 0; g < partition.grouping.getGroupCount(); g++) {
+          firstRows[position++] = partition.grouping.getFirstRow(g);
+        }
+      }
+      HashGrouping merged = new HashGrouping(keys, firstRows);
+      int[] mergedIds = merged.getGroupIds();
+      position = 0;
+      for (Partition partition : partitions) {
+        int count = partition.grouping.getGroupCount();
+        partition.toGlobal = Arrays.copyOfRange(mergedIds, position, position + count);
+        position += count;
+        problems.addAll(partition.problems);
+      }
+
+      this.groupCount = merged.getGroupCount();
+      this.offsets = new int[groupCount + 1];
+      this.rowIds = new int[size];
+      buildMembership();
+    }
   }
 
   public MultiValueIndex(Column[] keyColumns, int tableSize, int[] ordering, Comparator<Object> objectComparator) {
     this.keyColumnsLength = keyColumns.length;
-    this.locs = ordering == null ? new HashMap<>() : new TreeMap<>();
     this.problems = new AggregatedProblems();
+    this.partitions = null;
 
-    if (keyColumns.length != 0) {
+    if (keyColumns.length == 0) {
+      this.groupCount = 1;
+      this.offsets = new int[] {0, tableSize};
+      this.rowIds = IntStream.range(0, tableSize).toArray();
+    } else {
       int size = keyColumns[0].getSize();
       Storage[] storage = Arrays.stream(keyColumns).map(Column::getStorage).toArray(Storage[]::new);
+      TreeMap<MultiValueKey, List<Integer>> locs = new TreeMap<>();
       for (int i = 0; i < size; i++) {
         MultiValueKey key = new MultiValueKey(storage, i, ordering, objectComparator);
 
@@ -37,23 +150,73 @@ public class MultiValueIndex {
           problems.add(new FloatingPointGrouping("GroupBy", i));
         }
 
-        List<Integer> ids = this.locs.computeIfAbsent(key, x -> new ArrayList<>());
+        List<Integer> ids = locs.computeIfAbsent(key, x -> new ArrayList<>());
         ids.add(i);
       }
-    } else {
-      this.locs.put(new MultiValueKey(new Storage[0], 0, objectComparator), IntStream.range(0, tableSize).boxed().collect(Collectors.toList()));
+
+      this.groupCount = locs.size();
+      this.offsets = new int[groupCount + 1];
+      this.rowIds = new int[size];
+      int group = 0;
+      int idx = 0;
+      for (List<Integer> ids : locs.values()) {
+        for (int row : ids) {
+          rowIds[idx++] = row;
+        }
+        offsets[++group] = idx;
+      }
+    }
+  }
+
+  private static int partitionCount(KeyColumn[] keys, int size) {
+    if (!Arrays.stream(keys).allMatch(KeyColumn::canRunInParallel)) {
+      return 1;
+    }
+    return Math.min(ForkJoinPool.getCommonPoolParallelism(), size / MIN_PARTITION_SIZE);
+  }
+
+  private static void reportFloatingPointGrouping(
+      KeyColumn[] keys, int from, int to, AggregatedProblems problems) {
+    for (int i = from; i < to; i++) {
+      for (KeyColumn key : keys) {
+        if (key.isFloat(i)) {
+          problems.add(new FloatingPointGrouping("GroupBy", i));
+          break;
+        }
+      }
+    }
+  }
+
+  /** Fills the offsets and row ids from the partitions' group ids, mapped to global groups. */
+  private void buildMembership() {
+    for (Partition partition : partitions) {
+      for (int local : partition.grouping.getGroupIds()) {
+        offsets[partition.toGlobal[local] + 1]++;
+      }
+    }
+    for (int group = 0; group < groupCount; group++) {
+      offsets[group + 1] += offsets[group];
+    }
+
+    int[] cursor = Arrays.copyOf(offsets, groupCount);
+    for (Partition partition : partitions) {
+      int[] localIds = partition.grouping.getGroupIds();
+      for (int row = partition.from; row < partition.to; row++) {
+        rowIds[cursor[partition.toGlobal[localIds[row - partition.from]]]++] = row;
+      }
     }
   }
 
   public Table makeTable(Aggregator[] columns) {
     final int length = columns.length;
-    final int size = locs.size();
+    final int size = groupCount;
 
     boolean emptyScenario = size == 0 & keyColumnsLength == 0;
     Builder[] storage =
         Arrays.stream(columns)
             .map(c -> getBuilderForType(c.getType(), emptyScenario ? 1 : size))
             .toArray(Builder[]::new);
+    AggregatedProblems[] accumulatorProblems = new AggregatedProblems[length];
 
     if (emptyScenario) {
       // No grouping and no data
@@ -62,18 +225,62 @@ public class MultiValueIndex {
         storage[i].appendNoGrow(columns[i].aggregate(empty));
       }
     } else {
-      for (List<Integer> group_locs : this.locs.values()) {
+      Accumulator[] accumulators = new Accumulator[length];
+      for (int i = 0; i < length; i++) {
+        accumulators[i] = columns[i].makeAccumulator();
+        if (accumulators[i] != null) {
+          accumulators[i].init(size);
+        }
+      }
+
+      // Accumulators computed in parallel are excluded from the sequential pass below.
+      Accumulator[] sequential = accumulators.clone();
+      if (partitions != null) {
+        accumulateInParallel(columns, accumulators, sequential, accumulatorProblems);
+      }
+      boolean anySequential = Arrays.stream(sequential).anyMatch(Objects::nonNull);
+
+      for (int group = 0; group < size; group++) {
+        if (anySequential) {
+          for (int j = offsets[group]; j < offsets[group + 1]; j++) {
+            int row = rowIds[j];
+            for (Accumulator accumulator : sequential) {
+              if (accumulator != null) {
+                accumulator.accumulate(group, row);
+              }
+            }
+          }
+        }
+
+        List<Integer> group_locs = null;
         for (int i = 0; i < length; i++) {
-          Object value = columns[i].aggregate(group_locs);
+          Object value;
+          if (accumulators[i] != null) {
+            value = accumulators[i].finish(group);
+          } else {
+            if (group_locs == null) {
+              group_locs = new RowList(rowIds, offsets[group], offsets[group + 1]);
+            }
+            value = columns[i].aggregate(group_locs);
+          }
           storage[i].appendNoGrow(value);
         }
       }
+
+      for (int i = 0; i < length; i++) {
+        if (accumulators[i] != null) {
+          accumulatorProblems[i] =
+              AggregatedProblems.merge(
+                  new AggregatedProblems[] {accumulatorProblems[i], accumulators[i].getProblems()});
+        }
+      }
     }
 
     // Merge Problems
-    AggregatedProblems[] problems = new AggregatedProblems[1 + length];
+    AggregatedProblems[] problems = new AggregatedProblems[1 + 2 * length];
     problems[0] = this.problems;
-    IntStream.range(0, length).forEach(i -> problems[i + 1] = columns[i].getProblems());
+    IntStream.range(0, length).forEach(i -> problems[2 * i + 1] = columns[i].getProblems());
+    IntStream.range(0, length).forEach(i -> problems[2 * i + 2] = accumulatorProblems[i]);
     AggregatedProblems merged = AggregatedProblems.merge(problems);
 
     return new Table(
@@ -83,21 +290,80 @@ public class MultiValueIndex {
         merged);
   }
 
-  public int[] makeOrderMap(int rowCount) {
-    if (this.locs.size() == 0) {
-      return new int[0];
+  /**
+   * Runs the accumulators which support it on each partition in parallel, and combines the partial
+   * results, in partition order, into the accumulators of the whole index.
+   *
+   * @param columns the aggregate columns
+   * @param accumulators the accumulators of the whole index
+   * @param sequential the accumulators still to be run sequentially; the ones run in parallel are
+   *     cleared
+   * @param accumulatorProblems receives the problems reported by the partitions
+   */
+  private void accumulateInParallel(
+      Aggregator[] columns,
+      Accumulator[] accumulators,
+      Accumulator[] sequential,
+      AggregatedProblems[] accumulatorProblems) {
+    final int length = columns.length;
+    boolean[] inParallel = new boolean[length];
+    boolean anyInParallel = false;
+    for (int i = 0; i < length; i++) {
+      inParallel[i] = accumulators[i] != null && accumulators[i].canRunInParallel();
+      anyInParallel |= inParallel[i];
     }
+    if (!anyInParallel) {
+      return;
+    }
+
+    Accumulator[][] partial = new Accumulator[partitions.length][length];
+    IntStream.range(0, partitions.length)
+        .parallel()
+        .forEach(
+            p -> {
+              Partition partition = partitions[p];
+              int localGroups = partition.grouping.getGroupCount();
+              Accumulator[] local = partial[p];
+              for (int i = 0; i < length; i++) {
+                if (inParallel[i]) {
+                  local[i] = columns[i].makeAccumulator();
+                  local[i].init(localGroups);
+                }
+              }
 
-    int[] output = new int[rowCount];
+              int[] localIds = partition.grouping.getGroupIds();
+              for (int row = partition.from; row < partition.to; row++) {
+                int group = localIds[row - partition.from];
+                for (Accumulator accumulator : local) {
+                  if (accumulator != null) {
+                    accumulator.accumulate(group, row);
+                  }
+                }
+              }
+            });
 
-    int idx = 0;
-    for (List<Integer> rowIndexes : this.locs.values()) {
-      for (Integer rowIndex : rowIndexes) {
-        output[idx++] = rowIndex;
+    for (int i = 0; i < length; i++) {
+      if (inParallel[i]) {
+        AggregatedProblems partitionProblems = new AggregatedProblems();
+        for (int p = 0; p < partitions.length; p++) {
+          Partition partition = partitions[p];
+          for (int g = 0; g < partition.toGlobal.length; g++) {
+            accumulators[i].combine(partition.toGlobal[g], partial[p][i], g);
+          }
+          partitionProblems.addAll(partial[p][i].getProblems());
+        }
+        accumulatorProblems[i] = partitionProblems;
+        sequential[i] = null;
       }
     }
+  }
+
+  public int[] makeOrderMap(int rowCount) {
+    if (groupCount == 0) {
+      return new int[0];
+    }
 
-    return output;
+    return Arrays.copyOf(rowIds, rowCount);
   }
 
   private static Builder getBuilderForType(int type, int size) {
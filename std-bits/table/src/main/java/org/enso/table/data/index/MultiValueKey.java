@@ -93,9 +93,9 @@ public class MultiValueKey implements Comparable<MultiValueKey> {
       return ((Integer) value).longValue();
     } else if (value instanceof Byte) {
       return ((Byte) value).longValue();
-    } else if (value instanceof Float && ((Float) value) % 1 == 0) {
+    } else if (value instanceof Float && isLongValued((Float) value)) {
       return ((Float) value).longValue();
-    } else if (value instanceof Double && ((Double) value) % 1 == 0) {
+    } else if (value instanceof Double && isLongValued((Double) value)) {
       return ((Double) value).longValue();
     } else if (value instanceof Float) {
       return ((Float) value).doubleValue();
@@ -106,6 +106,17 @@ public class MultiValueKey implements Comparable<MultiValueKey> {
     return value;
   }
 
+  /**
+   * Checks whether a floating point number is an integer that a long can represent exactly. Larger
+   * integers would saturate when converted to a long, so they are kept as doubles.
+   *
+   * @param value the number to check
+   * @return whether {@code value} is an integer within the range of a long
+   */
+  static boolean isLongValued(double value) {
+    return value % 1 == 0 && value >= -0x1p63 && value < 0x1p63;
+  }
+
   @Override
   public int compareTo(MultiValueKey that) {
     if (objectComparator == null || that == null) {
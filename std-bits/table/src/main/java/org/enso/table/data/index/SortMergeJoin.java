@@ -0,0 +1,130 @@
+package org.enso.table.data.index;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+/**
+ * Matches the rows of two tables having equal values in their key columns, by merging the rows of
+ * both tables in the order of their keys.
+ *
+ * <p>Both tables must already be sorted by their keys (see {@link #isSorted(KeyColumn[], int)}),
+ * so they are merged in linear time and without any lookup structure. Keys are compared with
+ * {@link KeyColumn#compare}, which is consistent with the equality used for grouping and hash
+ * joins.
+ */
+public class SortMergeJoin implements JoinedRows {
+  private final int[] leftRows;
+  private final int[] rightRows;
+
+  /**
+   * Joins two tables on the provided key columns, which must already be sorted.
+   *
+   * @param leftKeys the sorted key columns of the left table
+   * @param leftSize the number of rows in the left table
+   * @param rightKeys the sorted key columns of the right table
+   * @param rightSize the number of rows in the right table
+   * @param kind the kind of the join
+   */
+  public SortMergeJoin(
+      KeyColumn[] leftKeys, int leftSize, KeyColumn[] rightKeys, int rightSize, JoinKind kind) {
+    IntStream.Builder left = IntStream.builder();
+    IntStream.Builder right = IntStream.builder();
+    BitSet matchedRight = new BitSet();
+    int i = 0;
+    int j = 0;
+    while (i < leftSize && j < rightSize) {
+      int comparison = compare(leftKeys, i, rightKeys, j);
+      if (comparison < 0) {
+        if (kind.keepsLeft()) {
+          left.add(i);
+          right.add(Index.NOT_FOUND);
+        }
+        i++;
+      } else if (comparison > 0) {
+        j++;
+      } else {
+        int leftEnd = runEnd(leftKeys, leftSize, i);
+        int rightEnd = runEnd(rightKeys, rightSize, j);
+        for (int l = i; l < leftEnd; l++) {
+          for (int r = j; r < rightEnd; r++) {
+            left.add(l);
+            right.add(r);
+          }
+        }
+        matchedRight.set(j, rightEnd);
+        i = leftEnd;
+        j = rightEnd;
+      }
+    }
+    if (kind.keepsLeft()) {
+      for (; i < leftSize; i++) {
+        left.add(i);
+        right.add(Index.NOT_FOUND);
+      }
+    }
+
+    int[] matchedLeftRows = left.build().toArray();
+    int[] matchedRightRows = right.build().toArray();
+    if (kind.keepsRight()) {
+      int unmatched = rightSize - matchedRight.cardinality();
+      int size = matchedLeftRows.length;
+      this.leftRows = Arrays.copyOf(matchedLeftRows, size + unmatched);
+      this.rightRows = Arrays.copyOf(matchedRightRows, size + unmatched);
+      for (int row = matchedRight.nextClearBit(0);
+          row < rightSize;
+          row = matchedRight.nextClearBit(row + 1)) {
+        leftRows[size] = Index.NOT_FOUND;
+        rightRows[size] = row;
+        size++;
+      }
+    } else {
+      this.leftRows = matchedLeftRows;
+      this.rightRows = matchedRightRows;
+    }
+  }
+
+  /**
+   * Checks whether the rows of the provided key columns are in ascending order of their keys.
+   *
+   * @param keys the key columns
+   * @param size the number of rows
+   * @return whether the rows are sorted
+   */
+  public static boolean isSorted(KeyColumn[] keys, int size) {
+    for (int row = 1; row < size; row++) {
+      if (compare(keys, row - 1, keys, row) > 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int[] getLeftRows() {
+    return leftRows;
+  }
+
+  @Override
+  public int[] getRightRows() {
+    return rightRows;
+  }
+
+  private static int compare(KeyColumn[] keys, int row, KeyColumn[] otherKeys, int otherRow) {
+    for (int i = 0; i < keys.length; i++) {
+      int comparison = keys[i].compare(row, otherKeys[i], otherRow);
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return 0;
+  }
+
+  private static int runEnd(KeyColumn[] keys, int size, int start) {
+    int end = start + 1;
+    while (end < size && compare(keys, start, keys, end) == 0) {
+      end++;
+    }
+    return end;
+  }
+}
@@ -1,11 +1,15 @@
 package org.enso.table.data.table;
 
 import java.util.BitSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.IntStream;
 import org.enso.table.data.column.builder.object.InferredBuilder;
 import org.enso.table.data.column.operation.aggregate.Aggregator;
+import org.enso.table.data.column.operation.map.Expression;
 import org.enso.table.data.column.storage.BoolStorage;
 import org.enso.table.data.column.storage.Storage;
 import org.enso.table.data.index.DefaultIndex;
@@ -14,10 +18,25 @@ import org.enso.table.data.index.Index;
 import org.enso.table.data.mask.OrderMask;
 import org.enso.table.error.UnexpectedColumnTypeException;
 
-/** A representation of a column. Consists of a column name and the underlying storage. */
+/**
+ * A representation of a column. Consists of a column name and the underlying storage.
+ *
+ * <p>Masking, reordering or slicing a column does not copy its storage right away. Instead, the
+ * new column keeps a {@link StorageSelection} of the original rows, which is only copied once the
+ * storage of the column is requested.
+ *
+ * <p>Similarly, the results of the vectorized operations of {@link #map}, {@link #bimap} and {@link
+ * #zip} are kept as an {@link Expression}, so that a chain of operations is evaluated in a single
+ * pass once the storage of its result is requested.
+ */
 public class Column {
+  /** The maximum depth of an expression, beyond which its operands are evaluated first. */
+  private static final int MAX_EXPRESSION_DEPTH = 32;
+
   private final String name;
   private final Storage storage;
+  private final StorageSelection selection;
+  private final Expression expression;
   private final Index index;
 
   /**
@@ -27,8 +46,19 @@ public class Column {
    * @param storage the underlying storage
    */
   public Column(String name, Index index, Storage storage) {
+    this(name, index, storage, null, null);
+  }
+
+  private Column(
+      String name,
+      Index index,
+      Storage storage,
+      StorageSelection selection,
+      Expression expression) {
     this.name = name;
     this.storage = storage;
+    this.selection = selection;
+    this.expression = expression;
     this.index = index;
   }
 
@@ -58,12 +88,80 @@ public class Column {
 
   /** @return the underlying storage */
   public Storage getStorage() {
-    return storage;
+    if (selection != null) {
+      return selection.get();
+    } else if (expression != null) {
+      return expression.get();
+    } else {
+      return storage;
+    }
   }
 
   /** @return the number of items in this column. */
   public int getSize() {
-    return getStorage().size();
+    if (selection != null) {
+      return selection.size();
+    } else if (expression != null) {
+      return expression.size();
+    } else {
+      return storage.size();
+    }
+  }
+
+  /**
+   * Estimates the memory taken by this column. The runtime uses the estimate to decide how many
+   * computed values it can keep cached.
+   *
+   * @return the estimated size of this column, in bytes
+   */
+  public long estimateMemorySize() {
+    if (selection != null) {
+      return selection.estimateMemorySize();
+    } else if (expression != null) {
+      return expression.estimateMemorySize();
+    } else {
+      return storage.estimateMemorySize();
+    }
+  }
+
+  /**
+   * Selects rows of this column, without copying them until the storage of the result is needed.
+   *
+   * @param newIndex the index of the result
+   * @param positions the positions of the rows to select, as in {@link OrderMask}
+   * @param composed the positions of rows of other columns selected with the same {@code
+   *     positions}, allowing the columns of a table to share them
+   * @return a column containing the selected rows
+   */
+  Column select(Index newIndex, int[] positions, Map<int[], int[]> composed) {
+    StorageSelection newSelection =
+        selection == null
+            ? new StorageSelection(getStorage(), positions)
+            : selection.select(positions, composed);
+    return new Column(name, newIndex, null, newSelection, null);
+  }
+
+  /**
+   * Computes the positions of the rows marked true in a mask.
+   *
+   * @param mask the mask
+   * @param size the number of rows the mask applies to
+   * @return the positions of the marked rows smaller than {@code size}, in order
+   */
+  static int[] maskPositions(BitSet mask, int size) {
+    return mask.stream().takeWhile(i -> i < size).toArray();
+  }
+
+  /**
+   * Computes the positions of the rows in a slice.
+   *
+   * @param size the number of rows the slice is taken from
+   * @param offset the first row of the slice
+   * @param limit the maximum number of rows in the slice
+   * @return the positions of the rows of the slice
+   */
+  static int[] slicePositions(int size, int offset, int limit) {
+    return IntStream.range(offset, offset + Math.min(size - offset, limit)).toArray();
   }
 
   /**
@@ -74,7 +172,7 @@ public class Column {
    * @return a new column, masked with the given mask
    */
   public Column mask(Index maskedIndex, BitSet mask, int cardinality) {
-    return new Column(name, maskedIndex, storage.mask(mask, cardinality));
+    return select(maskedIndex, maskPositions(mask, getSize()), new IdentityHashMap<>());
   }
 
   /**
@@ -106,7 +204,7 @@ public class Column {
    * @return a new column with the given name
    */
   public Column rename(String name) {
-    return new Column(name, index, storage);
+    return new Column(name, index, storage, selection, expression);
   }
 
   /**
@@ -131,7 +229,7 @@ public class Column {
    * @return a column indexed by {@code ix}
    */
   public Column withIndex(Index ix) {
-    return new Column(name, ix, storage);
+    return new Column(name, ix, storage, selection, expression);
   }
 
   /**
@@ -163,6 +261,7 @@ public class Column {
    */
   public Object aggregate(
       String aggName, Function<List<Object>, Object> aggregatorFunction, boolean skipNa) {
+    Storage storage = getStorage();
     Aggregator aggregator = storage.getAggregator(aggName, aggregatorFunction, skipNa, 1);
 
     IntStream ixes = IntStream.range(0, storage.size());
@@ -176,17 +275,85 @@ public class Column {
    */
   public Column applyMask(OrderMask mask) {
     Index newIndex = index.applyMask(mask);
-    Storage newStorage = storage.applyMask(mask);
-    return new Column(name, newIndex, newStorage);
+    return select(newIndex, mask.getPositions(), new IdentityHashMap<>());
   }
 
   /** @return a copy of the Column containing a slice of the original data */
   public Column slice(int offset, int limit) {
-    return new Column(name, index.slice(offset, limit), storage.slice(offset, limit));
+    int[] positions = slicePositions(getSize(), offset, limit);
+    return select(index.slice(offset, limit), positions, new IdentityHashMap<>());
+  }
+
+  /**
+   * Runs a unary operation on each element of this column.
+   *
+   * @param name the name of a vectorized operation that should be used if supported
+   * @param fallback the function to run if the operation is not vectorized
+   * @return a column with the same name and index, containing the results
+   * @see Storage#map(String, Function)
+   */
+  public Column map(String name, Function<Object, Object> fallback) {
+    Expression operand = toExpression();
+    Expression result = operand == null ? null : operand.map(name);
+    if (result != null) {
+      return new Column(this.name, index, null, null, result);
+    }
+    return new Column(this.name, index, getStorage().map(name, fallback));
+  }
+
+  /**
+   * Runs a binary operation on each element of this column and an argument.
+   *
+   * @param name the name of a vectorized operation that should be used if supported
+   * @param fallback the function to run if the operation is not vectorized
+   * @param argument the second operand of the operation
+   * @return a column with the same name and index, containing the results
+   * @see Storage#bimap(String, BiFunction, Object)
+   */
+  public Column bimap(String name, BiFunction<Object, Object, Object> fallback, Object argument) {
+    Expression operand = toExpression();
+    Expression result = operand == null ? null : operand.bimap(name, argument);
+    if (result != null) {
+      return new Column(this.name, index, null, null, result);
+    }
+    return new Column(this.name, index, getStorage().bimap(name, fallback, argument));
+  }
+
+  /**
+   * Runs a binary operation on each pair of elements of this column and another one.
+   *
+   * @param name the name of a vectorized operation that should be used if supported
+   * @param fallback the function to run if the operation is not vectorized
+   * @param argument the column of second operands of the operation
+   * @param skipNa whether rows containing missing values should be passed to {@code fallback}
+   * @return a column with the same name and index, containing the results
+   * @see Storage#zip(String, BiFunction, Storage, boolean)
+   */
+  public Column zip(
+      String name, BiFunction<Object, Object, Object> fallback, Column argument, boolean skipNa) {
+    Expression left = toExpression();
+    Expression right = left == null ? null : argument.toExpression();
+    Expression result = right == null ? null : left.zip(name, right);
+    if (result != null) {
+      return new Column(this.name, index, null, null, result);
+    }
+    return new Column(
+        this.name, index, getStorage().zip(name, fallback, argument.getStorage(), skipNa));
+  }
+
+  /**
+   * @return the expression computing this column, or null if its values cannot be an operand of
+   *     an expression
+   */
+  private Expression toExpression() {
+    if (expression != null && expression.getDepth() < MAX_EXPRESSION_DEPTH) {
+      return expression;
+    }
+    return Expression.of(getStorage());
   }
 
   /** @return a column counting value repetitions in this column. */
   public Column duplicateCount() {
-    return new Column(name + "_duplicate_count", index, storage.duplicateCount());
+    return new Column(name + "_duplicate_count", index, getStorage().duplicateCount());
   }
 }
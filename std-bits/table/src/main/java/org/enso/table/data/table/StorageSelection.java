@@ -0,0 +1,92 @@
+package org.enso.table.data.table;
+
+import java.util.Map;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.index.Index;
+import org.enso.table.data.mask.OrderMask;
+
+/**
+ * A view of rows selected from a storage, which is only copied into a new storage when it is first
+ * needed.
+ *
+ * <p>The selection is described by positions, as in {@link OrderMask}. Selecting rows of a
+ * selection composes the positions, so that masking a table several times does not copy any of its
+ * columns until they are read.
+ */
+final class StorageSelection {
+  private final int size;
+  private Storage source;
+  private int[] positions;
+  private volatile Storage storage;
+
+  /**
+   * @param source the storage to select rows from
+   * @param positions the positions of the selected rows in {@code source}, or {@link
+   *     Index#NOT_FOUND} for missing values
+   */
+  StorageSelection(Storage source, int[] positions) {
+    this.size = positions.length;
+    this.source = source;
+    this.positions = positions;
+  }
+
+  /** @return the number of selected rows */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns the selected rows, copying them on the first call.
+   *
+   * @return a storage containing the selected rows
+   */
+  Storage get() {
+    Storage result = storage;
+    return result == null ? materialize() : result;
+  }
+
+  /**
+   * @return the estimated size of the selected rows, including the source storage as long as they
+   *     are not copied, in bytes
+   */
+  synchronized long estimateMemorySize() {
+    return storage == null
+        ? source.estimateMemorySize() + 4L * positions.length
+        : storage.estimateMemorySize();
+  }
+
+  private synchronized Storage materialize() {
+    if (storage == null) {
+      storage = source.applyMask(new OrderMask(positions));
+      source = null;
+      positions = null;
+    }
+    return storage;
+  }
+
+  /**
+   * Selects rows of this selection, without copying any values.
+   *
+   * @param positions the positions of the rows to select in this selection, or {@link
+   *     Index#NOT_FOUND} for missing values
+   * @param composed the positions already composed with the same {@code positions}, keyed by the
+   *     positions they were composed with. Columns selected from the same rows share them.
+   * @return a selection of the specified rows
+   */
+  synchronized StorageSelection select(int[] positions, Map<int[], int[]> composed) {
+    if (storage != null) {
+      return new StorageSelection(storage, positions);
+    }
+    int[] sourcePositions =
+        composed.computeIfAbsent(this.positions, outer -> compose(outer, positions));
+    return new StorageSelection(source, sourcePositions);
+  }
+
+  private static int[] compose(int[] outer, int[] inner) {
+    int[] result = new int[inner.length];
+    for (int i = 0; i < inner.length; i++) {
+      result[i] = inner[i] == Index.NOT_FOUND ? Index.NOT_FOUND : outer[inner[i]];
+    }
+    return result;
+  }
+}
@@ -1,18 +1,28 @@
 package org.enso.table.data.table;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.enso.table.data.column.builder.object.InferredBuilder;
 import org.enso.table.data.column.storage.BoolStorage;
+import org.enso.table.data.column.storage.DoubleStorage;
+import org.enso.table.data.column.storage.LongStorage;
 import org.enso.table.data.column.storage.Storage;
 import org.enso.table.data.index.DefaultIndex;
 import org.enso.table.data.index.HashIndex;
+import org.enso.table.data.index.HashJoin;
 import org.enso.table.data.index.Index;
+import org.enso.table.data.index.JoinKind;
+import org.enso.table.data.index.JoinedRows;
+import org.enso.table.data.index.KeyColumn;
 import org.enso.table.data.index.MultiValueIndex;
+import org.enso.table.data.index.SortMergeJoin;
 import org.enso.table.data.mask.OrderMask;
 import org.enso.table.data.table.problems.AggregatedProblems;
 import org.enso.table.error.NoSuchColumnException;
 import org.enso.table.error.UnexpectedColumnTypeException;
+import org.enso.table.operations.OrderBuilder;
 
 /** A representation of a table structure. */
 public class Table {
@@ -62,6 +72,22 @@ public class Table {
     return columns;
   }
 
+  /**
+   * Estimates the memory taken by this table. The runtime uses the estimate to decide how many
+   * computed values it can keep cached.
+   *
+   * @return the estimated size of the columns of this table, in bytes
+   */
+  public long estimateMemorySize() {
+    long estimate = 0;
+    if (columns != null) {
+      for (Column column : columns) {
+        estimate += column.estimateMemorySize();
+      }
+    }
+    return estimate;
+  }
+
   /** @return Attached set of any problems from the Java side */
   public AggregatedProblems getProblems() {
     return problems;
@@ -118,12 +144,8 @@ public class Table {
     localStorageMask.set(0, rowCount());
     mask.and(localStorageMask);
     int cardinality = mask.cardinality();
-    Column[] newColumns = new Column[columns.length];
     Index newIx = index.mask(mask, cardinality);
-    for (int i = 0; i < columns.length; i++) {
-      newColumns[i] = columns[i].mask(newIx, mask, cardinality);
-    }
-    return new Table(newColumns, newIx);
+    return selectRows(newIx, Column.maskPositions(mask, rowCount()));
   }
 
   /**
@@ -218,14 +240,35 @@ public class Table {
   /**
    * Creates a new table with the rows sorted
    *
+   * <p>Numeric and boolean columns are sorted by their primitive values, other columns are compared
+   * with the object comparator. Missing values come first in ascending order and last in
+   * descending order, and rows with equal keys keep their original order.
+   *
    * @param columns set of columns to use as an Index
+   * @param directions the direction of each column, 1 for ascending and -1 for descending
    * @param objectComparator Object comparator allowing calling back to `compare_to` when needed.
    * @return a table indexed by the proper column
    */
   public Table orderBy(Column[] columns, Long[] directions, Comparator<Object> objectComparator) {
-    int[] directionInts = Arrays.stream(directions).mapToInt(Long::intValue).toArray();
-    MultiValueIndex index = new MultiValueIndex(columns, this.rowCount(), directionInts, objectComparator);
-    OrderMask mask = new OrderMask(index.makeOrderMap(this.rowCount()));
+    if (columns.length == 0) {
+      return this;
+    }
+
+    List<OrderBuilder.OrderRule> rules = new ArrayList<>();
+    for (int i = 0; i < columns.length; i++) {
+      // The object comparator orders numbers and booleans naturally, so these columns do not need
+      // it, which allows sorting them by their primitive values.
+      Storage storage = columns[i].getStorage();
+      boolean natural =
+          storage instanceof LongStorage
+              || storage instanceof DoubleStorage
+              || storage instanceof BoolStorage;
+      boolean ascending = directions[i] > 0;
+      rules.add(
+          new OrderBuilder.OrderRule(
+              columns[i], natural ? null : objectComparator, ascending, !ascending));
+    }
+    OrderMask mask = OrderBuilder.buildOrderMask(rules, objectComparator);
     return this.applyMask(mask);
   }
 
@@ -256,50 +299,112 @@ public class Table {
    * @param rsuffix the suffix to add to names of columns of other in case there's a name conflict
    * @return the result of performing the join
    */
-  @SuppressWarnings("unchecked")
   public Table join(Table other, boolean dropUnmatched, String on, String lsuffix, String rsuffix) {
     if (other.index == index) {
       // The tables have exactly the same indexes, so they may be just be concatenated horizontally
       return hconcat(other, lsuffix, rsuffix);
     }
     int s = rowCount();
-    List<Integer>[] matches = new List[s];
-    if (on == null) {
-      for (int i = 0; i < s; i++) {
-        matches[i] = other.index.loc(index.iloc(i));
-      }
-    } else {
-      Storage onS = getColumnByName(on).getStorage();
-      for (int i = 0; i < s; i++) {
-        matches[i] = other.index.loc(onS.getItemBoxed(i));
-      }
-    }
-    int outSize = 0;
+    Storage onS = on == null ? null : getColumnByName(on).getStorage();
+    // The index of other is already built, so each key is looked up in it directly, using the
+    // same key equality as the index itself.
     int[] countMask = new int[s];
+    IntStream.Builder positions = IntStream.builder();
     for (int i = 0; i < s; i++) {
-      if (matches[i] == null) {
-        countMask[i] = dropUnmatched ? 0 : 1;
-      } else {
-        countMask[i] = matches[i].size();
-      }
-      outSize += countMask[i];
-    }
-    int[] orderMaskArr = new int[outSize];
-    int orderMaskPosition = 0;
-    for (int i = 0; i < s; i++) {
-      if (matches[i] == null) {
-        if (!dropUnmatched) {
-          orderMaskArr[orderMaskPosition++] = Index.NOT_FOUND;
-        }
-      } else {
-        for (Integer x : matches[i]) {
-          orderMaskArr[orderMaskPosition++] = x;
+      List<Integer> match = other.index.loc(onS == null ? index.iloc(i) : onS.getItemBoxed(i));
+      if (match != null) {
+        for (int row : match) {
+          positions.add(row);
         }
+        countMask[i] = match.size();
+      } else if (!dropUnmatched) {
+        positions.add(Index.NOT_FOUND);
+        countMask[i] = 1;
       }
     }
-    OrderMask orderMask = new OrderMask(orderMaskArr);
-    Column[] newColumns = new Column[this.columns.length + other.columns.length];
+    int[] rightRows = positions.build().toArray();
+
+    int outSize = rightRows.length;
     Index newIndex = index.countMask(countMask, outSize);
+    OrderMask orderMask = new OrderMask(rightRows);
+    return joinedTable(
+        other,
+        newIndex,
+        storage -> storage.countMask(countMask, outSize),
+        storage -> storage.applyMask(orderMask),
+        lsuffix,
+        rsuffix);
+  }
+
+  /**
+   * Joins this table with another, by combining rows from this with rows of other having equal
+   * values in the specified key columns. The resulting table has a default index.
+   *
+   * <p>The rows of the result are ordered by the rows of this table and then by the rows of other.
+   * Unmatched rows of other, if kept, come last. If the keys of both tables are already sorted, the
+   * tables are merged in a single pass, otherwise they are joined using a hash table.
+   *
+   * @param other the table being joined with
+   * @param leftKeys the key columns of this table
+   * @param rightKeys the key columns of other, matched pairwise with {@code leftKeys}
+   * @param kind the kind of the join, specifying which unmatched rows are kept
+   * @param objectComparator Object comparator allowing calling back to `compare_to` when needed.
+   * @param lsuffix the suffix to add to names of columns of this in case there's a name conflict
+   * @param rsuffix the suffix to add to names of columns of other in case there's a name conflict
+   * @return the result of performing the join
+   */
+  public Table join(
+      Table other,
+      Column[] leftKeys,
+      Column[] rightKeys,
+      JoinKind kind,
+      Comparator<Object> objectComparator,
+      String lsuffix,
+      String rsuffix) {
+    JoinedRows join =
+        joinRows(
+            Arrays.stream(leftKeys)
+                .map(c -> KeyColumn.fromStorage(c.getStorage(), objectComparator))
+                .toArray(KeyColumn[]::new),
+            rowCount(),
+            Arrays.stream(rightKeys)
+                .map(c -> KeyColumn.fromStorage(c.getStorage(), objectComparator))
+                .toArray(KeyColumn[]::new),
+            other.rowCount(),
+            kind);
+    OrderMask leftMask = new OrderMask(join.getLeftRows());
+    OrderMask rightMask = new OrderMask(join.getRightRows());
+    return joinedTable(
+        other,
+        new DefaultIndex(join.getLeftRows().length),
+        storage -> storage.applyMask(leftMask),
+        storage -> storage.applyMask(rightMask),
+        lsuffix,
+        rsuffix);
+  }
+
+  private static JoinedRows joinRows(
+      KeyColumn[] leftKeys, int leftSize, KeyColumn[] rightKeys, int rightSize, JoinKind kind) {
+    // Checking the order of arbitrary objects may call back into Enso, which is not worth it.
+    boolean comparable =
+        Arrays.stream(leftKeys).allMatch(KeyColumn::canRunInParallel)
+            && Arrays.stream(rightKeys).allMatch(KeyColumn::canRunInParallel);
+    if (comparable
+        && SortMergeJoin.isSorted(leftKeys, leftSize)
+        && SortMergeJoin.isSorted(rightKeys, rightSize)) {
+      return new SortMergeJoin(leftKeys, leftSize, rightKeys, rightSize, kind);
+    }
+    return new HashJoin(leftKeys, leftSize, rightKeys, rightSize, kind);
+  }
+
+  private Table joinedTable(
+      Table other,
+      Index newIndex,
+      Function<Storage, Storage> leftMapping,
+      Function<Storage, Storage> rightMapping,
+      String lsuffix,
+      String rsuffix) {
+    Column[] newColumns = new Column[this.columns.length + other.columns.length];
     Set<String> lnames =
         Arrays.stream(this.columns).map(Column::getName).collect(Collectors.toSet());
     Set<String> rnames =
@@ -310,7 +415,7 @@ public class Table {
           new Column(
               suffixIfNecessary(rnames, original.getName(), lsuffix),
               newIndex,
-              original.getStorage().countMask(countMask, outSize));
+              leftMapping.apply(original.getStorage()));
     }
     for (int i = 0; i < other.columns.length; i++) {
       Column original = other.columns[i];
@@ -318,7 +423,7 @@ public class Table {
           new Column(
               suffixIfNecessary(lnames, original.getName(), rsuffix),
               newIndex,
-              original.getStorage().applyMask(orderMask));
+              rightMapping.apply(original.getStorage()));
     }
     return new Table(newColumns, newIndex);
   }
@@ -331,14 +436,22 @@ public class Table {
    */
   public Table applyMask(OrderMask orderMask) {
     final Index newIndex = index.applyMask(orderMask);
-    Column[] newColumns =
-        Arrays.stream(columns)
-            .map(
-                column -> {
-                  Storage newStorage = column.getStorage().applyMask(orderMask);
-                  return new Column(column.getName(), newIndex, newStorage);
-                })
-            .toArray(Column[]::new);
+    return selectRows(newIndex, orderMask.getPositions());
+  }
+
+  /**
+   * Selects rows of all the columns of this table. The columns are only copied once they are read.
+   *
+   * @param newIndex the index of the result
+   * @param positions the positions of the rows to select, as in {@link OrderMask}
+   * @return a table containing the selected rows
+   */
+  private Table selectRows(Index newIndex, int[] positions) {
+    Map<int[], int[]> composed = new IdentityHashMap<>();
+    Column[] newColumns = new Column[columns.length];
+    for (int i = 0; i < columns.length; i++) {
+      newColumns[i] = columns[i].select(newIndex, positions, composed);
+    }
     return new Table(newColumns, newIndex);
   }
 
@@ -346,95 +459,50 @@ public class Table {
     return names.contains(name) ? name + suffix : name;
   }
 
-  private static class NamedBuilder {
-    private final String name;
-    private final InferredBuilder builder;
-
-    private NamedBuilder(String name, int size) {
-      this.name = name;
-      this.builder = new InferredBuilder(size);
-    }
-  }
-
   /**
    * Concatenates tables. Any column that is present in one table, but missing in another, will be
    * {@code null}-padded in the positions corresponding to the missing column.
    *
+   * <p>Columns are matched by name, and the columns of the same type are concatenated by copying
+   * their data in bulk, see {@link Storage#concat(Storage[], int[])}.
+   *
    * @param tables the (non-empty) list of tables to concatenate.
    * @return a table result from concatenating both tables
    */
   public static Table concat(List<Table> tables) {
-
     Index newIndex =
         concatIndexes(tables.stream().map(Table::getIndex).collect(Collectors.toList()));
 
-    int resultSize = tables.stream().mapToInt(Table::rowCount).sum();
-
-    List<NamedBuilder> builders = new ArrayList<>();
-    int completedRows = 0;
-    for (var table : tables) {
-      for (var column : table.getColumns()) {
-        var matchingBuilder =
-            builders.stream().filter(bldr -> bldr.name.equals(column.getName())).findFirst();
-        NamedBuilder builder;
-        if (matchingBuilder.isPresent()) {
-          builder = matchingBuilder.get();
-        } else {
-          builder = new NamedBuilder(column.getName(), resultSize);
-          builders.add(builder);
-          builder.builder.appendNulls(completedRows);
-        }
-        var storage = column.getStorage();
-        for (int i = 0; i < storage.size(); i++) {
-          builder.builder.appendNoGrow(storage.getItemBoxed(i));
-        }
-      }
-      for (var builder : builders) {
-        var columnExists =
-            Arrays.stream(table.getColumns()).anyMatch(col -> col.getName().equals(builder.name));
-        if (!columnExists) {
-          builder.builder.appendNulls(table.rowCount());
-        }
+    int[] sizes = tables.stream().mapToInt(Table::rowCount).toArray();
+    Map<String, Storage[]> parts = new LinkedHashMap<>();
+    for (int i = 0; i < tables.size(); i++) {
+      for (var column : tables.get(i).getColumns()) {
+        var columnParts =
+            parts.computeIfAbsent(column.getName(), name -> new Storage[tables.size()]);
+        columnParts[i] = column.getStorage();
       }
-      completedRows += table.rowCount();
     }
 
     Column[] newColumns =
-        builders.stream()
-            .map(builder -> new Column(builder.name, newIndex, builder.builder.seal()))
+        parts.entrySet().stream()
+            .map(entry -> concatColumn(entry.getKey(), newIndex, entry.getValue(), sizes))
             .toArray(Column[]::new);
     return new Table(newColumns, newIndex);
   }
 
-  private Storage concatStorages(Storage left, Storage right) {
-    InferredBuilder builder = new InferredBuilder(left.size() + right.size());
-    for (int i = 0; i < left.size(); i++) {
-      builder.appendNoGrow(left.getItemBoxed(i));
-    }
-    for (int j = 0; j < right.size(); j++) {
-      builder.appendNoGrow(right.getItemBoxed(j));
-    }
-    return builder.seal();
-  }
-
-  private Storage nullPad(int nullCount, Storage storage, boolean start) {
-    InferredBuilder builder = new InferredBuilder(nullCount + storage.size());
-    if (start) {
-      builder.appendNulls(nullCount);
-    }
-    for (int i = 0; i < storage.size(); i++) {
-      builder.appendNoGrow(storage.getItemBoxed(i));
-    }
-    if (!start) {
-      builder.appendNulls(nullCount);
-    }
-    return builder.seal();
+  private static Column concatColumn(String name, Index index, Storage[] parts, int[] sizes) {
+    return new Column(name, index, Storage.concat(parts, sizes));
   }
 
   private static Index concatIndexes(List<Index> indexes) {
     int resultSize = indexes.stream().mapToInt(Index::size).sum();
     if (indexes.stream().allMatch(ix -> ix instanceof DefaultIndex)) {
       return new DefaultIndex(resultSize);
+    } else if (indexes.stream().allMatch(ix -> ix instanceof HashIndex)) {
+      Storage[] parts =
+          indexes.stream().map(ix -> ix.toColumn().getStorage()).toArray(Storage[]::new);
+      int[] sizes = indexes.stream().mapToInt(Index::size).toArray();
+      return HashIndex.fromStorage(indexes.get(0).getName(), Storage.concat(parts, sizes));
     } else {
       InferredBuilder builder = new InferredBuilder(resultSize);
       for (var index : indexes) {
@@ -469,10 +537,7 @@ public class Table {
 
   /** @return a copy of the Column containing a slice of the original data */
   public Table slice(int offset, int limit) {
-    Column[] newColumns = new Column[columns.length];
-    for (int i = 0; i < columns.length; i++) {
-      newColumns[i] = columns[i].slice(offset, limit);
-    }
-    return new Table(newColumns, index.slice(offset, limit));
+    int[] positions = Column.slicePositions(rowCount(), offset, limit);
+    return selectRows(index.slice(offset, limit), positions);
   }
 }
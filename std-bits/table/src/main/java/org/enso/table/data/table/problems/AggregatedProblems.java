@@ -52,6 +52,21 @@ public class AggregatedProblems {
     count++;
   }
 
+  /**
+   * Adds all the problems of another instance to this one, merging problems reported for the same
+   * column. The problems that the other instance counted but did not keep are counted too.
+   *
+   * @param other the problems to add, may be {@code null}
+   */
+  public void addAll(AggregatedProblems other) {
+    if (other != null) {
+      for (Problem problem : other.problems) {
+        add(problem);
+      }
+      count += other.count - other.problems.size();
+    }
+  }
+
   public static AggregatedProblems merge(AggregatedProblems[] problems) {
     List<Problem> merged = new ArrayList<>();
     int count = 0;
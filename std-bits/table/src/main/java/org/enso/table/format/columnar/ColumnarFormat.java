@@ -0,0 +1,181 @@
+package org.enso.table.format.columnar;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.enso.table.data.column.storage.Storage;
+
+/**
+ * The layout of the columnar table files written by {@link Writer} and read by {@link Reader}.
+ *
+ * <p>A file starts with {@link #MAGIC}, followed by one block per column, a footer and a trailer.
+ * Blocks start at offsets aligned to 8 bytes and all their numbers are little-endian. For a column
+ * of {@code n} rows, a block holds:
+ *
+ * <ul>
+ *   <li>for integers and decimals: the missing-value bitmap, in {@code (n + 63) / 64} words, then
+ *       the {@code n} values as 64-bit integers, decimals being stored as their raw bits;
+ *   <li>for booleans: the missing-value bitmap, then the bitmap of the values;
+ *   <li>for plain text: the missing-value bitmap, then {@code n + 1} 64-bit offsets into the UTF-8
+ *       bytes of all the values, which follow them;
+ *   <li>for dictionary-encoded text: the {@code n} 32-bit codes of the values, {@code -1} for
+ *       missing ones, padded to 8 bytes, then the dictionary, encoded like the offsets and bytes of
+ *       plain text.
+ * </ul>
+ *
+ * <p>The footer describes the schema, the position of each block and statistics about each column,
+ * see {@link ColumnInfo}. The trailer holds the offset of the footer and {@link #MAGIC} again, so
+ * that the footer can be found by reading the end of the file.
+ */
+public final class ColumnarFormat {
+  /** The bytes starting and ending each file. */
+  static final byte[] MAGIC = "ENSOCOL1".getBytes(StandardCharsets.US_ASCII);
+
+  /** The byte order of the values in column blocks. */
+  static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+  /** The size of the trailer: the offset of the footer, followed by {@link #MAGIC}. */
+  static final int TRAILER_SIZE = Long.BYTES + 8;
+
+  private static final int VERSION = 1;
+
+  private ColumnarFormat() {}
+
+  /**
+   * The description of a table stored in a columnar file.
+   *
+   * @param rowCount the number of rows of the table
+   * @param columns the columns of the table
+   * @param index the column of the table's index, or {@code null} if it has the default index
+   */
+  public record Schema(int rowCount, List<ColumnInfo> columns, ColumnInfo index) {
+    /**
+     * @param name a column name
+     * @return the column with the given name, or {@code null} if there is none
+     */
+    public ColumnInfo getColumn(String name) {
+      for (ColumnInfo column : columns) {
+        if (column.name().equals(name)) {
+          return column;
+        }
+      }
+      return null;
+    }
+  }
+
+  /**
+   * The description of a column stored in a columnar file.
+   *
+   * @param name the column name
+   * @param type the {@link Storage.Type} of the column
+   * @param dictionaryEncoded whether the values are stored as codes into a dictionary
+   * @param offset the position of the column block in the file
+   * @param length the length of the column block
+   * @param missingCount the number of missing values
+   * @param distinctCount the number of entries in the dictionary, or {@code -1} for columns that
+   *     are not dictionary-encoded
+   * @param min the smallest value of a numeric or boolean column, or {@code null} if there is none
+   * @param max the largest value of a numeric or boolean column, or {@code null} if there is none
+   */
+  public record ColumnInfo(
+      String name,
+      long type,
+      boolean dictionaryEncoded,
+      long offset,
+      long length,
+      int missingCount,
+      int distinctCount,
+      Object min,
+      Object max) {}
+
+  static byte[] encodeFooter(Schema schema) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeInt(VERSION);
+    out.writeInt(schema.rowCount());
+    out.writeInt(schema.columns().size());
+    for (ColumnInfo column : schema.columns()) {
+      encodeColumn(out, column);
+    }
+    out.writeBoolean(schema.index() != null);
+    if (schema.index() != null) {
+      encodeColumn(out, schema.index());
+    }
+    out.flush();
+    return bytes.toByteArray();
+  }
+
+  static Schema decodeFooter(DataInputStream in) throws IOException {
+    int version = in.readInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported columnar file version: " + version + ".");
+    }
+    int rowCount = in.readInt();
+    int columnCount = in.readInt();
+    List<ColumnInfo> columns = new ArrayList<>(columnCount);
+    for (int i = 0; i < columnCount; i++) {
+      columns.add(decodeColumn(in));
+    }
+    ColumnInfo index = in.readBoolean() ? decodeColumn(in) : null;
+    return new Schema(rowCount, columns, index);
+  }
+
+  private static void encodeColumn(DataOutputStream out, ColumnInfo column) throws IOException {
+    out.writeUTF(column.name());
+    out.writeLong(column.type());
+    out.writeBoolean(column.dictionaryEncoded());
+    out.writeLong(column.offset());
+    out.writeLong(column.length());
+    out.writeInt(column.missingCount());
+    out.writeInt(column.distinctCount());
+    out.writeBoolean(column.min() != null);
+    if (column.min() != null) {
+      encodeValue(out, column.type(), column.min());
+      encodeValue(out, column.type(), column.max());
+    }
+  }
+
+  private static ColumnInfo decodeColumn(DataInputStream in) throws IOException {
+    String name = in.readUTF();
+    long type = in.readLong();
+    boolean dictionaryEncoded = in.readBoolean();
+    long offset = in.readLong();
+    long length = in.readLong();
+    int missingCount = in.readInt();
+    int distinctCount = in.readInt();
+    Object min = null;
+    Object max = null;
+    if (in.readBoolean()) {
+      min = decodeValue(in, type);
+      max = decodeValue(in, type);
+    }
+    return new ColumnInfo(
+        name, type, dictionaryEncoded, offset, length, missingCount, distinctCount, min, max);
+  }
+
+  private static void encodeValue(DataOutputStream out, long type, Object value)
+      throws IOException {
+    if (type == Storage.Type.LONG) {
+      out.writeLong((Long) value);
+    } else if (type == Storage.Type.DOUBLE) {
+      out.writeDouble((Double) value);
+    } else {
+      out.writeBoolean((Boolean) value);
+    }
+  }
+
+  private static Object decodeValue(DataInputStream in, long type) throws IOException {
+    if (type == Storage.Type.LONG) {
+      return in.readLong();
+    } else if (type == Storage.Type.DOUBLE) {
+      return in.readDouble();
+    } else {
+      return in.readBoolean();
+    }
+  }
+}
@@ -0,0 +1,271 @@
+package org.enso.table.format.columnar;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import org.enso.table.data.column.storage.BoolStorage;
+import org.enso.table.data.column.storage.DictionaryStringStorage;
+import org.enso.table.data.column.storage.DoubleStorage;
+import org.enso.table.data.column.storage.LongStorage;
+import org.enso.table.data.column.storage.OffHeapMemory;
+import org.enso.table.data.column.storage.OffHeapNumericStorage;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.column.storage.StringStorage;
+import org.enso.table.data.index.HashIndex;
+import org.enso.table.data.index.Index;
+import org.enso.table.data.table.Column;
+import org.enso.table.data.table.Table;
+import org.enso.table.error.NoSuchColumnException;
+import org.enso.table.format.columnar.ColumnarFormat.ColumnInfo;
+import org.enso.table.format.columnar.ColumnarFormat.Schema;
+
+/**
+ * Reads tables from columnar files, see {@link ColumnarFormat}.
+ *
+ * <p>The column blocks are memory-mapped, and only the requested columns and rows are decoded,
+ * so reading a few columns or a range of rows of a large file only touches the corresponding
+ * parts of it. Numeric columns can also be returned as {@link OffHeapNumericStorage}s backed
+ * directly by the mapped file, without copying the values to the heap at all.
+ */
+public class Reader {
+  private final FileChannel channel;
+
+  private Reader(FileChannel channel) {
+    this.channel = channel;
+  }
+
+  /**
+   * Reads the schema and column statistics of a columnar file, without reading any column.
+   *
+   * @param path the path of the file
+   * @return the schema of the stored table
+   * @throws IOException if the file cannot be read or is not a columnar file
+   */
+  public static Schema readSchema(String path) throws IOException {
+    try (FileChannel channel = FileChannel.open(Path.of(path), StandardOpenOption.READ)) {
+      return new Reader(channel).readFooter();
+    }
+  }
+
+  /**
+   * Reads a whole table from a columnar file.
+   *
+   * @param path the path of the file
+   * @return the stored table
+   * @throws IOException if the file cannot be read or is not a columnar file
+   */
+  public static Table read(String path) throws IOException {
+    return read(path, null, 0, -1, false);
+  }
+
+  /**
+   * Reads a range of rows of some columns from a columnar file.
+   *
+   * @param path the path of the file
+   * @param columnNames the names of the columns to read, in the order of the resulting table, or
+   *     {@code null} to read all of them
+   * @param offset the first row to read
+   * @param limit the maximum number of rows to read, or a negative number to read all rows from
+   *     {@code offset} on
+   * @param offHeap whether numeric columns should be backed by the mapped file instead of being
+   *     copied to the heap
+   * @return a table holding the requested rows and columns, indexed like the stored table
+   * @throws NoSuchColumnException if one of the requested columns is not stored in the file
+   * @throws IOException if the file cannot be read or is not a columnar file
+   */
+  public static Table read(
+      String path, List<String> columnNames, int offset, int limit, boolean offHeap)
+      throws IOException {
+    try (FileChannel channel = FileChannel.open(Path.of(path), StandardOpenOption.READ)) {
+      Reader reader = new Reader(channel);
+      Schema schema = reader.readFooter();
+
+      List<ColumnInfo> columns = schema.columns();
+      if (columnNames != null) {
+        ColumnInfo[] selected = new ColumnInfo[columnNames.size()];
+        for (int i = 0; i < selected.length; i++) {
+          selected[i] = schema.getColumn(columnNames.get(i));
+          if (selected[i] == null) {
+            throw new NoSuchColumnException(columnNames.get(i));
+          }
+        }
+        columns = Arrays.asList(selected);
+      }
+
+      int start = Math.min(Math.max(offset, 0), schema.rowCount());
+      int size = limit < 0 ? schema.rowCount() - start : Math.min(limit, schema.rowCount() - start);
+      Index index = null;
+      if (schema.index() != null) {
+        Storage storage = reader.readColumn(schema, schema.index(), start, size, offHeap);
+        index = HashIndex.fromStorage(schema.index().name(), storage);
+      }
+      Column[] result = new Column[columns.size()];
+      for (int i = 0; i < result.length; i++) {
+        ColumnInfo column = columns.get(i);
+        Storage storage = reader.readColumn(schema, column, start, size, offHeap);
+        result[i] =
+            index == null
+                ? new Column(column.name(), storage)
+                : new Column(column.name(), index, storage);
+      }
+      return index == null ? new Table(result) : new Table(result, index);
+    }
+  }
+
+  private Schema readFooter() throws IOException {
+    long fileSize = channel.size();
+    if (fileSize < ColumnarFormat.MAGIC.length + ColumnarFormat.TRAILER_SIZE) {
+      throw new IOException("The file is not a columnar table file.");
+    }
+    ByteBuffer trailer =
+        readBytes(fileSize - ColumnarFormat.TRAILER_SIZE, ColumnarFormat.TRAILER_SIZE);
+    long footerOffset = trailer.order(ColumnarFormat.BYTE_ORDER).getLong();
+    byte[] magic = new byte[ColumnarFormat.MAGIC.length];
+    trailer.get(magic);
+    if (!Arrays.equals(magic, ColumnarFormat.MAGIC)) {
+      throw new IOException("The file is not a columnar table file.");
+    }
+
+    int footerSize = (int) (fileSize - ColumnarFormat.TRAILER_SIZE - footerOffset);
+    ByteBuffer footer = readBytes(footerOffset, footerSize);
+    return ColumnarFormat.decodeFooter(
+        new DataInputStream(new ByteArrayInputStream(footer.array())));
+  }
+
+  private ByteBuffer readBytes(long position, int count) throws IOException {
+    ByteBuffer bytes = ByteBuffer.allocate(count);
+    while (bytes.hasRemaining()) {
+      if (channel.read(bytes, position + bytes.position()) < 0) {
+        throw new IOException("Unexpected end of the columnar table file.");
+      }
+    }
+    return bytes.flip();
+  }
+
+  private Storage readColumn(
+      Schema schema, ColumnInfo column, int offset, int size, boolean offHeap) throws IOException {
+    int rowCount = schema.rowCount();
+    long type = column.type();
+    if (column.dictionaryEncoded()) {
+      return readDictionary(column, rowCount, offset, size);
+    }
+
+    long bitmapSize = (long) ((rowCount + 63) / 64) * Long.BYTES;
+    BitSet isMissing = readBitmap(column.offset(), offset, size);
+    long dataOffset = column.offset() + bitmapSize;
+    if (type == Storage.Type.LONG || type == Storage.Type.DOUBLE) {
+      OffHeapMemory values =
+          OffHeapMemory.map(
+              channel, dataOffset + (long) offset * Long.BYTES, size, ColumnarFormat.BYTE_ORDER);
+      if (offHeap) {
+        return new OffHeapNumericStorage(values, size, isMissing, type == Storage.Type.DOUBLE);
+      }
+      long[] data = new long[size];
+      values.copyTo(0, data, 0, size);
+      return type == Storage.Type.LONG
+          ? new LongStorage(data, size, isMissing)
+          : new DoubleStorage(data, size, isMissing);
+    } else if (type == Storage.Type.BOOL) {
+      BitSet values = readBitmap(dataOffset, offset, size);
+      return new BoolStorage(values, isMissing, size, false);
+    } else {
+      String[] values = readStrings(dataOffset, rowCount, offset, size);
+      for (int i = isMissing.nextSetBit(0); i >= 0; i = isMissing.nextSetBit(i + 1)) {
+        values[i] = null;
+      }
+      return new StringStorage(values, size);
+    }
+  }
+
+  private Storage readDictionary(ColumnInfo column, int rowCount, int offset, int size)
+      throws IOException {
+    int[] codes = new int[size];
+    IntBuffer codeBuffer =
+        channel
+            .map(
+                FileChannel.MapMode.READ_ONLY,
+                column.offset() + (long) offset * Integer.BYTES,
+                (long) size * Integer.BYTES)
+            .order(ColumnarFormat.BYTE_ORDER)
+            .asIntBuffer();
+    codeBuffer.get(codes);
+
+    long codesSize = ((long) rowCount * Integer.BYTES + 7) / 8 * 8;
+    int distinctCount = column.distinctCount();
+    String[] dictionary =
+        readStrings(column.offset() + codesSize, distinctCount, 0, distinctCount);
+    return new DictionaryStringStorage(codes, dictionary, size);
+  }
+
+  /**
+   * Reads a range of bits of a bitmap.
+   *
+   * @param position the position of the bitmap in the file
+   * @param offset the first bit to read
+   * @param size the number of bits to read
+   * @return the bits in the range, shifted to start at 0
+   */
+  private BitSet readBitmap(long position, int offset, int size) throws IOException {
+    if (size == 0) {
+      return new BitSet();
+    }
+    int firstWord = offset / 64;
+    int wordCount = (offset + size - 1) / 64 - firstWord + 1;
+    long[] words = new long[wordCount];
+    OffHeapMemory.map(
+            channel,
+            position + (long) firstWord * Long.BYTES,
+            wordCount,
+            ColumnarFormat.BYTE_ORDER)
+        .copyTo(0, words, 0, wordCount);
+    int shift = offset % 64;
+    return BitSet.valueOf(words).get(shift, shift + size);
+  }
+
+  /**
+   * Reads a range of text values, stored as their offsets followed by their UTF-8 bytes.
+   *
+   * @param position the position of the offsets in the file
+   * @param count the number of values stored
+   * @param offset the first value to read
+   * @param size the number of values to read
+   * @return the values in the range, missing values being empty
+   */
+  private String[] readStrings(long position, int count, int offset, int size)
+      throws IOException {
+    String[] result = new String[size];
+    if (size == 0) {
+      return result;
+    }
+    long[] ends = new long[size + 1];
+    OffHeapMemory.map(
+            channel, position + (long) offset * Long.BYTES, size + 1, ColumnarFormat.BYTE_ORDER)
+        .copyTo(0, ends, 0, size + 1);
+
+    long bytesPosition = position + (long) (count + 1) * Long.BYTES + ends[0];
+    long bytesSize = ends[size] - ends[0];
+    if (bytesSize > Integer.MAX_VALUE) {
+      throw new IOException("The requested range of text values is too large to be read.");
+    }
+    ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, bytesPosition, bytesSize);
+    byte[] item = new byte[0];
+    for (int i = 0; i < size; i++) {
+      int length = (int) (ends[i + 1] - ends[i]);
+      if (item.length < length) {
+        item = new byte[Math.max(length, item.length * 2)];
+      }
+      bytes.get((int) (ends[i] - ends[0]), item, 0, length);
+      result[i] = new String(item, 0, length, StandardCharsets.UTF_8);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,344 @@
+package org.enso.table.format.columnar;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.enso.table.data.column.storage.BoolStorage;
+import org.enso.table.data.column.storage.DictionaryStringStorage;
+import org.enso.table.data.column.storage.LongStorage;
+import org.enso.table.data.column.storage.NumericStorage;
+import org.enso.table.data.column.storage.OffHeapNumericStorage;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.column.storage.StringStorage;
+import org.enso.table.data.table.Column;
+import org.enso.table.data.table.Table;
+import org.enso.table.error.UnexpectedColumnTypeException;
+import org.enso.table.format.columnar.ColumnarFormat.ColumnInfo;
+import org.enso.table.format.columnar.ColumnarFormat.Schema;
+
+/**
+ * Writes tables into columnar files, see {@link ColumnarFormat}.
+ *
+ * <p>Text columns are dictionary-encoded when at most {@link #MAX_DICTIONARY_RATIO} of their
+ * values are distinct, and stored as plain UTF-8 otherwise.
+ */
+public class Writer {
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  /** The largest ratio of distinct values to rows for which text columns are dictionary-encoded. */
+  private static final double MAX_DICTIONARY_RATIO = 0.5;
+
+  private final WritableByteChannel channel;
+  private final ByteBuffer buffer =
+      ByteBuffer.allocateDirect(BUFFER_SIZE).order(ColumnarFormat.BYTE_ORDER);
+  private long position;
+
+  private Writer(WritableByteChannel channel) {
+    this.channel = channel;
+  }
+
+  /**
+   * Writes a table into a columnar file, replacing the file if it exists.
+   *
+   * @param table the table to serialize
+   * @param path the path to write data to
+   * @throws UnexpectedColumnTypeException if the table contains columns other than integer,
+   *     decimal, boolean and text ones
+   * @throws IOException if the file cannot be written
+   */
+  public static void write(Table table, String path) throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(
+            Path.of(path),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+      new Writer(channel).writeTable(table);
+    }
+  }
+
+  /**
+   * Writes a table in the columnar format into a stream.
+   *
+   * <p>The file is written sequentially, so the stream does not need to be seekable. It is flushed,
+   * but not closed.
+   *
+   * @param table the table to serialize
+   * @param stream the stream to write data to
+   * @throws UnexpectedColumnTypeException if the table contains columns other than integer,
+   *     decimal, boolean and text ones
+   * @throws IOException if the stream cannot be written
+   */
+  public static void write(Table table, OutputStream stream) throws IOException {
+    new Writer(Channels.newChannel(stream)).writeTable(table);
+    stream.flush();
+  }
+
+  private void writeTable(Table table) throws IOException {
+    int rowCount = table.rowCount();
+    putBytes(ColumnarFormat.MAGIC);
+    List<ColumnInfo> columns = new ArrayList<>();
+    for (Column column : table.getColumns()) {
+      columns.add(writeColumn(column.getName(), column.getStorage(), rowCount));
+    }
+    Column indexColumn = table.getIndex().toColumn();
+    ColumnInfo index =
+        indexColumn == null
+            ? null
+            : writeColumn(indexColumn.getName(), indexColumn.getStorage(), rowCount);
+
+    long footerOffset = position;
+    putBytes(ColumnarFormat.encodeFooter(new Schema(rowCount, columns, index)));
+    putLong(footerOffset);
+    putBytes(ColumnarFormat.MAGIC);
+    flush();
+  }
+
+  private ColumnInfo writeColumn(String name, Storage storage, int size) throws IOException {
+    align();
+    long offset = position;
+    if (storage instanceof NumericStorage numeric) {
+      return writeNumeric(name, numeric, size, offset);
+    } else if (storage instanceof BoolStorage bools) {
+      return writeBool(name, bools, size, offset);
+    } else if (storage instanceof StringStorage strings) {
+      return writeString(name, strings, size, offset);
+    } else {
+      throw new UnexpectedColumnTypeException("Integer, Decimal, Boolean or Text");
+    }
+  }
+
+  private ColumnInfo writeNumeric(String name, NumericStorage storage, int size, long offset)
+      throws IOException {
+    boolean isLong = storage.getType() == Storage.Type.LONG;
+    BitSet isMissing = storage.getIsMissing();
+    putBitmap(isMissing, size);
+
+    long minLong = Long.MAX_VALUE;
+    long maxLong = Long.MIN_VALUE;
+    double minDouble = Double.POSITIVE_INFINITY;
+    double maxDouble = Double.NEGATIVE_INFINITY;
+    boolean hasRange = false;
+    for (int i = 0; i < size; i++) {
+      if (isMissing.get(i)) {
+        putLong(0);
+      } else if (isLong) {
+        long item =
+            storage instanceof LongStorage longs
+                ? longs.getItem(i)
+                : ((OffHeapNumericStorage) storage).getItemLong(i);
+        putLong(item);
+        minLong = Math.min(minLong, item);
+        maxLong = Math.max(maxLong, item);
+        hasRange = true;
+      } else {
+        double item = storage.getItemDouble(i);
+        putLong(Double.doubleToRawLongBits(item));
+        if (!Double.isNaN(item)) {
+          minDouble = Math.min(minDouble, item);
+          maxDouble = Math.max(maxDouble, item);
+          hasRange = true;
+        }
+      }
+    }
+
+    Object min = null;
+    Object max = null;
+    if (hasRange) {
+      min = isLong ? (Object) minLong : (Object) minDouble;
+      max = isLong ? (Object) maxLong : (Object) maxDouble;
+    }
+    return new ColumnInfo(
+        name,
+        storage.getType(),
+        false,
+        offset,
+        position - offset,
+        isMissing.cardinality(),
+        -1,
+        min,
+        max);
+  }
+
+  private ColumnInfo writeBool(String name, BoolStorage storage, int size, long offset)
+      throws IOException {
+    BitSet values = BoolStorage.toMask(storage);
+    BitSet isMissing = storage.getIsMissing();
+    putBitmap(isMissing, size);
+    putBitmap(values, size);
+
+    int missingCount = isMissing.cardinality();
+    int trueCount = values.cardinality();
+    Object min = null;
+    Object max = null;
+    if (missingCount < size) {
+      min = trueCount == size - missingCount;
+      max = trueCount > 0;
+    }
+    return new ColumnInfo(
+        name, Storage.Type.BOOL, false, offset, position - offset, missingCount, -1, min, max);
+  }
+
+  private ColumnInfo writeString(String name, StringStorage storage, int size, long offset)
+      throws IOException {
+    int[] codes;
+    String[] dictionary;
+    if (storage instanceof DictionaryStringStorage dict) {
+      codes = new int[size];
+      for (int i = 0; i < size; i++) {
+        codes[i] = dict.getCode(i);
+      }
+      dictionary = dict.getDictionary();
+    } else {
+      codes = new int[size];
+      dictionary = encode(storage, size, codes);
+    }
+
+    if (dictionary == null) {
+      BitSet isMissing = new BitSet();
+      for (int i = 0; i < size; i++) {
+        if (storage.isNa(i)) {
+          isMissing.set(i);
+        }
+      }
+      putBitmap(isMissing, size);
+      putStrings(storage, size);
+      return new ColumnInfo(
+          name,
+          Storage.Type.STRING,
+          false,
+          offset,
+          position - offset,
+          isMissing.cardinality(),
+          -1,
+          null,
+          null);
+    }
+
+    int missingCount = 0;
+    for (int code : codes) {
+      buffer(Integer.BYTES).putInt(code);
+      if (code == DictionaryStringStorage.MISSING) {
+        missingCount++;
+      }
+    }
+    align();
+    putStrings(new StringStorage(dictionary, dictionary.length), dictionary.length);
+    return new ColumnInfo(
+        name,
+        Storage.Type.STRING,
+        true,
+        offset,
+        position - offset,
+        missingCount,
+        dictionary.length,
+        null,
+        null);
+  }
+
+  /**
+   * Computes the dictionary codes of a text column.
+   *
+   * @return the dictionary, or {@code null} if there are too many distinct values for the column to
+   *     be worth encoding
+   */
+  private static String[] encode(StringStorage storage, int size, int[] codes) {
+    int maxDistinct = (int) (size * MAX_DICTIONARY_RATIO);
+    Map<String, Integer> dictionary = new HashMap<>();
+    List<String> values = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      String item = storage.getItem(i);
+      if (item == null) {
+        codes[i] = DictionaryStringStorage.MISSING;
+        continue;
+      }
+      Integer code = dictionary.get(item);
+      if (code == null) {
+        if (values.size() >= maxDistinct) {
+          return null;
+        }
+        code = values.size();
+        dictionary.put(item, code);
+        values.add(item);
+      }
+      codes[i] = code;
+    }
+    return values.toArray(new String[0]);
+  }
+
+  /** Writes the offsets and UTF-8 bytes of text values, missing values being empty. */
+  private void putStrings(StringStorage storage, int size) throws IOException {
+    byte[][] encoded = new byte[size][];
+    long end = 0;
+    putLong(end);
+    for (int i = 0; i < size; i++) {
+      String item = storage.getItem(i);
+      encoded[i] = item == null ? new byte[0] : item.getBytes(StandardCharsets.UTF_8);
+      end += encoded[i].length;
+      putLong(end);
+    }
+    for (byte[] bytes : encoded) {
+      putBytes(bytes);
+    }
+  }
+
+  private void putBitmap(BitSet bits, int size) throws IOException {
+    long[] words = bits.toLongArray();
+    int wordCount = (size + 63) / 64;
+    for (int i = 0; i < wordCount; i++) {
+      putLong(i < words.length ? words[i] : 0);
+    }
+  }
+
+  private void putLong(long value) throws IOException {
+    buffer(Long.BYTES).putLong(value);
+  }
+
+  private void putBytes(byte[] bytes) throws IOException {
+    int written = 0;
+    while (written < bytes.length) {
+      int count = Math.min(bytes.length - written, BUFFER_SIZE);
+      buffer(count).put(bytes, written, count);
+      written += count;
+    }
+  }
+
+  /** Pads the output with zeroes up to the next multiple of 8 bytes. */
+  private void align() throws IOException {
+    while (position % 8 != 0) {
+      buffer(1).put((byte) 0);
+    }
+  }
+
+  /**
+   * Makes room for {@code count} bytes in the buffer, and accounts for them being written.
+   *
+   * @return the buffer to write the bytes to
+   */
+  private ByteBuffer buffer(int count) throws IOException {
+    if (buffer.remaining() < count) {
+      flush();
+    }
+    position += count;
+    return buffer;
+  }
+
+  private void flush() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+}
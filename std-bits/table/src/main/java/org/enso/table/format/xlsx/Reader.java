@@ -27,7 +27,12 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-/** A table reader for MS Excel files. */
+/**
+ * A table reader for MS Excel files.
+ *
+ * <p>Sheets and ranges of XLSX files are read with a {@link StreamingXlsxReader}, without loading
+ * the workbook into memory. XLS files are loaded as a whole.
+ */
 public class Reader {
   /**
    * Reads the specified XLSX file into a table.
@@ -315,6 +320,12 @@ public class Reader {
    * @throws IOException when the input stream cannot be read.
    */
   public static String[] readSheetNames(InputStream stream, boolean xls_format) throws IOException {
+    if (!xls_format) {
+      try (StreamingXlsxReader reader = StreamingXlsxReader.open(stream)) {
+        return reader.getSheetNames();
+      }
+    }
+
     Workbook workbook = getWorkbook(stream, xls_format);
     int sheetCount = workbook.getNumberOfSheets();
     var output = new String[sheetCount];
@@ -333,6 +344,12 @@ public class Reader {
    * @throws IOException when the input stream cannot be read.
    */
   public static String[] readRangeNames(InputStream stream, boolean xls_format) throws IOException {
+    if (!xls_format) {
+      try (StreamingXlsxReader reader = StreamingXlsxReader.open(stream)) {
+        return reader.getRangeNames();
+      }
+    }
+
     return getWorkbook(stream, xls_format).getAllNames().stream()
         .map(Name::getNameName)
         .toArray(String[]::new);
@@ -352,6 +369,18 @@ public class Reader {
   public static Table readSheetByName(
       InputStream stream, String sheetName, int skip_rows, Integer row_limit, boolean xls_format)
       throws IOException, IllegalArgumentException {
+    if (!xls_format) {
+      try (StreamingXlsxReader reader = StreamingXlsxReader.open(stream)) {
+        int sheetIndex = reader.getSheetIndex(sheetName);
+        if (sheetIndex == -1) {
+          throw new IllegalArgumentException("Unknown sheet '" + sheetName + "'.");
+        }
+
+        return reader.readSheet(
+            sheetIndex, null, skip_rows, row_limit == null ? Integer.MAX_VALUE : row_limit);
+      }
+    }
+
     Workbook workbook = getWorkbook(stream, xls_format);
 
     int sheetIndex = getSheetIndex(workbook, sheetName);
@@ -377,16 +406,26 @@ public class Reader {
   public static Table readSheetByIndex(
       InputStream stream, int index, int skip_rows, Integer row_limit, boolean xls_format)
       throws IOException, IllegalArgumentException {
+    if (!xls_format) {
+      try (StreamingXlsxReader reader = StreamingXlsxReader.open(stream)) {
+        checkSheetIndex(index, reader.getSheetCount());
+        return reader.readSheet(
+            index - 1, null, skip_rows, row_limit == null ? Integer.MAX_VALUE : row_limit);
+      }
+    }
+
     Workbook workbook = getWorkbook(stream, xls_format);
+    checkSheetIndex(index, workbook.getNumberOfSheets());
 
-    int sheetCount = workbook.getNumberOfSheets();
+    return readSheetToTable(
+        workbook, index - 1, null, skip_rows, row_limit == null ? Integer.MAX_VALUE : row_limit);
+  }
+
+  private static void checkSheetIndex(int index, int sheetCount) {
     if (index < 1 || index > sheetCount) {
       throw new IllegalArgumentException(
           "Sheet index is not in valid range (1 to " + sheetCount + " inclusive).");
     }
-
-    return readSheetToTable(
-        workbook, index - 1, null, skip_rows, row_limit == null ? Integer.MAX_VALUE : row_limit);
   }
 
   /**
@@ -407,6 +446,14 @@ public class Reader {
       Integer row_limit,
       boolean xls_format)
       throws IOException {
+    if (!xls_format) {
+      try (StreamingXlsxReader reader = StreamingXlsxReader.open(stream)) {
+        String formula = reader.getRangeFormula(rangeNameOrAddress);
+        Range range = new Range(formula == null ? rangeNameOrAddress : formula);
+        return readRange(reader, range, skip_rows, row_limit);
+      }
+    }
+
     Workbook workbook = getWorkbook(stream, xls_format);
 
     Name name = workbook.getName(rangeNameOrAddress);
@@ -428,6 +475,12 @@ public class Reader {
   public static Table readRange(
       InputStream stream, Range range, int skip_rows, Integer row_limit, boolean xls_format)
       throws IOException {
+    if (!xls_format) {
+      try (StreamingXlsxReader reader = StreamingXlsxReader.open(stream)) {
+        return readRange(reader, range, skip_rows, row_limit);
+      }
+    }
+
     return readRange(getWorkbook(stream, xls_format), range, skip_rows, row_limit);
   }
 
@@ -444,4 +497,16 @@ public class Reader {
     return readSheetToTable(
         workbook, sheetIndex, range, skip_rows, row_limit == null ? Integer.MAX_VALUE : row_limit);
   }
+
+  private static Table readRange(
+      StreamingXlsxReader reader, Range range, int skip_rows, Integer row_limit)
+      throws IOException {
+    int sheetIndex = reader.getSheetIndex(range.getSheetName());
+    if (sheetIndex == -1) {
+      throw new IllegalArgumentException("Unknown sheet '" + range.getSheetName() + "'.");
+    }
+
+    return reader.readSheet(
+        sheetIndex, range, skip_rows, row_limit == null ? Integer.MAX_VALUE : row_limit);
+  }
 }
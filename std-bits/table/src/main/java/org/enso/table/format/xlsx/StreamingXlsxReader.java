@@ -0,0 +1,598 @@
+package org.enso.table.format.xlsx;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.ExcelNumberFormat;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.enso.table.data.column.builder.object.Builder;
+import org.enso.table.data.column.builder.object.InferredBuilder;
+import org.enso.table.data.table.Column;
+import org.enso.table.data.table.Table;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * A reader of XLSX files which does not load the workbook into memory.
+ *
+ * <p>The sheets are read with the event model of POI: the sheet XML is parsed with SAX and the cell
+ * values are appended directly to the column builders, and the parsing stops as soon as the
+ * requested rows have been read. Only the shared strings, the cell styles and the list of sheets
+ * and defined names of the workbook are kept in memory.
+ *
+ * <p>The tables read are the same as those {@link Reader} produces from a loaded workbook, except
+ * that missing rows and cells inside the data are read as empty values.
+ */
+final class StreamingXlsxReader implements AutoCloseable {
+  private record Sheet(String name, String relationshipId) {}
+
+  private record DefinedName(String name, String formula) {}
+
+  private final Path file;
+  private final OPCPackage pkg;
+  private final XSSFReader xssfReader;
+  private final List<Sheet> sheets = new ArrayList<>();
+  private final List<DefinedName> definedNames = new ArrayList<>();
+  private boolean date1904 = false;
+
+  private ReadOnlySharedStringsTable sharedStrings = null;
+  private StylesTable styles = null;
+  private final Map<Integer, Boolean> dateStyles = new HashMap<>();
+
+  private StreamingXlsxReader(Path file, OPCPackage pkg) throws IOException {
+    this.file = file;
+    this.pkg = pkg;
+    try {
+      xssfReader = new XSSFReader(pkg);
+      try (InputStream workbook = xssfReader.getWorkbookData()) {
+        parse(workbook, new WorkbookHandler());
+      }
+    } catch (OpenXML4JException e) {
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * Opens an XLSX file.
+   *
+   * <p>The file is copied to a temporary file, from which the parts of the package can be read
+   * directly instead of being buffered in memory. The temporary file is deleted once the reader is
+   * closed.
+   *
+   * @param stream an {@link InputStream} allowing to read the XLSX file contents.
+   * @return a reader of the file.
+   * @throws IOException when the input stream cannot be read or is not a valid XLSX file.
+   */
+  static StreamingXlsxReader open(InputStream stream) throws IOException {
+    Path file = Files.createTempFile("enso-table-", ".xlsx");
+    try {
+      Files.copy(stream, file, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(file);
+      throw e;
+    }
+
+    OPCPackage pkg;
+    try {
+      pkg = OPCPackage.open(file.toFile(), PackageAccess.READ);
+    } catch (OpenXML4JException e) {
+      Files.deleteIfExists(file);
+      throw new IOException(e);
+    } catch (RuntimeException e) {
+      Files.deleteIfExists(file);
+      throw e;
+    }
+
+    try {
+      return new StreamingXlsxReader(file, pkg);
+    } catch (IOException | RuntimeException e) {
+      pkg.revert();
+      Files.deleteIfExists(file);
+      throw e;
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    pkg.revert();
+    Files.deleteIfExists(file);
+  }
+
+  /** Returns the names of the sheets of the workbook. */
+  String[] getSheetNames() {
+    return sheets.stream().map(Sheet::name).toArray(String[]::new);
+  }
+
+  /** Returns the number of sheets of the workbook. */
+  int getSheetCount() {
+    return sheets.size();
+  }
+
+  /** Returns the 0-based index of the sheet with the given name, ignoring case, or -1. */
+  int getSheetIndex(String sheetName) {
+    for (int i = 0; i < sheets.size(); i++) {
+      if (sheets.get(i).name().equalsIgnoreCase(sheetName)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** Returns the names defined in the workbook. */
+  String[] getRangeNames() {
+    return definedNames.stream().map(DefinedName::name).toArray(String[]::new);
+  }
+
+  /**
+   * Returns the formula a name defined in the workbook refers to.
+   *
+   * @param name the defined name, ignoring case.
+   * @return the formula, or {@code null} if the name is not defined.
+   */
+  String getRangeFormula(String name) {
+    return definedNames.stream()
+        .filter(definedName -> definedName.name().equalsIgnoreCase(name))
+        .map(DefinedName::formula)
+        .findFirst()
+        .orElse(null);
+  }
+
+  /**
+   * Reads a sheet or a part of it into a table.
+   *
+   * @param sheetIndex the 0-based index of the sheet.
+   * @param range the range to read, or {@code null} to read the whole sheet.
+   * @param skipRows the number of rows to skip from the top of the range.
+   * @param rowCount the maximum number of rows to read.
+   * @return a {@link Table} containing the specified data.
+   * @throws IOException when the sheet cannot be read.
+   */
+  Table readSheet(int sheetIndex, Range range, int skipRows, int rowCount) throws IOException {
+    SheetHandler handler = new SheetHandler(range, skipRows, rowCount);
+    if (handler.needsSheetData()) {
+      try {
+        if (sharedStrings == null) {
+          sharedStrings = new ReadOnlySharedStringsTable(pkg, false);
+          styles = xssfReader.getStylesTable();
+        }
+        try (InputStream sheet = xssfReader.getSheet(sheets.get(sheetIndex).relationshipId())) {
+          parse(sheet, handler);
+        }
+      } catch (OpenXML4JException | SAXException e) {
+        throw new IOException(e);
+      }
+    }
+    return handler.finish();
+  }
+
+  private static void parse(InputStream stream, ContentHandler handler) throws IOException {
+    try {
+      XMLReader parser = XMLHelper.newXMLReader();
+      parser.setContentHandler(handler);
+      parser.parse(new InputSource(stream));
+    } catch (StopParsing e) {
+      // All the needed data has been read.
+    } catch (SAXException | ParserConfigurationException e) {
+      throw new IOException(e);
+    }
+  }
+
+  private boolean isDateFormatted(int styleIndex) {
+    return dateStyles.computeIfAbsent(
+        styleIndex,
+        idx -> {
+          CellStyle style =
+              styles == null || styles.getNumCellStyles() == 0 ? null : styles.getStyleAt(idx);
+          ExcelNumberFormat format = style == null ? null : ExcelNumberFormat.from(style);
+          return format != null && DateUtil.isADateFormat(format);
+        });
+  }
+
+  /** Decodes the escaped characters of a text value, as {@link XSSFRichTextString} does. */
+  private static String decodeText(String text) {
+    return text.contains("_x") ? new XSSFRichTextString(text).getString() : text;
+  }
+
+  /** Thrown by the handlers to end the parsing once all the needed data has been read. */
+  private static final class StopParsing extends SAXException {}
+
+  /** Reads the sheets, defined names and date system of the workbook. */
+  private final class WorkbookHandler extends DefaultHandler {
+    private StringBuilder formula = null;
+    private String definedName = null;
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+      switch (localName) {
+        case "sheet" -> {
+          String name = attributes.getValue("name");
+          sheets.add(new Sheet(name, relationshipId(attributes)));
+        }
+        case "workbookPr" -> {
+          String value = attributes.getValue("date1904");
+          date1904 = "1".equals(value) || "true".equals(value);
+        }
+        case "definedName" -> {
+          definedName = attributes.getValue("name");
+          formula = new StringBuilder();
+        }
+      }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) {
+      if (localName.equals("definedName")) {
+        definedNames.add(new DefinedName(definedName, formula.toString()));
+        formula = null;
+      }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+      if (formula != null) {
+        formula.append(ch, start, length);
+      }
+    }
+
+    private String relationshipId(Attributes attributes) {
+      for (int i = 0; i < attributes.getLength(); i++) {
+        if (attributes.getLocalName(i).equals("id")) {
+          return attributes.getValue(i);
+        }
+      }
+      return null;
+    }
+  }
+
+  /**
+   * Reads the cells of a sheet into column builders.
+   *
+   * <p>Rows are numbered from 1 as in {@link Range}. The rows from {@code startRow} to {@code
+   * lastRow} are appended, with the rows missing in the sheet being empty, and the parsing stops
+   * once the last of them is read.
+   */
+  private final class SheetHandler extends DefaultHandler {
+    private final boolean wholeRow;
+    private final boolean wholeColumn;
+    private final int rowCount;
+    private final int startRow;
+    private final long lastRow;
+    private final int startCol;
+    private final int endCol;
+    private final List<Builder> builders = new ArrayList<>();
+
+    /** The number of the next row to append. */
+    private long nextRow;
+    /** The last row of the sheet according to its dimension, or 0 if unknown. */
+    private int dimensionLastRow = 0;
+    /** The number of the first row element of the sheet, or 0 if none was read yet. */
+    private int firstRow = 0;
+    /** The number of columns of the first row element of the sheet. */
+    private int firstRowLastCol = 0;
+
+    private boolean inSheetData = false;
+    private int currentRow = 0;
+    private boolean appendingRow = false;
+    private boolean measuringRow = false;
+    private Object[] rowValues;
+    /** The last column of the current row containing a cell, or 0 if there is none. */
+    private int rowLastCol = 0;
+
+    private int currentCol = 0;
+    private boolean cellInRange = false;
+    private String cellType;
+    private int cellStyle;
+    private boolean cellHasFormula;
+    private boolean cellHasValue;
+    private boolean inInlineString = false;
+    private boolean inPhoneticRun = false;
+    private boolean capturing = false;
+    private final StringBuilder text = new StringBuilder();
+
+    private SheetHandler(Range range, int skipRows, int rowCount) {
+      this.rowCount = rowCount;
+      wholeColumn = range == null || range.isWholeColumn();
+      startRow = (wholeColumn ? 1 : range.getTopRow()) + skipRows;
+      long limit = (long) startRow + rowCount - 1;
+      lastRow = wholeColumn ? limit : Math.min(range.getBottomRow(), limit);
+      nextRow = startRow;
+
+      wholeRow = range == null || range.isWholeRow();
+      startCol = wholeRow ? 1 : range.getLeftColumn();
+      endCol = wholeRow ? -1 : range.getRightColumn();
+      rowValues = new Object[wholeRow ? 16 : endCol - startCol + 1];
+    }
+
+    /**
+     * Checks if the sheet needs to be parsed: a whole row range needs the width of the first row
+     * even if no rows are read.
+     */
+    private boolean needsSheetData() {
+      return wholeRow || nextRow <= lastRow;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes)
+        throws SAXException {
+      if (!inSheetData) {
+        if (localName.equals("sheetData")) {
+          inSheetData = true;
+          createFixedColumns();
+        } else if (localName.equals("dimension")) {
+          readDimension(attributes.getValue("ref"));
+        }
+        return;
+      }
+
+      switch (localName) {
+        case "row" -> startRow(attributes);
+        case "c" -> startCell(attributes);
+        case "v" -> {
+          if (cellInRange) {
+            cellHasValue = true;
+            capturing = true;
+          }
+        }
+        case "f" -> cellHasFormula = true;
+        case "is" -> inInlineString = true;
+        case "rPh" -> inPhoneticRun = true;
+        case "t" -> capturing = cellInRange && inInlineString && !inPhoneticRun;
+      }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) throws SAXException {
+      if (!inSheetData) {
+        return;
+      }
+
+      switch (localName) {
+        case "v", "t" -> capturing = false;
+        case "is" -> inInlineString = false;
+        case "rPh" -> inPhoneticRun = false;
+        case "c" -> endCell();
+        case "row" -> endRow();
+        case "sheetData" -> throw new StopParsing();
+      }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+      if (capturing) {
+        text.append(ch, start, length);
+      }
+    }
+
+    private void readDimension(String ref) {
+      if (ref == null) {
+        return;
+      }
+      int end = ref.length();
+      int start = end;
+      while (start > 0 && Character.isDigit(ref.charAt(start - 1))) {
+        start--;
+      }
+      if (start < end && end - start < 8) {
+        dimensionLastRow = Integer.parseInt(ref, start, end, 10);
+      }
+    }
+
+    private void startRow(Attributes attributes) throws StopParsing {
+      String ref = attributes.getValue("r");
+      currentRow = ref == null ? currentRow + 1 : Integer.parseInt(ref);
+      rowLastCol = 0;
+      currentCol = 0;
+
+      boolean first = firstRow == 0;
+      if (first) {
+        firstRow = currentRow;
+      }
+      measuringRow = first;
+
+      appendingRow = false;
+      if (currentRow >= nextRow) {
+        appendNullRows(Math.min(currentRow, lastRow + 1) - nextRow);
+        if (currentRow <= lastRow) {
+          appendingRow = true;
+        } else if (!first || !wholeRow) {
+          throw new StopParsing();
+        }
+      }
+    }
+
+    private void endRow() throws StopParsing {
+      if (measuringRow) {
+        firstRowLastCol = rowLastCol;
+        measuringRow = false;
+      }
+      if (appendingRow) {
+        appendRow();
+        appendingRow = false;
+        if (nextRow > lastRow) {
+          throw new StopParsing();
+        }
+      } else if (currentRow > lastRow || nextRow > lastRow) {
+        throw new StopParsing();
+      }
+    }
+
+    private void startCell(Attributes attributes) {
+      cellInRange = false;
+      if (!appendingRow && !measuringRow) {
+        return;
+      }
+
+      String ref = attributes.getValue("r");
+      currentCol = ref == null ? currentCol + 1 : parseColumn(ref);
+      rowLastCol = Math.max(rowLastCol, currentCol);
+      if (!appendingRow || currentCol < startCol || (!wholeRow && currentCol > endCol)) {
+        return;
+      }
+
+      cellInRange = true;
+      cellType = attributes.getValue("t");
+      String style = attributes.getValue("s");
+      cellStyle = style == null ? 0 : Integer.parseInt(style);
+      cellHasFormula = false;
+      cellHasValue = false;
+      text.setLength(0);
+    }
+
+    private void endCell() {
+      if (!cellInRange) {
+        return;
+      }
+      cellInRange = false;
+
+      int idx = currentCol - startCol;
+      if (idx >= rowValues.length) {
+        rowValues = Arrays.copyOf(rowValues, Math.max(idx + 1, 2 * rowValues.length));
+      }
+      rowValues[idx] = cellValue();
+    }
+
+    /** Returns the value of the current cell, as {@code XSSFCell} would. */
+    private Object cellValue() {
+      if (cellType == null || cellType.equals("n")) {
+        if (!cellHasValue && !cellHasFormula) {
+          return null;
+        }
+        double value = cellHasValue ? Double.parseDouble(text.toString()) : 0.0;
+        if (DateUtil.isValidExcelDate(value) && isDateFormatted(cellStyle)) {
+          return DateUtil.getLocalDateTime(value, date1904).toLocalDate();
+        }
+        return value;
+      }
+
+      return switch (cellType) {
+        case "s" -> {
+          if (!cellHasValue) {
+            yield "";
+          } else if (cellHasFormula) {
+            yield decodeText(text.toString());
+          }
+          yield sharedStrings.getItemAt(Integer.parseInt(text.toString())).getString();
+        }
+        case "str", "inlineStr" -> decodeText(text.toString());
+        case "b" -> cellHasValue && text.length() == 1 && text.charAt(0) == '1';
+        default -> null;
+      };
+    }
+
+    /** Parses the 1-based column of a cell reference. */
+    private int parseColumn(String ref) {
+      int col = 0;
+      for (int i = 0; i < ref.length(); i++) {
+        char c = ref.charAt(i);
+        if (c >= 'A' && c <= 'Z') {
+          col = col * 26 + (c - 'A' + 1);
+        } else if (c >= 'a' && c <= 'z') {
+          col = col * 26 + (c - 'a' + 1);
+        } else if (c != '$') {
+          break;
+        }
+      }
+      return col;
+    }
+
+    private void createFixedColumns() {
+      if (!wholeRow && builders.isEmpty()) {
+        for (int col = startCol; col <= endCol; col++) {
+          builders.add(new InferredBuilder(expectedRowCount()));
+        }
+      }
+    }
+
+    /**
+     * Ensures there are enough columns for a row whose last cell is in the given column. As in
+     * {@link Reader}, one more column than the row contains is created.
+     */
+    private void expandColumns(int lastCol) {
+      int columnCount = lastCol == 0 ? 0 : lastCol + 1;
+      int appended = appendedRowCount();
+      while (builders.size() < columnCount) {
+        Builder builder = new InferredBuilder(expectedRowCount());
+        builder.appendNulls(appended);
+        builders.add(builder);
+      }
+    }
+
+    private int appendedRowCount() {
+      return (int) (nextRow - startRow);
+    }
+
+    /** Returns the number of rows likely to be read, to size the builders. */
+    private int expectedRowCount() {
+      long last = wholeColumn ? Math.min(lastRow, dimensionLastRow) : lastRow;
+      return (int) Math.max(0, last - startRow + 1);
+    }
+
+    private void appendNullRows(long count) {
+      if (count <= 0) {
+        return;
+      }
+      for (Builder builder : builders) {
+        builder.appendNulls((int) count);
+      }
+      nextRow += count;
+    }
+
+    private void appendRow() {
+      if (wholeRow) {
+        expandColumns(rowLastCol);
+      }
+      int valueCount = wholeRow ? Math.min(rowLastCol, rowValues.length) : rowValues.length;
+      for (int i = 0; i < builders.size(); i++) {
+        builders.get(i).append(i < valueCount ? rowValues[i] : null);
+      }
+      Arrays.fill(rowValues, 0, valueCount, null);
+      nextRow++;
+    }
+
+    private Table finish() {
+      createFixedColumns();
+      if (!wholeColumn) {
+        appendNullRows(lastRow - nextRow + 1);
+      }
+
+      // A whole row range reading no rows of data takes its columns from the first row.
+      if (wholeRow && firstRow != 0 && (rowCount == 0 || nextRow < firstRow)) {
+        expandColumns(firstRowLastCol);
+      }
+
+      Column[] columns =
+          IntStream.range(0, builders.size())
+              .mapToObj(
+                  idx ->
+                      new Column(
+                          CellReference.convertNumToColString(startCol + idx - 1),
+                          builders.get(idx).seal()))
+              .toArray(Column[]::new);
+      return new Table(columns);
+    }
+  }
+}
@@ -5,7 +5,14 @@ import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.enso.table.data.column.storage.BoolStorage;
+import org.enso.table.data.column.storage.DoubleStorage;
+import org.enso.table.data.column.storage.LongStorage;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.column.storage.StringStorage;
+import org.enso.table.data.table.Column;
 import org.enso.table.data.table.Table;
 import org.enso.table.format.util.FileSplitter;
 
@@ -13,11 +20,22 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.function.BiConsumer;
 
-/** Writer for XLSX files. */
+/**
+ * Writer for XLSX files.
+ *
+ * <p>New sheets are written in streaming mode: only a window of the most recent rows is kept in
+ * memory, and the older rows are flushed to temporary files until the workbook is saved. Appending
+ * to or overwriting an existing sheet requires its rows to be loaded, so it is done in memory.
+ */
 public class Writer {
+  /** The number of rows kept in memory when writing a new sheet. */
+  private static final int STREAMING_WINDOW_SIZE = SXSSFWorkbook.DEFAULT_WINDOW_SIZE;
+
   /** Specifies write behavior for files that already exist. */
   public enum WriteMode {
     /** Append new contents to the existing sheet. */
@@ -70,7 +88,8 @@ public class Writer {
     }
   }
 
-  private static Workbook workbookForFile(File file) throws IOException, InvalidFormatException {
+  private static XSSFWorkbook workbookForFile(File file)
+      throws IOException, InvalidFormatException {
     if (file.exists()) {
       try (var stream = new FileInputStream(file)) {
         return new XSSFWorkbook(stream);
@@ -91,63 +110,72 @@ public class Writer {
       BiConsumer<Object, Cell> writeCell)
       throws IOException, InvalidFormatException {
     try (var workbook = workbookForFile(file)) {
-      writeWorkbook(
-          table, workbook, sheetName, writeMode, writeHeader, startRecord, numRecords, writeCell);
-      try (var outputStream = new FileOutputStream(file)) {
-        workbook.write(outputStream);
+      var sheet = workbook.getSheet(sheetName);
+      if (sheet == null || writeMode == WriteMode.CREATE_SHEET) {
+        var newSheetName = sheet == null ? sheetName : availableSheetName(workbook, sheetName);
+        var streamingWorkbook = new SXSSFWorkbook(workbook, STREAMING_WINDOW_SIZE, true);
+        try {
+          var newSheet = streamingWorkbook.createSheet(newSheetName);
+          writeSheet(table, newSheet, writeHeader, startRecord, numRecords, 0, 0, writeCell);
+          if (sheet != null) {
+            streamingWorkbook.setForceFormulaRecalculation(true);
+          }
+          saveWorkbook(streamingWorkbook, file);
+        } finally {
+          streamingWorkbook.dispose();
+        }
+      } else {
+        writeExistingSheet(
+            table, workbook, sheet, writeMode, writeHeader, startRecord, numRecords, writeCell);
+        saveWorkbook(workbook, file);
       }
     }
   }
 
-  private static void writeWorkbook(
+  private static void saveWorkbook(Workbook workbook, File file) throws IOException {
+    try (var outputStream = new FileOutputStream(file)) {
+      workbook.write(outputStream);
+    }
+  }
+
+  private static String availableSheetName(Workbook workbook, String sheetName) {
+    int currentSheet = 1;
+    var newSheetName = "";
+    do {
+      newSheetName = sheetName + " " + currentSheet;
+      currentSheet++;
+    } while (workbook.getSheet(newSheetName) != null);
+    return newSheetName;
+  }
+
+  /** Appends to or overwrites an existing sheet. */
+  private static void writeExistingSheet(
       Table table,
       Workbook workbook,
-      String sheetName,
+      Sheet sheet,
       WriteMode writeMode,
       boolean writeHeader,
       int startRecord,
       int numRecords,
       BiConsumer<Object, Cell> writeCell) {
-    var sheet = workbook.getSheet(sheetName);
-    if (sheet == null) {
-      var newSheet = workbook.createSheet(sheetName);
-      writeSheet(table, newSheet, writeHeader, startRecord, numRecords, 0, 0, writeCell);
-      return;
-    }
-    switch (writeMode) {
-      case APPEND:
-        writeSheet(
-            table,
-            sheet,
-            writeHeader,
-            startRecord,
-            numRecords,
-            sheet.getLastRowNum() + 1,
-            0,
-            writeCell);
-        workbook.setForceFormulaRecalculation(true);
-        return;
-      case OVERWRITE_SHEET:
-        int row;
-        while ((row = sheet.getLastRowNum()) != -1) {
-          sheet.removeRow(sheet.getRow(row));
-        }
-        writeSheet(table, sheet, writeHeader, startRecord, numRecords, 0, 0, writeCell);
-        workbook.setForceFormulaRecalculation(true);
-        return;
-      case CREATE_SHEET:
-        int currentSheet = 1;
-        var newSheetName = "";
-        do {
-          newSheetName = sheetName + " " + currentSheet;
-          sheet = workbook.getSheet(newSheetName);
-          currentSheet++;
-        } while (sheet != null);
-        sheet = workbook.createSheet(newSheetName);
-        writeSheet(table, sheet, writeHeader, startRecord, numRecords, 0, 0, writeCell);
-        workbook.setForceFormulaRecalculation(true);
-        return;
+    if (writeMode == WriteMode.APPEND) {
+      writeSheet(
+          table,
+          sheet,
+          writeHeader,
+          startRecord,
+          numRecords,
+          sheet.getLastRowNum() + 1,
+          0,
+          writeCell);
+    } else {
+      int row;
+      while ((row = sheet.getLastRowNum()) != -1) {
+        sheet.removeRow(sheet.getRow(row));
+      }
+      writeSheet(table, sheet, writeHeader, startRecord, numRecords, 0, 0, writeCell);
     }
+    workbook.setForceFormulaRecalculation(true);
   }
 
   private static void writeSheet(
@@ -159,7 +187,7 @@ public class Writer {
       int startRow,
       int startCol,
       BiConsumer<Object, Cell> writeCell) {
-    var columns = Arrays.asList(table.getColumns());
+    List<Column> columns = new ArrayList<>(Arrays.asList(table.getColumns()));
     var index = table.getIndex().toColumn();
     if (index != null) {
       columns.add(0, index);
@@ -172,18 +200,59 @@ public class Writer {
         cell.setCellValue(columns.get(j).getName());
       }
     }
+    var cellWriters =
+        columns.stream()
+            .map(column -> cellWriter(column.getStorage(), writeCell))
+            .toArray(CellWriter[]::new);
     var rowLimit = Math.min(numRecords, table.rowCount() - startRecord);
     for (int i = 0; i < rowLimit; i++) {
       var row = sheet.createRow(startRow + i);
-      for (int j = 0; j < columns.size(); j++) {
-        var cell = row.createCell(startCol + j);
-        var storage = columns.get(j).getStorage();
-        if (storage.isNa(startRecord + i)) {
-          cell.setBlank();
-        } else {
-          storage.writeSpreadsheetCell(startRecord + i, cell, writeCell);
-        }
+      for (int j = 0; j < cellWriters.length; j++) {
+        cellWriters[j].write(startRecord + i, row.createCell(startCol + j));
       }
     }
   }
+
+  /** Writes the values of a column into newly created, blank cells. */
+  private interface CellWriter {
+    void write(int index, Cell cell);
+  }
+
+  /**
+   * Creates a writer for the values of a storage. Storages of primitive values are written directly
+   * instead of going through {@link Storage#writeSpreadsheetCell}.
+   */
+  private static CellWriter cellWriter(Storage storage, BiConsumer<Object, Cell> writeCell) {
+    if (storage instanceof LongStorage longStorage) {
+      return (index, cell) -> {
+        if (!longStorage.isNa(index)) {
+          cell.setCellValue(longStorage.getItem(index));
+        }
+      };
+    } else if (storage instanceof DoubleStorage doubleStorage) {
+      return (index, cell) -> {
+        if (!doubleStorage.isNa(index)) {
+          cell.setCellValue(doubleStorage.getItem(index));
+        }
+      };
+    } else if (storage instanceof BoolStorage boolStorage) {
+      return (index, cell) -> {
+        if (!boolStorage.isNa(index)) {
+          cell.setCellValue(boolStorage.getItem(index));
+        }
+      };
+    } else if (storage instanceof StringStorage stringStorage) {
+      return (index, cell) -> {
+        String value = stringStorage.getItem(index);
+        if (value != null) {
+          cell.setCellValue(value);
+        }
+      };
+    }
+    return (index, cell) -> {
+      if (!storage.isNa(index)) {
+        storage.writeSpreadsheetCell(index, cell, writeCell);
+      }
+    };
+  }
 }
@@ -1,8 +1,12 @@
 package org.enso.table.operations;
 
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.stream.IntStream;
+import org.enso.table.data.column.storage.BoolStorage;
+import org.enso.table.data.column.storage.DoubleStorage;
+import org.enso.table.data.column.storage.LongStorage;
 import org.enso.table.data.column.storage.Storage;
 import org.enso.table.data.mask.OrderMask;
 import org.enso.table.data.table.Column;
@@ -67,6 +71,73 @@ public class OrderBuilder {
           (i, j) -> cmp.compare(storage.getItemBoxed(i), storage.getItemBoxed(j));
       return result;
     }
+
+    /**
+     * @return whether the rule orders a numeric or boolean column naturally, in which case the
+     *     rows can be sorted by their primitive values rather than with a comparator
+     */
+    private boolean isPrimitive() {
+      Storage storage = column.getStorage();
+      return customComparator == null
+          && (storage instanceof LongStorage
+              || storage instanceof DoubleStorage
+              || storage instanceof BoolStorage);
+    }
+
+    /**
+     * Encodes the value at a row as a long whose unsigned ordering is the ordering of this rule.
+     * Only valid for primitive rules and rows holding a value.
+     */
+    private long encode(Storage storage, int row) {
+      long key;
+      if (storage instanceof LongStorage longStorage) {
+        key = longStorage.getItem(row) ^ Long.MIN_VALUE;
+      } else if (storage instanceof DoubleStorage doubleStorage) {
+        // Orders as Double.compare: -0.0 before 0.0 and NaN after positive infinity.
+        long bits = Double.doubleToLongBits(doubleStorage.getItem(row));
+        key = bits < 0 ? ~bits : bits ^ Long.MIN_VALUE;
+      } else {
+        key = ((BoolStorage) storage).getItem(row) ? 1 : 0;
+      }
+      return ascending ? key : ~key;
+    }
+
+    /**
+     * Stably sorts the provided rows according to this primitive rule, using a radix sort on the
+     * encoded values. Missing values are moved to the start or the end, keeping their order.
+     *
+     * @param rows the rows to sort
+     * @return the sorted rows
+     */
+    private int[] sortPrimitive(int[] rows) {
+      Storage storage = column.getStorage();
+      int missing = 0;
+      for (int row : rows) {
+        if (storage.isNa(row)) {
+          missing++;
+        }
+      }
+
+      int[] result = new int[rows.length];
+      int present = rows.length - missing;
+      int[] presentRows = new int[present];
+      long[] keys = new long[present];
+      int missingPosition = missingLast ? present : 0;
+      int presentPosition = 0;
+      for (int row : rows) {
+        if (storage.isNa(row)) {
+          result[missingPosition++] = row;
+        } else {
+          presentRows[presentPosition] = row;
+          keys[presentPosition] = encode(storage, row);
+          presentPosition++;
+        }
+      }
+
+      int[] sorted = radixSort(presentRows, keys);
+      System.arraycopy(sorted, 0, result, missingLast ? 0 : missing, present);
+      return result;
+    }
   }
 
   /**
@@ -84,17 +155,82 @@ public class OrderBuilder {
   public static OrderMask buildOrderMask(
       List<OrderRule> rules, Comparator<Object> fallbackComparator) {
     int size = rules.get(0).column.getSize();
-    Comparator<Integer> comparator =
-        rules.stream()
-            .map(rule -> rule.toComparator(fallbackComparator))
-            .reduce(Comparator::thenComparing)
-            .get();
-
-    int[] positions =
-        IntStream.range(0, size).boxed().sorted(comparator).mapToInt(i -> i).toArray();
+    int[] positions = IntStream.range(0, size).toArray();
+
+    // The rows are stably sorted by each rule, from the least significant one to the most
+    // significant one. Numeric and boolean columns are sorted by their primitive values, while
+    // consecutive rules requiring a comparator are sorted together with a combined comparator.
+    int end = rules.size();
+    while (end > 0) {
+      OrderRule last = rules.get(end - 1);
+      if (last.isPrimitive()) {
+        positions = last.sortPrimitive(positions);
+        end--;
+      } else {
+        int start = end - 1;
+        while (start > 0 && !rules.get(start - 1).isPrimitive()) {
+          start--;
+        }
+        Comparator<Integer> comparator =
+            rules.subList(start, end).stream()
+                .map(rule -> rule.toComparator(fallbackComparator))
+                .reduce(Comparator::thenComparing)
+                .get();
+        positions = Arrays.stream(positions).boxed().sorted(comparator).mapToInt(i -> i).toArray();
+        end = start;
+      }
+    }
     return new OrderMask(positions);
   }
 
+  /**
+   * Stably sorts rows by their keys, compared as unsigned longs, with a least significant digit
+   * radix sort on bytes. Passes over bytes shared by all keys are skipped.
+   *
+   * @param rows the rows to sort
+   * @param keys the key of each row
+   * @return the sorted rows
+   */
+  private static int[] radixSort(int[] rows, long[] keys) {
+    int size = rows.length;
+    int[][] counts = new int[8][256];
+    for (long key : keys) {
+      for (int digit = 0; digit < 8; digit++) {
+        counts[digit][(int) (key >>> (8 * digit)) & 0xFF]++;
+      }
+    }
+
+    int[] rowsBuffer = new int[size];
+    long[] keysBuffer = new long[size];
+    for (int digit = 0; digit < 8; digit++) {
+      int shift = 8 * digit;
+      int[] offsets = counts[digit];
+      if (size == 0 || offsets[(int) (keys[0] >>> shift) & 0xFF] == size) {
+        continue;
+      }
+
+      int sum = 0;
+      for (int bucket = 0; bucket < 256; bucket++) {
+        int count = offsets[bucket];
+        offsets[bucket] = sum;
+        sum += count;
+      }
+      for (int i = 0; i < size; i++) {
+        int position = offsets[(int) (keys[i] >>> shift) & 0xFF]++;
+        rowsBuffer[position] = rows[i];
+        keysBuffer[position] = keys[i];
+      }
+
+      int[] swapRows = rows;
+      rows = rowsBuffer;
+      rowsBuffer = swapRows;
+      long[] swapKeys = keys;
+      keys = keysBuffer;
+      keysBuffer = swapKeys;
+    }
+    return rows;
+  }
+
   /**
    * Builds an order mask based that will reverse the order of the data being masked.
    *
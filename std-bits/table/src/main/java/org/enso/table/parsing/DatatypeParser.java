@@ -24,4 +24,14 @@ public abstract class DatatypeParser {
    * containing the parsed elements.
    */
   public abstract WithProblems<Storage> parseColumn(String columnName, StringStorage sourceStorage);
+
+  /**
+   * Creates a builder parsing the cells of a column as they are appended.
+   *
+   * <p>The default implementation gathers the texts of all the cells and parses them with {@link
+   * #parseColumn} once the builder is sealed.
+   */
+  public ParsingColumnBuilder makeColumnBuilder() {
+    return new DeferredColumnBuilder(this);
+  }
 }
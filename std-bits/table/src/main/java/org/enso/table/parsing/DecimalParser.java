@@ -9,7 +9,7 @@ import org.enso.table.parsing.problems.ProblemAggregator;
 public class DecimalParser extends IncrementalDatatypeParser {
   private final String thousandsSeparator;
   private final char decimalPoint;
-  private final DecimalFormat decimalFormat;
+  private final ThreadLocal<DecimalFormat> decimalFormat;
   private final boolean leadingZerosAllowed;
 
   public DecimalParser(
@@ -31,10 +31,16 @@ public class DecimalParser extends IncrementalDatatypeParser {
     }
     this.thousandsSeparator = thousandsSeparator;
 
-    decimalFormat = new DecimalFormat();
-    var symbols = decimalFormat.getDecimalFormatSymbols();
-    symbols.setDecimalSeparator(this.decimalPoint);
-    decimalFormat.setDecimalFormatSymbols(symbols);
+    // The format is not thread-safe, and columns may be parsed from several threads.
+    decimalFormat =
+        ThreadLocal.withInitial(
+            () -> {
+              DecimalFormat format = new DecimalFormat();
+              var symbols = format.getDecimalFormatSymbols();
+              symbols.setDecimalSeparator(this.decimalPoint);
+              format.setDecimalFormatSymbols(symbols);
+              return format;
+            });
   }
 
   @Override
@@ -54,7 +60,7 @@ public class DecimalParser extends IncrementalDatatypeParser {
     }
 
     ParsePosition pos = new ParsePosition(0);
-    Number result = decimalFormat.parse(replaced, pos);
+    Number result = decimalFormat.get().parse(replaced, pos);
     if (result == null || pos.getIndex() != replaced.length()) {
       problemAggregator.reportInvalidFormat(text);
       return null;
@@ -87,4 +93,16 @@ public class DecimalParser extends IncrementalDatatypeParser {
   protected Builder makeBuilderWithCapacity(int capacity) {
     return NumericBuilder.createDoubleBuilder(capacity);
   }
+
+  /**
+   * Converts integers to decimals. The text of an integer consists only of digits and an optional
+   * minus sign, so it is parsed as the same number.
+   */
+  @Override
+  protected Object widen(Object value) {
+    if (value instanceof Long l) {
+      return l.doubleValue();
+    }
+    return null;
+  }
 }
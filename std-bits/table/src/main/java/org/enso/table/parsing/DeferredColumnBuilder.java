@@ -0,0 +1,33 @@
+package org.enso.table.parsing;
+
+import org.enso.table.data.column.builder.string.StringStorageBuilder;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.problems.WithProblems;
+
+/**
+ * A column builder gathering the texts of all the cells and parsing them with {@link
+ * DatatypeParser#parseColumn} only once the column is complete.
+ */
+final class DeferredColumnBuilder extends ParsingColumnBuilder {
+  private final DatatypeParser parser;
+  private final StringStorageBuilder cells = new StringStorageBuilder();
+
+  DeferredColumnBuilder(DatatypeParser parser) {
+    this.parser = parser;
+  }
+
+  @Override
+  public void parseAndAppend(String cell) {
+    cells.parseAndAppend(cell);
+  }
+
+  @Override
+  public void appendAll(ParsingColumnBuilder other, int count) {
+    cells.appendAll(((DeferredColumnBuilder) other).cells, count);
+  }
+
+  @Override
+  public WithProblems<Storage> seal(String columnName) {
+    return parser.parseColumn(columnName, cells.seal());
+  }
+}
@@ -25,6 +25,20 @@ public abstract class IncrementalDatatypeParser extends DatatypeParser {
    */
   protected abstract Builder makeBuilderWithCapacity(int capacity);
 
+  /**
+   * Converts a value returned by another parser into the value that this parser would return for
+   * the text {@code String.valueOf(value)}, without parsing that text.
+   *
+   * <p>This allows a column to be retyped to a wider type in place, see {@link
+   * TypeInferringParser}.
+   *
+   * @param value a non-null value returned by another parser
+   * @return the converted value, or {@code null} if the value cannot be converted directly
+   */
+  protected Object widen(Object value) {
+    return null;
+  }
+
   /**
    * Parses a column of texts (represented as a {@code StringStorage}) and returns a new storage,
    * containing the parsed elements.
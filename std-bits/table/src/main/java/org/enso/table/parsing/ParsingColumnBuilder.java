@@ -0,0 +1,36 @@
+package org.enso.table.parsing;
+
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.problems.WithProblems;
+
+/**
+ * A builder parsing the cells of a single column as they are read.
+ *
+ * <p>Builders are created with {@link DatatypeParser#makeColumnBuilder()}. Builders created by the
+ * same parser can be appended to one another, so that separate parts of the input can be parsed
+ * independently and then combined.
+ */
+public abstract class ParsingColumnBuilder {
+  /**
+   * Parses a cell and appends the result to the column.
+   *
+   * @param cell the text of the cell, or {@code null} if it is missing
+   */
+  public abstract void parseAndAppend(String cell);
+
+  /**
+   * Appends the first cells of another builder, created by the same parser.
+   *
+   * @param other the builder to append the cells of
+   * @param count the number of cells to append
+   */
+  public abstract void appendAll(ParsingColumnBuilder other, int count);
+
+  /**
+   * Finishes parsing and returns the resulting column.
+   *
+   * @param columnName the name of the column, used for reporting problems
+   * @return the parsed storage, together with any problems encountered when parsing
+   */
+  public abstract WithProblems<Storage> seal(String columnName);
+}
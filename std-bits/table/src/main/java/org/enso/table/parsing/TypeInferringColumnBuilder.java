@@ -0,0 +1,357 @@
+package org.enso.table.parsing;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import org.enso.table.data.column.builder.object.Builder;
+import org.enso.table.data.column.builder.string.StringStorageBuilder;
+import org.enso.table.data.column.storage.DoubleStorage;
+import org.enso.table.data.column.storage.LongStorage;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.parsing.problems.SimplifiedProblemAggregator;
+import org.enso.table.problems.WithProblems;
+
+/**
+ * A column builder inferring the type of the column while its cells are appended, with the same
+ * result as {@link TypeInferringParser#parseColumn}.
+ *
+ * <p>Each cell is parsed with the first parser that has accepted all the cells so far, and only the
+ * parsed values are kept. When a cell cannot be parsed, the column is widened in place: the next
+ * parsers are first tried on the new cell alone, and the first one accepting it is then used to
+ * convert the values gathered so far. Values that the new parser can {@link
+ * IncrementalDatatypeParser#widen} (like integers becoming decimals) are converted directly, the
+ * others are parsed again from their texts. If no parser accepts all the cells, the texts are
+ * gathered and parsed with the fallback parser once the column is complete.
+ *
+ * <p>The text of a cell is only kept if it cannot be recreated from its parsed value, so columns of
+ * numbers are never materialized as texts.
+ */
+final class TypeInferringColumnBuilder extends ParsingColumnBuilder {
+  private final IncrementalDatatypeParser[] parsers;
+  private final DatatypeParser fallbackParser;
+
+  /** The first parser that has accepted all the cells so far, or the number of parsers if none. */
+  private int parserIndex = 0;
+
+  /** The values parsed so far, as long as a parser has accepted all the cells. */
+  private Values values = new Values();
+
+  /** The texts of all the cells, if none of the parsers accepted all of them. */
+  private StringStorageBuilder texts = null;
+
+  private SimplifiedProblemAggregator aggregator = new SimplifiedProblemAggregator();
+
+  TypeInferringColumnBuilder(IncrementalDatatypeParser[] parsers, DatatypeParser fallbackParser) {
+    this.parsers = parsers;
+    this.fallbackParser = fallbackParser;
+    if (parsers.length == 0) {
+      switchToTexts();
+    }
+  }
+
+  @Override
+  public void parseAndAppend(String cell) {
+    if (texts != null) {
+      texts.parseAndAppend(cell);
+      return;
+    }
+    if (cell == null) {
+      values.append(null, null);
+      return;
+    }
+
+    Object parsed = parsers[parserIndex].parseSingleValue(cell, aggregator);
+    if (!aggregator.hasProblems()) {
+      values.append(parsed, cell);
+      return;
+    }
+
+    aggregator = new SimplifiedProblemAggregator();
+    for (int next = parserIndex + 1; next < parsers.length; next++) {
+      parsed = parsers[next].parseSingleValue(cell, aggregator);
+      if (aggregator.hasProblems()) {
+        aggregator = new SimplifiedProblemAggregator();
+      } else if (retypeTo(next)) {
+        values.append(parsed, cell);
+        return;
+      }
+    }
+
+    switchToTexts();
+    texts.parseAndAppend(cell);
+  }
+
+  @Override
+  public void appendAll(ParsingColumnBuilder other, int count) {
+    TypeInferringColumnBuilder otherBuilder = (TypeInferringColumnBuilder) other;
+    if (texts == null && parserIndex < otherBuilder.parserIndex && count == otherBuilder.size()) {
+      // The other builder has already rejected all the parsers before its own, so they cannot
+      // accept the joined column. This only holds if all its cells are appended.
+      widenTo(otherBuilder.parserIndex);
+    }
+
+    if (otherBuilder.texts != null) {
+      if (texts != null) {
+        texts.appendAll(otherBuilder.texts, count);
+      } else {
+        for (int i = 0; i < count; i++) {
+          parseAndAppend(otherBuilder.texts.get(i));
+        }
+      }
+      return;
+    }
+
+    for (int i = 0; i < count; i++) {
+      if (texts == null && parserIndex == otherBuilder.parserIndex) {
+        values.copyRow(otherBuilder.values, i);
+      } else if (texts == null && otherBuilder.values.isCanonical(i)) {
+        Object widened = parsers[parserIndex].widen(otherBuilder.values.get(i));
+        if (widened != null) {
+          values.append(widened, otherBuilder.values.getText(i));
+        } else {
+          parseAndAppend(otherBuilder.values.getText(i));
+        }
+      } else {
+        parseAndAppend(otherBuilder.values.getText(i));
+      }
+    }
+  }
+
+  @Override
+  public WithProblems<Storage> seal(String columnName) {
+    if (texts != null) {
+      return fallbackParser.parseColumn(columnName, texts.seal());
+    }
+    return new WithProblems<>(values.seal(parsers[parserIndex]), List.of());
+  }
+
+  private int size() {
+    return texts != null ? texts.getCurrentSize() : values.size;
+  }
+
+  /** Retypes the column to the first parser, starting at the given one, accepting all its cells. */
+  private void widenTo(int first) {
+    for (int next = first; next < parsers.length; next++) {
+      if (retypeTo(next)) {
+        return;
+      }
+    }
+    switchToTexts();
+  }
+
+  /**
+   * Converts the values gathered so far to the values of the given parser.
+   *
+   * @return {@code false} if the parser does not accept all the cells, in which case nothing is
+   *     changed
+   */
+  private boolean retypeTo(int next) {
+    IncrementalDatatypeParser parser = parsers[next];
+    SimplifiedProblemAggregator problems = new SimplifiedProblemAggregator();
+    Values converted = new Values();
+    for (int i = 0; i < values.size; i++) {
+      if (values.isCanonical(i)) {
+        Object widened = parser.widen(values.get(i));
+        if (widened != null) {
+          converted.append(widened, values.getText(i));
+          continue;
+        }
+      }
+
+      String text = values.getText(i);
+      if (text == null) {
+        converted.append(null, null);
+        continue;
+      }
+      Object parsed = parser.parseSingleValue(text, problems);
+      if (problems.hasProblems()) {
+        return false;
+      }
+      converted.append(parsed, text);
+    }
+
+    values = converted;
+    parserIndex = next;
+    return true;
+  }
+
+  private void switchToTexts() {
+    texts = new StringStorageBuilder();
+    if (values != null) {
+      for (int i = 0; i < values.size; i++) {
+        texts.parseAndAppend(values.getText(i));
+      }
+    }
+    values = null;
+    parserIndex = parsers.length;
+  }
+
+  /**
+   * The values parsed from the cells of a column, together with what is needed to recreate the
+   * texts of the cells.
+   *
+   * <p>Integers and decimals are stored unboxed, and sealed directly into numeric storages, like
+   * the ones built by the integer and decimal parsers. The text of a cell is only stored if it
+   * differs from the text representation of its value, or, for integral decimals, of the
+   * corresponding integer.
+   */
+  private static final class Values {
+    private enum Kind {
+      NONE,
+      LONG,
+      DOUBLE,
+      OBJECT
+    }
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private Kind kind = Kind.NONE;
+    private int size = 0;
+    private int capacity = INITIAL_CAPACITY;
+    private long[] primitives = null;
+    private Object[] objects = null;
+    private final BitSet isMissing = new BitSet();
+    private String[] rawTexts = null;
+    private final BitSet hasIntegralText = new BitSet();
+
+    /** Appends a parsed value, together with the text it was parsed from. */
+    private void append(Object value, String text) {
+      ensureCapacity();
+      store(value);
+      if (text != null && !isTextOf(value, text)) {
+        if (value instanceof Double d && text.equals(integralText(d))) {
+          hasIntegralText.set(size);
+        } else {
+          if (rawTexts == null) {
+            rawTexts = new String[capacity];
+          }
+          rawTexts[size] = text;
+        }
+      }
+      size++;
+    }
+
+    /** Appends a row of other values, of the same parser. */
+    private void copyRow(Values other, int idx) {
+      ensureCapacity();
+      store(other.get(idx));
+      if (other.rawTexts != null && other.rawTexts[idx] != null) {
+        if (rawTexts == null) {
+          rawTexts = new String[capacity];
+        }
+        rawTexts[size] = other.rawTexts[idx];
+      }
+      if (other.hasIntegralText.get(idx)) {
+        hasIntegralText.set(size);
+      }
+      size++;
+    }
+
+    private void store(Object value) {
+      if (value == null) {
+        isMissing.set(size);
+        return;
+      }
+
+      if (kind == Kind.NONE) {
+        if (value instanceof Long || value instanceof Double) {
+          kind = value instanceof Long ? Kind.LONG : Kind.DOUBLE;
+          primitives = new long[capacity];
+        } else {
+          kind = Kind.OBJECT;
+          objects = new Object[capacity];
+        }
+      }
+
+      if (kind == Kind.LONG && value instanceof Long l) {
+        primitives[size] = l;
+      } else if (kind == Kind.DOUBLE && value instanceof Double d) {
+        primitives[size] = Double.doubleToRawLongBits(d);
+      } else {
+        boxAll();
+        objects[size] = value;
+      }
+    }
+
+    private void boxAll() {
+      if (kind == Kind.OBJECT) {
+        return;
+      }
+      objects = new Object[capacity];
+      for (int i = 0; i < size; i++) {
+        objects[i] = get(i);
+      }
+      primitives = null;
+      kind = Kind.OBJECT;
+    }
+
+    private void ensureCapacity() {
+      if (size < capacity) {
+        return;
+      }
+      capacity *= 2;
+      if (primitives != null) {
+        primitives = Arrays.copyOf(primitives, capacity);
+      }
+      if (objects != null) {
+        objects = Arrays.copyOf(objects, capacity);
+      }
+      if (rawTexts != null) {
+        rawTexts = Arrays.copyOf(rawTexts, capacity);
+      }
+    }
+
+    private Object get(int idx) {
+      if (isMissing.get(idx)) {
+        return null;
+      }
+      return switch (kind) {
+        case LONG -> primitives[idx];
+        case DOUBLE -> Double.longBitsToDouble(primitives[idx]);
+        default -> objects[idx];
+      };
+    }
+
+    /** @return whether the text of the cell is the text representation of its non-null value */
+    private boolean isCanonical(int idx) {
+      return !isMissing.get(idx)
+          && (rawTexts == null || rawTexts[idx] == null)
+          && !hasIntegralText.get(idx);
+    }
+
+    private String getText(int idx) {
+      if (rawTexts != null && rawTexts[idx] != null) {
+        return rawTexts[idx];
+      }
+      Object value = get(idx);
+      if (value == null) {
+        return null;
+      }
+      return hasIntegralText.get(idx) ? integralText((Double) value) : String.valueOf(value);
+    }
+
+    private static boolean isTextOf(Object value, String text) {
+      return value != null && text.equals(String.valueOf(value));
+    }
+
+    /** @return the text of the integer equal to the value, or null if there is no such integer */
+    private static String integralText(double value) {
+      long integral = (long) value;
+      return integral == value ? Long.toString(integral) : null;
+    }
+
+    private Storage seal(IncrementalDatatypeParser parser) {
+      return switch (kind) {
+        case LONG -> new LongStorage(primitives, size, isMissing);
+        case DOUBLE -> new DoubleStorage(primitives, size, isMissing);
+        default -> {
+          Builder builder = parser.makeBuilderWithCapacity(size);
+          for (int i = 0; i < size; i++) {
+            builder.appendNoGrow(get(i));
+          }
+          yield builder.seal();
+        }
+      };
+    }
+  }
+}
@@ -1,10 +1,8 @@
 package org.enso.table.parsing;
 
-import org.enso.table.data.column.builder.object.Builder;
 import org.enso.table.data.column.storage.Storage;
 import org.enso.table.data.column.storage.StringStorage;
 import org.enso.table.parsing.problems.ProblemAggregator;
-import org.enso.table.parsing.problems.ProblemAggregatorImpl;
 import org.enso.table.parsing.problems.SimplifiedProblemAggregator;
 import org.enso.table.problems.WithProblems;
 
@@ -14,6 +12,8 @@ import org.enso.table.problems.WithProblems;
  *
  * <p>If all parsers from the set reported problems, the fallback parser is used and its result is
  * returned regardless of any problems.
+ *
+ * <p>The column is parsed in a single pass, see {@link TypeInferringColumnBuilder}.
  */
 public class TypeInferringParser extends DatatypeParser {
 
@@ -41,27 +41,15 @@ public class TypeInferringParser extends DatatypeParser {
 
   @Override
   public WithProblems<Storage> parseColumn(String columnName, StringStorage sourceStorage) {
-    parsers:
-    for (IncrementalDatatypeParser parser : baseParsers) {
-      Builder builder = parser.makeBuilderWithCapacity(sourceStorage.size());
-      var aggregator = new ProblemAggregatorImpl(columnName);
-
-      for (int i = 0; i < sourceStorage.size(); ++i) {
-        String cell = sourceStorage.getItem(i);
-        if (cell != null) {
-          Object parsed = parser.parseSingleValue(cell, aggregator);
-          if (aggregator.hasProblems()) {
-            continue parsers;
-          }
-          builder.appendNoGrow(parsed);
-        } else {
-          builder.appendNoGrow(null);
-        }
-      }
-
-      return new WithProblems<>(builder.seal(), aggregator.getAggregatedProblems());
+    ParsingColumnBuilder builder = makeColumnBuilder();
+    for (int i = 0; i < sourceStorage.size(); ++i) {
+      builder.parseAndAppend(sourceStorage.getItem(i));
     }
+    return builder.seal(columnName);
+  }
 
-    return fallbackParser.parseColumn(columnName, sourceStorage);
+  @Override
+  public ParsingColumnBuilder makeColumnBuilder() {
+    return new TypeInferringColumnBuilder(baseParsers, fallbackParser);
   }
 }
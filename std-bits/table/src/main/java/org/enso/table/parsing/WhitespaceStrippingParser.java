@@ -24,4 +24,9 @@ public class WhitespaceStrippingParser extends IncrementalDatatypeParser {
   protected Builder makeBuilderWithCapacity(int capacity) {
     return innerParser.makeBuilderWithCapacity(capacity);
   }
+
+  @Override
+  protected Object widen(Object value) {
+    return innerParser.widen(value);
+  }
 }
@@ -1,22 +1,28 @@
 package org.enso.table.read;
 
+import com.univocity.parsers.common.TextParsingException;
 import com.univocity.parsers.csv.CsvFormat;
 import com.univocity.parsers.csv.CsvParser;
 import com.univocity.parsers.csv.CsvParserSettings;
+import java.io.IOException;
 import java.io.Reader;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
-import org.enso.table.data.column.builder.string.StringStorageBuilder;
 import org.enso.table.data.column.storage.Storage;
-import org.enso.table.data.column.storage.StringStorage;
 import org.enso.table.data.index.DefaultIndex;
 import org.enso.table.data.table.Column;
 import org.enso.table.data.table.Table;
 import org.enso.table.problems.WithProblems;
 import org.enso.table.parsing.DatatypeParser;
+import org.enso.table.parsing.ParsingColumnBuilder;
 import org.enso.table.parsing.TypeInferringParser;
 import org.enso.table.parsing.problems.AdditionalInvalidRows;
 import org.enso.table.parsing.problems.InvalidRow;
@@ -25,12 +31,26 @@ import org.enso.table.parsing.problems.NoOpProblemAggregator;
 import org.enso.table.problems.Problem;
 import org.enso.table.util.NameDeduplicator;
 
-/** A helper for reading delimited (CSV-like) files. */
+/**
+ * A helper for reading delimited (CSV-like) files.
+ *
+ * <p>When more than one thread is available, the input is split into chunks of whole records (see
+ * {@link RecordChunker}). The rows needed to determine the headers are read sequentially, and the
+ * remaining chunks are parsed concurrently into their own builders, which are then appended to the
+ * resulting columns in the order of the input.
+ *
+ * <p>If the input is a {@link MappedFileReader}, the file is always split into chunks, by scanning
+ * its bytes directly (see {@link MappedRecordChunker}). Chunks are only split off as they are
+ * needed and each of them is only decoded when it is parsed, so once the row limit is reached the
+ * rest of the file is not read at all.
+ */
 public class DelimitedReader {
 
   private static final String COLUMN_NAME = "Column";
   private static final char noQuoteCharacter = '\0';
   private static final long invalidRowsLimit = 10;
+  /** The approximate number of characters in a chunk of input parsed by a single thread. */
+  private static final int CHUNK_SIZE = 1 << 22;
   private final char delimiter;
   private final char quoteCharacter;
   private final char quoteEscapeCharacter;
@@ -39,7 +59,13 @@ public class DelimitedReader {
   private final long rowLimit;
   private final int maxColumns;
   private final List<Problem> warnings = new ArrayList<>();
-  private final CsvParser parser;
+  private final Reader input;
+  private final RecordChunker chunker;
+  /** Specifies if the chunks following the headers are parsed concurrently. */
+  private final boolean parallel;
+  private CsvParser parser;
+  /** The number of lines in the input preceding the input of the current parser. */
+  private long parserFirstLine = 0;
   private final DatatypeParser valueParser;
   private final TypeInferringParser cellTypeGuesser;
   private final boolean keepInvalidRows;
@@ -49,12 +75,12 @@ public class DelimitedReader {
   private long targetTableIndex = 0;
   /** The line number of the start of the current row in the input file. */
   private long currentLine = 0;
-  private StringStorageBuilder[] builders = null;
+  private ParsingColumnBuilder[] builders = null;
 
   /**
    * Creates a new reader.
    *
-   * @param input a reader providing decoded input characters
+   * @param input a reader providing decoded input characters, possibly a {@link MappedFileReader}
    * @param delimiter the delimiter, should be a single character, but is a String for proper
    *     interoperability with Enso; if a string that does not fit in a single character is
    *     provided, an exception is raised
@@ -142,11 +168,35 @@ public class DelimitedReader {
 
     this.valueParser = valueParser;
     this.cellTypeGuesser = cellTypeGuesser;
-    parser = setupCsvParser(input);
+    this.input = input;
+    boolean concurrent = ForkJoinPool.getCommonPoolParallelism() > 1;
+    if (input instanceof MappedFileReader file
+        && MappedRecordChunker.supports(this.delimiter, quoteCharacter, quoteEscapeCharacter)) {
+      chunker =
+          new MappedRecordChunker(
+              file, this.delimiter, quoteCharacter, quoteEscapeCharacter, CHUNK_SIZE);
+    } else if (concurrent) {
+      chunker =
+          new ReaderRecordChunker(
+              input, this.delimiter, quoteCharacter, quoteEscapeCharacter, CHUNK_SIZE);
+    } else {
+      chunker = null;
+    }
+    parallel = chunker != null && concurrent;
   }
 
   /** Creates a {@code CsvParser} according to the settings specified at construction. */
   private CsvParser setupCsvParser(Reader input) {
+    return setupCsvParser(input, null);
+  }
+
+  /**
+   * Creates a {@code CsvParser} according to the settings specified at construction.
+   *
+   * @param input the input to parse
+   * @param lineSeparator the line separator to use, or {@code null} to detect it from the input
+   */
+  private CsvParser setupCsvParser(Reader input, String lineSeparator) {
     CsvParserSettings settings = new CsvParserSettings();
     settings.setHeaderExtractionEnabled(false);
     CsvFormat format = new CsvFormat();
@@ -158,7 +208,11 @@ public class DelimitedReader {
     settings.setMaxColumns(maxColumns);
     settings.setSkipEmptyLines(false);
     settings.setKeepQuotes(true);
-    settings.setLineSeparatorDetectionEnabled(true);
+    if (lineSeparator == null) {
+      settings.setLineSeparatorDetectionEnabled(true);
+    } else {
+      format.setLineSeparator(lineSeparator);
+    }
     CsvParser parser = new CsvParser(settings);
     parser.beginParsing(input);
     return parser;
@@ -205,13 +259,67 @@ public class DelimitedReader {
   /**
    * Reads the next row and updates the current line accordingly.
    *
+   * <p>When the input is split into chunks, the reading continues with the next chunk once the
+   * current one is exhausted.
+   *
    * <p>Will return {@code null} if no more rows are available.
    */
   private String[] readNextRow() {
-    currentLine = parser.getContext().currentLine() + 1;
+    String[] row = readNextRowOfChunk();
+    while (row == null && openNextChunk()) {
+      row = readNextRowOfChunk();
+    }
+    return row;
+  }
+
+  /**
+   * Reads the next row of the current parser and updates the current line accordingly.
+   *
+   * <p>Will return {@code null} if no more rows are available from the current parser.
+   */
+  private String[] readNextRowOfChunk() {
+    if (parser == null) {
+      return null;
+    }
+    currentLine = parserFirstLine + parser.getContext().currentLine() + 1;
     return parser.parseNext();
   }
 
+  /**
+   * Sets up the parser for the next chunk of the input.
+   *
+   * @return {@code false} if there are no more chunks
+   */
+  private boolean openNextChunk() {
+    if (chunker == null) {
+      return false;
+    }
+    RecordChunker.Chunk chunk = nextChunk();
+    if (chunk == null) {
+      return false;
+    }
+    parser.stopParsing();
+    parser = setupCsvParser(chunk.reader(), chunk.lineSeparator());
+    parserFirstLine = chunk.firstLine();
+    return true;
+  }
+
+  private RecordChunker.Chunk nextChunk() {
+    try {
+      return chunker.next();
+    } catch (IOException e) {
+      throw new TextParsingException(null, "Error reading the input.", e);
+    }
+  }
+
+  private void closeInput() {
+    try {
+      input.close();
+    } catch (IOException e) {
+      throw new TextParsingException(null, "Error closing the input.", e);
+    }
+  }
+
   private void appendRow(String[] row) {
     assert builders != null;
     assert canFitMoreRows();
@@ -220,28 +328,28 @@ public class DelimitedReader {
       reportInvalidRow(currentLine, keepInvalidRows ? targetTableIndex : null, row);
 
       if (keepInvalidRows) {
-        for (int i = 0; i < builders.length && i < row.length; i++) {
-          builders[i] = builders[i].parseAndAppend(row[i]);
-        }
-
-        // If the current row had fewer columns than expected, nulls are inserted for the missing
-        // values.
-        // If it had more columns, the excess columns are discarded.
-        for (int i = row.length; i < builders.length; i++) {
-          builders[i] = builders[i].parseAndAppend(null);
-        }
-
+        appendCells(builders, row);
         targetTableIndex++;
       }
     } else {
-      for (int i = 0; i < builders.length; i++) {
-        builders[i] = builders[i].parseAndAppend(row[i]);
-      }
-
+      appendCells(builders, row);
       targetTableIndex++;
     }
   }
 
+  private static void appendCells(ParsingColumnBuilder[] builders, String[] row) {
+    for (int i = 0; i < builders.length && i < row.length; i++) {
+      builders[i].parseAndAppend(row[i]);
+    }
+
+    // If the current row had fewer columns than expected, nulls are inserted for the missing
+    // values.
+    // If it had more columns, the excess columns are discarded.
+    for (int i = row.length; i < builders.length; i++) {
+      builders[i].parseAndAppend(null);
+    }
+  }
+
   private boolean canFitMoreRows() {
     return rowLimit < 0 || targetTableIndex < rowLimit;
   }
@@ -282,6 +390,16 @@ public class DelimitedReader {
 
   /** Reads the input stream and returns a Table. */
   public WithProblems<Table> read() {
+    if (chunker == null) {
+      parser = setupCsvParser(input);
+    } else {
+      RecordChunker.Chunk chunk = nextChunk();
+      parser =
+          chunk == null
+              ? setupCsvParser(Reader.nullReader())
+              : setupCsvParser(chunk.reader(), chunk.lineSeparator());
+    }
+
     WithProblems<List<String>> headerNames;
     String[] currentRow = readNextRow();
 
@@ -333,19 +451,25 @@ public class DelimitedReader {
       default -> throw new IllegalStateException("Impossible branch.");
     }
 
+    // When parsing in parallel, the rest of the current chunk is read sequentially, and any further
+    // chunks concurrently.
     while (currentRow != null && canFitMoreRows()) {
       appendRow(currentRow);
-      currentRow = readNextRow();
+      currentRow = parallel ? readNextRowOfChunk() : readNextRow();
     }
 
     parser.stopParsing();
+    if (parallel && currentRow == null) {
+      readRemainingChunks();
+    }
+    if (chunker != null) {
+      closeInput();
+    }
 
     Column[] columns = new Column[builders.length];
     for (int i = 0; i < builders.length; i++) {
       String columnName = headerNames.value().get(i);
-      StringStorage col = builders[i].seal();
-
-      WithProblems<Storage> parseResult = valueParser.parseColumn(columnName, col);
+      WithProblems<Storage> parseResult = builders[i].seal(columnName);
       for (var problem : parseResult.problems()) {
         reportProblem(problem);
       }
@@ -356,11 +480,119 @@ public class DelimitedReader {
     return new WithProblems<>(new Table(columns), getReportedProblems(headerNames.problems()));
   }
 
+  /**
+   * Parses the remaining chunks of the input in parallel and appends their rows in order.
+   *
+   * <p>Only a bounded number of chunks is parsed ahead of the rows being appended, so that the
+   * input is not read further than needed when the row limit is reached.
+   */
+  private void readRemainingChunks() {
+    int window = 2 * ForkJoinPool.getCommonPoolParallelism();
+    Deque<CompletableFuture<ChunkRows>> pending = new ArrayDeque<>();
+    try {
+      while (canFitMoreRows()) {
+        RecordChunker.Chunk chunk;
+        while (pending.size() < window && (chunk = nextChunk()) != null) {
+          RecordChunker.Chunk toParse = chunk;
+          pending.add(CompletableFuture.supplyAsync(() -> parseChunk(toParse)));
+        }
+        if (pending.isEmpty()) {
+          break;
+        }
+        appendChunkRows(pending.poll().join());
+      }
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    } finally {
+      pending.forEach(future -> future.cancel(false));
+    }
+  }
+
+  /** Parses all the rows of a chunk (up to the row limit), without reporting any problems. */
+  private ChunkRows parseChunk(RecordChunker.Chunk chunk) {
+    CsvParser chunkParser = setupCsvParser(chunk.reader(), chunk.lineSeparator());
+    ChunkRows result = new ChunkRows(makeBuilders(builders.length));
+    while (rowLimit < 0 || result.rowCount < rowLimit) {
+      long line = chunk.firstLine() + chunkParser.getContext().currentLine() + 1;
+      String[] row = chunkParser.parseNext();
+      if (row == null) {
+        break;
+      }
+
+      if (row.length != builders.length) {
+        result.addInvalidRow(line, row);
+        if (keepInvalidRows) {
+          appendCells(result.builders, row);
+          result.rowCount++;
+        }
+      } else {
+        appendCells(result.builders, row);
+        result.rowCount++;
+      }
+    }
+    chunkParser.stopParsing();
+    return result;
+  }
+
+  /** Appends the rows of a parsed chunk, reporting its invalid rows as if they were read here. */
+  private void appendChunkRows(ChunkRows chunkRows) {
+    for (int i = 0; i < chunkRows.invalidRowLines.size(); i++) {
+      long rowsBefore = targetTableIndex + chunkRows.invalidRowPositions.get(i);
+      if (rowLimit >= 0 && rowsBefore >= rowLimit) {
+        break;
+      }
+      String[] row = i < chunkRows.invalidRows.size() ? chunkRows.invalidRows.get(i) : null;
+      reportInvalidRow(chunkRows.invalidRowLines.get(i), keepInvalidRows ? rowsBefore : null, row);
+    }
+
+    int count = chunkRows.rowCount;
+    if (rowLimit >= 0) {
+      count = (int) Math.min(count, rowLimit - targetTableIndex);
+    }
+    for (int i = 0; i < builders.length; i++) {
+      builders[i].appendAll(chunkRows.builders[i], count);
+    }
+    targetTableIndex += count;
+  }
+
+  /** The rows parsed from a single chunk of the input. */
+  private static final class ChunkRows {
+    private final ParsingColumnBuilder[] builders;
+    private int rowCount = 0;
+    /** The source lines of all invalid rows of the chunk. */
+    private final List<Long> invalidRowLines = new ArrayList<>();
+    /** The number of rows of the chunk appended before each of its invalid rows. */
+    private final List<Integer> invalidRowPositions = new ArrayList<>();
+    /** The contents of the first few invalid rows, which may need to be reported. */
+    private final List<String[]> invalidRows = new ArrayList<>();
+
+    private ChunkRows(ParsingColumnBuilder[] builders) {
+      this.builders = builders;
+    }
+
+    private void addInvalidRow(long line, String[] row) {
+      invalidRowLines.add(line);
+      invalidRowPositions.add(rowCount);
+      if (invalidRows.size() < invalidRowsLimit) {
+        invalidRows.add(row);
+      }
+    }
+  }
+
   private void initBuilders(int count) {
-    builders = new StringStorageBuilder[count];
+    builders = makeBuilders(count);
+  }
+
+  /** Creates builders parsing the cells of each column as they are read. */
+  private ParsingColumnBuilder[] makeBuilders(int count) {
+    ParsingColumnBuilder[] result = new ParsingColumnBuilder[count];
     for (int i = 0; i < count; i++) {
-      builders[i] = new StringStorageBuilder();
+      result[i] = valueParser.makeColumnBuilder();
     }
+    return result;
   }
 
   /** Specifies how to set the headers for the returned table. */
@@ -0,0 +1,247 @@
+package org.enso.table.read;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.Charset;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A reader of a local file, which is memory-mapped instead of being read through a stream.
+ *
+ * <p>Used as a {@code Reader}, it decodes the whole file. The {@link DelimitedReader} however scans
+ * the mapped bytes directly for record boundaries (see {@link MappedRecordChunker}), and only
+ * decodes the parts of the file that are actually parsed. This requires an encoding in which the
+ * characters significant for the scanning are single bytes that do not occur within the encodings
+ * of other characters, so only UTF-8 and ASCII are supported.
+ *
+ * <p>Invalid input is replaced and reported like in {@code ReportingStreamDecoder}.
+ */
+public final class MappedFileReader extends Reader {
+  /** Smaller files are read faster through a stream than by setting up a mapping. */
+  private static final long MIN_MAPPED_SIZE = 1 << 20;
+
+  /** The number of bytes mapped at once when decoding. */
+  private static final int DECODING_WINDOW_SIZE = 1 << 24;
+
+  private static final String INVALID_CHARACTER = "\uFFFD";
+
+  private final FileChannel channel;
+  private final long size;
+  private final Charset charset;
+  private final List<Long> encodingIssuePositions = new ArrayList<>();
+  private Reader wholeFile = null;
+
+  /**
+   * Opens a file for reading.
+   *
+   * @param path the path of the file
+   * @param charset the encoding of the file, must be {@linkplain #isSupported supported}
+   * @throws IOException if the file cannot be opened
+   */
+  public MappedFileReader(String path, Charset charset) throws IOException {
+    if (!isSupported(charset)) {
+      throw new IllegalArgumentException("Mapping files in " + charset + " is not supported.");
+    }
+    this.charset = charset;
+    channel = FileChannel.open(Path.of(path), StandardOpenOption.READ);
+    size = channel.size();
+  }
+
+  /** Checks if files in the given encoding can be read by this reader. */
+  public static boolean isSupported(Charset charset) {
+    return charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII);
+  }
+
+  /**
+   * Checks if the given file should be read by mapping it into memory.
+   *
+   * <p>Only files in a supported encoding and large enough for the mapping to pay off qualify. If
+   * the size of the file cannot be determined, it is left to be read through a stream, which will
+   * report the failure.
+   */
+  public static boolean shouldMap(String path, Charset charset) {
+    if (!isSupported(charset)) {
+      return false;
+    }
+    try {
+      return Files.size(Path.of(path)) >= MIN_MAPPED_SIZE;
+    } catch (IOException | RuntimeException e) {
+      return false;
+    }
+  }
+
+  /** Returns the size of the file in bytes. */
+  long size() {
+    return size;
+  }
+
+  /** Maps the given part of the file into memory. */
+  ByteBuffer map(long position, int length) throws IOException {
+    return channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+  }
+
+  /** Returns a reader decoding the given part of the file, which may not split any character. */
+  Reader decode(long position, long length) {
+    return new RegionReader(position, position + length, null);
+  }
+
+  /**
+   * Returns a reader decoding an already mapped part of the file, which may not split any
+   * character.
+   *
+   * @param position the position of the mapped part in the file
+   * @param bytes the mapped part of the file
+   */
+  Reader decode(long position, ByteBuffer bytes) {
+    return new RegionReader(position, position + bytes.remaining(), bytes);
+  }
+
+  @Override
+  public int read(char[] cbuf, int off, int len) throws IOException {
+    if (wholeFile == null) {
+      wholeFile = decode(0, size);
+    }
+    return wholeFile.read(cbuf, off, len);
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /** Returns a list of problems encountered during the decoding. */
+  public List<String> getReportedProblems() {
+    List<Long> positions;
+    synchronized (encodingIssuePositions) {
+      positions = encodingIssuePositions.stream().sorted().collect(Collectors.toList());
+    }
+
+    if (positions.isEmpty()) {
+      return List.of();
+    } else {
+      if (positions.size() == 1) {
+        return List.of("Encoding issues at byte " + positions.get(0) + ".");
+      }
+
+      String issues =
+          positions.stream()
+              .map(String::valueOf)
+              .collect(Collectors.joining(", ", "Encoding issues at bytes ", "."));
+      return List.of(issues);
+    }
+  }
+
+  private void reportEncodingProblem(long position) {
+    synchronized (encodingIssuePositions) {
+      encodingIssuePositions.add(position);
+    }
+  }
+
+  /**
+   * Decodes a part of the file, mapping it into memory piece by piece as it is read.
+   *
+   * <p>Parts of different readers may be decoded concurrently.
+   */
+  private final class RegionReader extends Reader {
+    private final CharsetDecoder decoder =
+        charset
+            .newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT);
+    private final long end;
+    /** The position in the file of the start of {@code window}. */
+    private long windowStart;
+
+    private ByteBuffer window;
+    private boolean finished = false;
+    /** A decoded character that did not fit in the last read, or -1 if there is none. */
+    private int pending = -1;
+
+    private RegionReader(long start, long end, ByteBuffer window) {
+      this.windowStart = start;
+      this.end = end;
+      this.window = window;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      if (pending >= 0) {
+        cbuf[off] = (char) pending;
+        pending = -1;
+        return 1;
+      }
+
+      CharBuffer output = CharBuffer.wrap(cbuf, off, len);
+      decodeInto(output);
+      if (output.position() == off && !finished) {
+        // The next character is a surrogate pair, which does not fit in a single requested char.
+        CharBuffer pair = CharBuffer.allocate(2);
+        decodeInto(pair);
+        cbuf[off] = pair.get(0);
+        pending = pair.get(1);
+        return 1;
+      }
+
+      int read = output.position() - off;
+      return read == 0 ? -1 : read;
+    }
+
+    /** Decodes characters until the output is full or the end of the region is reached. */
+    private void decodeInto(CharBuffer output) throws IOException {
+      while (!finished && output.hasRemaining()) {
+        if (window == null || !window.hasRemaining() && !isLastWindow()) {
+          mapNextWindow();
+        }
+
+        boolean endOfInput = isLastWindow();
+        CoderResult result = decoder.decode(window, output, endOfInput);
+        if (result.isMalformed() || result.isUnmappable()) {
+          if (!output.hasRemaining()) {
+            // The problem is reported once there is room for the replacement.
+            return;
+          }
+          reportEncodingProblem(windowStart + window.position());
+          output.put(INVALID_CHARACTER);
+          window.position(window.position() + result.length());
+        } else if (result.isOverflow()) {
+          return;
+        } else if (endOfInput) {
+          finished = decoder.flush(output).isUnderflow();
+        } else {
+          // Any bytes of an incomplete character are mapped again at the start of the next window.
+          mapNextWindow();
+        }
+      }
+    }
+
+    private boolean isLastWindow() {
+      return window != null && windowStart + window.limit() == end;
+    }
+
+    /** Maps the part of the region starting at the current position. */
+    private void mapNextWindow() throws IOException {
+      long position = window == null ? windowStart : windowStart + window.position();
+      int length = (int) Math.min(end - position, DECODING_WINDOW_SIZE);
+      window = map(position, length);
+      windowStart = position;
+    }
+
+    @Override
+    public void close() {}
+  }
+}
@@ -0,0 +1,78 @@
+package org.enso.table.read;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link RecordChunker} splitting a memory-mapped file by scanning its bytes directly.
+ *
+ * <p>The chunks are returned as readers decoding their part of the file, so that no bytes are
+ * decoded until the chunk is actually parsed. It requires the delimiter and quote characters to be
+ * ASCII characters (see {@link #supports}).
+ */
+final class MappedRecordChunker extends RecordChunker {
+  /** The minimal number of bytes mapped at once for scanning. */
+  private static final int WINDOW_SIZE = 1 << 26;
+
+  private final MappedFileReader file;
+  /** The position in the file of the first byte that has not been returned in a chunk. */
+  private long windowStart = 0;
+  /** The mapped part of the file, starting at {@code windowStart}. */
+  private ByteBuffer window = ByteBuffer.allocate(0);
+
+  /**
+   * @param file the file to split
+   * @param delimiter the delimiter character
+   * @param quoteCharacter the quote character, or {@code '\0'} if quotes are disabled
+   * @param quoteEscapeCharacter the quote escape character, or {@code '\0'} if not used
+   * @param maxChunkSize the approximate number of bytes in each chunk, once the chunks have grown
+   */
+  MappedRecordChunker(
+      MappedFileReader file,
+      char delimiter,
+      char quoteCharacter,
+      char quoteEscapeCharacter,
+      int maxChunkSize) {
+    super(delimiter, quoteCharacter, quoteEscapeCharacter, maxChunkSize);
+    this.file = file;
+    endOfInput = file.size() == 0;
+  }
+
+  /** Checks if input with the given special characters can be split by scanning its bytes. */
+  static boolean supports(char delimiter, char quoteCharacter, char quoteEscapeCharacter) {
+    return delimiter < 0x80 && quoteCharacter < 0x80 && quoteEscapeCharacter < 0x80;
+  }
+
+  @Override
+  protected void fill(int target) throws IOException {
+    if (endOfInput || length >= target) {
+      return;
+    }
+
+    long available = file.size() - windowStart;
+    long wanted = Math.max(target, Math.max(WINDOW_SIZE, 2L * length));
+    int size = (int) Math.min(available, Math.min(wanted, Integer.MAX_VALUE));
+    window = file.map(windowStart, size);
+    length = size;
+    endOfInput = size == available;
+  }
+
+  @Override
+  protected char unitAt(int i) {
+    return (char) (window.get(i) & 0xFF);
+  }
+
+  @Override
+  protected Reader take(int end) {
+    Reader chunk = file.decode(windowStart, window.slice(0, end));
+    window = window.slice(end, length - end);
+    windowStart += end;
+    return chunk;
+  }
+
+  @Override
+  protected Reader remaining() {
+    return file.decode(windowStart, file.size() - windowStart);
+  }
+}
@@ -0,0 +1,96 @@
+package org.enso.table.read;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/** A {@link RecordChunker} splitting the characters of a reader, buffering them as needed. */
+final class ReaderRecordChunker extends RecordChunker {
+  private static final int INITIAL_BUFFER_SIZE = 1 << 13;
+
+  private final Reader input;
+  private char[] buffer = new char[INITIAL_BUFFER_SIZE];
+
+  /**
+   * @param input the input to split
+   * @param delimiter the delimiter character
+   * @param quoteCharacter the quote character, or {@code '\0'} if quotes are disabled
+   * @param quoteEscapeCharacter the quote escape character, or {@code '\0'} if not used
+   * @param maxChunkSize the approximate number of characters in each chunk, once the chunks have
+   *     grown
+   */
+  ReaderRecordChunker(
+      Reader input,
+      char delimiter,
+      char quoteCharacter,
+      char quoteEscapeCharacter,
+      int maxChunkSize) {
+    super(delimiter, quoteCharacter, quoteEscapeCharacter, maxChunkSize);
+    this.input = input;
+  }
+
+  @Override
+  protected void fill(int target) throws IOException {
+    while (!endOfInput && length < target) {
+      if (length == buffer.length) {
+        buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+      }
+      int read = input.read(buffer, length, buffer.length - length);
+      if (read < 0) {
+        endOfInput = true;
+      } else {
+        length += read;
+      }
+    }
+  }
+
+  @Override
+  protected char unitAt(int i) {
+    return buffer[i];
+  }
+
+  @Override
+  protected Reader take(int end) {
+    char[] chunk = Arrays.copyOf(buffer, end);
+    System.arraycopy(buffer, end, buffer, 0, length - end);
+    return new CharArrayReader(chunk);
+  }
+
+  @Override
+  protected Reader remaining() {
+    Reader buffered = new CharArrayReader(buffer, 0, length);
+    return endOfInput ? buffered : new ConcatenatedReader(buffered, input);
+  }
+
+  /** A reader returning the contents of one reader followed by another. */
+  private static final class ConcatenatedReader extends Reader {
+    private Reader current;
+    private Reader following;
+
+    private ConcatenatedReader(Reader first, Reader second) {
+      this.current = first;
+      this.following = second;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+      while (true) {
+        int read = current.read(cbuf, off, len);
+        if (read >= 0 || following == null) {
+          return read;
+        }
+        current = following;
+        following = null;
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      current.close();
+      if (following != null) {
+        following.close();
+      }
+    }
+  }
+}
@@ -0,0 +1,267 @@
+package org.enso.table.read;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Splits delimited input into chunks of whole records, which can then be parsed independently.
+ *
+ * <p>The input is scanned with a lightweight state machine following the quoting rules of the
+ * parser: a quote opens a quoted value only at the start of a field (possibly after leading
+ * whitespace), and inside a quoted value the escape character followed by a quote or by itself is
+ * skipped. A chunk may only end right after a line separator that is outside of any quoted value.
+ * As in the parser, the line separator is the first one occurring in the input, so that for
+ * example a lone {@code \n} does not end a record of input separated with {@code \r\n}. Input
+ * separated with a lone {@code \r} is not split.
+ *
+ * <p>If the scanner encounters input whose interpretation by the parser it cannot be sure about
+ * (for example a closing quote followed by further characters of the same value), it stops
+ * splitting and returns all the remaining input as the last chunk.
+ *
+ * <p>The first chunks are small, so that the first rows of the input are available quickly, and
+ * the size of the chunks then grows up to the requested one.
+ *
+ * <p>Subclasses provide the input as a sequence of units, starting at the end of the last returned
+ * chunk. The scanner only compares the units with the delimiter, quote and line separator
+ * characters and with the space, so the units may also be the bytes of an encoding in which these
+ * characters are represented by single bytes that do not occur in the encodings of other
+ * characters.
+ */
+abstract class RecordChunker {
+  /**
+   * A part of the input consisting of whole records.
+   *
+   * @param reader the characters of the chunk
+   * @param firstLine the number of lines in the input preceding this chunk
+   * @param lineSeparator the line separator of the input, or {@code null} if it is not known yet
+   */
+  record Chunk(Reader reader, long firstLine, String lineSeparator) {}
+
+  private enum State {
+    FIELD_START,
+    UNQUOTED,
+    QUOTED,
+    AFTER_QUOTE
+  }
+
+  private final char delimiter;
+  private final char quoteCharacter;
+  private final char quoteEscapeCharacter;
+  private static final int INITIAL_CHUNK_SIZE = 1 << 16;
+
+  private final int maxChunkSize;
+  /** The approximate number of units in the next chunk. */
+  private int chunkSize;
+
+  /** The number of units of the input available to the scanner. */
+  protected int length = 0;
+  /** Set once all the remaining units of the input are available to the scanner. */
+  protected boolean endOfInput = false;
+
+  /** The number of available units that have already been scanned. */
+  private int scanned = 0;
+  /** The end of the last complete record found in the available units. */
+  private int lastBoundary = 0;
+
+  private State state = State.FIELD_START;
+  private String lineSeparator = null;
+  private long linesScanned = 0;
+  private long linesAtLastBoundary = 0;
+  private long linesEmitted = 0;
+  private boolean finished = false;
+
+  /**
+   * @param delimiter the delimiter character
+   * @param quoteCharacter the quote character, or {@code '\0'} if quotes are disabled
+   * @param quoteEscapeCharacter the quote escape character, or {@code '\0'} if not used
+   * @param maxChunkSize the approximate number of units in each chunk, once the chunks have grown
+   */
+  RecordChunker(char delimiter, char quoteCharacter, char quoteEscapeCharacter, int maxChunkSize) {
+    this.delimiter = delimiter;
+    this.quoteCharacter = quoteCharacter;
+    this.quoteEscapeCharacter = quoteEscapeCharacter;
+    this.maxChunkSize = maxChunkSize;
+    this.chunkSize = Math.min(INITIAL_CHUNK_SIZE, maxChunkSize);
+  }
+
+  /**
+   * Makes at least {@code target} units available, unless the end of the input is reached or the
+   * input cannot be buffered any further.
+   */
+  protected abstract void fill(int target) throws IOException;
+
+  /** Returns the available unit at the given position, as a character. */
+  protected abstract char unitAt(int i);
+
+  /** Returns the first {@code end} available units as a reader, and drops them from the input. */
+  protected abstract Reader take(int end);
+
+  /** Returns a reader of all the remaining input. */
+  protected abstract Reader remaining();
+
+  /**
+   * Returns the next chunk of the input.
+   *
+   * @return the next chunk, or {@code null} if all the input has been returned
+   * @throws IOException if reading the input fails
+   */
+  Chunk next() throws IOException {
+    if (finished) {
+      return null;
+    }
+
+    int target = chunkSize;
+    while (true) {
+      fill(target);
+      boolean ambiguous = !scan();
+      if (ambiguous) {
+        return rest();
+      }
+
+      if (lastBoundary >= chunkSize) {
+        return emit(lastBoundary, linesAtLastBoundary);
+      }
+
+      if (endOfInput) {
+        finished = true;
+        return length == 0 ? null : emit(length, linesScanned);
+      }
+
+      if (length < target) {
+        // The record does not fit in what can be buffered, so it is left for the parser.
+        return rest();
+      }
+
+      // The available records do not fill a chunk yet, so more input is needed.
+      target = length + 1;
+    }
+  }
+
+  /**
+   * Scans the newly available units, updating the position of the last record boundary. The
+   * scanning stops at the first boundary completing a chunk.
+   *
+   * @return {@code false} if the input could not be reliably split
+   */
+  private boolean scan() {
+    // An escape sequence needs to see the next unit, so the last unit is only scanned once the end
+    // of the input is reached.
+    int end = endOfInput ? length : length - 1;
+    int i = scanned;
+    State state = this.state;
+    while (i < end) {
+      char c = unitAt(i);
+      if (c == '\n' || c == '\r') {
+        int separatorLength = separatorLengthAt(i);
+        if ("\r".equals(lineSeparator)) {
+          // The parser also treats some lone newlines as line separators in such input.
+          this.state = state;
+          scanned = i;
+          return false;
+        }
+        if (separatorLength > 0) {
+          linesScanned++;
+          i += separatorLength;
+          if (state != State.QUOTED) {
+            state = State.FIELD_START;
+            markBoundary(i);
+            if (i >= chunkSize) {
+              break;
+            }
+          }
+          continue;
+        }
+      }
+
+      switch (state) {
+        case FIELD_START -> {
+          if (c == quoteCharacter && quoteCharacter != '\0') {
+            state = State.QUOTED;
+          } else if (c != delimiter && c > ' ') {
+            state = State.UNQUOTED;
+          }
+        }
+        case UNQUOTED -> {
+          if (c == delimiter) {
+            state = State.FIELD_START;
+          }
+        }
+        case QUOTED -> {
+          if (c == quoteEscapeCharacter && quoteEscapeCharacter != '\0' && i + 1 < length) {
+            char next = unitAt(i + 1);
+            if (next == quoteCharacter || next == quoteEscapeCharacter) {
+              i += 2;
+              continue;
+            }
+          }
+          if (c == quoteCharacter) {
+            state = State.AFTER_QUOTE;
+          }
+        }
+        case AFTER_QUOTE -> {
+          if (c == delimiter) {
+            state = State.FIELD_START;
+          } else if (c > ' ') {
+            this.state = state;
+            scanned = i;
+            return false;
+          }
+        }
+      }
+      i++;
+    }
+    this.state = state;
+    scanned = i;
+    return true;
+  }
+
+  /**
+   * Returns the length of the line separator starting at the given position, or 0 if there is none.
+   * The first separator found determines the line separator of the input.
+   */
+  private int separatorLengthAt(int i) {
+    char c = unitAt(i);
+    boolean followedByNewline = i + 1 < length && unitAt(i + 1) == '\n';
+    if (lineSeparator == null) {
+      if (c == '\n') {
+        lineSeparator = "\n";
+      } else if (c == '\r') {
+        lineSeparator = followedByNewline ? "\r\n" : "\r";
+      } else {
+        return 0;
+      }
+    }
+
+    if (c != lineSeparator.charAt(0)) {
+      return 0;
+    }
+    if (lineSeparator.length() == 2) {
+      return followedByNewline ? 2 : 0;
+    }
+    return 1;
+  }
+
+  private void markBoundary(int position) {
+    lastBoundary = position;
+    linesAtLastBoundary = linesScanned;
+  }
+
+  /** Returns the first {@code end} available units as a chunk. */
+  private Chunk emit(int end, long linesAtEnd) {
+    Chunk result = new Chunk(take(end), linesEmitted, lineSeparator);
+    linesEmitted = linesAtEnd;
+    chunkSize = (int) Math.min(2L * chunkSize, maxChunkSize);
+    length -= end;
+    scanned -= end;
+    lastBoundary = 0;
+    return result;
+  }
+
+  /** Returns all the remaining input as the last chunk. */
+  private Chunk rest() {
+    finished = true;
+    // Input separated with a lone \r is always returned whole, and left for the parser to detect.
+    String separator = "\r".equals(lineSeparator) ? null : lineSeparator;
+    return new Chunk(remaining(), linesEmitted, separator);
+  }
+}
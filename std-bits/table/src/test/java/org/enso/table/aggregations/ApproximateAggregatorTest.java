@@ -0,0 +1,126 @@
+package org.enso.table.aggregations;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Random;
+import org.enso.table.data.column.storage.DoubleStorage;
+import org.enso.table.data.column.storage.LongStorage;
+import org.enso.table.data.table.Column;
+import org.junit.Test;
+
+public class ApproximateAggregatorTest {
+  private static final int ROWS = 100000;
+  private static final int GROUPS = 4;
+  private static final Comparator<Object> COMPARATOR =
+      (a, b) -> a.toString().compareTo(b.toString());
+
+  /** Rows with group {@code g} have {@code row % GROUPS == g}. */
+  private static int[] groupRows(int group) {
+    int[] rows = new int[ROWS / GROUPS];
+    for (int i = 0; i < rows.length; i++) {
+      rows[i] = i * GROUPS + group;
+    }
+    return rows;
+  }
+
+  private static Column longColumn() {
+    Random random = new Random(42);
+    long[] values = new long[ROWS];
+    for (int i = 0; i < ROWS; i++) {
+      values[i] = i % 5 == 0 ? GROUPS + i % GROUPS : random.nextInt(ROWS);
+    }
+    return new Column("x", new LongStorage(values));
+  }
+
+  private static Column doubleColumn() {
+    Random random = new Random(42);
+    long[] values = new long[ROWS];
+    for (int i = 0; i < ROWS; i++) {
+      values[i] = Double.doubleToRawLongBits(random.nextGaussian() * 100);
+    }
+    return new Column("y", new DoubleStorage(values, ROWS, new BitSet()));
+  }
+
+  /**
+   * Computes the aggregate of each group with an accumulator, splitting the rows between two
+   * accumulators which are then combined, as the parallel aggregation does.
+   */
+  private static Object[] accumulate(Aggregator aggregator) {
+    Accumulator first = aggregator.makeAccumulator();
+    Accumulator second = aggregator.makeAccumulator();
+    first.init(GROUPS);
+    second.init(GROUPS);
+    for (int row = 0; row < ROWS; row++) {
+      (row < ROWS / 3 ? first : second).accumulate(row % GROUPS, row);
+    }
+    Object[] result = new Object[GROUPS];
+    for (int group = 0; group < GROUPS; group++) {
+      first.combine(group, second, group);
+      result[group] = first.finish(group);
+    }
+    return result;
+  }
+
+  @Test
+  public void estimateCountDistinct() {
+    Column[] columns = {longColumn()};
+    Aggregator exact = new CountDistinct("exact", columns, false, COMPARATOR);
+    Aggregator approximate = new CountDistinct("approximate", columns, false, COMPARATOR, true);
+    Object[] accumulated = accumulate(approximate);
+
+    for (int group = 0; group < GROUPS; group++) {
+      long expected = ((Number) exact.aggregate(groupRows(group))).longValue();
+      long estimate = ((Number) approximate.aggregate(groupRows(group))).longValue();
+      assertEquals(expected, estimate, expected * 0.05);
+      assertEquals(expected, ((Number) accumulated[group]).longValue(), expected * 0.05);
+    }
+  }
+
+  @Test
+  public void estimatePercentiles() {
+    Column column = doubleColumn();
+    for (double percentile : new double[] {0.1, 0.5, 0.95}) {
+      Aggregator exact = new Percentile("exact", column, percentile);
+      Aggregator approximate = new Percentile("approximate", column, percentile, true);
+      Object[] accumulated = accumulate(approximate);
+
+      for (int group = 0; group < GROUPS; group++) {
+        // A rank error of 1% of a normal distribution with a deviation of 100 moves the value by
+        // at most about 2.5 around the median and more in the tails.
+        double expected = (double) exact.aggregate(groupRows(group));
+        assertEquals(expected, (double) approximate.aggregate(groupRows(group)), 10);
+        assertEquals(expected, (double) accumulated[group], 10);
+      }
+    }
+  }
+
+  @Test
+  public void computeSmallPercentilesExactly() {
+    Column column = doubleColumn();
+    int[] rows = new int[150];
+    for (int i = 0; i < rows.length; i++) {
+      rows[i] = i * 7;
+    }
+
+    assertEquals(
+        new Percentile("exact", column, 0.3).aggregate(rows),
+        new Percentile("approximate", column, 0.3, true).aggregate(rows));
+  }
+
+  @Test
+  public void estimateMode() {
+    Column column = longColumn();
+    Aggregator exact = new Mode("exact", column);
+    Aggregator approximate = new Mode("approximate", column, true);
+    Object[] accumulated = accumulate(approximate);
+
+    for (int group = 0; group < GROUPS; group++) {
+      Object expected = exact.aggregate(groupRows(group));
+      assertEquals((long) GROUPS + group, expected);
+      assertEquals(expected, approximate.aggregate(groupRows(group)));
+      assertEquals(expected, accumulated[group]);
+    }
+  }
+}
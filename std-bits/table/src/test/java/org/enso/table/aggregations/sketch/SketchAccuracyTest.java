@@ -0,0 +1,158 @@
+package org.enso.table.aggregations.sketch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class SketchAccuracyTest {
+  private static final int PRECISION = 12;
+  private static final int K = 200;
+
+  /** Three times the standard error of a sketch of {@link #PRECISION}. */
+  private static final double DISTINCT_TOLERANCE = 3 * 1.04 / Math.sqrt(1 << PRECISION);
+
+  /** A rank error a bit above the expected {@code 1.65 / K}. */
+  private static final double RANK_TOLERANCE = 2.0 / K;
+
+  private static List<Double> shuffledRange(int count) {
+    List<Double> values = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      values.add((double) i);
+    }
+    Collections.shuffle(values, new Random(42));
+    return values;
+  }
+
+  private static void assertDistinctEstimate(long expected, long estimate) {
+    double error = Math.abs(estimate - expected) / (double) expected;
+    assertTrue("Estimated " + estimate + " instead of " + expected, error <= DISTINCT_TOLERANCE);
+  }
+
+  /** Checks quantiles of a sketch of the values {@code 0} to {@code count - 1}. */
+  private static void assertQuantiles(KllSketch sketch, int count) {
+    for (double quantile : new double[] {0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99}) {
+      double rank = quantile * (count - 1);
+      assertEquals("Quantile " + quantile, rank, sketch.valueAt(rank), RANK_TOLERANCE * count);
+    }
+  }
+
+  @Test
+  public void countSmallCardinalitiesExactly() {
+    HyperLogLog sketch = new HyperLogLog(PRECISION);
+    for (int i = 0; i < 100; i++) {
+      sketch.add(HyperLogLog.hash(i % 37));
+    }
+
+    assertEquals(37, sketch.estimate());
+  }
+
+  @Test
+  public void estimateLargeCardinalities() {
+    for (int count : new int[] {1000, 10000, 100000, 1000000}) {
+      HyperLogLog sketch = new HyperLogLog(PRECISION);
+      for (int i = 0; i < 2 * count; i++) {
+        sketch.add(HyperLogLog.hash(i % count));
+      }
+
+      assertDistinctEstimate(count, sketch.estimate());
+    }
+  }
+
+  @Test
+  public void mergeOverlappingDistinctSketches() {
+    HyperLogLog first = new HyperLogLog(PRECISION);
+    HyperLogLog second = new HyperLogLog(PRECISION);
+    HyperLogLog small = new HyperLogLog(PRECISION);
+    for (int i = 0; i < 60000; i++) {
+      first.add(HyperLogLog.hash(i));
+      second.add(HyperLogLog.hash(i + 40000));
+    }
+    small.add(HyperLogLog.hash(-1));
+
+    first.merge(second);
+    first.merge(small);
+
+    assertDistinctEstimate(100001, first.estimate());
+  }
+
+  @Test
+  public void computeSmallQuantilesExactly() {
+    int count = K - 1;
+    KllSketch sketch = new KllSketch(K);
+    for (double value : shuffledRange(count)) {
+      sketch.add(value);
+    }
+
+    assertEquals(count, sketch.getCount());
+    assertEquals(0.0, sketch.valueAt(0), 0.0);
+    assertEquals(49.5, sketch.valueAt(49.5), 0.0);
+    assertEquals(count - 1, sketch.valueAt(count - 1), 0.0);
+  }
+
+  @Test
+  public void estimateQuantiles() {
+    int count = 100000;
+    KllSketch sketch = new KllSketch(K);
+    for (double value : shuffledRange(count)) {
+      sketch.add(value);
+    }
+
+    assertEquals(count, sketch.getCount());
+    assertQuantiles(sketch, count);
+  }
+
+  @Test
+  public void mergeQuantileSketches() {
+    int count = 100000;
+    List<KllSketch> parts = new ArrayList<>();
+    List<Double> values = shuffledRange(count);
+    for (int i = 0; i < count; i++) {
+      if (i % 7000 == 0) {
+        parts.add(new KllSketch(K));
+      }
+      parts.get(parts.size() - 1).add(values.get(i));
+    }
+
+    KllSketch merged = new KllSketch(K);
+    for (KllSketch part : parts) {
+      merged.merge(part);
+    }
+
+    assertEquals(count, merged.getCount());
+    assertQuantiles(merged, count);
+  }
+
+  @Test
+  public void findFrequentValues() {
+    Random random = new Random(42);
+    SpaceSaving sketch = new SpaceSaving(64);
+    for (int i = 0; i < 100000; i++) {
+      // "frequent" makes up 5% of the stream, above the 1/64 guaranteed to be tracked.
+      sketch.add(random.nextInt(20) == 0 ? "frequent" : "value " + random.nextInt(10000));
+    }
+
+    assertEquals("frequent", sketch.mostFrequent());
+  }
+
+  @Test
+  public void mergeFrequentValues() {
+    SpaceSaving first = new SpaceSaving(64);
+    SpaceSaving second = new SpaceSaving(64);
+    for (int i = 0; i < 10000; i++) {
+      first.add(i % 10 == 0 ? 1L : (long) i);
+      second.add(i % 8 == 0 ? 2L : (long) -i);
+    }
+    for (int i = 0; i < 200; i++) {
+      first.add(2L);
+    }
+
+    first.merge(second);
+
+    assertEquals(2L, first.mostFrequent());
+  }
+}
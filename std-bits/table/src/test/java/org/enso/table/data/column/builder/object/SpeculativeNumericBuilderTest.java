@@ -0,0 +1,69 @@
+package org.enso.table.data.column.builder.object;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import org.enso.table.data.column.storage.DoubleStorage;
+import org.enso.table.data.column.storage.LongStorage;
+import org.enso.table.data.column.storage.Storage;
+import org.junit.Test;
+
+public class SpeculativeNumericBuilderTest {
+  private static Storage build(Builder builder, List<Object> values, boolean grow) {
+    for (Object value : values) {
+      if (grow) {
+        builder.append(value);
+      } else {
+        builder.appendNoGrow(value);
+      }
+    }
+    return builder.seal();
+  }
+
+  private static void assertSameAsInferred(List<Object> values) {
+    for (boolean grow : new boolean[] {false, true}) {
+      Storage expected = build(new InferredBuilder(values.size()), values, grow);
+      Storage actual = build(new SpeculativeNumericBuilder(values.size()), values, grow);
+
+      assertEquals(values.toString(), expected.getType(), actual.getType());
+      assertEquals(values.toString(), expected.size(), actual.size());
+      for (int i = 0; i < values.size(); i++) {
+        assertEquals(values.toString(), expected.getItemBoxed(i), actual.getItemBoxed(i));
+      }
+    }
+  }
+
+  @Test
+  public void integersMakeALongStorage() {
+    Storage storage =
+        build(new SpeculativeNumericBuilder(4), Arrays.asList(null, 1L, null, 3L), false);
+
+    assertTrue(storage instanceof LongStorage);
+    assertEquals(Arrays.asList(null, 1L, null, 3L), storage.toList());
+  }
+
+  @Test
+  public void decimalsMakeADoubleStorage() {
+    Storage storage =
+        build(new SpeculativeNumericBuilder(1), Arrays.asList(0.5, null, 2.0), true);
+
+    assertTrue(storage instanceof DoubleStorage);
+    assertEquals(Arrays.asList(0.5, null, 2.0), storage.toList());
+  }
+
+  @Test
+  public void mismatchedValuesGiveTheInferredResult() {
+    assertSameAsInferred(Arrays.asList(1L, 2L, 2.5, null, 3L));
+    assertSameAsInferred(Arrays.asList(null, 1.5, 2L, 3.5));
+    assertSameAsInferred(Arrays.asList(1L, null, "a", 2L));
+    assertSameAsInferred(Arrays.asList(1.5, true));
+    assertSameAsInferred(Arrays.asList(null, 1L, new BigDecimal("2.5")));
+    assertSameAsInferred(Arrays.asList(null, true, false, null));
+    assertSameAsInferred(Arrays.asList("a", null, "b"));
+    assertSameAsInferred(Arrays.asList(null, null));
+    assertSameAsInferred(Arrays.asList());
+  }
+}
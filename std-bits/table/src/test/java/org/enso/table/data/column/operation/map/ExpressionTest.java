@@ -0,0 +1,212 @@
+package org.enso.table.data.column.operation.map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.function.BiFunction;
+import org.enso.table.data.column.storage.BoolStorage;
+import org.enso.table.data.column.storage.DoubleStorage;
+import org.enso.table.data.column.storage.LongStorage;
+import org.enso.table.data.column.storage.OffHeapNumericStorage;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.column.storage.StringStorage;
+import org.junit.Test;
+
+public class ExpressionTest {
+  private static final int SIZE = 2 * Expression.BATCH_SIZE + 123;
+
+  private static final String[] NUMERIC_OPS = {
+    Storage.Maps.ADD,
+    Storage.Maps.SUB,
+    Storage.Maps.MUL,
+    Storage.Maps.DIV,
+    Storage.Maps.MOD,
+    Storage.Maps.LT,
+    Storage.Maps.LTE,
+    Storage.Maps.GT,
+    Storage.Maps.GTE,
+    Storage.Maps.EQ
+  };
+
+  private static final String[] BOOLEAN_OPS = {Storage.Maps.AND, Storage.Maps.OR, Storage.Maps.EQ};
+
+  private static final BiFunction<Object, Object, Object> NOT_VECTORIZED =
+      (a, b) -> {
+        throw new AssertionError("The operation should be vectorized.");
+      };
+
+  private final Random random = new Random(42);
+
+  private BitSet randomMissing() {
+    BitSet missing = new BitSet();
+    for (int i = 0; i < SIZE; i++) {
+      if (random.nextInt(5) == 0) {
+        missing.set(i);
+      }
+    }
+    return missing;
+  }
+
+  private LongStorage randomLongs() {
+    long[] data = new long[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      data[i] = random.nextInt(21) - 10;
+    }
+    return new LongStorage(data, SIZE, randomMissing());
+  }
+
+  private DoubleStorage randomDoubles() {
+    long[] data = new long[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      data[i] = Double.doubleToRawLongBits((random.nextInt(41) - 20) / 4.0);
+    }
+    return new DoubleStorage(data, SIZE, randomMissing());
+  }
+
+  private BoolStorage randomBools(boolean negated) {
+    BitSet values = new BitSet();
+    for (int i = 0; i < SIZE; i++) {
+      if (random.nextBoolean()) {
+        values.set(i);
+      }
+    }
+    return new BoolStorage(values, randomMissing(), SIZE, negated);
+  }
+
+  private static void assertSameValues(String message, Storage expected, Storage actual) {
+    assertEquals(message, expected.getType(), actual.getType());
+    assertEquals(message, expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(message + " at " + i, expected.getItemBoxed(i), actual.getItemBoxed(i));
+    }
+  }
+
+  private static Expression expression(Storage storage) {
+    Expression expression = Expression.of(storage);
+    assertNotNull(expression);
+    return expression;
+  }
+
+  @Test
+  public void numericOperationsMatchStorageOperations() {
+    Storage[] storages = {randomLongs(), randomDoubles()};
+    Object[] arguments = {3L, -2L, 2.5, 0.0};
+    for (Storage storage : storages) {
+      for (String op : NUMERIC_OPS) {
+        for (Object argument : arguments) {
+          if (storage instanceof LongStorage && argument.equals(0L)) {
+            continue;
+          }
+          String message = storage.getType() + " " + op + " " + argument;
+          Storage expected = storage.bimap(op, NOT_VECTORIZED, argument);
+          Expression actual = expression(storage).bimap(op, argument);
+          assertNotNull(message, actual);
+          assertSameValues(message, expected, actual.get());
+        }
+        for (Storage argument : storages) {
+          String message = storage.getType() + " " + op + " " + argument.getType();
+          Expression actual = expression(storage).zip(op, expression(argument));
+          boolean integerDivision =
+              (op.equals(Storage.Maps.DIV) || op.equals(Storage.Maps.MOD))
+                  && storage instanceof LongStorage
+                  && argument instanceof LongStorage;
+          if (integerDivision) {
+            assertNull(message, actual);
+          } else {
+            assertNotNull(message, actual);
+            Storage expected = storage.zip(op, NOT_VECTORIZED, argument, true);
+            assertSameValues(message, expected, actual.get());
+          }
+        }
+      }
+      assertSameValues(
+          storage.getType() + " " + Storage.Maps.IS_MISSING,
+          storage.map(Storage.Maps.IS_MISSING, x -> null),
+          expression(storage).map(Storage.Maps.IS_MISSING).get());
+    }
+  }
+
+  @Test
+  public void booleanOperationsMatchStorageOperations() {
+    BoolStorage[] storages = {randomBools(false), randomBools(true)};
+    for (BoolStorage storage : storages) {
+      for (String op : BOOLEAN_OPS) {
+        for (Boolean argument : new Boolean[] {true, false}) {
+          String message = op + " " + argument;
+          Expression actual = expression(storage).bimap(op, argument);
+          assertSameValues(message, storage.bimap(op, NOT_VECTORIZED, argument), actual.get());
+        }
+        for (BoolStorage argument : storages) {
+          Expression actual = expression(storage).zip(op, expression(argument));
+          assertSameValues(op, storage.zip(op, NOT_VECTORIZED, argument, true), actual.get());
+        }
+      }
+      assertSameValues(
+          Storage.Maps.NOT,
+          storage.map(Storage.Maps.NOT, x -> null),
+          expression(storage).map(Storage.Maps.NOT).get());
+    }
+  }
+
+  @Test
+  public void chainedOperationsMatchStorageOperations() {
+    LongStorage a = randomLongs();
+    DoubleStorage b = randomDoubles();
+    LongStorage c = randomLongs();
+    BoolStorage d = randomBools(false);
+
+    Storage expected =
+        a.bimap(Storage.Maps.MUL, NOT_VECTORIZED, 2L)
+            .zip(Storage.Maps.ADD, NOT_VECTORIZED, b, true)
+            .zip(Storage.Maps.GT, NOT_VECTORIZED, c, true)
+            .zip(Storage.Maps.AND, NOT_VECTORIZED, d.map(Storage.Maps.NOT, x -> null), true);
+    Expression actual =
+        expression(a)
+            .bimap(Storage.Maps.MUL, 2L)
+            .zip(Storage.Maps.ADD, expression(b))
+            .zip(Storage.Maps.GT, expression(c))
+            .zip(Storage.Maps.AND, expression(d).map(Storage.Maps.NOT));
+
+    assertEquals(4, actual.getDepth());
+    assertSameValues("chain", expected, actual.get());
+    assertEquals(0, actual.getDepth());
+  }
+
+  @Test
+  public void evaluatedOperandsAreReadAsStorages() {
+    LongStorage a = randomLongs();
+    Expression sum = expression(a).zip(Storage.Maps.ADD, expression(a));
+
+    Storage sumResult = sum.get();
+    Expression product = sum.zip(Storage.Maps.MUL, sum);
+
+    assertEquals(1, product.getDepth());
+    assertSameValues(
+        "product",
+        sumResult.zip(Storage.Maps.MUL, NOT_VECTORIZED, sumResult, true),
+        product.get());
+    assertSame(sumResult, sum.get());
+  }
+
+  @Test
+  public void unsupportedOperationsAreNotRecorded() {
+    LongStorage longs = randomLongs();
+    BoolStorage bools = randomBools(false);
+
+    assertNull(Expression.of(new StringStorage(new String[] {"a"}, 1)));
+    assertNull(Expression.of(OffHeapNumericStorage.copyOf(longs)));
+    assertNull(expression(longs).bimap(Storage.Maps.ADD, "a"));
+    assertNull(expression(longs).bimap(Storage.Maps.EQ, true));
+    assertNull(expression(longs).bimap(Storage.Maps.AND, true));
+    assertNull(expression(longs).map(Storage.Maps.NOT));
+    assertNull(expression(bools).bimap(Storage.Maps.LT, 1L));
+    assertNull(expression(bools).map(Storage.Maps.IS_MISSING));
+    assertNull(expression(longs).zip(Storage.Maps.ADD, expression(bools)));
+    assertNull(expression(longs).zip(Storage.Maps.ADD, expression(new LongStorage(new long[1]))));
+    assertNull(expression(longs).zip(Storage.Maps.STARTS_WITH, expression(longs)));
+  }
+}
@@ -0,0 +1,34 @@
+package org.enso.table.data.column.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+import org.junit.Test;
+
+public class BoolStorageTest {
+
+  @Test
+  public void maskKeepsPositionsOfFalseValues() {
+    BitSet values = new BitSet();
+    values.set(2);
+    values.set(4);
+    BitSet missing = new BitSet();
+    missing.set(3);
+    // [false, false, true, Nothing, true]
+    BoolStorage storage = new BoolStorage(values, missing, 5, false);
+
+    BitSet mask = new BitSet();
+    mask.set(1);
+    mask.set(2);
+    mask.set(3);
+    mask.set(4);
+    Storage result = storage.mask(mask, 4);
+
+    assertEquals(4, result.size());
+    assertEquals(false, result.getItemBoxed(0));
+    assertEquals(true, result.getItemBoxed(1));
+    assertTrue(result.isNa(2));
+    assertEquals(true, result.getItemBoxed(3));
+  }
+}
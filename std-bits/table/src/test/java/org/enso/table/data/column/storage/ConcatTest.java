@@ -0,0 +1,98 @@
+package org.enso.table.data.column.storage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+import java.util.List;
+import org.enso.table.data.table.Column;
+import org.enso.table.data.table.Table;
+import org.junit.Test;
+
+public class ConcatTest {
+  private static void assertItems(Storage storage, Object... expected) {
+    assertEquals(expected.length, storage.size());
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals("Item " + i, expected[i], storage.getItemBoxed(i));
+    }
+  }
+
+  @Test
+  public void concatIntegersAndMissingParts() {
+    LongStorage first = new LongStorage(new long[] {1, 2}, 2, BitSet.valueOf(new long[] {2}));
+    LongStorage second = new LongStorage(new long[] {3, 4, 5});
+
+    Storage result = Storage.concat(new Storage[] {first, null, second}, new int[] {2, 2, 2});
+
+    assertTrue(result instanceof LongStorage);
+    assertItems(result, 1L, null, null, null, 3L, 4L);
+  }
+
+  @Test
+  public void concatBooleans() {
+    BitSet values = new BitSet();
+    values.set(0);
+    BoolStorage first = new BoolStorage(values, new BitSet(), 2, false);
+    BoolStorage second = new BoolStorage(new BitSet(), BitSet.valueOf(new long[] {1}), 2, false);
+
+    Storage result = Storage.concat(new Storage[] {first, second}, new int[] {2, 2});
+
+    assertTrue(result instanceof BoolStorage);
+    assertItems(result, true, false, null, false);
+  }
+
+  @Test
+  public void concatMixedTypesByInferringTheType() {
+    LongStorage integers = new LongStorage(new long[] {1});
+    StringStorage strings = new StringStorage(new Object[] {"a"}, 1);
+
+    Storage result = Storage.concat(new Storage[] {integers, strings}, new int[] {1, 1});
+
+    assertItems(result, 1L, "a");
+  }
+
+  @Test
+  public void mergeDictionaries() {
+    DictionaryStringStorage first =
+        new DictionaryStringStorage(
+            new int[] {0, 1, DictionaryStringStorage.MISSING}, new String[] {"a", "b"}, 3);
+    DictionaryStringStorage second =
+        new DictionaryStringStorage(new int[] {1, 0}, new String[] {"b", "c"}, 2);
+
+    Storage result = Storage.concat(new Storage[] {first, null, second}, new int[] {3, 1, 2});
+
+    assertTrue(result instanceof DictionaryStringStorage);
+    DictionaryStringStorage merged = (DictionaryStringStorage) result;
+    assertArrayEquals(new String[] {"a", "b", "c"}, merged.getDictionary());
+    assertItems(result, "a", "b", null, null, "c", "b");
+  }
+
+  @Test
+  public void decodeDictionariesConcatenatedWithText() {
+    DictionaryStringStorage first =
+        new DictionaryStringStorage(new int[] {0}, new String[] {"a"}, 1);
+    StringStorage second = new StringStorage(new Object[] {"b", null}, 2);
+
+    Storage result = Storage.concat(new Storage[] {first, second}, new int[] {1, 2});
+
+    assertItems(result, "a", "b", null);
+  }
+
+  @Test
+  public void concatTablesWithDifferentColumns() {
+    Table first =
+        new Table(
+            new Column[] {
+              new Column("a", new LongStorage(new long[] {1, 2})),
+              new Column("b", new StringStorage(new Object[] {"x", "y"}, 2))
+            });
+    Table second = new Table(new Column[] {new Column("a", new LongStorage(new long[] {3}))});
+
+    Table result = Table.concat(List.of(first, second));
+
+    assertEquals(3, result.rowCount());
+    assertItems(result.getColumnByName("a").getStorage(), 1L, 2L, 3L);
+    assertItems(result.getColumnByName("b").getStorage(), "x", "y", null);
+  }
+}
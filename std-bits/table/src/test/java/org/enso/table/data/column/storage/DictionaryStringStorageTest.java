@@ -0,0 +1,128 @@
+package org.enso.table.data.column.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+import org.enso.table.data.column.builder.string.StringStorageBuilder;
+import org.enso.table.data.mask.OrderMask;
+import org.junit.Test;
+
+public class DictionaryStringStorageTest {
+  private static final String[] VALUES = {"apple", "banana", null, "apple", "cherry", "banana"};
+
+  private static StringStorage build(String... values) {
+    StringStorageBuilder builder = new StringStorageBuilder();
+    for (String value : values) {
+      builder.parseAndAppend(value);
+    }
+    return builder.seal();
+  }
+
+  private static void assertSameItems(Storage expected, Storage actual) {
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals("Item " + i, expected.getItemBoxed(i), actual.getItemBoxed(i));
+    }
+  }
+
+  @Test
+  public void encodeRepeatedValues() {
+    StringStorage storage = build(VALUES);
+
+    assertTrue(storage instanceof DictionaryStringStorage);
+    assertEquals(3, ((DictionaryStringStorage) storage).getDictionary().length);
+    assertEquals(1, storage.countMissing());
+    assertSameItems(new StringStorage(VALUES, VALUES.length), storage);
+  }
+
+  @Test
+  public void keepDistinctValuesPlain() {
+    StringStorage storage = build("a", "b", "c", "a");
+
+    assertFalse(storage instanceof DictionaryStringStorage);
+    assertSameItems(new StringStorage(new Object[] {"a", "b", "c", "a"}, 4), storage);
+  }
+
+  @Test
+  public void evaluateOperationsLikePlainStrings() {
+    StringStorage encoded = build(VALUES);
+    StringStorage plain = new StringStorage(VALUES, VALUES.length);
+    String[] operations = {
+      Storage.Maps.EQ, Storage.Maps.STARTS_WITH, Storage.Maps.ENDS_WITH, Storage.Maps.CONTAINS
+    };
+
+    for (String operation : operations) {
+      for (Object argument : new Object[] {"apple", "an", "durian"}) {
+        assertSameItems(
+            plain.bimap(operation, (a, b) -> null, argument),
+            encoded.bimap(operation, (a, b) -> null, argument));
+      }
+    }
+    assertSameItems(
+        plain.map(Storage.Maps.IS_MISSING, a -> null),
+        encoded.map(Storage.Maps.IS_MISSING, a -> null));
+  }
+
+  @Test
+  public void compareWithOtherStorages() {
+    StringStorage encoded = build(VALUES);
+    StringStorage shuffled =
+        ((DictionaryStringStorage) encoded).applyMask(new OrderMask(new int[] {0, 4, 2, 3, 1, 5}));
+    StringStorage plain = new StringStorage(new Object[] {"apple", "banana", "x"}, 3);
+
+    Storage sameDictionary = encoded.zip(Storage.Maps.EQ, (a, b) -> null, shuffled, true);
+    Storage otherStorage = encoded.zip(Storage.Maps.EQ, (a, b) -> null, plain, true);
+
+    BitSet equal = BitSet.valueOf(new long[] {0b101001});
+    BitSet missing = BitSet.valueOf(new long[] {0b100});
+    assertSameItems(new BoolStorage(equal, missing, 6, false), sameDictionary);
+    assertEquals(true, otherStorage.getItemBoxed(0));
+    assertEquals(true, otherStorage.getItemBoxed(1));
+    assertEquals(null, otherStorage.getItemBoxed(2));
+    assertEquals(null, otherStorage.getItemBoxed(3));
+  }
+
+  @Test
+  public void shareTheDictionaryWhenSelectingRows() {
+    DictionaryStringStorage storage = (DictionaryStringStorage) build(VALUES);
+    BitSet mask = new BitSet();
+    mask.set(2, 5);
+
+    DictionaryStringStorage masked = storage.mask(mask, 3);
+    DictionaryStringStorage sliced = storage.slice(4, 10);
+    DictionaryStringStorage repeated = storage.countMask(new int[] {2, 0, 1, 0, 0, 0}, 3);
+
+    assertSame(storage.getDictionary(), masked.getDictionary());
+    assertSameItems(new StringStorage(new Object[] {null, "apple", "cherry"}, 3), masked);
+    assertSameItems(new StringStorage(new Object[] {"cherry", "banana"}, 2), sliced);
+    assertSameItems(new StringStorage(new Object[] {"apple", "apple", null}, 3), repeated);
+  }
+
+  @Test
+  public void appendBuildersWithDifferentDictionaries() {
+    StringStorageBuilder first = new StringStorageBuilder();
+    StringStorageBuilder second = new StringStorageBuilder();
+    StringStorageBuilder third = new StringStorageBuilder();
+    for (String value : VALUES) {
+      first.parseAndAppend(value);
+      second.parseAndAppend(value == null ? "apple" : value.toUpperCase());
+      third.parseAndAppend(value);
+    }
+
+    StringStorage storage = first.appendAll(second, 4).appendAll(third, 6).seal();
+
+    assertTrue(storage instanceof DictionaryStringStorage);
+    assertEquals(5, ((DictionaryStringStorage) storage).getDictionary().length);
+    for (int i = 0; i < VALUES.length; i++) {
+      assertEquals(VALUES[i], storage.getItemBoxed(i));
+      assertEquals(VALUES[i], storage.getItemBoxed(i + 10));
+    }
+    assertEquals("APPLE", storage.getItemBoxed(6));
+    assertEquals("BANANA", storage.getItemBoxed(7));
+    assertEquals("apple", storage.getItemBoxed(8));
+    assertEquals("APPLE", storage.getItemBoxed(9));
+  }
+}
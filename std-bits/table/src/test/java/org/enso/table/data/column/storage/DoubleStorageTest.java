@@ -0,0 +1,49 @@
+package org.enso.table.data.column.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.BitSet;
+import org.junit.Test;
+
+public class DoubleStorageTest {
+  private static DoubleStorage doubles(BitSet missing, double... values) {
+    long[] raw = new long[values.length];
+    for (int i = 0; i < values.length; i++) {
+      raw[i] = Double.doubleToRawLongBits(values[i]);
+    }
+    return new DoubleStorage(raw, values.length, missing);
+  }
+
+  @Test
+  public void mapKeepsMissingValues() {
+    DoubleStorage storage = doubles(BitSet.valueOf(new long[] {2}), 1.5, 0, 3);
+
+    Storage quotient = storage.bimap(Storage.Maps.DIV, (a, b) -> null, 2L);
+    Storage greater = storage.bimap(Storage.Maps.GT, (a, b) -> null, 2.0);
+
+    assertEquals(0.75, quotient.getItemBoxed(0));
+    assertNull(quotient.getItemBoxed(1));
+    assertEquals(1.5, quotient.getItemBoxed(2));
+    assertEquals(false, greater.getItemBoxed(0));
+    assertNull(greater.getItemBoxed(1));
+    assertEquals(true, greater.getItemBoxed(2));
+  }
+
+  @Test
+  public void zipWithAnyNumbers() {
+    DoubleStorage storage = doubles(new BitSet(), 1.5, 2.5, 3.5);
+    LongStorage integers = new LongStorage(new long[] {1, 2, 3}, 3, BitSet.valueOf(new long[] {2}));
+    DoubleStorage decimals = doubles(new BitSet(), 0.5, 0.5);
+
+    Storage sum = storage.zip(Storage.Maps.ADD, (a, b) -> null, integers, true);
+    Storage difference = storage.zip(Storage.Maps.SUB, (a, b) -> null, decimals, true);
+
+    assertEquals(2.5, sum.getItemBoxed(0));
+    assertNull(sum.getItemBoxed(1));
+    assertEquals(6.5, sum.getItemBoxed(2));
+    assertEquals(1.0, difference.getItemBoxed(0));
+    assertEquals(2.0, difference.getItemBoxed(1));
+    assertNull(difference.getItemBoxed(2));
+  }
+}
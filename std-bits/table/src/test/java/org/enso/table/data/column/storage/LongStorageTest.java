@@ -0,0 +1,101 @@
+package org.enso.table.data.column.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import org.junit.Test;
+
+public class LongStorageTest {
+
+  @Test
+  public void compareWithDecimal() {
+    LongStorage storage = new LongStorage(new long[] {1, 2, 3});
+
+    Storage lessThan = storage.bimap(Storage.Maps.LT, (a, b) -> null, 2.5);
+
+    assertEquals(true, lessThan.getItemBoxed(0));
+    assertEquals(true, lessThan.getItemBoxed(1));
+    assertEquals(false, lessThan.getItemBoxed(2));
+  }
+
+  @Test
+  public void mapKeepsMissingValues() {
+    LongStorage storage = new LongStorage(new long[] {1, 2, 3}, 3, BitSet.valueOf(new long[] {2}));
+
+    Storage sum = storage.bimap(Storage.Maps.ADD, (a, b) -> null, 0.5);
+    Storage equal = storage.bimap(Storage.Maps.EQ, (a, b) -> null, 3L);
+
+    assertEquals(1.5, sum.getItemBoxed(0));
+    assertNull(sum.getItemBoxed(1));
+    assertEquals(3.5, sum.getItemBoxed(2));
+    assertEquals(false, equal.getItemBoxed(0));
+    assertNull(equal.getItemBoxed(1));
+    assertEquals(true, equal.getItemBoxed(2));
+  }
+
+  @Test
+  public void zipIntegers() {
+    LongStorage storage = new LongStorage(new long[] {7, 8, 9}, 3, BitSet.valueOf(new long[] {1}));
+    LongStorage other = new LongStorage(new long[] {2, 3});
+
+    Storage remainder = storage.zip(Storage.Maps.MOD, (a, b) -> null, other, true);
+
+    assertEquals(Storage.Type.LONG, remainder.getType());
+    assertNull(remainder.getItemBoxed(0));
+    assertEquals(2L, remainder.getItemBoxed(1));
+    assertNull(remainder.getItemBoxed(2));
+  }
+
+  @Test
+  public void zipWithDecimals() {
+    LongStorage storage = new LongStorage(new long[] {1, 2});
+    DoubleStorage other =
+        new DoubleStorage(
+            new long[] {Double.doubleToRawLongBits(0.5), 0}, 2, BitSet.valueOf(new long[] {2}));
+
+    Storage product = storage.zip(Storage.Maps.MUL, (a, b) -> null, other, true);
+
+    assertEquals(0.5, product.getItemBoxed(0));
+    assertNull(product.getItemBoxed(1));
+  }
+
+  @Test
+  public void mapWithFunctionReturningIntegers() {
+    LongStorage storage = new LongStorage(new long[] {1, 2, 3}, 3, BitSet.valueOf(new long[] {2}));
+
+    Storage doubled = storage.map(null, x -> (Long) x * 2);
+    Storage shifted = storage.bimap(null, (x, y) -> (Long) x + (Long) y, 10L);
+
+    assertTrue(doubled instanceof LongStorage);
+    assertEquals(Arrays.asList(2L, null, 6L), doubled.toList());
+    assertTrue(shifted instanceof LongStorage);
+    assertEquals(Arrays.asList(11L, null, 13L), shifted.toList());
+  }
+
+  @Test
+  public void zipWithFunctionReturningDecimals() {
+    LongStorage storage = new LongStorage(new long[] {1, 2, 3});
+    LongStorage other = new LongStorage(new long[] {2, 4, 0}, 3, BitSet.valueOf(new long[] {4}));
+
+    Storage ratio = storage.zip(null, (x, y) -> (Long) x / (double) (Long) y, other, true);
+
+    assertTrue(ratio instanceof DoubleStorage);
+    assertEquals(Arrays.asList(0.5, 0.5, null), ratio.toList());
+  }
+
+  @Test
+  public void mapWithFunctionReturningMixedValues() {
+    LongStorage storage = new LongStorage(new long[] {1, 2, 3, 4});
+
+    Storage halves = storage.map(null, x -> (Long) x % 2 == 0 ? (Long) x / 2 : (Long) x / 2.0);
+    Storage labels = storage.map(null, x -> (Long) x < 3 ? x : "many");
+
+    assertEquals(Storage.Type.DOUBLE, halves.getType());
+    assertEquals(Arrays.asList(0.5, 1.0, 1.5, 2.0), halves.toList());
+    assertEquals(Storage.Type.OBJECT, labels.getType());
+    assertEquals(Arrays.asList(1L, 2L, "many", "many"), labels.toList());
+  }
+}
@@ -0,0 +1,169 @@
+package org.enso.table.data.column.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+import java.util.function.BiFunction;
+import org.junit.Test;
+
+public class OffHeapNumericStorageTest {
+  private static final String[] OPS = {
+    Storage.Maps.ADD,
+    Storage.Maps.SUB,
+    Storage.Maps.MUL,
+    Storage.Maps.DIV,
+    Storage.Maps.MOD,
+    Storage.Maps.LT,
+    Storage.Maps.LTE,
+    Storage.Maps.GT,
+    Storage.Maps.GTE,
+    Storage.Maps.EQ
+  };
+
+  private static final BiFunction<Object, Object, Object> NOT_VECTORIZED =
+      (a, b) -> {
+        throw new AssertionError("The operation should be vectorized.");
+      };
+
+  private static OffHeapNumericStorage longs(long... values) {
+    return OffHeapNumericStorage.copyOf(new LongStorage(values));
+  }
+
+  private static OffHeapNumericStorage doubles(double... values) {
+    long[] raw = new long[values.length];
+    for (int i = 0; i < values.length; i++) {
+      raw[i] = Double.doubleToRawLongBits(values[i]);
+    }
+    return OffHeapNumericStorage.copyOf(new DoubleStorage(raw, values.length, new BitSet()));
+  }
+
+  private static LongStorage sampleLongs() {
+    return new LongStorage(new long[] {7, 0, -3, 10, 4, 5}, 6, BitSet.valueOf(new long[] {0b10}));
+  }
+
+  private static DoubleStorage sampleDoubles() {
+    long[] raw = new long[6];
+    double[] values = {7.0, 2.5, 0, -1.5, 4.0, 0.25};
+    for (int i = 0; i < values.length; i++) {
+      raw[i] = Double.doubleToRawLongBits(values[i]);
+    }
+    return new DoubleStorage(raw, 6, BitSet.valueOf(new long[] {0b100}));
+  }
+
+  private static void assertSameValues(String message, Storage expected, Storage actual) {
+    assertEquals(message, expected.getType(), actual.getType());
+    assertEquals(message, expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(message + " at " + i, expected.getItemBoxed(i), actual.getItemBoxed(i));
+    }
+  }
+
+  @Test
+  public void copyKeepsValuesAndMissingOnes() {
+    int size = 100000;
+    long[] values = new long[size];
+    BitSet missing = new BitSet();
+    for (int i = 0; i < size; i++) {
+      values[i] = i * 3L;
+      if (i % 7 == 0) {
+        missing.set(i);
+      }
+    }
+
+    OffHeapNumericStorage storage =
+        OffHeapNumericStorage.copyOf(new LongStorage(values, size, missing));
+
+    assertEquals(Storage.Type.LONG, storage.getType());
+    assertEquals(size, storage.size());
+    for (int i = 0; i < size; i++) {
+      assertEquals(i % 7 == 0 ? null : (Object) (i * 3L), storage.getItemBoxed(i));
+    }
+  }
+
+  @Test
+  public void resultTypesFollowOnHeapStorages() {
+    Storage mapped = longs(7).bimap(Storage.Maps.ADD, NOT_VECTORIZED, 1L);
+    Storage zipped = longs(7).zip(Storage.Maps.DIV, NOT_VECTORIZED, longs(2), true);
+    Storage mixed = longs(7).zip(Storage.Maps.DIV, NOT_VECTORIZED, doubles(2.0), true);
+
+    assertEquals(8.0, mapped.getItemBoxed(0));
+    assertEquals(3L, zipped.getItemBoxed(0));
+    assertEquals(3.5, mixed.getItemBoxed(0));
+  }
+
+  @Test
+  public void mapMatchesOnHeapStorages() {
+    for (NumericStorage onHeap : new NumericStorage[] {sampleLongs(), sampleDoubles()}) {
+      OffHeapNumericStorage offHeap = OffHeapNumericStorage.copyOf(onHeap);
+      for (String op : OPS) {
+        for (Object arg : new Object[] {2L, -3L, 0.5, 4.0}) {
+          assertSameValues(
+              op + " " + arg,
+              onHeap.bimap(op, NOT_VECTORIZED, arg),
+              offHeap.bimap(op, NOT_VECTORIZED, arg));
+        }
+      }
+      assertSameValues(
+          Storage.Maps.EQ + " a text",
+          onHeap.bimap(Storage.Maps.EQ, NOT_VECTORIZED, "a"),
+          offHeap.bimap(Storage.Maps.EQ, NOT_VECTORIZED, "a"));
+      assertSameValues(
+          Storage.Maps.IS_MISSING,
+          onHeap.map(Storage.Maps.IS_MISSING, x -> null),
+          offHeap.map(Storage.Maps.IS_MISSING, x -> null));
+    }
+  }
+
+  @Test
+  public void zipMatchesOnHeapStorages() {
+    NumericStorage[] storages = {sampleLongs(), sampleDoubles()};
+    NumericStorage[] args = {
+      new LongStorage(new long[] {2, 3, 0, 4, 4, -2}, 6, BitSet.valueOf(new long[] {0b000100})),
+      new DoubleStorage(
+          new long[] {
+            Double.doubleToRawLongBits(2.0),
+            Double.doubleToRawLongBits(0.5),
+            Double.doubleToRawLongBits(1.5),
+            0,
+            Double.doubleToRawLongBits(4.0),
+            Double.doubleToRawLongBits(-7.0)
+          },
+          6,
+          BitSet.valueOf(new long[] {0b001000}))
+    };
+    for (NumericStorage storage : storages) {
+      for (NumericStorage arg : args) {
+        for (String op : OPS) {
+          Storage expected = storage.zip(op, NOT_VECTORIZED, arg, true);
+          String message = op + " " + storage.getType() + " " + arg.getType();
+          NumericStorage offHeap = OffHeapNumericStorage.copyOf(storage);
+          NumericStorage offHeapArg = OffHeapNumericStorage.copyOf(arg);
+          assertSameValues(message, expected, offHeap.zip(op, NOT_VECTORIZED, arg, true));
+          assertSameValues(message, expected, storage.zip(op, NOT_VECTORIZED, offHeapArg, true));
+          assertSameValues(message, expected, offHeap.zip(op, NOT_VECTORIZED, offHeapArg, true));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void maskAndSliceStayOffHeap() {
+    OffHeapNumericStorage storage =
+        OffHeapNumericStorage.copyOf(
+            new LongStorage(new long[] {1, 2, 3, 4}, 4, BitSet.valueOf(new long[] {0b0100})));
+    BitSet mask = new BitSet();
+    mask.set(1, 4);
+
+    OffHeapNumericStorage masked = storage.mask(mask, 3);
+    OffHeapNumericStorage sliced = storage.slice(2, 10);
+
+    assertEquals(2L, masked.getItemBoxed(0));
+    assertNull(masked.getItemBoxed(1));
+    assertEquals(4L, masked.getItemBoxed(2));
+    assertEquals(2, sliced.size());
+    assertTrue(sliced.isNa(0));
+    assertEquals(4L, sliced.getItemBoxed(1));
+  }
+}
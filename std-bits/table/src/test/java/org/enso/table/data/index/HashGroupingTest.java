@@ -0,0 +1,92 @@
+package org.enso.table.data.index;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+import org.enso.table.data.column.storage.DoubleStorage;
+import org.enso.table.data.column.storage.LongStorage;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.table.Column;
+import org.junit.Test;
+
+public class HashGroupingTest {
+  private static DoubleStorage doubles(double... values) {
+    long[] raw = new long[values.length];
+    for (int i = 0; i < values.length; i++) {
+      raw[i] = Double.doubleToRawLongBits(values[i]);
+    }
+    return new DoubleStorage(raw, values.length, new BitSet());
+  }
+
+  private static KeyColumn key(Storage storage) {
+    return KeyColumn.fromStorage(storage, null);
+  }
+
+  @Test
+  public void numberGroupsByFirstAppearance() {
+    HashGrouping grouping =
+        new HashGrouping(new KeyColumn[] {key(new LongStorage(new long[] {5, 3, 5, 7, 3}))}, 5);
+
+    assertEquals(3, grouping.getGroupCount());
+    assertArrayEquals(new int[] {0, 1, 0, 2, 1}, grouping.getGroupIds());
+    assertArrayEquals(new int[] {0, 2, 4, 5}, grouping.getOffsets());
+    assertArrayEquals(new int[] {0, 2, 1, 4, 3}, grouping.getRowIds());
+    assertEquals(3, grouping.getFirstRow(2));
+  }
+
+  @Test
+  public void groupByAllKeysAndMissingValues() {
+    LongStorage first =
+        new LongStorage(new long[] {1, 1, 0, 1, 0}, 5, BitSet.valueOf(new long[] {0b10100}));
+    DoubleStorage second = doubles(2, 2.5, 2, 2, 2);
+
+    HashGrouping grouping = new HashGrouping(new KeyColumn[] {key(first), key(second)}, 5);
+
+    assertArrayEquals(new int[] {0, 1, 2, 0, 2}, grouping.getGroupIds());
+  }
+
+  @Test
+  public void integralDoublesEqualLongs() {
+    KeyColumn longs = key(new LongStorage(new long[] {2, Long.MAX_VALUE}));
+    KeyColumn decimals = key(doubles(2.0, 0x1p63, 2.5));
+
+    assertTrue(decimals.equals(0, longs, 0));
+    assertEquals(longs.hash(0), decimals.hash(0));
+    assertFalse(decimals.equals(2, longs, 0));
+    assertFalse(decimals.isFloat(0));
+    assertTrue(decimals.isFloat(2));
+  }
+
+  @Test
+  public void keepIntegralDoublesOutsideOfLongRangeApart() {
+    KeyColumn longs = key(new LongStorage(new long[] {Long.MAX_VALUE, Long.MIN_VALUE}));
+    KeyColumn decimals = key(doubles(1e19, 2e19, 1e19, -1e19, -2e19));
+
+    HashGrouping grouping = new HashGrouping(new KeyColumn[] {decimals}, 5);
+
+    assertArrayEquals(new int[] {0, 1, 0, 2, 3}, grouping.getGroupIds());
+    assertTrue(decimals.compare(0, decimals, 1) < 0);
+    assertTrue(decimals.compare(4, decimals, 3) < 0);
+    assertFalse(decimals.equals(0, longs, 0));
+    assertFalse(decimals.equals(3, longs, 1));
+    assertTrue(decimals.compare(0, longs, 0) > 0);
+  }
+
+  @Test
+  public void groupInParallelLikeSequentially() {
+    int size = 1 << 20;
+    long[] values = new long[size];
+    for (int i = 0; i < size; i++) {
+      values[i] = (i * 7919L) % 1000;
+    }
+    Column[] keys = {new Column("key", new LongStorage(values))};
+
+    int[] sequential = new MultiValueIndex(keys, size, null, false).makeOrderMap(size);
+    int[] parallel = new MultiValueIndex(keys, size, null, true).makeOrderMap(size);
+
+    assertArrayEquals(sequential, parallel);
+  }
+}
@@ -0,0 +1,320 @@
+package org.enso.table.data.index;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.enso.table.data.column.storage.DoubleStorage;
+import org.enso.table.data.column.storage.LongStorage;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.table.Column;
+import org.enso.table.data.table.Table;
+import org.junit.Test;
+
+public class JoinTest {
+  private static final int NA = Index.NOT_FOUND;
+
+  private static KeyColumn[] keys(long... values) {
+    return new KeyColumn[] {KeyColumn.fromStorage(new LongStorage(values), null)};
+  }
+
+  private static void assertRows(JoinedRows join, int[] left, int[] right) {
+    assertArrayEquals(left, join.getLeftRows());
+    assertArrayEquals(right, join.getRightRows());
+  }
+
+  /** Keys {@code i % modulus} of {@code size} rows, every {@code nullEvery}-th one missing. */
+  private static LongStorage sampleKeys(int size, int modulus, int nullEvery) {
+    long[] data = new long[size];
+    BitSet isMissing = new BitSet();
+    for (int i = 0; i < size; i++) {
+      data[i] = i % modulus;
+      if (i % nullEvery == 0) {
+        isMissing.set(i);
+      }
+    }
+    return new LongStorage(data, size, isMissing);
+  }
+
+  /** Joins two key storages row by row, in the order documented by {@link JoinedRows}. */
+  private static int[][] expectedRows(Storage left, Storage right, JoinKind kind) {
+    Map<Object, List<Integer>> rightRows = new HashMap<>();
+    for (int row = 0; row < right.size(); row++) {
+      rightRows.computeIfAbsent(right.getItemBoxed(row), x -> new ArrayList<>()).add(row);
+    }
+    boolean[] rightMatched = new boolean[right.size()];
+    List<Integer> leftResult = new ArrayList<>();
+    List<Integer> rightResult = new ArrayList<>();
+    for (int row = 0; row < left.size(); row++) {
+      List<Integer> matches = rightRows.get(left.getItemBoxed(row));
+      if (matches != null) {
+        for (int match : matches) {
+          leftResult.add(row);
+          rightResult.add(match);
+          rightMatched[match] = true;
+        }
+      } else if (kind.keepsLeft()) {
+        leftResult.add(row);
+        rightResult.add(NA);
+      }
+    }
+    if (kind.keepsRight()) {
+      for (int row = 0; row < right.size(); row++) {
+        if (!rightMatched[row]) {
+          leftResult.add(NA);
+          rightResult.add(row);
+        }
+      }
+    }
+    return new int[][] {
+      leftResult.stream().mapToInt(x -> x).toArray(),
+      rightResult.stream().mapToInt(x -> x).toArray()
+    };
+  }
+
+  @Test
+  public void joinSortedKeysOfEachKind() {
+    KeyColumn[] left = keys(1, 2, 2, 4);
+    KeyColumn[] right = keys(2, 3, 4, 4);
+
+    assertRows(
+        new SortMergeJoin(left, 4, right, 4, JoinKind.INNER),
+        new int[] {1, 2, 3, 3},
+        new int[] {0, 0, 2, 3});
+    assertRows(
+        new SortMergeJoin(left, 4, right, 4, JoinKind.LEFT),
+        new int[] {0, 1, 2, 3, 3},
+        new int[] {NA, 0, 0, 2, 3});
+    assertRows(
+        new SortMergeJoin(left, 4, right, 4, JoinKind.RIGHT),
+        new int[] {1, 2, 3, 3, NA},
+        new int[] {0, 0, 2, 3, 1});
+    assertRows(
+        new SortMergeJoin(left, 4, right, 4, JoinKind.FULL),
+        new int[] {0, 1, 2, 3, 3, NA},
+        new int[] {NA, 0, 0, 2, 3, 1});
+  }
+
+  @Test
+  public void hashJoinMatchesSortMergeJoin() {
+    KeyColumn[] left = keys(1, 2, 2, 4, 5, 5);
+    KeyColumn[] right = keys(0, 2, 3, 4, 4, 5);
+
+    for (JoinKind kind : JoinKind.values()) {
+      JoinedRows merged = new SortMergeJoin(left, 6, right, 6, kind);
+      JoinedRows hashed = new HashJoin(left, 6, right, 6, kind);
+      assertRows(hashed, merged.getLeftRows(), merged.getRightRows());
+    }
+  }
+
+  @Test
+  public void hashJoinUnsortedKeysInLeftRowOrder() {
+    KeyColumn[] left = keys(4, 1, 2, 4);
+    KeyColumn[] right = keys(4, 9, 2, 4, 2);
+
+    assertRows(
+        new HashJoin(left, 4, right, 5, JoinKind.FULL),
+        new int[] {0, 0, 1, 2, 2, 3, 3, NA},
+        new int[] {0, 3, NA, 2, 4, 0, 3, 1});
+  }
+
+  @Test
+  public void matchMissingValues() {
+    KeyColumn[] left =
+        new KeyColumn[] {
+          KeyColumn.fromStorage(
+              new LongStorage(new long[] {1, 0}, 2, BitSet.valueOf(new long[] {0b10})), null)
+        };
+    KeyColumn[] right =
+        new KeyColumn[] {
+          KeyColumn.fromStorage(
+              new LongStorage(new long[] {0, 1}, 2, BitSet.valueOf(new long[] {0b01})), null)
+        };
+
+    assertRows(new HashJoin(left, 2, right, 2, JoinKind.INNER), new int[] {0, 1}, new int[] {1, 0});
+    assertTrue(SortMergeJoin.isSorted(right, 2));
+    assertFalse(SortMergeJoin.isSorted(left, 2));
+  }
+
+  @Test
+  public void joinTablesOnSeveralKeys() {
+    Table left =
+        new Table(
+            new Column[] {
+              new Column("a", new LongStorage(new long[] {1, 1, 2})),
+              new Column("b", new LongStorage(new long[] {10, 20, 10})),
+              new Column("x", new LongStorage(new long[] {100, 200, 300}))
+            });
+    Table right =
+        new Table(
+            new Column[] {
+              new Column("a", new LongStorage(new long[] {2, 1})),
+              new Column("b", new LongStorage(new long[] {10, 20})),
+              new Column("y", new LongStorage(new long[] {7, 8}))
+            });
+
+    Table joined =
+        left.join(
+            right,
+            new Column[] {left.getColumnByName("a"), left.getColumnByName("b")},
+            new Column[] {right.getColumnByName("a"), right.getColumnByName("b")},
+            JoinKind.LEFT,
+            null,
+            "_left",
+            "_right");
+
+    assertEquals(3, joined.rowCount());
+    Storage x = joined.getColumnByName("x").getStorage();
+    Storage y = joined.getColumnByName("y").getStorage();
+    assertEquals(100L, x.getItemBoxed(0));
+    assertNull(y.getItemBoxed(0));
+    assertEquals(8L, y.getItemBoxed(1));
+    assertEquals(7L, y.getItemBoxed(2));
+    assertEquals(2L, joined.getColumnByName("a_left").getStorage().getItemBoxed(2));
+  }
+
+  @Test
+  public void probeLargeTablesInParallelPartitions() {
+    // Either side is large enough to be probed in several partitions, and has keys both matching
+    // several rows of the other side and matching none.
+    LongStorage large = sampleKeys(5 << 18, 1300, 97);
+    LongStorage small = sampleKeys(1000, 800, 331);
+    KeyColumn[] largeKeys = {KeyColumn.fromStorage(large, null)};
+    KeyColumn[] smallKeys = {KeyColumn.fromStorage(small, null)};
+
+    for (JoinKind kind : JoinKind.values()) {
+      int[][] expected = expectedRows(large, small, kind);
+      assertRows(
+          new HashJoin(largeKeys, large.size(), smallKeys, small.size(), kind),
+          expected[0],
+          expected[1]);
+
+      expected = expectedRows(small, large, kind);
+      assertRows(
+          new HashJoin(smallKeys, small.size(), largeKeys, large.size(), kind),
+          expected[0],
+          expected[1]);
+    }
+  }
+
+  @Test
+  public void joinTablesOfEachKind() {
+    Table left =
+        new Table(
+            new Column[] {
+              new Column("a", new LongStorage(new long[] {1, 1, 2, 3})),
+              new Column("b", new LongStorage(new long[] {10, 20, 10, 10})),
+              new Column("x", new LongStorage(new long[] {100, 200, 300, 400}))
+            });
+    Table right =
+        new Table(
+            new Column[] {
+              new Column("a", new LongStorage(new long[] {2, 1, 4, 2})),
+              new Column("b", new LongStorage(new long[] {10, 20, 10, 10})),
+              new Column("y", new LongStorage(new long[] {7, 8, 9, 6}))
+            });
+    Column[] leftKeys = {left.getColumnByName("a"), left.getColumnByName("b")};
+    Column[] rightKeys = {right.getColumnByName("a"), right.getColumnByName("b")};
+
+    Long[][] expectedX = {
+      {200L, 300L, 300L},
+      {100L, 200L, 300L, 300L, 400L},
+      {200L, 300L, 300L, null},
+      {100L, 200L, 300L, 300L, 400L, null}
+    };
+    Long[][] expectedY = {
+      {8L, 7L, 6L},
+      {null, 8L, 7L, 6L, null},
+      {8L, 7L, 6L, 9L},
+      {null, 8L, 7L, 6L, null, 9L}
+    };
+    for (JoinKind kind : JoinKind.values()) {
+      Table joined = left.join(right, leftKeys, rightKeys, kind, null, "_left", "_right");
+      Storage x = joined.getColumnByName("x").getStorage();
+      Storage y = joined.getColumnByName("y").getStorage();
+      Long[] expected = expectedX[kind.ordinal()];
+      assertEquals(expected.length, joined.rowCount());
+      for (int i = 0; i < expected.length; i++) {
+        assertEquals(expected[i], x.getItemBoxed(i));
+        assertEquals(expectedY[kind.ordinal()][i], y.getItemBoxed(i));
+      }
+    }
+  }
+
+  @Test
+  public void joinOnColumnUsesIndexOfOtherTable() {
+    Table left =
+        new Table(
+            new Column[] {
+              new Column(
+                  "key",
+                  new LongStorage(
+                      new long[] {1, 2, 0, 3}, 4, BitSet.valueOf(new long[] {0b100}))),
+              new Column("x", new LongStorage(new long[] {10, 20, 30, 40}))
+            });
+    Table right =
+        new Table(
+                new Column[] {
+                  new Column(
+                      "key",
+                      new DoubleStorage(
+                          new long[] {
+                            Double.doubleToRawLongBits(2.0), 0, Double.doubleToRawLongBits(1.0)
+                          },
+                          3,
+                          BitSet.valueOf(new long[] {0b10}))),
+                  new Column("y", new LongStorage(new long[] {7, 8, 9}))
+                })
+            .indexFromColumn("key");
+
+    // As with the index lookups, integer keys do not match decimal keys, but missing keys match
+    // each other.
+    Table joined = left.join(right, true, "key", "_left", "_right");
+    assertEquals(1, joined.rowCount());
+    assertEquals(30L, joined.getColumnByName("x").getStorage().getItemBoxed(0));
+    assertEquals(8L, joined.getColumnByName("y").getStorage().getItemBoxed(0));
+
+    joined = left.join(right, false, "key", "_left", "_right");
+    assertEquals(4, joined.rowCount());
+    Storage y = joined.getColumnByName("y").getStorage();
+    assertNull(y.getItemBoxed(0));
+    assertNull(y.getItemBoxed(1));
+    assertEquals(8L, y.getItemBoxed(2));
+    assertNull(y.getItemBoxed(3));
+  }
+
+  @Test
+  public void joinOnColumnKeepsAllMatchesOfIndex() {
+    Table left =
+        new Table(
+            new Column[] {
+              new Column("key", new LongStorage(new long[] {2, 5, 1})),
+              new Column("x", new LongStorage(new long[] {10, 20, 30}))
+            });
+    Table right =
+        new Table(
+                new Column[] {
+                  new Column("key", new LongStorage(new long[] {1, 2, 1})),
+                  new Column("y", new LongStorage(new long[] {7, 8, 9}))
+                })
+            .indexFromColumn("key");
+
+    Table joined = left.join(right, false, "key", "_left", "_right");
+    assertEquals(4, joined.rowCount());
+    Storage x = joined.getColumnByName("x").getStorage();
+    Storage y = joined.getColumnByName("y").getStorage();
+    Long[] expectedX = {10L, 20L, 30L, 30L};
+    Long[] expectedY = {8L, null, 7L, 9L};
+    for (int i = 0; i < 4; i++) {
+      assertEquals(expectedX[i], x.getItemBoxed(i));
+      assertEquals(expectedY[i], y.getItemBoxed(i));
+    }
+  }
+}
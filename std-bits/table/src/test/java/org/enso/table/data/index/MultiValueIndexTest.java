@@ -0,0 +1,229 @@
+package org.enso.table.data.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.enso.table.aggregations.Aggregator;
+import org.enso.table.aggregations.Concatenate;
+import org.enso.table.aggregations.Count;
+import org.enso.table.aggregations.CountDistinct;
+import org.enso.table.aggregations.CountEmpty;
+import org.enso.table.aggregations.CountNothing;
+import org.enso.table.aggregations.First;
+import org.enso.table.aggregations.GroupBy;
+import org.enso.table.aggregations.Last;
+import org.enso.table.aggregations.Mean;
+import org.enso.table.aggregations.MinOrMax;
+import org.enso.table.aggregations.Mode;
+import org.enso.table.aggregations.Percentile;
+import org.enso.table.aggregations.ShortestOrLongest;
+import org.enso.table.aggregations.StandardDeviation;
+import org.enso.table.aggregations.Sum;
+import org.enso.table.data.column.storage.DoubleStorage;
+import org.enso.table.data.column.storage.LongStorage;
+import org.enso.table.data.column.storage.ObjectStorage;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.column.storage.StringStorage;
+import org.enso.table.data.table.Column;
+import org.enso.table.data.table.Table;
+import org.enso.table.data.table.problems.AggregatedProblems;
+import org.enso.table.data.table.problems.ColumnAggregatedProblems;
+import org.enso.table.data.table.problems.FloatingPointGrouping;
+import org.enso.table.data.table.problems.InvalidAggregation;
+import org.enso.table.data.table.problems.Problem;
+import org.junit.Test;
+
+public class MultiValueIndexTest {
+  @SuppressWarnings("unchecked")
+  private static final Comparator<Object> COMPARATOR =
+      (a, b) -> ((Comparable<Object>) a).compareTo(b);
+
+  private static final String[] WORDS = {"a", "bb", "", null, "ccc", "dd", "e"};
+
+  /** A table of the given size with missing values in each column, and texts mixed with numbers. */
+  private static Table sampleTable(int size) {
+    long[] keys = new long[size];
+    long[] longs = new long[size];
+    long[] doubles = new long[size];
+    BitSet keysMissing = new BitSet();
+    BitSet longsMissing = new BitSet();
+    BitSet doublesMissing = new BitSet();
+    Object[] texts = new Object[size];
+    Object[] mixed = new Object[size];
+    for (int i = 0; i < size; i++) {
+      keys[i] = (i * 31L + i / 3) % 5;
+      longs[i] = i * 13L % 17 - 8;
+      doubles[i] = Double.doubleToRawLongBits((i * 7 % 23) * 0.25 - 1.9);
+      if (i % 11 == 3) {
+        keysMissing.set(i);
+      }
+      if (i % 5 == 0) {
+        longsMissing.set(i);
+      }
+      if (i % 6 == 1) {
+        doublesMissing.set(i);
+      }
+      texts[i] = WORDS[i % WORDS.length];
+      mixed[i] = i % 8 == 0 ? null : i % 9 == 4 ? "x" + i : (Object) (long) i;
+    }
+    return new Table(
+        new Column[] {
+          new Column("key", new LongStorage(keys, size, keysMissing)),
+          new Column("longs", new LongStorage(longs, size, longsMissing)),
+          new Column("doubles", new DoubleStorage(doubles, size, doublesMissing)),
+          new Column("texts", new StringStorage(texts, size)),
+          new Column("mixed", new ObjectStorage(mixed, size))
+        });
+  }
+
+  /** A new instance of each kind of aggregator over the columns of a {@link #sampleTable}. */
+  private static Aggregator[] aggregators(Table table) {
+    Column key = table.getColumnByName("key");
+    Column longs = table.getColumnByName("longs");
+    Column doubles = table.getColumnByName("doubles");
+    Column texts = table.getColumnByName("texts");
+    Column mixed = table.getColumnByName("mixed");
+    return new Aggregator[] {
+      new GroupBy("key", key),
+      new Count("count"),
+      new CountNothing("count_nothing", longs, true),
+      new CountEmpty("count_empty", texts, true),
+      new CountDistinct("count_distinct", new Column[] {longs}, true, COMPARATOR),
+      new Sum("sum_doubles", doubles),
+      new Mean("mean_longs", longs),
+      new Mean("mean_doubles", doubles),
+      new MinOrMax("min_longs", longs, -1, COMPARATOR),
+      new MinOrMax("max_doubles", doubles, 1, COMPARATOR),
+      new MinOrMax("min_texts", texts, -1, COMPARATOR),
+      new MinOrMax("max_mixed", mixed, 1, COMPARATOR),
+      new Concatenate("concatenate", texts, ",", "[", "]", "'"),
+      new First("first_longs", longs, true),
+      new First("first_texts", texts, false),
+      new Last("last_doubles", doubles, true),
+      new Last("last_texts", texts, false),
+      new StandardDeviation("standard_deviation", longs, false),
+      new Mode("mode", longs),
+      new Percentile("median", doubles, 0.5),
+      new ShortestOrLongest("longest", texts, 1)
+    };
+  }
+
+  /** Describes problems in a comparable way, leaving out the problems matching no column. */
+  private static List<String> describe(AggregatedProblems problems) {
+    List<String> descriptions = new ArrayList<>();
+    if (problems != null) {
+      for (Problem problem : problems.getProblems()) {
+        if (problem instanceof ColumnAggregatedProblems columnProblem) {
+          descriptions.add(
+              problem.getClass().getSimpleName()
+                  + " "
+                  + columnProblem.getColumnName()
+                  + " "
+                  + Arrays.toString(columnProblem.getRows())
+                  + " "
+                  + problem.getMessage());
+        } else {
+          descriptions.add(problem.getMessage());
+        }
+      }
+    }
+    return descriptions;
+  }
+
+  /** Checks that values are equal once stored, with integer counts stored as longs. */
+  private static void assertSameValue(String message, Object expected, Object actual) {
+    if (expected instanceof Integer) {
+      assertEquals(message, ((Integer) expected).longValue(), actual);
+    } else if (expected instanceof Double && actual instanceof Double) {
+      double tolerance = 1e-9 * Math.max(1, Math.abs((Double) expected));
+      assertEquals(message, (Double) expected, (Double) actual, tolerance);
+    } else {
+      assertEquals(message, expected, actual);
+    }
+  }
+
+  @Test
+  public void accumulatorsMatchAggregatingEachGroup() {
+    int size = 200;
+    Table table = sampleTable(size);
+    Storage keys = table.getColumnByName("key").getStorage();
+    Map<Object, List<Integer>> groups = new LinkedHashMap<>();
+    for (int row = 0; row < size; row++) {
+      groups.computeIfAbsent(keys.getItemBoxed(row), x -> new ArrayList<>()).add(row);
+    }
+
+    MultiValueIndex index =
+        new MultiValueIndex(
+            new Column[] {table.getColumnByName("key")}, size, COMPARATOR, false);
+    Aggregator[] accumulated = aggregators(table);
+    Table result = index.makeTable(accumulated);
+
+    Aggregator[] expected = aggregators(table);
+    assertEquals(groups.size(), result.rowCount());
+    for (int i = 0; i < expected.length; i++) {
+      Storage storage = result.getColumns()[i].getStorage();
+      int group = 0;
+      for (List<Integer> rows : groups.values()) {
+        assertSameValue(
+            expected[i].getName() + " of group " + group,
+            expected[i].aggregate(rows),
+            storage.getItemBoxed(group));
+        group++;
+      }
+    }
+
+    List<String> expectedProblems = new ArrayList<>();
+    for (Aggregator aggregator : expected) {
+      expectedProblems.addAll(describe(aggregator.getProblems()));
+    }
+    String invalid = InvalidAggregation.class.getSimpleName();
+    assertTrue(expectedProblems.stream().anyMatch(p -> p.startsWith(invalid)));
+    assertEquals(expectedProblems, describe(result.getProblems()));
+    assertEquals(
+        result.getProblems().getCount(),
+        Arrays.stream(expected)
+            .mapToInt(a -> a.getProblems() == null ? 0 : a.getProblems().getCount())
+            .sum());
+  }
+
+  @Test
+  public void parallelAggregationMatchesSequentialAggregation() {
+    // Large enough to be grouped and aggregated in several partitions.
+    int size = 3 << 18;
+    Table table = sampleTable(size);
+    Column[] keys = {table.getColumnByName("key"), table.getColumnByName("doubles")};
+
+    Table sequential =
+        new MultiValueIndex(keys, size, COMPARATOR, false).makeTable(aggregators(table));
+    Table parallel =
+        new MultiValueIndex(keys, size, COMPARATOR, true).makeTable(aggregators(table));
+
+    assertEquals(sequential.rowCount(), parallel.rowCount());
+    Column[] expected = sequential.getColumns();
+    Column[] actual = parallel.getColumns();
+    for (int i = 0; i < expected.length; i++) {
+      Storage expectedStorage = expected[i].getStorage();
+      Storage actualStorage = actual[i].getStorage();
+      for (int row = 0; row < sequential.rowCount(); row++) {
+        assertSameValue(
+            expected[i].getName() + " of group " + row,
+            expectedStorage.getItemBoxed(row),
+            actualStorage.getItemBoxed(row));
+      }
+    }
+    List<String> problems = describe(sequential.getProblems());
+    String grouping = FloatingPointGrouping.class.getSimpleName();
+    String invalid = InvalidAggregation.class.getSimpleName();
+    assertTrue(problems.stream().anyMatch(p -> p.startsWith(grouping)));
+    assertTrue(problems.stream().anyMatch(p -> p.startsWith(invalid)));
+    assertEquals(problems, describe(parallel.getProblems()));
+    assertEquals(sequential.getProblems().getCount(), parallel.getProblems().getCount());
+  }
+}
@@ -0,0 +1,89 @@
+package org.enso.table.data.table;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import org.enso.table.data.column.storage.BoolStorage;
+import org.enso.table.data.column.storage.DoubleStorage;
+import org.enso.table.data.column.storage.LongStorage;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.column.storage.StringStorage;
+import org.junit.Test;
+
+public class ColumnOperationTest {
+  private static Column longs(String name, long... values) {
+    return new Column(name, new LongStorage(values));
+  }
+
+  @Test
+  public void chainedOperationsGiveTheStorageResults() {
+    Column a = longs("a", 1, 2, 3, 4);
+    Column b =
+        new Column(
+            "b",
+            new DoubleStorage(
+                new long[] {
+                  Double.doubleToRawLongBits(0.5),
+                  0,
+                  Double.doubleToRawLongBits(-2.0),
+                  Double.doubleToRawLongBits(1.0)
+                },
+                4,
+                BitSet.valueOf(new long[] {0b10})));
+    Column c = longs("c", 2, 2, 2, 10);
+
+    Column result =
+        a.bimap(Storage.Maps.MUL, null, 2L)
+            .zip(Storage.Maps.ADD, null, b, true)
+            .zip(Storage.Maps.GT, null, c, true)
+            .map(Storage.Maps.NOT, null);
+
+    assertEquals("a", result.getName());
+    assertEquals(4, result.getSize());
+    assertEquals(Storage.Type.BOOL, result.getStorage().getType());
+    assertEquals(Arrays.asList(false, null, false, true), result.getStorage().toList());
+  }
+
+  @Test
+  public void longChainsAreEvaluated() {
+    Column a = longs("a", 1, 2, 3);
+    Column result = a;
+    for (int i = 0; i < 100; i++) {
+      result = result.zip(Storage.Maps.ADD, null, a, true);
+    }
+
+    assertEquals(Storage.Type.LONG, result.getStorage().getType());
+    assertEquals(Arrays.asList(101L, 202L, 303L), result.getStorage().toList());
+  }
+
+  @Test
+  public void resultsCanBeRenamedAndMasked() {
+    Column a = longs("a", 1, 2, 3, 4);
+    Column isEven = a.bimap(Storage.Maps.MOD, null, 2L).bimap(Storage.Maps.EQ, null, 0L);
+
+    Column masked = a.mask(isEven).rename("even");
+    Column maskedResult = isEven.rename("is_even").mask(isEven);
+
+    assertEquals(Arrays.asList(2L, 4L), masked.getStorage().toList());
+    assertEquals("is_even", maskedResult.getName());
+    assertEquals(Arrays.asList(true, true), maskedResult.getStorage().toList());
+  }
+
+  @Test
+  public void otherOperationsUseTheStorageOperations() {
+    Column texts = new Column("t", new StringStorage(new Object[] {"ab", null, "b"}, 3));
+    BitSet values = BitSet.valueOf(new long[] {0b101});
+    Column bools = new Column("b", new BoolStorage(values, new BitSet(), 3, false));
+
+    Column startsWith = texts.bimap(Storage.Maps.STARTS_WITH, null, "a");
+    Column lengths = texts.map(null, x -> (long) ((String) x).length());
+    List<Object> combined =
+        startsWith.zip(Storage.Maps.AND, null, bools, true).getStorage().toList();
+
+    assertEquals(Arrays.asList(true, null, false), startsWith.getStorage().toList());
+    assertEquals(Arrays.asList(2L, null, 1L), lengths.getStorage().toList());
+    assertEquals(Arrays.asList(true, null, false), combined);
+  }
+}
@@ -0,0 +1,62 @@
+package org.enso.table.data.table;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+import org.enso.table.data.column.builder.string.StringStorageBuilder;
+import org.enso.table.data.column.storage.BoolStorage;
+import org.enso.table.data.column.storage.LongStorage;
+import org.enso.table.data.column.storage.StringStorage;
+import org.junit.Test;
+
+public class MemorySizeTest {
+  private static final int ROWS = 10000;
+
+  @Test
+  public void countTheValuesOfNumericStorages() {
+    LongStorage storage = new LongStorage(new long[ROWS]);
+
+    assertTrue(storage.estimateMemorySize() >= 8L * ROWS);
+  }
+
+  @Test
+  public void countRepeatedStringsOnceInDictionaries() {
+    Object[] values = new Object[ROWS];
+    StringStorageBuilder builder = new StringStorageBuilder();
+    for (int i = 0; i < ROWS; i++) {
+      values[i] = "value number " + (i % 10);
+      builder.parseAndAppend((String) values[i]);
+    }
+    StringStorage plain = new StringStorage(values, ROWS);
+    StringStorage encoded = builder.seal();
+
+    assertTrue(plain.estimateMemorySize() >= 40L * ROWS);
+    assertTrue(encoded.estimateMemorySize() < plain.estimateMemorySize() / 2);
+  }
+
+  @Test
+  public void sumTheColumnsOfTables() {
+    Column first = new Column("a", new LongStorage(new long[ROWS]));
+    Column second = new Column("b", new LongStorage(new long[ROWS]));
+    Table table = new Table(new Column[] {first, second});
+
+    assertEquals(
+        first.estimateMemorySize() + second.estimateMemorySize(), table.estimateMemorySize());
+  }
+
+  @Test
+  public void countTheSourceOfSelectionsUntilTheyAreCopied() {
+    LongStorage storage = new LongStorage(new long[ROWS]);
+    Table table = new Table(new Column[] {new Column("a", storage)});
+    BitSet mask = new BitSet();
+    mask.set(0, 10);
+
+    Table masked = table.mask(new Column("mask", new BoolStorage(mask, new BitSet(), ROWS, false)));
+    Column column = masked.getColumns()[0];
+
+    assertTrue(column.estimateMemorySize() > storage.estimateMemorySize());
+    column.getStorage();
+    assertTrue(column.estimateMemorySize() < storage.estimateMemorySize() / 100);
+  }
+}
@@ -0,0 +1,114 @@
+package org.enso.table.data.table;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import org.enso.table.data.column.storage.BoolStorage;
+import org.enso.table.data.column.storage.LongStorage;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.index.Index;
+import org.junit.Test;
+
+public class StorageSelectionTest {
+  private static final int NA = Index.NOT_FOUND;
+
+  private static void assertItems(Storage storage, Object... expected) {
+    assertEquals(expected.length, storage.size());
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals("Item " + i, expected[i], storage.getItemBoxed(i));
+    }
+  }
+
+  @Test
+  public void composeChainedSelections() {
+    StorageSelection selection =
+        new StorageSelection(new LongStorage(new long[] {10, 11, 12, 13, 14}), new int[] {4, 2, 0});
+
+    StorageSelection inner = selection.select(new int[] {2, 0}, new IdentityHashMap<>());
+    StorageSelection chained = inner.select(new int[] {1, 1, 0}, new IdentityHashMap<>());
+
+    assertEquals(3, chained.size());
+    assertItems(chained.get(), 14L, 14L, 10L);
+  }
+
+  @Test
+  public void keepNotFoundPositionsMissing() {
+    StorageSelection selection =
+        new StorageSelection(new LongStorage(new long[] {10, 11, 12}), new int[] {1, NA, 2});
+
+    StorageSelection chained = selection.select(new int[] {1, 0, NA, 2}, new IdentityHashMap<>());
+
+    assertItems(chained.get(), null, 11L, null, 12L);
+  }
+
+  @Test
+  public void shareComposedPositionsBetweenColumns() {
+    int[] positions = {1, 0};
+    int[] inner = {1};
+    StorageSelection first = new StorageSelection(new LongStorage(new long[] {1, 2}), positions);
+    StorageSelection second = new StorageSelection(new LongStorage(new long[] {3, 4}), positions);
+    Map<int[], int[]> composed = new IdentityHashMap<>();
+
+    first.select(inner, composed);
+    second.select(inner, composed);
+
+    assertEquals(1, composed.size());
+    assertArrayEquals(new int[] {0}, composed.get(positions));
+  }
+
+  @Test
+  public void selectFromMaterializedSelection() {
+    StorageSelection selection =
+        new StorageSelection(new LongStorage(new long[] {10, 11, 12}), new int[] {2, 1});
+    Storage materialized = selection.get();
+
+    StorageSelection chained = selection.select(new int[] {1}, new IdentityHashMap<>());
+
+    assertSame(materialized, selection.get());
+    assertItems(chained.get(), 11L);
+  }
+
+  @Test
+  public void maskTableSeveralTimes() {
+    Table table =
+        new Table(
+            new Column[] {
+              new Column("a", new LongStorage(new long[] {1, 2, 3, 4, 5, 6})),
+              new Column("b", new LongStorage(new long[] {6, 5, 4, 3, 2, 1}))
+            });
+    BitSet even = new BitSet();
+    even.set(1);
+    even.set(3);
+    even.set(5);
+    BitSet first = new BitSet();
+    first.set(0, 2);
+
+    Table masked =
+        table
+            .mask(new Column("even", new BoolStorage(even, new BitSet(), 6, false)))
+            .mask(new Column("first", new BoolStorage(first, new BitSet(), 3, false)));
+
+    assertEquals(2, masked.rowCount());
+    assertItems(masked.getColumnByName("a").getStorage(), 2L, 4L);
+    assertItems(masked.getColumnByName("b").getStorage(), 5L, 3L);
+  }
+
+  @Test
+  public void sliceStopsAtTheEnd() {
+    LongStorage storage = new LongStorage(new long[] {1, 2, 3, 4, 5}, 5, new BitSet());
+    storage.getIsMissing().set(4);
+    Table table = new Table(new Column[] {new Column("a", storage)});
+
+    Table slice = table.slice(3, 10);
+    Table empty = table.slice(5, 10);
+
+    assertArrayEquals(new int[] {3, 4}, Column.slicePositions(5, 3, 10));
+    assertEquals(2, slice.rowCount());
+    assertItems(slice.getColumnByName("a").getStorage(), 4L, null);
+    assertEquals(0, empty.rowCount());
+  }
+}
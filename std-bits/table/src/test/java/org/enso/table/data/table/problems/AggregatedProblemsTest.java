@@ -0,0 +1,36 @@
+package org.enso.table.data.table.problems;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class AggregatedProblemsTest {
+  @Test
+  public void countProblemsDroppedByTheAddedInstance() {
+    AggregatedProblems other = new AggregatedProblems(2);
+    for (int i = 0; i < 5; i++) {
+      String message = "Problem " + i;
+      other.add(() -> message);
+    }
+    AggregatedProblems problems = new AggregatedProblems();
+    problems.add(() -> "First");
+
+    problems.addAll(other);
+
+    assertEquals(6, problems.getCount());
+    assertEquals(3, problems.getProblems().length);
+  }
+
+  @Test
+  public void countMergedColumnProblemsOnce() {
+    AggregatedProblems other = new AggregatedProblems();
+    other.add(new FloatingPointGrouping("GroupBy", 1));
+    AggregatedProblems problems = new AggregatedProblems();
+    problems.add(new FloatingPointGrouping("GroupBy", 0));
+
+    problems.addAll(other);
+
+    assertEquals(1, problems.getCount());
+    assertEquals(1, problems.getProblems().length);
+  }
+}
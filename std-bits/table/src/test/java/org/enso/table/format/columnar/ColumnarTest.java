@@ -0,0 +1,212 @@
+package org.enso.table.format.columnar;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.BitSet;
+import java.util.List;
+import org.enso.table.data.column.storage.BoolStorage;
+import org.enso.table.data.column.storage.DictionaryStringStorage;
+import org.enso.table.data.column.storage.DoubleStorage;
+import org.enso.table.data.column.storage.LongStorage;
+import org.enso.table.data.column.storage.OffHeapNumericStorage;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.column.storage.StringStorage;
+import org.enso.table.data.table.Column;
+import org.enso.table.data.table.Table;
+import org.enso.table.error.NoSuchColumnException;
+import org.enso.table.format.columnar.ColumnarFormat.ColumnInfo;
+import org.enso.table.format.columnar.ColumnarFormat.Schema;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ColumnarTest {
+  private static final int ROWS = 10;
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private static Object expectedLong(int row) {
+    return row % 4 == 0 ? null : (long) row - 5;
+  }
+
+  private static Object expectedDouble(int row) {
+    return row % 3 == 0 ? null : row * 1.5;
+  }
+
+  private static Object expectedBool(int row) {
+    return row == 7 ? null : row % 2 == 0;
+  }
+
+  private static Object expectedCategory(int row) {
+    return row == 5 ? null : "category " + row % 3;
+  }
+
+  private static Object expectedText(int row) {
+    return row == 2 ? null : "text " + row;
+  }
+
+  /** Creates a table with a column of each supported type, each with a missing value. */
+  private static Table createTable() {
+    long[] longs = new long[ROWS];
+    BitSet missingLongs = new BitSet();
+    long[] doubles = new long[ROWS];
+    BitSet missingDoubles = new BitSet();
+    BitSet bools = new BitSet();
+    BitSet missingBools = new BitSet();
+    Object[] categories = new Object[ROWS];
+    Object[] texts = new Object[ROWS];
+    for (int i = 0; i < ROWS; i++) {
+      if (expectedLong(i) == null) {
+        missingLongs.set(i);
+      } else {
+        longs[i] = (long) expectedLong(i);
+      }
+      if (expectedDouble(i) == null) {
+        missingDoubles.set(i);
+      } else {
+        doubles[i] = Double.doubleToRawLongBits((double) expectedDouble(i));
+      }
+      if (expectedBool(i) == null) {
+        missingBools.set(i);
+      } else {
+        bools.set(i, (boolean) expectedBool(i));
+      }
+      categories[i] = expectedCategory(i);
+      texts[i] = expectedText(i);
+    }
+    return new Table(
+        new Column[] {
+          new Column("long", new LongStorage(longs, ROWS, missingLongs)),
+          new Column("double", new DoubleStorage(doubles, ROWS, missingDoubles)),
+          new Column("bool", new BoolStorage(bools, missingBools, ROWS, false)),
+          new Column("category", new StringStorage(categories, ROWS)),
+          new Column("text", new StringStorage(texts, ROWS))
+        });
+  }
+
+  private String writeTable() throws IOException {
+    String path = folder.newFile("table.bin").getPath();
+    Writer.write(createTable(), path);
+    return path;
+  }
+
+  private static void assertColumn(Table table, String name, int firstRow, Object... expected) {
+    Storage storage = table.getColumnByName(name).getStorage();
+    assertEquals(expected.length, storage.size());
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(name + " row " + (firstRow + i), expected[i], storage.getItemBoxed(i));
+    }
+  }
+
+  private static Object expected(String name, int row) {
+    switch (name) {
+      case "long":
+        return expectedLong(row);
+      case "double":
+        return expectedDouble(row);
+      case "bool":
+        return expectedBool(row);
+      case "category":
+        return expectedCategory(row);
+      default:
+        return expectedText(row);
+    }
+  }
+
+  private static void assertRows(Table table, String name, int firstRow, int count) {
+    Object[] expected = new Object[count];
+    for (int i = 0; i < count; i++) {
+      expected[i] = expected(name, firstRow + i);
+    }
+    assertColumn(table, name, firstRow, expected);
+  }
+
+  @Test
+  public void roundTripAllColumns() throws IOException {
+    Table table = Reader.read(writeTable());
+
+    assertEquals(ROWS, table.rowCount());
+    assertEquals(5, table.getColumns().length);
+    for (Column column : table.getColumns()) {
+      assertRows(table, column.getName(), 0, ROWS);
+    }
+    assertTrue(table.getColumnByName("category").getStorage() instanceof DictionaryStringStorage);
+    assertFalse(table.getColumnByName("text").getStorage() instanceof DictionaryStringStorage);
+  }
+
+  @Test
+  public void readSchemaAndStatistics() throws IOException {
+    Schema schema = Reader.readSchema(writeTable());
+
+    assertEquals(ROWS, schema.rowCount());
+    ColumnInfo longs = schema.getColumn("long");
+    assertEquals(3, longs.missingCount());
+    assertEquals(-4L, longs.min());
+    assertEquals(4L, longs.max());
+    ColumnInfo categories = schema.getColumn("category");
+    assertTrue(categories.dictionaryEncoded());
+    assertEquals(3, categories.distinctCount());
+    assertEquals(1, categories.missingCount());
+    assertFalse(schema.getColumn("text").dictionaryEncoded());
+  }
+
+  @Test
+  public void readSelectedColumnsAndRows() throws IOException {
+    Table table = Reader.read(writeTable(), List.of("text", "category", "long"), 3, 4, false);
+
+    assertArrayEquals(
+        new String[] {"text", "category", "long"},
+        List.of(table.getColumns()).stream().map(Column::getName).toArray());
+    assertEquals(4, table.rowCount());
+    assertRows(table, "text", 3, 4);
+    assertRows(table, "category", 3, 4);
+    assertRows(table, "long", 3, 4);
+  }
+
+  @Test
+  public void readRowsUntilTheEnd() throws IOException {
+    String path = writeTable();
+
+    Table tail = Reader.read(path, List.of("bool"), 6, -1, false);
+    Table beyond = Reader.read(path, List.of("bool"), 20, 5, false);
+
+    assertRows(tail, "bool", 6, 4);
+    assertEquals(0, beyond.rowCount());
+  }
+
+  @Test
+  public void readNumericColumnsOffHeap() throws IOException {
+    Table table = Reader.read(writeTable(), List.of("long", "double"), 1, 8, true);
+
+    assertTrue(table.getColumnByName("long").getStorage() instanceof OffHeapNumericStorage);
+    assertTrue(table.getColumnByName("double").getStorage() instanceof OffHeapNumericStorage);
+    assertRows(table, "long", 1, 8);
+    assertRows(table, "double", 1, 8);
+  }
+
+  @Test(expected = NoSuchColumnException.class)
+  public void rejectUnknownColumns() throws IOException {
+    Reader.read(writeTable(), List.of("long", "unknown"), 0, -1, false);
+  }
+
+  @Test
+  public void writeTheSameBytesToStreams() throws IOException {
+    String path = writeTable();
+    File streamed = folder.newFile("streamed.bin");
+
+    try (OutputStream stream = new FileOutputStream(streamed)) {
+      Writer.write(createTable(), stream);
+    }
+
+    assertArrayEquals(
+        Files.readAllBytes(new File(path).toPath()), Files.readAllBytes(streamed.toPath()));
+  }
+}
@@ -0,0 +1,122 @@
+package org.enso.table.format.xlsx;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Name;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.table.Column;
+import org.enso.table.data.table.Table;
+import org.junit.Test;
+
+public class ReaderTest {
+  private static final LocalDate DATE = LocalDate.of(2020, 1, 2);
+
+  /**
+   * Creates a workbook with a sheet where the third row and some cells are missing, a second sheet
+   * and a name defined for a part of the first sheet.
+   */
+  private static byte[] createWorkbook() throws IOException {
+    try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+      CellStyle dateStyle = workbook.createCellStyle();
+      dateStyle.setDataFormat(
+          workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+
+      Sheet data = workbook.createSheet("Data");
+      Row header = data.createRow(0);
+      header.createCell(0).setCellValue("name");
+      header.createCell(1).setCellValue("value");
+      header.createCell(2).setCellValue("flag");
+      header.createCell(3).setCellValue("when");
+      Row first = data.createRow(1);
+      first.createCell(0).setCellValue("a");
+      first.createCell(1).setCellValue(1.5);
+      first.createCell(2).setCellValue(true);
+      first.createCell(3).setCellValue(DATE);
+      first.getCell(3).setCellStyle(dateStyle);
+      Row last = data.createRow(3);
+      last.createCell(0).setCellValue("c");
+      last.createCell(2).setCellValue(false);
+
+      workbook.createSheet("Other").createRow(0).createCell(0).setCellValue("x");
+
+      Name name = workbook.createName();
+      name.setNameName("Values");
+      name.setRefersToFormula("Data!$B$2:$B$4");
+
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      workbook.write(output);
+      return output.toByteArray();
+    }
+  }
+
+  private static InputStream workbook() throws IOException {
+    return new ByteArrayInputStream(createWorkbook());
+  }
+
+  private static void assertItems(Column column, Object... expected) {
+    Storage storage = column.getStorage();
+    assertEquals(expected.length, storage.size());
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals("Item " + i, expected[i], storage.getItemBoxed(i));
+    }
+  }
+
+  @Test
+  public void readSheetAndRangeNames() throws IOException {
+    assertArrayEquals(new String[] {"Data", "Other"}, Reader.readSheetNames(workbook(), false));
+    assertArrayEquals(new String[] {"Values"}, Reader.readRangeNames(workbook(), false));
+  }
+
+  @Test
+  public void readWholeSheetWithMissingRowsAndCells() throws IOException {
+    Table table = Reader.readSheetByName(workbook(), "data", 0, null, false);
+
+    Column[] columns = table.getColumns();
+    assertEquals(5, columns.length);
+    assertEquals("A", columns[0].getName());
+    assertEquals("E", columns[4].getName());
+    assertItems(columns[0], "name", "a", null, "c");
+    assertItems(columns[1], "value", 1.5, null, null);
+    assertItems(columns[2], "flag", true, null, false);
+    assertItems(columns[3], "when", DATE, null, null);
+    assertItems(columns[4], null, null, null, null);
+  }
+
+  @Test
+  public void readSheetByIndex() throws IOException {
+    Table table = Reader.readSheetByIndex(workbook(), 2, 0, null, false);
+
+    assertItems(table.getColumns()[0], "x");
+  }
+
+  @Test
+  public void skipAndLimitRows() throws IOException {
+    Table table = Reader.readSheetByName(workbook(), "Data", 1, 2, false);
+
+    assertEquals(2, table.rowCount());
+    assertItems(table.getColumns()[0], "a", null);
+  }
+
+  @Test
+  public void readRanges() throws IOException {
+    Table named = Reader.readRangeByName(workbook(), "Values", 0, null, false);
+    Table address = Reader.readRange(workbook(), new Range("Data!A2:C10"), 1, 2, false);
+
+    assertEquals(1, named.getColumns().length);
+    assertEquals("B", named.getColumns()[0].getName());
+    assertItems(named.getColumns()[0], 1.5, null, null);
+    assertEquals(3, address.getColumns().length);
+    assertItems(address.getColumns()[0], null, "c");
+    assertItems(address.getColumns()[2], null, false);
+  }
+}
@@ -0,0 +1,134 @@
+package org.enso.table.format.xlsx;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.BitSet;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.enso.table.data.column.storage.BoolStorage;
+import org.enso.table.data.column.storage.DoubleStorage;
+import org.enso.table.data.column.storage.LongStorage;
+import org.enso.table.data.column.storage.StringStorage;
+import org.enso.table.data.table.Column;
+import org.enso.table.data.table.Table;
+import org.enso.table.format.xlsx.Writer.WriteMode;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class WriterTest {
+  /** More rows than the streaming workbook keeps in memory. */
+  private static final int ROWS = 250;
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private static Table createTable(int rows) {
+    long[] longs = new long[rows];
+    long[] doubles = new long[rows];
+    BitSet missing = new BitSet();
+    BitSet bools = new BitSet();
+    Object[] strings = new Object[rows];
+    for (int i = 0; i < rows; i++) {
+      longs[i] = i;
+      doubles[i] = Double.doubleToRawLongBits(i / 2.0);
+      if (i % 7 == 0) {
+        missing.set(i);
+      }
+      bools.set(i, i % 2 == 0);
+      strings[i] = i % 5 == 0 ? null : "row " + i;
+    }
+    return new Table(
+        new Column[] {
+          new Column("long", new LongStorage(longs)),
+          new Column("double", new DoubleStorage(doubles, rows, missing)),
+          new Column("bool", new BoolStorage(bools, new BitSet(), rows, false)),
+          new Column("text", new StringStorage(strings, rows))
+        });
+  }
+
+  private static void write(Table table, File file, WriteMode mode, Integer maxRecords)
+      throws IOException, InvalidFormatException {
+    Writer.writeXlsx(table, file.getPath(), "Data", mode, true, maxRecords, null);
+  }
+
+  private static Table read(File file, String sheetName) throws IOException {
+    try (InputStream stream = new FileInputStream(file)) {
+      return Reader.readSheetByName(stream, sheetName, 0, null, false);
+    }
+  }
+
+  /** Checks that the rows read back, following the header, match the written ones. */
+  private static void assertWritten(Table read, int firstRow, int firstValue, int rows) {
+    Column[] columns = read.getColumns();
+    assertEquals("long", columns[0].getStorage().getItemBoxed(0));
+    assertEquals("text", columns[3].getStorage().getItemBoxed(0));
+    for (int i = 0; i < rows; i++) {
+      int row = firstRow + i;
+      int value = firstValue + i;
+      assertEquals((double) value, columns[0].getStorage().getItemBoxed(row));
+      assertEquals(
+          value % 7 == 0 ? null : value / 2.0, columns[1].getStorage().getItemBoxed(row));
+      assertEquals(value % 2 == 0, columns[2].getStorage().getItemBoxed(row));
+      assertEquals(
+          value % 5 == 0 ? null : "row " + value, columns[3].getStorage().getItemBoxed(row));
+    }
+  }
+
+  @Test
+  public void writeNewFile() throws IOException, InvalidFormatException {
+    File file = new File(folder.getRoot(), "new.xlsx");
+
+    write(createTable(ROWS), file, WriteMode.APPEND, null);
+
+    Table read = read(file, "Data");
+    assertEquals(ROWS + 1, read.rowCount());
+    assertWritten(read, 1, 0, ROWS);
+  }
+
+  @Test
+  public void createSheetNextToExistingOne() throws IOException, InvalidFormatException {
+    File file = new File(folder.getRoot(), "existing.xlsx");
+    write(createTable(3), file, WriteMode.APPEND, null);
+
+    write(createTable(ROWS), file, WriteMode.CREATE_SHEET, null);
+
+    try (InputStream stream = new FileInputStream(file)) {
+      assertArrayEquals(new String[] {"Data", "Data 1"}, Reader.readSheetNames(stream, false));
+    }
+    assertEquals(4, read(file, "Data").rowCount());
+    assertWritten(read(file, "Data 1"), 1, 0, ROWS);
+  }
+
+  @Test
+  public void appendToExistingSheet() throws IOException, InvalidFormatException {
+    File file = new File(folder.getRoot(), "append.xlsx");
+    write(createTable(3), file, WriteMode.APPEND, null);
+
+    write(createTable(ROWS), file, WriteMode.APPEND, null);
+
+    Table read = read(file, "Data");
+    assertEquals(ROWS + 5, read.rowCount());
+    assertWritten(read, 1, 0, 3);
+    assertWritten(read, 5, 0, ROWS);
+  }
+
+  @Test
+  public void splitRecordsAcrossFiles() throws IOException, InvalidFormatException {
+    File file = new File(folder.getRoot(), "split.xlsx");
+
+    write(createTable(ROWS), file, WriteMode.APPEND, 200);
+
+    Table first = read(new File(folder.getRoot(), "split_1.xlsx"), "Data");
+    Table second = read(new File(folder.getRoot(), "split_2.xlsx"), "Data");
+    assertEquals(201, first.rowCount());
+    assertEquals(51, second.rowCount());
+    assertWritten(first, 1, 0, 200);
+    assertWritten(second, 1, 200, 50);
+    assertNull(second.getColumns()[3].getStorage().getItemBoxed(1));
+  }
+}
@@ -0,0 +1,123 @@
+package org.enso.table.operations;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.enso.table.data.column.storage.BoolStorage;
+import org.enso.table.data.column.storage.DoubleStorage;
+import org.enso.table.data.column.storage.LongStorage;
+import org.enso.table.data.table.Column;
+import org.enso.table.operations.OrderBuilder.OrderRule;
+import org.junit.Test;
+
+public class OrderBuilderTest {
+  private static final int SIZE = 2000;
+  private static final double[] SPECIAL_DOUBLES = {
+    0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.MIN_VALUE
+  };
+
+  @SuppressWarnings("unchecked")
+  private static final Comparator<Object> NATURAL =
+      (a, b) -> ((Comparable<Object>) a).compareTo(b);
+
+  private static BitSet randomMissing(Random random) {
+    BitSet missing = new BitSet();
+    for (int i = 0; i < SIZE; i++) {
+      if (random.nextInt(10) == 0) {
+        missing.set(i);
+      }
+    }
+    return missing;
+  }
+
+  private static Column longs(Random random) {
+    long[] values = new long[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      values[i] = random.nextInt(4) == 0 ? random.nextLong() : random.nextInt(50) - 25;
+    }
+    values[0] = Long.MIN_VALUE;
+    values[1] = Long.MAX_VALUE;
+    return new Column("longs", new LongStorage(values, SIZE, randomMissing(random)));
+  }
+
+  private static Column doubles(Random random) {
+    long[] values = new long[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      double value =
+          random.nextInt(5) == 0
+              ? SPECIAL_DOUBLES[random.nextInt(SPECIAL_DOUBLES.length)]
+              : (random.nextInt(40) - 20) / 4.0;
+      values[i] = Double.doubleToRawLongBits(value);
+    }
+    return new Column("doubles", new DoubleStorage(values, SIZE, randomMissing(random)));
+  }
+
+  private static Column booleans(Random random) {
+    BitSet values = new BitSet();
+    for (int i = 0; i < SIZE; i++) {
+      if (random.nextBoolean()) {
+        values.set(i);
+      }
+    }
+    return new Column("booleans", new BoolStorage(values, randomMissing(random), SIZE, false));
+  }
+
+  /** Checks that sorting primitive columns gives the same order as sorting with a comparator. */
+  private static void assertSameOrder(Column[] columns, boolean ascending, boolean missingLast) {
+    List<OrderRule> primitive = new ArrayList<>();
+    List<OrderRule> boxed = new ArrayList<>();
+    for (Column column : columns) {
+      primitive.add(new OrderRule(column, null, ascending, missingLast));
+      boxed.add(new OrderRule(column, NATURAL, ascending, missingLast));
+    }
+
+    assertArrayEquals(
+        OrderBuilder.buildOrderMask(boxed, null).getPositions(),
+        OrderBuilder.buildOrderMask(primitive, null).getPositions());
+  }
+
+  @Test
+  public void sortIntegersLikeTheirComparator() {
+    Random random = new Random(42);
+    Column[] columns = {longs(random)};
+
+    assertSameOrder(columns, true, false);
+    assertSameOrder(columns, false, true);
+  }
+
+  @Test
+  public void sortDecimalsLikeTheirComparator() {
+    Random random = new Random(43);
+    Column[] columns = {doubles(random)};
+
+    assertSameOrder(columns, true, false);
+    assertSameOrder(columns, false, true);
+  }
+
+  @Test
+  public void sortBySeveralPrimitiveColumnsStably() {
+    Random random = new Random(44);
+    Column[] columns = {booleans(random), doubles(random), longs(random)};
+
+    assertSameOrder(columns, true, true);
+    assertSameOrder(columns, false, false);
+  }
+
+  @Test
+  public void mixPrimitiveAndComparatorRules() {
+    Random random = new Random(45);
+    Column first = booleans(random);
+    Column second = longs(random);
+    OrderRule firstRule = new OrderRule(first, NATURAL, true, false);
+    List<OrderRule> mixed = List.of(firstRule, new OrderRule(second, null, false, true));
+    List<OrderRule> boxed = List.of(firstRule, new OrderRule(second, NATURAL, false, true));
+
+    assertArrayEquals(
+        OrderBuilder.buildOrderMask(boxed, null).getPositions(),
+        OrderBuilder.buildOrderMask(mixed, null).getPositions());
+  }
+}
@@ -0,0 +1,173 @@
+package org.enso.table.read;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.table.Table;
+import org.enso.table.parsing.IncrementalDatatypeParser;
+import org.enso.table.parsing.IntegerParser;
+import org.enso.table.parsing.TypeInferringParser;
+import org.enso.table.parsing.problems.InvalidRow;
+import org.enso.table.problems.Problem;
+import org.enso.table.problems.WithProblems;
+import org.junit.Test;
+
+public class DelimitedReaderTest {
+  /** Enough rows for the input to be split into several chunks parsed in parallel. */
+  private static final int ROWS = 100000;
+
+  /** The row of the generated input which has an additional column. */
+  private static final int INVALID_ROW = 77777;
+
+  private static DelimitedReader reader(String csv, long rowLimit) {
+    return reader(new StringReader(csv), rowLimit);
+  }
+
+  private static DelimitedReader reader(Reader input, long rowLimit) {
+    TypeInferringParser valueParser =
+        new TypeInferringParser(
+            new IncrementalDatatypeParser[] {new IntegerParser(null, true)},
+            new QuoteStrippingParser("\""));
+    return new DelimitedReader(
+        input,
+        ",",
+        "\"",
+        "\"",
+        DelimitedReader.HeaderBehavior.USE_FIRST_ROW_AS_HEADERS,
+        0,
+        rowLimit,
+        4096,
+        valueParser,
+        null,
+        true,
+        false);
+  }
+
+  @Test
+  public void inferTypesOnlyFromRowsWithinLimit() {
+    int rows = 200000;
+    StringBuilder csv = new StringBuilder("a\n");
+    for (int i = 0; i < rows; i++) {
+      csv.append(i).append('\n');
+    }
+    csv.append("x\n");
+
+    Table table = reader(csv.toString(), rows).read().value();
+
+    assertEquals(rows, table.rowCount());
+    Storage storage = table.getColumns()[0].getStorage();
+    assertEquals(Storage.Type.LONG, storage.getType());
+    assertEquals((long) rows - 1, storage.getItemBoxed(rows - 1));
+  }
+
+  @Test
+  public void inferTextTypeFromRowsWithinLimit() {
+    int rows = 200000;
+    StringBuilder csv = new StringBuilder("a\n");
+    for (int i = 0; i < rows; i++) {
+      csv.append(i).append('\n');
+    }
+    csv.append("x\n");
+
+    Table table = reader(csv.toString(), rows + 1).read().value();
+
+    assertEquals(rows + 1, table.rowCount());
+    Storage storage = table.getColumns()[0].getStorage();
+    assertEquals(Storage.Type.STRING, storage.getType());
+    assertEquals("x", storage.getItemBoxed(rows));
+  }
+
+  private static String text(int row) {
+    return row % 3 == 0 ? "multi\nline, \"" + row + "\"" : "za\u017c\u00f3\u0142\u0107 " + row;
+  }
+
+  /**
+   * Generates rows with an integer and a text column, where some texts are quoted and span several
+   * lines, and one row has an additional column.
+   */
+  private static String generateCsv() {
+    StringBuilder csv = new StringBuilder("number,text\n");
+    for (int i = 0; i < ROWS; i++) {
+      csv.append(i).append(',');
+      String text = text(i);
+      if (text.contains("\n")) {
+        csv.append('"').append(text.replace("\"", "\"\"")).append('"');
+      } else {
+        csv.append(text);
+      }
+      if (i == INVALID_ROW) {
+        csv.append(",extra");
+      }
+      csv.append('\n');
+    }
+    return csv.toString();
+  }
+
+  private static int lineOfRow(String csv, int row) {
+    String prefix = csv.substring(0, csv.indexOf("\n" + row + ",") + 1);
+    return (int) prefix.chars().filter(c -> c == '\n').count() + 1;
+  }
+
+  private static void assertGeneratedTable(String csv, WithProblems<Table> result) {
+    Table table = result.value();
+    assertEquals(ROWS, table.rowCount());
+    assertEquals(2, table.getColumns().length);
+    Storage numbers = table.getColumnByName("number").getStorage();
+    Storage texts = table.getColumnByName("text").getStorage();
+    assertEquals(Storage.Type.LONG, numbers.getType());
+    for (int i = 0; i < ROWS; i++) {
+      assertEquals((long) i, numbers.getItemBoxed(i));
+      assertEquals(text(i), texts.getItemBoxed(i));
+    }
+
+    List<Problem> problems = result.problems();
+    assertEquals(1, problems.size());
+    InvalidRow invalidRow = (InvalidRow) problems.get(0);
+    assertEquals(lineOfRow(csv, INVALID_ROW), invalidRow.source_row());
+    assertEquals(Long.valueOf(INVALID_ROW), invalidRow.table_index());
+    assertArrayEquals(
+        new String[] {String.valueOf(INVALID_ROW), text(INVALID_ROW), "extra"}, invalidRow.row());
+  }
+
+  @Test
+  public void readChunksInParallelInOrder() {
+    String csv = generateCsv();
+
+    assertGeneratedTable(csv, reader(csv, -1).read());
+  }
+
+  @Test
+  public void readMappedFile() throws IOException {
+    String csv = generateCsv();
+    File file = File.createTempFile("delimited-reader-test", ".csv");
+    file.deleteOnExit();
+    Files.writeString(file.toPath(), csv, StandardCharsets.UTF_8);
+    assertTrue(MappedFileReader.shouldMap(file.getPath(), StandardCharsets.UTF_8));
+
+    WithProblems<Table> result;
+    try (var input = new MappedFileReader(file.getPath(), StandardCharsets.UTF_8)) {
+      result = reader(input, -1).read();
+    }
+
+    assertGeneratedTable(csv, result);
+  }
+
+  @Test
+  public void stopParallelReadingAtTheRowLimit() {
+    String csv = generateCsv();
+
+    Table table = reader(csv, 70000).read().value();
+
+    assertEquals(70000, table.rowCount());
+    assertEquals(69999L, table.getColumnByName("number").getStorage().getItemBoxed(69999));
+  }
+}